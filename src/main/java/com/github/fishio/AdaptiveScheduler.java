@@ -0,0 +1,401 @@
+package com.github.fishio;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures how long ticks and frames take, and lowers the quality of the
+ * game when the machine cannot keep up.<br>
+ * <br>
+ * The game thread and the render thread are loaded separately, so the
+ * quality is lowered separately for both:
+ * <ul>
+ * <li>When ticks take too long, the detail of the simulation is lowered
+ * one {@link Level} at a time: first the collision quality, then the AI
+ * update rate.</li>
+ * <li>When frames take too long, only every other frame is rendered (see
+ * {@link #isReducedFps()}). The render load is the cost of a frame times
+ * the fraction of frames that are actually rendered, so it drops when
+ * frames are skipped.</li>
+ * </ul>
+ * Lowering the quality is done quickly, but raising it again only happens
+ * after the load has been low for a while, to prevent switching back and
+ * forth. The framerate is only raised again when the frames would also fit
+ * in the budget if all of them were rendered.<br>
+ * <br>
+ * When the frames are too slow, and the resolution can still be lowered
+ * (see {@link #setRenderHeadroom(BooleanSupplier)}), the framerate is
+ * held: the {@link ResolutionScaler} reacts to the frame times first, so
+ * both do not lower the quality for the same slow frames.<br>
+ * <br>
+ * The simulation always runs with a fixed timestep, so lowering the quality
+ * never changes how fast the game time passes.<br>
+ * <br>
+ * Ticks are recorded by the game thread, frames by the render thread. The
+ * level is only changed by the game thread and the framerate only by the
+ * render thread, but both can be read from any thread.
+ */
+public class AdaptiveScheduler {
+	/**
+	 * The weight of a new measurement in the moving averages.
+	 */
+	public static final double SMOOTHING = 0.1;
+
+	/**
+	 * The load (fraction of the budget used) above which the quality is
+	 * lowered.
+	 */
+	public static final double HIGH_LOAD = 0.85;
+
+	/**
+	 * The load (fraction of the budget used) below which the quality is
+	 * raised again.
+	 */
+	public static final double LOW_LOAD = 0.5;
+
+	/**
+	 * The amount of overloaded ticks (or frames, for the framerate) in a row
+	 * after which the quality is lowered.
+	 */
+	public static final int DEGRADE_TICKS = 30;
+
+	/**
+	 * The amount of ticks (or frames, for the framerate) with a low load in
+	 * a row after which the quality is raised.
+	 */
+	public static final int RECOVER_TICKS = 180;
+
+	/**
+	 * The levels of detail of the simulation, from full detail to lowest
+	 * detail.
+	 */
+	public enum Level {
+		/**
+		 * Full detail.
+		 */
+		NONE,
+
+		/**
+		 * Collisions are only checked with the bounding boxes.
+		 */
+		SIMPLE_COLLISIONS,
+
+		/**
+		 * Also, the AI of enemies is only updated every other tick.
+		 */
+		REDUCED_AI;
+	}
+
+	private final long tickBudget;
+	private volatile long frameBudget;
+
+	private volatile double tickCost;
+	private volatile double frameCost;
+	private volatile double renderedFraction = 1.0;
+	private volatile Level level = Level.NONE;
+	private volatile boolean reducedFps;
+	private volatile BooleanSupplier renderHeadroom = () -> false;
+
+	private int overloadedTicks;
+	private int idleTicks;
+	private volatile long levelChanges;
+
+	private int overloadedFrames;
+	private int idleFrames;
+	private volatile long fpsChanges;
+
+	private long frameCount;
+	private volatile long skippedFrames;
+	private volatile boolean skipNextFrame;
+
+	/**
+	 * Creates a new AdaptiveScheduler.
+	 *
+	 * @param tickBudget
+	 * 		the time available for a single tick, in nanoseconds.
+	 * @param frameBudget
+	 * 		the time available for a single frame, in nanoseconds.
+	 */
+	public AdaptiveScheduler(long tickBudget, long frameBudget) {
+		if (tickBudget <= 0 || frameBudget <= 0) {
+			throw new IllegalArgumentException("The budgets must be positive!");
+		}
+
+		this.tickBudget = tickBudget;
+		this.frameBudget = frameBudget;
+	}
+
+	/**
+	 * Records how long a tick took, and updates the level.<br>
+	 * <br>
+	 * Should only be called by the game thread.
+	 *
+	 * @param nanos
+	 * 		the duration of the tick, in nanoseconds.
+	 */
+	public void recordTick(long nanos) {
+		tickCost = average(tickCost, nanos);
+		updateLevel();
+	}
+
+	/**
+	 * Records how long rendering a frame took.<br>
+	 * <br>
+	 * Should only be called by the render thread. If the frame took longer
+	 * than the frame budget, the next frame is skipped to let the render
+	 * thread catch up.
+	 *
+	 * @param nanos
+	 * 		the duration of the frame, in nanoseconds.
+	 */
+	public void recordFrame(long nanos) {
+		frameCost = average(frameCost, nanos);
+		if (nanos > frameBudget) {
+			skipNextFrame = true;
+		}
+	}
+
+	/**
+	 * Determines if the render thread should render the current frame, and
+	 * updates the framerate.<br>
+	 * <br>
+	 * Should be called by the render thread once for every frame. Frames
+	 * that are not rendered are counted as skipped.
+	 *
+	 * @return
+	 * 		<code>true</code> if the frame should be rendered,
+	 * 		<code>false</code> if it should be skipped.
+	 */
+	public boolean shouldRender() {
+		frameCount++;
+
+		boolean skip = skipNextFrame;
+		skipNextFrame = false;
+		if (!skip && reducedFps) {
+			skip = frameCount % 2 != 0;
+		}
+
+		if (skip) {
+			skippedFrames++;
+			renderedFraction = average(renderedFraction, 0);
+		} else {
+			renderedFraction = average(renderedFraction, 1);
+		}
+
+		updateFps();
+		return !skip;
+	}
+
+	/**
+	 * Updates the level, based on the load of the ticks.
+	 */
+	private void updateLevel() {
+		double load = getTickLoad();
+		if (load > HIGH_LOAD) {
+			idleTicks = 0;
+			overloadedTicks++;
+			if (overloadedTicks >= DEGRADE_TICKS && level.ordinal() < Level.values().length - 1) {
+				setLevel(Level.values()[level.ordinal() + 1]);
+				overloadedTicks = 0;
+			}
+		} else if (load < LOW_LOAD) {
+			overloadedTicks = 0;
+			idleTicks++;
+			if (idleTicks >= RECOVER_TICKS && level.ordinal() > 0) {
+				setLevel(Level.values()[level.ordinal() - 1]);
+				idleTicks = 0;
+			}
+		} else {
+			overloadedTicks = 0;
+			idleTicks = 0;
+		}
+	}
+
+	/**
+	 * Updates the framerate, based on the load of the frames.
+	 */
+	private void updateFps() {
+		if (getRenderLoad() > HIGH_LOAD && !reducedFps && !renderHeadroom.getAsBoolean()) {
+			idleFrames = 0;
+			overloadedFrames++;
+			if (overloadedFrames >= DEGRADE_TICKS) {
+				setReducedFps(true);
+			}
+		} else if (reducedFps && frameCost / frameBudget < LOW_LOAD) {
+			//The frames would also fit in the budget if all of them were rendered.
+			overloadedFrames = 0;
+			idleFrames++;
+			if (idleFrames >= RECOVER_TICKS) {
+				setReducedFps(false);
+			}
+		} else {
+			overloadedFrames = 0;
+			idleFrames = 0;
+		}
+	}
+
+	/**
+	 * Calculates a new exponential moving average.
+	 *
+	 * @param avg
+	 * 		the current average.
+	 * @param value
+	 * 		the new value.
+	 *
+	 * @return
+	 * 		the new average.
+	 */
+	private static double average(double avg, double value) {
+		return avg + SMOOTHING * (value - avg);
+	}
+
+	/**
+	 * @return
+	 * 		the fraction of the tick budget that is used, on average. Above 1
+	 * 		means the budget is exceeded.
+	 */
+	public double getTickLoad() {
+		return tickCost / tickBudget;
+	}
+
+	/**
+	 * Gives back the fraction of the time of the render thread that is used
+	 * for rendering, on average: the cost of a rendered frame, scaled by
+	 * the fraction of the frames that are rendered.
+	 *
+	 * @return
+	 * 		the render load. Above 1 means the budget is exceeded.
+	 */
+	public double getRenderLoad() {
+		return frameCost * renderedFraction / frameBudget;
+	}
+
+	/**
+	 * @return
+	 * 		the current level of detail of the simulation.
+	 */
+	public Level getLevel() {
+		return level;
+	}
+
+	/**
+	 * Sets the level of detail of the simulation.
+	 *
+	 * @param level
+	 * 		the new level.
+	 */
+	public void setLevel(Level level) {
+		if (this.level != level) {
+			this.level = level;
+			levelChanges++;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		if only every other frame is rendered.
+	 */
+	public boolean isReducedFps() {
+		return reducedFps;
+	}
+
+	/**
+	 * Sets if only every other frame is rendered.
+	 *
+	 * @param reducedFps
+	 * 		<code>true</code> to render every other frame.
+	 */
+	public void setReducedFps(boolean reducedFps) {
+		if (this.reducedFps != reducedFps) {
+			this.reducedFps = reducedFps;
+			fpsChanges++;
+		}
+		overloadedFrames = 0;
+		idleFrames = 0;
+	}
+
+	/**
+	 * Sets the check if the cost of frames can still be lowered by drawing
+	 * at a lower resolution. While it holds, slow frames do not lower the
+	 * framerate.
+	 *
+	 * @param renderHeadroom
+	 * 		gives <code>true</code> while the resolution can be lowered.
+	 */
+	public void setRenderHeadroom(BooleanSupplier renderHeadroom) {
+		this.renderHeadroom = renderHeadroom;
+	}
+
+	/**
+	 * Sets the time available for a single frame, e.g. when the framerate
+	 * changes.
+	 *
+	 * @param frameBudget
+	 * 		the new frame budget, in nanoseconds.
+	 */
+	public void setFrameBudget(long frameBudget) {
+		if (frameBudget <= 0) {
+			throw new IllegalArgumentException("The budget must be positive!");
+		}
+
+		this.frameBudget = frameBudget;
+	}
+
+	/**
+	 * @return
+	 * 		if collisions should only be checked with the bounding boxes.
+	 */
+	public boolean isSimpleCollisions() {
+		return level.compareTo(Level.SIMPLE_COLLISIONS) >= 0;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of ticks between two AI updates of an enemy.
+	 */
+	public int getAiInterval() {
+		if (level.compareTo(Level.REDUCED_AI) >= 0) {
+			return 2;
+		}
+		return 1;
+	}
+
+	/**
+	 * @return
+	 * 		the average duration of a tick, in nanoseconds.
+	 */
+	public double getTickCost() {
+		return tickCost;
+	}
+
+	/**
+	 * @return
+	 * 		the average duration of rendering a frame, in nanoseconds.
+	 */
+	public double getFrameCost() {
+		return frameCost;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of frames that were skipped.
+	 */
+	public long getSkippedFrames() {
+		return skippedFrames;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times the level of the simulation has changed.
+	 */
+	public long getLevelChanges() {
+		return levelChanges;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times the framerate has changed.
+	 */
+	public long getFpsChanges() {
+		return fpsChanges;
+	}
+}
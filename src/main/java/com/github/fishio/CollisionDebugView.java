@@ -0,0 +1,355 @@
+package com.github.fishio;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws what the collision checks see, on top of a frame: the collision
+ * masks of all sprites, the cells of the broadphase grid, and lines
+ * between the pairs that were checked (red if they collide).<br>
+ * <br>
+ * A mask is rasterized into an overlay image the first time it is drawn
+ * with a certain size and rotation, exactly like
+ * {@link CollisionMask#getMask()} places its pixels. The overlay is then
+ * drawn as a single image every frame, until the size or rotation
+ * changes. The least recently used overlays are removed when there are
+ * more than {@link #MAX_OVERLAYS}.<br>
+ * <br>
+ * This should only be used on the render thread.
+ */
+public class CollisionDebugView {
+	/**
+	 * The maximal amount of cached overlays.
+	 */
+	public static final int MAX_OVERLAYS = 256;
+
+	/**
+	 * The color of the pixels of the masks, as non-premultiplied ARGB.
+	 */
+	public static final int MASK_COLOR = 0x80FF00FF;
+
+	private static final double EPSILON = 1E-9;
+
+	private final IdentityHashMap<Image, boolean[][]> masks = new IdentityHashMap<>();
+	private final LinkedHashMap<Key, Overlay> overlays = new LinkedHashMap<Key, Overlay>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Overlay> eldest) {
+			return size() > MAX_OVERLAYS;
+		}
+	};
+	private final Key probe = new Key(null, 0, 0, 0);
+	private final double[] bounds = new double[4];
+	private long rasterized;
+
+	/**
+	 * Draws the debug view of a frame.
+	 *
+	 * @param gc
+	 * 		the graphicscontext to draw on.
+	 * @param frame
+	 * 		the render commands of the frame, with their debug shapes.
+	 * @param alpha
+	 * 		how far we are into the next tick.
+	 */
+	public void draw(GraphicsContext gc, RenderCommandBuffer frame, double alpha) {
+		DebugShapes shapes = frame.getDebugShapes();
+		gc.setLineWidth(1);
+
+		//The cells of the broadphase grid.
+		gc.setStroke(Color.color(1, 1, 1, 0.4));
+		double[] rects = shapes.getRects();
+		for (int i = 0; i < shapes.getRectCount(); i++) {
+			int o = 4 * i;
+			gc.strokeRect(rects[o], rects[o + 1], rects[o + 2], rects[o + 3]);
+		}
+
+		//The masks, or the bounds of sprites without a mask.
+		for (int i = 0; i < frame.size(); i++) {
+			Image sprite = frame.getSprite(i);
+			double cx = frame.getX(i, alpha);
+			double cy = frame.getY(i, alpha);
+			Overlay overlay = null;
+			if (sprite != null) {
+				overlay = getOverlay(sprite, frame.getWidth(i), frame.getHeight(i), frame.getRotation(i));
+			}
+
+			if (overlay == null) {
+				gc.setStroke(Color.FUCHSIA);
+				frame.getBounds(i, alpha, bounds, 0);
+				gc.strokeRect(bounds[0], bounds[1], bounds[2] - bounds[0], bounds[3] - bounds[1]);
+			} else if (overlay.image != null) {
+				gc.drawImage(overlay.image, Math.floor(cx) + overlay.x, Math.floor(cy) + overlay.y);
+			}
+		}
+
+		//The pairs that were checked for collisions.
+		double[] lines = shapes.getLines();
+		for (int i = 0; i < shapes.getLineCount(); i++) {
+			int o = 4 * i;
+			gc.setStroke(Color.YELLOW);
+			if (shapes.isHit(i)) {
+				gc.setStroke(Color.RED);
+			}
+			gc.strokeLine(lines[o], lines[o + 1], lines[o + 2], lines[o + 3]);
+		}
+	}
+
+	/**
+	 * Gives back the overlay of the mask of a sprite with the given size
+	 * and rotation, rasterizing it if it is not cached.
+	 *
+	 * @param sprite
+	 * 		the sprite.
+	 * @param width
+	 * 		the width the sprite is drawn with.
+	 * @param height
+	 * 		the height the sprite is drawn with.
+	 * @param rotation
+	 * 		the rotation of the sprite in degrees.
+	 *
+	 * @return
+	 * 		the overlay, or <code>null</code> if the sprite has no mask.
+	 */
+	private Overlay getOverlay(Image sprite, double width, double height, double rotation) {
+		int w = (int) Math.round(width);
+		int h = (int) Math.round(height);
+		//Look up with the probe, so a key is only allocated for a new overlay.
+		probe.set(sprite, w, h, rotation);
+		Overlay overlay = overlays.get(probe);
+		probe.set(null, 0, 0, 0);
+		if (overlay != null) {
+			return overlay;
+		}
+
+		boolean[][] data = masks.get(sprite);
+		if (data == null) {
+			if (sprite.getPixelReader() == null || sprite.getWidth() < 1 || sprite.getHeight() < 1) {
+				return null;
+			}
+			data = CollisionMask.buildData(sprite);
+			masks.put(sprite, data);
+		}
+
+		int[] box = new int[4];
+		int[] pixels = rasterize(data, w, h, rotation, MASK_COLOR, box);
+		WritableImage image = null;
+		if (box[2] > 0 && box[3] > 0) {
+			image = new WritableImage(box[2], box[3]);
+			image.getPixelWriter().setPixels(0, 0, box[2], box[3], PixelFormat.getIntArgbInstance(), pixels, 0,
+					box[2]);
+		}
+
+		overlay = new Overlay(image, box[0], box[1]);
+		overlays.put(new Key(sprite, w, h, rotation), overlay);
+		rasterized++;
+		return overlay;
+	}
+
+	/**
+	 * Rasterizes a collision mask with the given size and rotation, placing
+	 * the pixels exactly like {@link CollisionMask#getMask()} does, relative
+	 * to the center.
+	 *
+	 * @param data
+	 * 		the collision data of the sprite.
+	 * @param width
+	 * 		the width of the mask.
+	 * @param height
+	 * 		the height of the mask.
+	 * @param rotation
+	 * 		the rotation of the mask in degrees.
+	 * @param color
+	 * 		the color of the pixels of the mask.
+	 * @param box
+	 * 		the array to write the offset of the result to the center (x and
+	 * 		y) and its width and height to.
+	 *
+	 * @return
+	 * 		the pixels of the result, row by row. The pixels that are not in
+	 * 		the mask are 0.
+	 */
+	public static int[] rasterize(boolean[][] data, int width, int height, double rotation, int color,
+			int[] box) {
+		double cosa = Math.cos(Math.toRadians(360 - rotation));
+		double sina = Math.sin(Math.toRadians(360 - rotation));
+
+		//Collect the pixels and their bounds first, then fill them in.
+		int[] xs = new int[width * height];
+		int[] ys = new int[width * height];
+		int count = 0;
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				int datax = (int) (x * ((double) data.length / width));
+				int datay = (int) (y * ((double) data[0].length / height));
+				if (!data[datax][datay]) {
+					continue;
+				}
+
+				int lx = (int) (x - width * 0.5);
+				int ly = (int) (y - height * 0.5);
+				//getMask adds the center first, which hides rounding errors like sin(360) not being 0.
+				int px = (int) Math.floor(cosa * lx - sina * ly + EPSILON);
+				int py = (int) Math.floor(sina * lx + cosa * ly + EPSILON);
+				xs[count] = px;
+				ys[count] = py;
+				count++;
+				minX = Math.min(minX, px);
+				minY = Math.min(minY, py);
+				maxX = Math.max(maxX, px);
+				maxY = Math.max(maxY, py);
+			}
+		}
+
+		if (count == 0) {
+			box[0] = 0;
+			box[1] = 0;
+			box[2] = 0;
+			box[3] = 0;
+			return new int[0];
+		}
+
+		int w = maxX - minX + 1;
+		int h = maxY - minY + 1;
+		int[] res = new int[w * h];
+		for (int i = 0; i < count; i++) {
+			res[(ys[i] - minY) * w + xs[i] - minX] = color;
+		}
+
+		box[0] = minX;
+		box[1] = minY;
+		box[2] = w;
+		box[3] = h;
+		return res;
+	}
+
+	/**
+	 * Removes all cached overlays and masks.
+	 */
+	public void clear() {
+		overlays.clear();
+		masks.clear();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of cached overlays.
+	 */
+	public int size() {
+		return overlays.size();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of overlays that were rasterized so far.
+	 */
+	public long getRasterizedCount() {
+		return rasterized;
+	}
+
+	/**
+	 * A rasterized mask, with its offset to the center.
+	 */
+	private static final class Overlay {
+		private final Image image;
+		private final int x;
+		private final int y;
+
+		/**
+		 * Creates a new Overlay.
+		 *
+		 * @param image
+		 * 		the image, or <code>null</code> if the mask is empty.
+		 * @param x
+		 * 		the x offset of the image to the center.
+		 * @param y
+		 * 		the y offset of the image to the center.
+		 */
+		private Overlay(Image image, int x, int y) {
+			this.image = image;
+			this.x = x;
+			this.y = y;
+		}
+	}
+
+	/**
+	 * The key of an overlay: the sprite (by identity), the size and the
+	 * rotation.<br>
+	 * <br>
+	 * Only the probe used for lookups is ever changed, the keys in the cache
+	 * never change.
+	 */
+	private static final class Key {
+		private Image sprite;
+		private int width;
+		private int height;
+		private double rotation;
+
+		/**
+		 * Creates a new Key.
+		 *
+		 * @param sprite
+		 * 		the sprite.
+		 * @param width
+		 * 		the width of the mask.
+		 * @param height
+		 * 		the height of the mask.
+		 * @param rotation
+		 * 		the rotation of the mask.
+		 */
+		private Key(Image sprite, int width, int height, double rotation) {
+			set(sprite, width, height, rotation);
+		}
+
+		/**
+		 * Changes this key.
+		 *
+		 * @param sprite
+		 * 		the sprite.
+		 * @param width
+		 * 		the width of the mask.
+		 * @param height
+		 * 		the height of the mask.
+		 * @param rotation
+		 * 		the rotation of the mask.
+		 */
+		private void set(Image sprite, int width, int height, double rotation) {
+			this.sprite = sprite;
+			this.width = width;
+			this.height = height;
+			this.rotation = rotation;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+			return sprite == other.sprite && width == other.width && height == other.height
+					&& Double.compare(rotation, other.rotation) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode(sprite);
+			hash = 31 * hash + width;
+			hash = 31 * hash + height;
+			hash = 31 * hash + Double.hashCode(rotation);
+			return hash;
+		}
+	}
+}
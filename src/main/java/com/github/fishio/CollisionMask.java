@@ -1,5 +1,6 @@
 package com.github.fishio;
 
+import java.awt.image.BufferedImage;
 import java.util.HashSet;
 
 import javafx.scene.image.Image;
@@ -70,6 +71,25 @@ public class CollisionMask implements ICollisionArea {
 		return res;
 	}
 	
+	/**
+	 * Build the data used for checking collisions, from an image that was
+	 * loaded without JavaFX.
+	 * 
+	 * @param img
+	 *            The image to build the data from.
+	 * 
+	 * @return The generated data set.
+	 */
+	public static boolean[][] buildData(BufferedImage img) {
+		boolean[][] res = new boolean[img.getWidth()][img.getHeight()];
+		for (int y = 0; y < img.getHeight(); y++) {
+			for (int x = 0; x < img.getWidth(); x++) {
+				res[x][y] = (img.getRGB(x, y) >>> 24) > 127;
+			}
+		}
+		return res;
+	}
+	
 	/**
 	 * Calculate the relSize.
 	 * 
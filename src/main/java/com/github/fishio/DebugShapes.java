@@ -0,0 +1,148 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+
+/**
+ * Lines and rectangles to draw for debugging, stored in primitive arrays
+ * that are reused.<br>
+ * <br>
+ * They are collected by the game thread (e.g. the cells of the broadphase
+ * grid and the pairs that were checked for collisions), and handed to the
+ * render thread with the render commands.
+ */
+public final class DebugShapes {
+	private double[] lines = new double[0];
+	private boolean[] hits = new boolean[0];
+	private int lineCount;
+	private double[] rects = new double[0];
+	private int rectCount;
+
+	/**
+	 * Removes all lines and rectangles.
+	 */
+	public void clear() {
+		lineCount = 0;
+		rectCount = 0;
+	}
+
+	/**
+	 * Adds a line.
+	 *
+	 * @param x1
+	 * 		the x coordinate of the start.
+	 * @param y1
+	 * 		the y coordinate of the start.
+	 * @param x2
+	 * 		the x coordinate of the end.
+	 * @param y2
+	 * 		the y coordinate of the end.
+	 * @param hit
+	 * 		if the line should be highlighted, e.g. because the pair collides.
+	 */
+	public void addLine(double x1, double y1, double x2, double y2, boolean hit) {
+		if (lineCount == hits.length) {
+			hits = Arrays.copyOf(hits, Math.max(16, 2 * lineCount));
+			lines = Arrays.copyOf(lines, 4 * hits.length);
+		}
+
+		int o = 4 * lineCount;
+		lines[o] = x1;
+		lines[o + 1] = y1;
+		lines[o + 2] = x2;
+		lines[o + 3] = y2;
+		hits[lineCount] = hit;
+		lineCount++;
+	}
+
+	/**
+	 * Adds a rectangle.
+	 *
+	 * @param x
+	 * 		the minimal x coordinate.
+	 * @param y
+	 * 		the minimal y coordinate.
+	 * @param width
+	 * 		the width.
+	 * @param height
+	 * 		the height.
+	 */
+	public void addRect(double x, double y, double width, double height) {
+		if (4 * rectCount == rects.length) {
+			rects = Arrays.copyOf(rects, Math.max(64, 2 * rects.length));
+		}
+
+		int o = 4 * rectCount;
+		rects[o] = x;
+		rects[o + 1] = y;
+		rects[o + 2] = width;
+		rects[o + 3] = height;
+		rectCount++;
+	}
+
+	/**
+	 * Makes these shapes an exact copy of the given shapes.
+	 *
+	 * @param other
+	 * 		the shapes to copy.
+	 */
+	public void copyFrom(DebugShapes other) {
+		if (hits.length < other.lineCount) {
+			hits = new boolean[other.hits.length];
+			lines = new double[other.lines.length];
+		}
+		if (rects.length < 4 * other.rectCount) {
+			rects = new double[other.rects.length];
+		}
+
+		lineCount = other.lineCount;
+		rectCount = other.rectCount;
+		System.arraycopy(other.lines, 0, lines, 0, 4 * lineCount);
+		System.arraycopy(other.hits, 0, hits, 0, lineCount);
+		System.arraycopy(other.rects, 0, rects, 0, 4 * rectCount);
+	}
+
+	/**
+	 * @return
+	 * 		the amount of lines.
+	 */
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @return
+	 * 		the coordinates of the lines: x1, y1, x2 and y2 of every line.
+	 * 		The array may be longer than the lines.
+	 */
+	public double[] getLines() {
+		return lines;
+	}
+
+	/**
+	 * @param i
+	 * 		the index of a line.
+	 *
+	 * @return
+	 * 		if the line should be highlighted.
+	 */
+	public boolean isHit(int i) {
+		return hits[i];
+	}
+
+	/**
+	 * @return
+	 * 		the amount of rectangles.
+	 */
+	public int getRectCount() {
+		return rectCount;
+	}
+
+	/**
+	 * @return
+	 * 		the rectangles: x, y, width and height of every rectangle. The
+	 * 		array may be longer than the rectangles.
+	 */
+	public double[] getRects() {
+		return rects;
+	}
+}
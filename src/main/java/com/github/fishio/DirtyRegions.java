@@ -0,0 +1,293 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+
+/**
+ * A small set of rectangles on the screen that have to be redrawn.<br>
+ * <br>
+ * Added rectangles are clipped to the screen and rounded outwards to whole
+ * pixels. Rectangles that overlap or touch are merged. When there are more
+ * than the maximum amount of rectangles, the two rectangles that waste the
+ * least area when merged are merged, so the amount of rectangles (and
+ * with that the cost of clipping to them) stays small.
+ */
+public class DirtyRegions {
+	/**
+	 * The default maximum amount of rectangles.
+	 */
+	public static final int DEFAULT_MAX_REGIONS = 16;
+
+	private final double width;
+	private final double height;
+	private final int maxRegions;
+
+	//minx, miny, maxx, maxy of every rectangle.
+	private double[] rects;
+	private int count;
+
+	/**
+	 * Creates a new DirtyRegions with the default maximum amount of
+	 * rectangles.
+	 *
+	 * @param width
+	 * 		the width of the screen.
+	 * @param height
+	 * 		the height of the screen.
+	 */
+	public DirtyRegions(double width, double height) {
+		this(width, height, DEFAULT_MAX_REGIONS);
+	}
+
+	/**
+	 * Creates a new DirtyRegions.
+	 *
+	 * @param width
+	 * 		the width of the screen.
+	 * @param height
+	 * 		the height of the screen.
+	 * @param maxRegions
+	 * 		the maximum amount of rectangles.
+	 */
+	public DirtyRegions(double width, double height, int maxRegions) {
+		if (maxRegions <= 0) {
+			throw new IllegalArgumentException("There must be at least one region!");
+		}
+
+		this.width = width;
+		this.height = height;
+		this.maxRegions = maxRegions;
+		this.rects = new double[4 * (maxRegions + 1)];
+	}
+
+	/**
+	 * Marks a rectangle as dirty.
+	 *
+	 * @param minx
+	 * 		the minimal x coordinate.
+	 * @param miny
+	 * 		the minimal y coordinate.
+	 * @param maxx
+	 * 		the maximal x coordinate.
+	 * @param maxy
+	 * 		the maximal y coordinate.
+	 */
+	public void add(double minx, double miny, double maxx, double maxy) {
+		double x1 = Math.max(0, Math.floor(minx));
+		double y1 = Math.max(0, Math.floor(miny));
+		double x2 = Math.min(width, Math.ceil(maxx));
+		double y2 = Math.min(height, Math.ceil(maxy));
+		if (x1 >= x2 || y1 >= y2) {
+			return;
+		}
+
+		//Merge with every rectangle it overlaps, until it overlaps none.
+		int i = 0;
+		while (i < count) {
+			int o = 4 * i;
+			if (x1 <= rects[o + 2] && rects[o] <= x2 && y1 <= rects[o + 3] && rects[o + 1] <= y2) {
+				x1 = Math.min(x1, rects[o]);
+				y1 = Math.min(y1, rects[o + 1]);
+				x2 = Math.max(x2, rects[o + 2]);
+				y2 = Math.max(y2, rects[o + 3]);
+				removeAt(i);
+				i = 0;
+			} else {
+				i++;
+			}
+		}
+
+		int o = 4 * count;
+		rects[o] = x1;
+		rects[o + 1] = y1;
+		rects[o + 2] = x2;
+		rects[o + 3] = y2;
+		count++;
+
+		if (count > maxRegions) {
+			mergeCheapest();
+		}
+	}
+
+	/**
+	 * Merges the two rectangles whose union has the least area that is
+	 * not in either of them.
+	 */
+	private void mergeCheapest() {
+		int bestA = 0;
+		int bestB = 1;
+		double bestWaste = Double.MAX_VALUE;
+		for (int a = 0; a < count; a++) {
+			for (int b = a + 1; b < count; b++) {
+				double waste = unionArea(a, b) - area(a) - area(b);
+				if (waste < bestWaste) {
+					bestWaste = waste;
+					bestA = a;
+					bestB = b;
+				}
+			}
+		}
+
+		int oa = 4 * bestA;
+		int ob = 4 * bestB;
+		double x1 = Math.min(rects[oa], rects[ob]);
+		double y1 = Math.min(rects[oa + 1], rects[ob + 1]);
+		double x2 = Math.max(rects[oa + 2], rects[ob + 2]);
+		double y2 = Math.max(rects[oa + 3], rects[ob + 3]);
+
+		//Remove the later one first, so the index of the first stays valid.
+		removeAt(bestB);
+		removeAt(bestA);
+
+		//The union may overlap other rectangles now.
+		add(x1, y1, x2, y2);
+	}
+
+	/**
+	 * Removes a rectangle, by moving the last rectangle in its place.
+	 *
+	 * @param i
+	 * 		the index of the rectangle.
+	 */
+	private void removeAt(int i) {
+		count--;
+		System.arraycopy(rects, 4 * count, rects, 4 * i, 4);
+	}
+
+	/**
+	 * @param i
+	 * 		the index of a rectangle.
+	 *
+	 * @return
+	 * 		the area of the rectangle.
+	 */
+	private double area(int i) {
+		int o = 4 * i;
+		return (rects[o + 2] - rects[o]) * (rects[o + 3] - rects[o + 1]);
+	}
+
+	/**
+	 * @param a
+	 * 		the index of a rectangle.
+	 * @param b
+	 * 		the index of another rectangle.
+	 *
+	 * @return
+	 * 		the area of the bounding box of both rectangles.
+	 */
+	private double unionArea(int a, int b) {
+		int oa = 4 * a;
+		int ob = 4 * b;
+		double w = Math.max(rects[oa + 2], rects[ob + 2]) - Math.min(rects[oa], rects[ob]);
+		double h = Math.max(rects[oa + 3], rects[ob + 3]) - Math.min(rects[oa + 1], rects[ob + 1]);
+		return w * h;
+	}
+
+	/**
+	 * Checks if the given bounds overlap a dirty rectangle.
+	 *
+	 * @param minx
+	 * 		the minimal x coordinate.
+	 * @param miny
+	 * 		the minimal y coordinate.
+	 * @param maxx
+	 * 		the maximal x coordinate.
+	 * @param maxy
+	 * 		the maximal y coordinate.
+	 *
+	 * @return
+	 * 		<code>true</code> if the bounds overlap at least one rectangle.
+	 */
+	public boolean intersects(double minx, double miny, double maxx, double maxy) {
+		for (int i = 0; i < count; i++) {
+			int o = 4 * i;
+			if (minx < rects[o + 2] && rects[o] < maxx && miny < rects[o + 3] && rects[o + 1] < maxy) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all rectangles.
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of rectangles.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @return
+	 * 		if there are no dirty rectangles.
+	 */
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * @return
+	 * 		the total area of all rectangles. The rectangles never overlap.
+	 */
+	public double getArea() {
+		double res = 0;
+		for (int i = 0; i < count; i++) {
+			res += area(i);
+		}
+		return res;
+	}
+
+	/**
+	 * @param i
+	 * 		the index of a rectangle.
+	 *
+	 * @return
+	 * 		the minimal x coordinate of the rectangle.
+	 */
+	public double getMinX(int i) {
+		return rects[4 * i];
+	}
+
+	/**
+	 * @param i
+	 * 		the index of a rectangle.
+	 *
+	 * @return
+	 * 		the minimal y coordinate of the rectangle.
+	 */
+	public double getMinY(int i) {
+		return rects[4 * i + 1];
+	}
+
+	/**
+	 * @param i
+	 * 		the index of a rectangle.
+	 *
+	 * @return
+	 * 		the width of the rectangle.
+	 */
+	public double getWidth(int i) {
+		return rects[4 * i + 2] - rects[4 * i];
+	}
+
+	/**
+	 * @param i
+	 * 		the index of a rectangle.
+	 *
+	 * @return
+	 * 		the height of the rectangle.
+	 */
+	public double getHeight(int i) {
+		return rects[4 * i + 3] - rects[4 * i + 1];
+	}
+
+	@Override
+	public String toString() {
+		return "DirtyRegions" + Arrays.toString(Arrays.copyOf(rects, 4 * count));
+	}
+}
@@ -0,0 +1,247 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Keeps drawables in the order they should be drawn: by their depth (see
+ * {@link IDrawable#getDepth()}), and by the order they were added within
+ * the same depth, so that newer drawables are drawn on top.<br>
+ * <br>
+ * Every depth has a bucket, so adding and removing a drawable never
+ * sorts anything. Drawables whose depth has changed are moved to the end
+ * of their new bucket by {@link #update()}, which is a single pass over
+ * all drawables.<br>
+ * <br>
+ * The depths are: {@link #DEPTH_SCENERY}, then {@link #FISH_DEPTHS}
+ * depths for fish by size (larger fish are drawn over smaller ones), then
+ * {@link #DEPTH_HUD}.
+ */
+public final class DrawOrder {
+	/**
+	 * The depth of scenery, below all fish.
+	 */
+	public static final int DEPTH_SCENERY = 0;
+
+	/**
+	 * The depth of the smallest fish.
+	 */
+	public static final int DEPTH_FISH = 1;
+
+	/**
+	 * The amount of depths for fish. Every depth is for fish that are twice
+	 * as long (and four times as large) as the fish of the depth below.
+	 */
+	public static final int FISH_DEPTHS = 16;
+
+	/**
+	 * The depth of the HUD, above all fish.
+	 */
+	public static final int DEPTH_HUD = DEPTH_FISH + FISH_DEPTHS;
+
+	/**
+	 * The amount of depths.
+	 */
+	public static final int DEPTHS = DEPTH_HUD + 1;
+
+	private final ArrayList<ArrayList<IDrawable>> buckets = new ArrayList<>(DEPTHS);
+	private final IdentityHashMap<IDrawable, Integer> depths = new IdentityHashMap<>();
+	private final ArrayList<IDrawable> moved = new ArrayList<>();
+	private IDrawable[] ordered = new IDrawable[16];
+
+	/**
+	 * Creates a new, empty DrawOrder.
+	 */
+	public DrawOrder() {
+		for (int i = 0; i < DEPTHS; i++) {
+			buckets.add(new ArrayList<>());
+		}
+	}
+
+	/**
+	 * Gives back the depth of a fish of the given size.
+	 *
+	 * @param size
+	 * 		the size (area) of the fish.
+	 *
+	 * @return
+	 * 		the depth, between {@link #DEPTH_FISH} (inclusive) and
+	 * 		{@link #DEPTH_HUD} (exclusive).
+	 */
+	public static int fishDepth(double size) {
+		if (size <= 1) {
+			return DEPTH_FISH;
+		}
+
+		int depth = (int) (Math.log(size) / Math.log(2)) / 2;
+		return DEPTH_FISH + Math.min(depth, FISH_DEPTHS - 1);
+	}
+
+	/**
+	 * @param depth
+	 * 		a depth.
+	 *
+	 * @return
+	 * 		the depth, clamped to the valid depths.
+	 */
+	private static int clamp(int depth) {
+		return Math.max(0, Math.min(DEPTHS - 1, depth));
+	}
+
+	/**
+	 * Adds a drawable, on top of the other drawables with the same depth.
+	 * Adding a drawable that was added already does nothing.
+	 *
+	 * @param drawable
+	 * 		the drawable to add.
+	 */
+	public void add(IDrawable drawable) {
+		if (!depths.containsKey(drawable)) {
+			insert(drawable);
+		}
+	}
+
+	/**
+	 * Puts a drawable on top of the bucket of its depth.
+	 *
+	 * @param drawable
+	 * 		the drawable.
+	 */
+	private void insert(IDrawable drawable) {
+		int depth = clamp(drawable.getDepth());
+		buckets.get(depth).add(drawable);
+		depths.put(drawable, depth);
+	}
+
+	/**
+	 * Removes a drawable.
+	 *
+	 * @param drawable
+	 * 		the drawable to remove.
+	 *
+	 * @return
+	 * 		<code>true</code> if the drawable was removed,
+	 * 		<code>false</code> if it was not in this DrawOrder.
+	 */
+	public boolean remove(IDrawable drawable) {
+		Integer depth = depths.remove(drawable);
+		if (depth == null) {
+			return false;
+		}
+
+		return buckets.get(depth).remove(drawable);
+	}
+
+	/**
+	 * Moves all drawables whose depth has changed to their new depth, on
+	 * top of the drawables that are already there.
+	 *
+	 * @return
+	 * 		the amount of drawables that were moved.
+	 */
+	public int update() {
+		moved.clear();
+		for (int depth = 0; depth < DEPTHS; depth++) {
+			ArrayList<IDrawable> bucket = buckets.get(depth);
+
+			//Remove the moved drawables, keeping the others in order.
+			int to = 0;
+			for (int from = 0; from < bucket.size(); from++) {
+				IDrawable d = bucket.get(from);
+				if (clamp(d.getDepth()) != depth) {
+					moved.add(d);
+					continue;
+				}
+				bucket.set(to, d);
+				to++;
+			}
+			bucket.subList(to, bucket.size()).clear();
+		}
+
+		for (int i = 0; i < moved.size(); i++) {
+			insert(moved.get(i));
+		}
+		return moved.size();
+	}
+
+	/**
+	 * Removes all drawables.
+	 */
+	public void clear() {
+		for (int i = 0; i < DEPTHS; i++) {
+			buckets.get(i).clear();
+		}
+		depths.clear();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of drawables.
+	 */
+	public int size() {
+		return depths.size();
+	}
+
+	/**
+	 * @param depth
+	 * 		a depth.
+	 *
+	 * @return
+	 * 		the amount of drawables with the given depth.
+	 */
+	public int size(int depth) {
+		return buckets.get(depth).size();
+	}
+
+	/**
+	 * @return
+	 * 		all drawables, in the order they should be drawn.
+	 */
+	public IDrawable[] toArray() {
+		IDrawable[] res = new IDrawable[size()];
+		fill(res);
+		return res;
+	}
+
+	/**
+	 * Gives back all drawables, in the order they should be drawn, in an
+	 * array that is reused by the next call. The array only grows when
+	 * there are more drawables than ever before, so this does not allocate
+	 * every tick.
+	 *
+	 * @return
+	 * 		the drawables. Only the first {@link #size()} elements are valid,
+	 * 		the rest is <code>null</code>.
+	 */
+	public IDrawable[] getOrdered() {
+		int size = size();
+		if (ordered.length < size) {
+			ordered = new IDrawable[Math.max(size, 2 * ordered.length)];
+		}
+
+		fill(ordered);
+		//Do not keep removed drawables alive.
+		for (int i = size; i < ordered.length && ordered[i] != null; i++) {
+			ordered[i] = null;
+		}
+		return ordered;
+	}
+
+	/**
+	 * Puts all drawables in the given array, in the order they should be
+	 * drawn.
+	 *
+	 * @param res
+	 * 		the array, at least as long as the amount of drawables.
+	 */
+	private void fill(IDrawable[] res) {
+		int i = 0;
+		for (int depth = 0; depth < DEPTHS; depth++) {
+			ArrayList<IDrawable> bucket = buckets.get(depth);
+			for (int j = 0; j < bucket.size(); j++) {
+				res[i] = bucket.get(j);
+				i++;
+			}
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.github.fishio;
 
-import javafx.scene.canvas.GraphicsContext;
+import java.util.SplittableRandom;
+
 import javafx.scene.image.Image;
 
 /**
@@ -14,6 +15,7 @@ public class EnemyFish extends Entity implements IMovable {
 	private double vx;
 	private double vy;
 	private Image sprite;
+	private final SplittableRandom random;
 
 	/**
 	 * Main constructor of the enemy fish.
@@ -28,24 +30,43 @@ public class EnemyFish extends Entity implements IMovable {
 	 *            Starting speed of the enemy fish object in the y direction.
 	 */
 	public EnemyFish(ICollisionArea ca, Image sprite, double startvx, double startvy) {
+		this(ca, sprite, startvx, startvy, new SplittableRandom());
+	}
+
+	/**
+	 * Creates an enemy fish with its own random generator, for
+	 * deterministic behavior.
+	 * 
+	 * @param ca
+	 *            ICollisionArea of enemy fish object.
+	 * @param sprite
+	 *            Sprite of the enemy fish object.
+	 * @param startvx
+	 *            Starting speed of the enemy fish object in the x direction.
+	 * @param startvy
+	 *            Starting speed of the enemy fish object in the y direction.
+	 * @param random
+	 *            The random generator used by the AI of this fish.
+	 */
+	public EnemyFish(ICollisionArea ca, Image sprite, double startvx, double startvy, SplittableRandom random) {
 		super(ca);
 		this.sprite = sprite;
+		this.random = random;
 		vx = startvx;
 		vy = startvy;
 	}
 
 	@Override
-	public void render(GraphicsContext gc) {
-		//Don't render if dead.
-		if (isDead()) {
-			return;
-		}
-		getBoundingArea().setRotation(this);	//update rotation
-		if (vx > 0) {
-			drawRotatedImage(gc, sprite, getBoundingArea(), false);
-		} else {
-			drawRotatedImage(gc, sprite, getBoundingArea(), true);
-		}
+	public void writeRenderCommand(RenderCommandBuffer commands, int index) {
+		commands.set(index, sprite, getBoundingArea(), getPreviousCenterX(), getPreviousCenterY(), isReversed());
+	}
+
+	/**
+	 * @return
+	 * 		true if the sprite should be drawn facing left.
+	 */
+	private boolean isReversed() {
+		return vx <= 0;
 	}
 
 	@Override
@@ -73,12 +94,12 @@ public class EnemyFish extends Entity implements IMovable {
 	 */
 	@Override
 	public void preMove() {
-		if (Math.random() < DIRECTION_CHANGE_CHANCE) {
+		if (random.nextDouble() < DIRECTION_CHANGE_CHANCE) {
 			//Only change one direction
-			if (Math.random() <= 0.5) {
-				vy = vy + vy * (Math.random() - 0.5);
+			if (random.nextDouble() <= 0.5) {
+				vy = vy + vy * (random.nextDouble() - 0.5);
 			} else {
-				vx = vx + vx * (Math.random() - 0.5);
+				vx = vx + vx * (random.nextDouble() - 0.5);
 			}
 			limitSpeed();
 		}
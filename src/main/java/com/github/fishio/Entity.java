@@ -1,13 +1,20 @@
 package com.github.fishio;
 
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
-
 /**
  * Represents an entity in the game.
  */
 public abstract class Entity implements ICollidable, IPositional, IDrawable {
-	private boolean dead;
+	private static final int DEATH_PARTICLES_MIN = 8;
+	private static final int DEATH_PARTICLES_MAX = 48;
+	private static final double DEATH_PARTICLE_SPEED = 2;
+	private static final double DEATH_PARTICLE_SIZE_MIN = 3;
+	private static final int DEATH_PARTICLE_TICKS = 60;
+
+	private volatile boolean dead;
+	private boolean sleeping;
+	private int sleepTicks;
+	private double previousX;
+	private double previousY;
 	private ICollisionArea ba;
 	
 	/**
@@ -18,6 +25,10 @@ public abstract class Entity implements ICollidable, IPositional, IDrawable {
 	 */
 	public Entity(ICollisionArea ba) {
 		this.ba = ba;
+		if (ba != null) {
+			this.previousX = ba.getCenterX();
+			this.previousY = ba.getCenterY();
+		}
 	}
 	
 	@Override
@@ -39,25 +50,102 @@ public abstract class Entity implements ICollidable, IPositional, IDrawable {
 		dead = true;
 	}
 	
+	/**
+	 * This method checks whether the entity is sleeping or not.<br>
+	 * <br>
+	 * Sleeping entities are outside of the active region of the playing
+	 * field. They only get coarse updates, and are not rendered or checked
+	 * for collisions.
+	 * 
+	 * @return if the Entity is sleeping or not.
+	 */
+	public boolean isSleeping() {
+		return sleeping;
+	}
+	
+	/**
+	 * Puts this Entity to sleep or wakes it up.
+	 * 
+	 * @param sleeping
+	 * 		if the Entity should sleep or not.
+	 */
+	public void setSleeping(boolean sleeping) {
+		this.sleeping = sleeping;
+		this.sleepTicks = 0;
+	}
+	
+	/**
+	 * Counts a tick that this Entity has slept through.
+	 * 
+	 * @return
+	 * 		the amount of ticks slept since the last (coarse) update.
+	 */
+	public int addSleepTick() {
+		return ++sleepTicks;
+	}
+	
+	/**
+	 * Resets the amount of ticks slept, after a coarse update.
+	 */
+	public void resetSleepTicks() {
+		sleepTicks = 0;
+	}
+	
+	/**
+	 * Stores the current center of this Entity as its previous center.<br>
+	 * <br>
+	 * Called right before the entity moves, so that rendering can
+	 * interpolate between the previous and the current position.
+	 */
+	public void savePreviousCenter() {
+		previousX = ba.getCenterX();
+		previousY = ba.getCenterY();
+	}
+	
+	/**
+	 * @return
+	 * 		the x coordinate of the center of this Entity before it last moved.
+	 */
+	public double getPreviousCenterX() {
+		return previousX;
+	}
+	
+	/**
+	 * @return
+	 * 		the y coordinate of the center of this Entity before it last moved.
+	 */
+	public double getPreviousCenterY() {
+		return previousY;
+	}
+	
 	@Override
 	public ICollisionArea getBoundingArea() {
 		return ba;
 	}
 	
 	@Override
-	public void drawDeath(GraphicsContext gc) {
-		//TODO animations
+	public void drawDeath(ParticleSystem particles) {
+		if (ba == null) {
+			return;
+		}
+
+		//Bigger fish fall apart in more and bigger pieces.
+		double radius = Math.sqrt(ba.getSize()) / 2;
+		int amount = Math.min(DEATH_PARTICLES_MAX, DEATH_PARTICLES_MIN + (int) (radius / 2));
+		particles.burst(ParticleSystem.Kind.DEATH, ba.getCenterX(), ba.getCenterY(), amount, DEATH_PARTICLE_SPEED,
+				Math.max(DEATH_PARTICLE_SIZE_MIN, radius / 4), DEATH_PARTICLE_TICKS);
 	}
 	
 	@Override
-	public void render(GraphicsContext gc) {
-		//Don't render if dead.
-		if (isDead()) {
-			return;
+	public int getDepth() {
+		if (ba == null) {
+			return DrawOrder.DEPTH_FISH;
 		}
-		
-		//No sprite rendering
-		gc.setFill(Color.RED);
-		gc.fillRect(getX(), getY(), getWidth(), getHeight());
+		return DrawOrder.fishDepth(ba.getSize());
+	}
+	
+	@Override
+	public void writeRenderCommand(RenderCommandBuffer commands, int index) {
+		commands.set(index, null, ba, previousX, previousY, false);
 	}
 }
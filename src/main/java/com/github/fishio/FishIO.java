@@ -8,7 +8,7 @@ import javafx.stage.Stage;
  */
 public class FishIO extends Application {
 	private Stage primaryStage;
-	private static FishIO instance;
+	private static volatile FishIO instance;
 
 	@Override
 	public void start(Stage primaryStage) throws Exception {
@@ -63,7 +63,10 @@ public class FishIO extends Application {
 	}
 	
 	/**
-	 * Returns the instance parameter of the class.
+	 * Returns the instance parameter of the class.<br>
+	 * <br>
+	 * Only the JavaFX screens use this instance. Headless worlds never need
+	 * it, so many of them can run in parallel.
 	 * 
 	 * @return the instance of this application.
 	 */
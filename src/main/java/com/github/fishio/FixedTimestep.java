@@ -0,0 +1,127 @@
+package com.github.fishio;
+
+/**
+ * Accumulator for running a simulation with a fixed timestep.<br>
+ * <br>
+ * The real time that passes (measured with a high-resolution clock) is
+ * accumulated, and converted into a whole number of fixed-length ticks.
+ * Time that is left over is kept for the next update, and can be used to
+ * interpolate between the last two simulation states.
+ */
+public class FixedTimestep {
+	private final long stepNanos;
+	private final int maxTicks;
+
+	private long accumulator;
+	private long lastTime;
+	private boolean started;
+	private long droppedTicks;
+
+	/**
+	 * Creates a new FixedTimestep.
+	 *
+	 * @param tps
+	 * 		the amount of ticks per second.
+	 * @param maxTicks
+	 * 		the maximum amount of ticks to catch up on in a single update.
+	 * 		If the simulation falls behind more than this, the extra time is
+	 * 		dropped.
+	 */
+	public FixedTimestep(double tps, int maxTicks) {
+		if (tps <= 0 || maxTicks <= 0) {
+			throw new IllegalArgumentException("tps and maxTicks must be positive!");
+		}
+
+		this.stepNanos = Math.round(1E9 / tps);
+		this.maxTicks = maxTicks;
+	}
+
+	/**
+	 * Resets this timestep, discarding any accumulated time.<br>
+	 * <br>
+	 * Should be called when the simulation is (re)started, to prevent
+	 * catching up on the time the simulation was paused.
+	 */
+	public void reset() {
+		accumulator = 0;
+		started = false;
+	}
+
+	/**
+	 * Advances the clock to the given time.
+	 *
+	 * @param now
+	 * 		the current time in nanoseconds, e.g. {@link System#nanoTime()}.
+	 *
+	 * @return
+	 * 		the amount of ticks that should be simulated now.
+	 */
+	public int advance(long now) {
+		if (!started) {
+			started = true;
+			lastTime = now;
+			return 0;
+		}
+
+		accumulator += Math.max(0, now - lastTime);
+		lastTime = now;
+
+		long ticks = accumulator / stepNanos;
+		accumulator -= ticks * stepNanos;
+
+		//Drop the ticks that we cannot catch up on.
+		if (ticks > maxTicks) {
+			droppedTicks += ticks - maxTicks;
+			ticks = maxTicks;
+		}
+
+		return (int) ticks;
+	}
+
+	/**
+	 * Gives back how far we are between the last tick and the next tick,
+	 * at the time of the last call to {@link #advance(long)}.
+	 *
+	 * @return
+	 * 		a value between 0 (inclusive) and 1 (exclusive).
+	 */
+	public double getAlpha() {
+		return (double) accumulator / stepNanos;
+	}
+
+	/**
+	 * Gives back how far we are between the last tick and the next tick,
+	 * at the given time.
+	 *
+	 * @param now
+	 * 		the current time in nanoseconds.
+	 *
+	 * @return
+	 * 		a value between 0 and 1 (both inclusive).
+	 */
+	public double getAlpha(long now) {
+		if (!started) {
+			return 1.0;
+		}
+
+		double alpha = (double) (accumulator + now - lastTime) / stepNanos;
+		return Math.max(0.0, Math.min(1.0, alpha));
+	}
+
+	/**
+	 * @return
+	 * 		the length of one tick, in nanoseconds.
+	 */
+	public long getStepNanos() {
+		return stepNanos;
+	}
+
+	/**
+	 * @return
+	 * 		the total amount of ticks that were dropped because the
+	 * 		simulation fell too far behind.
+	 */
+	public long getDroppedTicks() {
+		return droppedTicks;
+	}
+}
@@ -0,0 +1,158 @@
+package com.github.fishio;
+
+/**
+ * Decides which display pulses are rendered, and measures the intervals
+ * between rendered frames.<br>
+ * <br>
+ * Without a cap, every pulse is rendered. With a cap, pulses that come too
+ * soon after the last rendered frame are skipped. A small tolerance is
+ * used, so that jitter in the pulse timestamps does not cause a frame to
+ * be skipped when it is (almost) due.
+ */
+public class FramePacer {
+	/**
+	 * The amount of nanoseconds a pulse may come too early and still be
+	 * rendered.
+	 */
+	public static final long TOLERANCE_NANOS = 2_000_000L;
+
+	/**
+	 * The weight of a new interval in the average frame interval.
+	 */
+	public static final double SMOOTHING = 0.1;
+
+	private volatile long minFrameNanos;
+
+	private long lastFrame = -1;
+	private volatile long lastInterval;
+	private volatile double averageInterval;
+	private volatile long frames;
+	private volatile long skippedPulses;
+
+	/**
+	 * Creates a new FramePacer.
+	 *
+	 * @param fpsCap
+	 * 		the maximum framerate, or 0 for no cap.
+	 */
+	public FramePacer(int fpsCap) {
+		setFpsCap(fpsCap);
+	}
+
+	/**
+	 * Sets the maximum framerate.
+	 *
+	 * @param fpsCap
+	 * 		the maximum framerate, or 0 for no cap.
+	 */
+	public void setFpsCap(int fpsCap) {
+		if (fpsCap < 0) {
+			throw new IllegalArgumentException("The fps cap cannot be negative!");
+		}
+
+		if (fpsCap == 0) {
+			minFrameNanos = 0;
+		} else {
+			minFrameNanos = Math.round(1E9 / fpsCap);
+		}
+	}
+
+	/**
+	 * Called for every pulse, to decide if a frame should be rendered.
+	 *
+	 * @param now
+	 * 		the timestamp of the pulse, in nanoseconds.
+	 *
+	 * @return
+	 * 		<code>true</code> if a frame should be rendered for this pulse.
+	 */
+	public boolean pulse(long now) {
+		if (lastFrame == -1) {
+			lastFrame = now;
+			frames++;
+			return true;
+		}
+
+		long interval = now - lastFrame;
+		if (interval + TOLERANCE_NANOS < minFrameNanos) {
+			skippedPulses++;
+			return false;
+		}
+
+		lastInterval = interval;
+		if (averageInterval == 0.0) {
+			averageInterval = interval;
+		} else {
+			averageInterval += SMOOTHING * (interval - averageInterval);
+		}
+
+		lastFrame = now;
+		frames++;
+		return true;
+	}
+
+	/**
+	 * Resets the timing, e.g. when rendering is (re)started. The next pulse
+	 * is always rendered.
+	 */
+	public void reset() {
+		lastFrame = -1;
+	}
+
+	/**
+	 * @return
+	 * 		the maximum framerate, or 0 if there is no cap.
+	 */
+	public int getFpsCap() {
+		long min = minFrameNanos;
+		if (min == 0) {
+			return 0;
+		}
+		return (int) Math.round(1E9 / min);
+	}
+
+	/**
+	 * @return
+	 * 		the interval between the last two rendered frames, in
+	 * 		nanoseconds.
+	 */
+	public long getLastInterval() {
+		return lastInterval;
+	}
+
+	/**
+	 * @return
+	 * 		the average interval between rendered frames, in nanoseconds.
+	 */
+	public double getAverageInterval() {
+		return averageInterval;
+	}
+
+	/**
+	 * @return
+	 * 		the measured framerate, based on the average frame interval.
+	 */
+	public double getMeasuredFps() {
+		double avg = averageInterval;
+		if (avg <= 0.0) {
+			return 0.0;
+		}
+		return 1E9 / avg;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of rendered frames.
+	 */
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of pulses that were skipped because of the cap.
+	 */
+	public long getSkippedPulses() {
+		return skippedPulses;
+	}
+}
@@ -0,0 +1,151 @@
+package com.github.fishio;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A dedicated thread that runs the simulation of a game with a fixed
+ * timestep, separate from the JavaFX Application Thread.<br>
+ * <br>
+ * When a tick throws an exception, the thread stops, and the exception is
+ * kept, see {@link #getFailure()}.
+ */
+public class GameThread {
+	private final FixedTimestep timestep;
+	private final Runnable tick;
+	private final String name;
+
+	private volatile boolean running;
+	private volatile Throwable failure;
+	private Thread thread;
+
+	/**
+	 * Creates a new GameThread. The thread is not started.
+	 * 
+	 * @param name
+	 * 		the name of the thread.
+	 * @param timestep
+	 * 		the timestep that determines when to tick.
+	 * @param tick
+	 * 		the tick to run.
+	 */
+	public GameThread(String name, FixedTimestep timestep, Runnable tick) {
+		this.name = name;
+		this.timestep = timestep;
+		this.tick = tick;
+	}
+
+	/**
+	 * Starts running ticks, if not already running.
+	 */
+	public void play() {
+		Thread old;
+		synchronized (this) {
+			if (running) {
+				return;
+			}
+			old = thread;
+		}
+
+		//Wait for a previous thread that is still finishing its last tick.
+		join(old);
+
+		synchronized (this) {
+			if (running) {
+				return;
+			}
+
+			//Don't catch up on the time that the game was not running.
+			timestep.reset();
+
+			failure = null;
+			running = true;
+			thread = new Thread(this::run, name);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stops running ticks.<br>
+	 * <br>
+	 * When called from another thread than the game thread itself, this
+	 * method waits until the current tick is done. This means that after
+	 * calling this method the game state can be safely modified.
+	 */
+	public void stop() {
+		Thread old;
+		synchronized (this) {
+			running = false;
+			old = thread;
+		}
+
+		join(old);
+	}
+
+	/**
+	 * Waits for the given thread to die, unless it is the current thread.
+	 * 
+	 * @param t
+	 * 		the thread to wait for, can be <code>null</code>.
+	 */
+	private static void join(Thread t) {
+		if (t == null || t == Thread.currentThread()) {
+			return;
+		}
+
+		try {
+			t.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return
+	 * 		if the game thread is running.
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return
+	 * 		the exception that stopped this game thread, or <code>null</code>
+	 * 		if no tick failed since it was last started.
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * @return
+	 * 		if the current thread is this game thread.
+	 */
+	public synchronized boolean isGameThread() {
+		return Thread.currentThread() == thread;
+	}
+
+	/**
+	 * The main loop of the thread.
+	 */
+	private void run() {
+		while (running) {
+			int ticks = timestep.advance(System.nanoTime());
+			for (int i = 0; i < ticks && running; i++) {
+				try {
+					tick.run();
+				} catch (Throwable t) {
+					//The state of the game can not be trusted after a failed tick, so we stop.
+					failure = t;
+					running = false;
+					System.err.println("Error in game tick, stopping the game thread!");
+					t.printStackTrace();
+				}
+			}
+
+			//Sleep until the next tick is due.
+			long remaining = (long) ((1.0 - timestep.getAlpha()) * timestep.getStepNanos());
+			LockSupport.parkNanos(remaining);
+		}
+	}
+}
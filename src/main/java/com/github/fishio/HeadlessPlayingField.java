@@ -0,0 +1,91 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+
+/**
+ * A single player playing field that runs without a display.<br>
+ * <br>
+ * It does not need the JavaFX toolkit: there is no canvas, no render
+ * thread and no sprites. The player fish is controlled by queueing
+ * {@link KeyInput}s, for example from a game listener.
+ */
+public class HeadlessPlayingField extends PlayingField {
+
+	private PlayerFish player;
+
+	/**
+	 * Creates a new headless single player playing field.
+	 */
+	public HeadlessPlayingField() {
+		super(0, (RenderLayers) null, true);
+
+		addPlayerFish();
+	}
+
+	/**
+	 * Creates a new headless single player playing field, which uses the
+	 * given seed for all its randomness.
+	 * 
+	 * @param seed
+	 * 		the seed.
+	 */
+	public HeadlessPlayingField(long seed) {
+		this();
+
+		setRandom(new RandomService(seed));
+	}
+
+	/**
+	 * Creates and adds the player fish.
+	 */
+	protected final void addPlayerFish() {
+		ICollisionArea ca = new CollisionMask(new Vec2d(640, 335), 60, 30,
+				Preloader.getAlphaDataOrLoad("sprites/fish/playerFish.png"),
+				Preloader.getSpriteAlphaRatioOrLoad("sprites/fish/playerFish.png"));
+		this.player = new PlayerFish(ca, null);
+
+		add(this.player);
+	}
+
+	/**
+	 * @return
+	 * 		the player fish.
+	 */
+	public PlayerFish getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Runs ticks right away until the player is dead, or until the given
+	 * amount of ticks has been run.
+	 * 
+	 * @param maxTicks
+	 * 		the maximum amount of ticks to run.
+	 * 
+	 * @return
+	 * 		the amount of ticks that were run.
+	 */
+	public int stepUntilDead(int maxTicks) {
+		int ticks = 0;
+		while (ticks < maxTicks && !player.isDead()) {
+			step(1);
+			ticks++;
+		}
+		return ticks;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+
+		//Also add the playerfish again.
+		addPlayerFish();
+	}
+
+	@Override
+	public ArrayList<PlayerFish> getPlayers() {
+		ArrayList<PlayerFish> res = new ArrayList<>();
+		res.add(player);
+		return res;
+	}
+}
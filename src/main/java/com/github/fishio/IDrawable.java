@@ -1,12 +1,5 @@
 package com.github.fishio;
 
-import java.util.HashSet;
-
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.scene.paint.Color;
-import javafx.scene.transform.Rotate;
-
 /**
  * Represents a drawable object.
  */
@@ -14,86 +7,40 @@ public interface IDrawable {
 	boolean DEBUG = false;
 
 	/**
-	 * Called when this object dies.
+	 * Called when this object dies, to add the particles of its death
+	 * animation.
 	 * 
-	 * @param gc
-	 * 		the graphicscontext to rendpSrcer on.
+	 * @param particles
+	 * 		the particles to add to.
 	 */
-	void drawDeath(GraphicsContext gc);
+	void drawDeath(ParticleSystem particles);
 
 	/**
-	 * Called when this object should be rendered.
+	 * Gives back the depth of this object: objects with a higher depth are
+	 * drawn over objects with a lower depth. See {@link DrawOrder} for the
+	 * depths.<br>
+	 * <br>
+	 * The depth may change, e.g. when a fish grows.
 	 * 
-	 * @param gc
-	 * 		the graphicscontext to render on.
+	 * @return
+	 * 		the depth of this object.
 	 */
-	void render(GraphicsContext gc);
+	default int getDepth() {
+		return DrawOrder.DEPTH_FISH;
+	}
 
 	/**
-	 * Draw a rotated image on the given GraphicsContext.
-	 * 
-	 * @param gc
-	 * 		The graphicsContext to draw on.
-	 * @param image
-	 * 		The image to draw.
-	 * @param ca
-	 * 		The CollisionArea of the sprite
-	 * @param reverse
-	 * 		when true reverse left/right orientation of the sprite.
+	 * Writes the render command of this object into the given buffer.<br>
+	 * <br>
+	 * This is called on the game thread, or by a job of it, after every
+	 * tick. The render thread only draws the commands in the buffer, so
+	 * this is the only way an object is rendered. It should not create any
+	 * objects, as it is called for every drawable in every tick.
 	 * 
+	 * @param commands
+	 * 		the buffer to write the command into.
+	 * @param index
+	 * 		the index to write the command at.
 	 */
-	default void drawRotatedImage(GraphicsContext gc, Image image, ICollisionArea ca, boolean reverse) {
-		double angle = ca.getRotation();
-		double cx = ca.getCenterX();
-		double cy = ca.getCenterY();
-		double width;
-		if (reverse) {
-			width = -ca.getWidth();
-		} else {
-			width = ca.getWidth();
-		}
-		double height = ca.getHeight();
-
-		gc.save();
-		Rotate r = new Rotate(360 - angle, cx, cy);
-		gc.setTransform(r.getMxx(), r.getMyx(), r.getMxy(), r.getMyy(), r.getTx(), r.getTy());
-
-		gc.drawImage(image, cx - 0.5 * width, cy - 0.5 * height, width, height);
-		gc.restore();
-
-		// debug rendering
-		if (DEBUG) {
-			gc.setFill(Color.RED);			
-			gc.fillText("angle: " + String.valueOf(angle),			//angle display 
-					cx, cy - (0.5 * ca.getHeight() + 10));
-			gc.fillText("size: " + String.valueOf(ca.getSize()),	//size display
-					cx, cy - (0.5 * ca.getHeight() + 25));
-
-			if (ca instanceof CollisionMask) {
-				gc.setFill(Color.FUCHSIA);
-				HashSet<Vec2d> mask = ((CollisionMask) ca).getMask();
-				for (Vec2d v : mask) {
-					gc.fillOval(v.x, v.y, 1, 1);
-				}
-			}
-
-			gc.setFill(Color.CYAN);
-			gc.fillOval(cx, cy, 2, 2);	//draw sprite center
-			
-			angle = Math.toRadians(angle);
-
-			// draw CollisionArea box corners
-			Vec2d tl = ca.getTopLeft();
-			Vec2d tr = ca.getTopRight();
-			Vec2d bl = ca.getBottomLeft();
-			Vec2d br = ca.getBottomRight();
-
-
-			gc.setFill(Color.RED);	
-			gc.fillOval(tl.x, tl.y, 2, 2);
-			gc.fillOval(tr.x, tr.y, 2, 2);
-			gc.fillOval(bl.x, bl.y, 2, 2);
-			gc.fillOval(br.x, br.y, 2, 2);
-		}
-	}
+	void writeRenderCommand(RenderCommandBuffer commands, int index);
 }
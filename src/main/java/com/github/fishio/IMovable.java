@@ -83,10 +83,14 @@ public interface IMovable extends IPositional {
 	/**
 	 * Called when collided with a wall.<br>
 	 * <br>
-	 * Can be used to turn around for example.
-	 * 
-	 * This method will be called AFTER preMove(), but
-	 * BEFORE the object actually moves.
+	 * Can be used to turn around for example.<br>
+	 * <br>
+	 * Whether the object hit a wall is checked with its position BEFORE it
+	 * moves, but this method is called AFTER all objects have moved in the
+	 * current tick, in the order of the objects. This way, objects can be
+	 * moved in parallel, and the result is the same as when they are moved
+	 * one by one. A change of the speed made here takes effect from the
+	 * next tick on.
 	 */
 	void hitWall();
 	
@@ -0,0 +1,87 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A log of the inputs of the players, per tick.<br>
+ * <br>
+ * Together with the seed of the {@link RandomService}, an input log can be
+ * used to replay a game exactly.
+ */
+public class InputLog {
+	private final ArrayList<Entry> entries = new ArrayList<>();
+	private int replayIndex;
+
+	/**
+	 * Records an input.
+	 * 
+	 * @param tick
+	 * 		the tick in which the input was applied.
+	 * @param player
+	 * 		the index of the player the input was for.
+	 * @param input
+	 * 		the input.
+	 */
+	public void record(long tick, int player, KeyInput input) {
+		entries.add(new Entry(tick, player, input));
+	}
+
+	/**
+	 * Queues all the inputs that were recorded for the given tick to the
+	 * given players.<br>
+	 * <br>
+	 * Ticks must be replayed in order.
+	 * 
+	 * @param tick
+	 * 		the tick that is about to run.
+	 * @param players
+	 * 		the players to queue the inputs to.
+	 */
+	public void replay(long tick, List<PlayerFish> players) {
+		while (replayIndex < entries.size() && entries.get(replayIndex).tick <= tick) {
+			Entry e = entries.get(replayIndex++);
+			if (e.tick == tick && e.player < players.size()) {
+				players.get(e.player).queueInput(e.input);
+			}
+		}
+	}
+
+	/**
+	 * Restarts replaying from the first tick.
+	 */
+	public void rewind() {
+		replayIndex = 0;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of recorded inputs.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * A single recorded input.
+	 */
+	private static final class Entry {
+		private final long tick;
+		private final int player;
+		private final KeyInput input;
+
+		/**
+		 * @param tick
+		 * 		the tick of the input.
+		 * @param player
+		 * 		the index of the player.
+		 * @param input
+		 * 		the input.
+		 */
+		private Entry(long tick, int player, KeyInput input) {
+			this.tick = tick;
+			this.player = player;
+			this.input = input;
+		}
+	}
+}
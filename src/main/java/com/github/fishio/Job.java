@@ -0,0 +1,104 @@
+package com.github.fishio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A handle to a job submitted to a {@link JobSystem}.<br>
+ * <br>
+ * A job can be waited on, and can be used as a dependency of other jobs.
+ * If a job fails, all jobs that depend on it fail as well.
+ */
+public final class Job {
+	private final String name;
+	private final CompletableFuture<Void> future;
+	private volatile long nanos = -1;
+
+	/**
+	 * Creates a new Job.
+	 *
+	 * @param name
+	 * 		the name of the job.
+	 * @param future
+	 * 		the future that completes when the job is done.
+	 */
+	Job(String name, CompletableFuture<Void> future) {
+		this.name = name;
+		this.future = future;
+	}
+
+	/**
+	 * Waits until this job is done.
+	 *
+	 * @throws RuntimeException
+	 * 		the exception thrown by the job, or by a job it depends on.
+	 */
+	public void join() {
+		try {
+			future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			} else if (ex.getCause() instanceof Error) {
+				throw (Error) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the name of this job.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return
+	 * 		if this job is done, either successfully or not.
+	 */
+	public boolean isDone() {
+		return future.isDone();
+	}
+
+	/**
+	 * @return
+	 * 		if this job (or a job it depends on) failed.
+	 */
+	public boolean isFailed() {
+		return future.isCompletedExceptionally();
+	}
+
+	/**
+	 * @return
+	 * 		how long this job ran, in nanoseconds, or -1 if it has not run
+	 * 		(yet). Does not include the time spent waiting for dependencies.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Sets how long this job ran.
+	 *
+	 * @param nanos
+	 * 		the duration in nanoseconds.
+	 */
+	void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * @return
+	 * 		the future that completes when this job is done.
+	 */
+	CompletableFuture<Void> getFuture() {
+		return future;
+	}
+
+	@Override
+	public String toString() {
+		return "Job[" + name + "]";
+	}
+}
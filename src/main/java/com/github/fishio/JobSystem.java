@@ -0,0 +1,293 @@
+package com.github.fishio;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs small jobs on a fixed pool of worker threads.<br>
+ * <br>
+ * Jobs can depend on other jobs: a job only starts when all its
+ * dependencies are done. The workers steal work from each other, so a
+ * stage of the game can split its work into many small jobs, e.g. one per
+ * chunk of entities, and all cores are used.<br>
+ * <br>
+ * Every job is timed, and the total time is kept per job name.
+ */
+public class JobSystem {
+	/**
+	 * The amount of worker threads of the {@link #getIo() IO system}.
+	 */
+	public static final int IO_WORKERS = 2;
+
+	private static JobSystem defaultSystem;
+	private static JobSystem ioSystem;
+
+	private final ForkJoinPool pool;
+	private final ConcurrentHashMap<String, LongAdder> jobCounts = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, LongAdder> jobNanos = new ConcurrentHashMap<>();
+
+	/**
+	 * Work on a range of indices.
+	 */
+	@FunctionalInterface
+	public interface RangeTask {
+		/**
+		 * Runs the work for the given range.
+		 *
+		 * @param from
+		 * 		the first index (inclusive).
+		 * @param to
+		 * 		the last index (exclusive).
+		 */
+		void run(int from, int to);
+	}
+
+	/**
+	 * Creates a new JobSystem with a worker for every available processor.
+	 */
+	public JobSystem() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new JobSystem.
+	 *
+	 * @param workers
+	 * 		the amount of worker threads.
+	 */
+	public JobSystem(int workers) {
+		this(workers, "Job worker ");
+	}
+
+	/**
+	 * Creates a new JobSystem.
+	 *
+	 * @param workers
+	 * 		the amount of worker threads.
+	 * @param threadName
+	 * 		the name of the worker threads, followed by their index.
+	 */
+	private JobSystem(int workers, String threadName) {
+		if (workers <= 0) {
+			throw new IllegalArgumentException("There must be at least one worker!");
+		}
+
+		this.pool = new ForkJoinPool(workers, p -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			thread.setName(threadName + thread.getPoolIndex());
+			thread.setDaemon(true);
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * Gives back the JobSystem shared by the whole game. It is created
+	 * when it is first used.
+	 *
+	 * @return
+	 * 		the default JobSystem.
+	 */
+	public static synchronized JobSystem getDefault() {
+		if (defaultSystem == null) {
+			defaultSystem = new JobSystem();
+		}
+		return defaultSystem;
+	}
+
+	/**
+	 * Gives back the JobSystem for jobs that block, like reading images
+	 * from disk. It has its own few workers, so that such jobs never hold
+	 * up the workers of the {@link #getDefault() default system}, which
+	 * run the jobs of the ticks. It is created when it is first used.
+	 *
+	 * @return
+	 * 		the IO JobSystem.
+	 */
+	public static synchronized JobSystem getIo() {
+		if (ioSystem == null) {
+			ioSystem = new JobSystem(IO_WORKERS, "IO worker ");
+		}
+		return ioSystem;
+	}
+
+	/**
+	 * Submits a job.
+	 *
+	 * @param name
+	 * 		the name of the job, used for the timings.
+	 * @param work
+	 * 		the work to do.
+	 * @param dependencies
+	 * 		the jobs that have to be done before this job starts.
+	 *
+	 * @return
+	 * 		the submitted job.
+	 */
+	public Job submit(String name, Runnable work, Job... dependencies) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		Job job = new Job(name, future);
+		Runnable task = () -> {
+			try {
+				run(job, work);
+				future.complete(null);
+			} catch (Throwable t) {
+				future.completeExceptionally(t);
+			}
+		};
+
+		if (dependencies.length == 0) {
+			execute(task, future);
+			return job;
+		}
+
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[dependencies.length];
+		for (int i = 0; i < dependencies.length; i++) {
+			futures[i] = dependencies[i].getFuture();
+		}
+
+		//Start the job when all dependencies are done, or fail if one of them fails.
+		CompletableFuture.allOf(futures).whenComplete((v, t) -> {
+			if (t == null) {
+				execute(task, future);
+			} else {
+				future.completeExceptionally(t);
+			}
+		});
+		return job;
+	}
+
+	/**
+	 * Hands a task to the workers. If they no longer take tasks because this
+	 * system is shut down, the job of the task fails, so that nobody waits
+	 * for it forever.
+	 *
+	 * @param task
+	 * 		the task.
+	 * @param future
+	 * 		the future of the job of the task.
+	 */
+	private void execute(Runnable task, CompletableFuture<Void> future) {
+		try {
+			pool.execute(task);
+		} catch (RejectedExecutionException ex) {
+			future.completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * Splits work on a range of indices into chunks, and submits a job for
+	 * every chunk.
+	 *
+	 * @param name
+	 * 		the name of the jobs.
+	 * @param count
+	 * 		the amount of indices.
+	 * @param chunkSize
+	 * 		the maximum amount of indices per job.
+	 * @param task
+	 * 		the work to do for a chunk.
+	 * @param dependencies
+	 * 		the jobs that have to be done before the chunks start.
+	 *
+	 * @return
+	 * 		a job that is done when all chunks are done.
+	 */
+	public Job parallelFor(String name, int count, int chunkSize, RangeTask task, Job... dependencies) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("The chunk size must be positive!");
+		}
+
+		int chunks = (count + chunkSize - 1) / chunkSize;
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+		for (int c = 0; c < chunks; c++) {
+			int from = c * chunkSize;
+			int to = Math.min(count, from + chunkSize);
+			futures[c] = submit(name, () -> task.run(from, to), dependencies).getFuture();
+		}
+
+		return new Job(name, CompletableFuture.allOf(futures));
+	}
+
+	/**
+	 * Runs a job and records its timing.
+	 *
+	 * @param job
+	 * 		the job.
+	 * @param work
+	 * 		the work of the job.
+	 */
+	private void run(Job job, Runnable work) {
+		long start = System.nanoTime();
+		try {
+			work.run();
+		} finally {
+			long time = System.nanoTime() - start;
+			job.setNanos(time);
+			jobCounts.computeIfAbsent(job.getName(), n -> new LongAdder()).increment();
+			jobNanos.computeIfAbsent(job.getName(), n -> new LongAdder()).add(time);
+		}
+	}
+
+	/**
+	 * Gives back the total time spent on jobs, per job name.
+	 *
+	 * @return
+	 * 		a map from job names to the total time in nanoseconds.
+	 */
+	public Map<String, Long> getTimings() {
+		HashMap<String, Long> res = new HashMap<>();
+		for (Map.Entry<String, LongAdder> entry : jobNanos.entrySet()) {
+			res.put(entry.getKey(), entry.getValue().sum());
+		}
+		return Collections.unmodifiableMap(res);
+	}
+
+	/**
+	 * Gives back the amount of jobs that have run with the given name.
+	 *
+	 * @param name
+	 * 		the name of the jobs.
+	 *
+	 * @return
+	 * 		the amount of jobs.
+	 */
+	public long getJobCount(String name) {
+		LongAdder count = jobCounts.get(name);
+		if (count == null) {
+			return 0;
+		}
+		return count.sum();
+	}
+
+	/**
+	 * Resets the recorded timings.
+	 */
+	public void resetTimings() {
+		jobCounts.clear();
+		jobNanos.clear();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of worker threads.
+	 */
+	public int getWorkers() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Stops the workers after all submitted jobs are done. Jobs that are
+	 * submitted later, or whose dependencies are done later, fail with a
+	 * {@link RejectedExecutionException}.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,46 @@
+package com.github.fishio;
+
+/**
+ * Represents a single key press or key release of the player.<br>
+ * <br>
+ * Key inputs are created on the JavaFX Application Thread, and handed
+ * over to the game thread through a lock-free queue.
+ */
+public final class KeyInput {
+	private final Direction direction;
+	private final boolean pressed;
+
+	/**
+	 * Creates a new KeyInput.
+	 * 
+	 * @param direction
+	 * 		the direction of the key.
+	 * @param pressed
+	 * 		true if the key was pressed, false if it was released.
+	 */
+	public KeyInput(Direction direction, boolean pressed) {
+		this.direction = direction;
+		this.pressed = pressed;
+	}
+
+	/**
+	 * @return
+	 * 		the direction of the key.
+	 */
+	public Direction getDirection() {
+		return direction;
+	}
+
+	/**
+	 * @return
+	 * 		true if the key was pressed, false if it was released.
+	 */
+	public boolean isPressed() {
+		return pressed;
+	}
+
+	@Override
+	public String toString() {
+		return "KeyInput [direction=" + direction + ", pressed=" + pressed + "]";
+	}
+}
@@ -1,6 +1,6 @@
 package com.github.fishio;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import javafx.scene.image.Image;
 
@@ -11,8 +11,6 @@ import javafx.scene.image.Image;
  */
 public final class LevelBuilder {
 
-	private static Random rand = new Random();
-
 	// Fish statistics
 
 	// movement
@@ -41,50 +39,110 @@ public final class LevelBuilder {
 	 * @param ca
 	 *            A Bounding Area which decides about what size the fish will
 	 *            have.
+	 * @param random
+	 *            The RandomService of the world the fish will be added to.
+	 * @param headless
+	 *            if true, the fish will not get a sprite image, so that no
+	 *            JavaFX Image has to be loaded.
 	 * @return random Enemyfish
 	 */
-	public static EnemyFish randomizedFish(ICollisionArea ca) {
+	public static EnemyFish randomizedFish(ICollisionArea ca, RandomService random, boolean headless) {
+		return buildFish(randomizedSpawn(ca, random, 0), headless);
+	}
+
+	/**
+	 * Randomly decides on the properties of a new EnemyFish, without
+	 * loading its sprite yet. The fish can be created later with
+	 * {@link #buildFish(SpawnRequest, boolean)}.
+	 * 
+	 * @param ca
+	 *            A Bounding Area which decides about what size the fish will
+	 *            have.
+	 * @param random
+	 *            The RandomService of the world the fish will be added to.
+	 * @param tick
+	 *            the tick in which the fish is requested.
+	 * @return the properties of a random fish.
+	 */
+	public static SpawnRequest randomizedSpawn(ICollisionArea ca, RandomService random, long tick) {
+		SplittableRandom rand = random.getSpawnRandom();
+
 		//randomize fish properties 
 		int minSize = (int) (ca.getSize() * 0.2);
 		int maxSize = (int) (ca.getSize() * 4.5);
 
 		int size = rand.nextInt(maxSize - minSize + 1) + minSize;
-		String spriteString = getRandomSprite();
-		Image sprite = Preloader.getImageOrLoad(spriteString);
+		String spriteString = getRandomSprite(rand);
+
+		double vx = 0.0, vy = 0.0;
+		//pick a side, and a position along that side
+		int side = rand.nextInt(4);
+		double position = rand.nextDouble();
+		switch (side) {
+		case 0: 	// left
+			vx = Math.abs(randomSpeed(rand));
+			vy = randomSpeed(rand);
+			break;
+		case 1: 	// top
+			vx = randomSpeed(rand);
+			vy = -Math.abs(randomSpeed(rand));
+			break;
+		case 2: 	// right
+			vx = -Math.abs(randomSpeed(rand));
+			vy = randomSpeed(rand);
+			break;
+		default: 	// bottom
+			vx = randomSpeed(rand);
+			vy = Math.abs(randomSpeed(rand));
+			break;
+		}
+
+		return new SpawnRequest(spriteString, size, side, position, vx, vy, random.createAiRandom(), tick);
+	}
+
+	/**
+	 * Creates the EnemyFish for a spawn request. This loads the sprite of
+	 * the fish, if it is not loaded yet.
+	 * 
+	 * @param request
+	 *            the properties of the fish.
+	 * @param headless
+	 *            if true, the fish will not get a sprite image, so that no
+	 *            JavaFX Image has to be loaded.
+	 * @return the new fish.
+	 */
+	public static EnemyFish buildFish(SpawnRequest request, boolean headless) {
+		String spriteString = request.getSprite();
+		Image sprite = null;
+		if (!headless) {
+			sprite = Preloader.getImageOrLoad(spriteString);
+		}
 		boolean[][] data = Preloader.getAlphaDataOrLoad(spriteString);
 		double relSize = Preloader.getSpriteAlphaRatioOrLoad(spriteString);
 		//TODO use setSize() instead of width/height calculations
-		double ratio = sprite.getWidth() / sprite.getHeight();
-		double width = Math.sqrt(size * ratio);
-		double height = size / width;
+		//The alpha data has the same dimensions as the sprite.
+		double ratio = (double) data.length / data[0].length;
+		double width = Math.sqrt(request.getSize() * ratio);
+		double height = request.getSize() / width;
 
-		double vx = 0.0, vy = 0.0;
-		Vec2d position = null;
-		//pick a side
-		switch (rand.nextInt(4)) {
+		Vec2d position;
+		switch (request.getSide()) {
 		case 0: 	// left
-			position = new Vec2d(-width, Math.random() * PlayingField.WINDOW_Y);
-			vx = Math.abs(randomSpeed());
-			vy = randomSpeed();
+			position = new Vec2d(-width, request.getPosition() * PlayingField.WINDOW_Y);
 			break;
 		case 1: 	// top
-			position = new Vec2d(Math.random() * PlayingField.WINDOW_X, -height);
-			vx = randomSpeed();
-			vy = -Math.abs(randomSpeed());
+			position = new Vec2d(request.getPosition() * PlayingField.WINDOW_X, -height);
 			break;
 		case 2: 	// right
-			position = new Vec2d(PlayingField.WINDOW_X + width, Math.random() * PlayingField.WINDOW_Y);
-			vx = -Math.abs(randomSpeed());
-			vy = randomSpeed();
+			position = new Vec2d(PlayingField.WINDOW_X + width, request.getPosition() * PlayingField.WINDOW_Y);
 			break;
 		default: 	// bottom
-			position = new Vec2d(Math.random() * PlayingField.WINDOW_X, PlayingField.WINDOW_Y + height);
-			vx = randomSpeed();
-			vy = Math.abs(randomSpeed());
+			position = new Vec2d(request.getPosition() * PlayingField.WINDOW_X, PlayingField.WINDOW_Y + height);
 			break;
 		}
 
-		EnemyFish eFish = new EnemyFish(new CollisionMask(position, width, height, data, relSize), sprite , vx, vy);
+		EnemyFish eFish = new EnemyFish(new CollisionMask(position, width, height, data, relSize), sprite,
+				request.getSpeedX(), request.getSpeedY(), request.getAiRandom());
 
 		//TODO Check for decent properties
 		//eFish.checkProperties()
@@ -92,10 +150,13 @@ public final class LevelBuilder {
 	}
 
 	/**
+	 * @param rand
+	 * 		the random generator to use.
+	 * 
 	 * @return
 	 * 		a random fish sprite.
 	 */
-	private static String getRandomSprite() {
+	private static String getRandomSprite(SplittableRandom rand) {
 		final int i = rand.nextInt(FISH_SPRITES);
 		return "sprites/fish/fish" + i + ".png";
 	}
@@ -103,12 +164,14 @@ public final class LevelBuilder {
 	/**
 	 * Creates a random speed for an enemy fish.
 	 * 
+	 * @param rand
+	 * 			the random generator to use.
 	 * @return
 	 * 			a random speed between 1 and MAX_EFISH_SPEED or between -1 and
 	 * 			-MAX_FISH_SPEED
 	 */
-	public static double randomSpeed() {
-		double speed = (Math.random() * 2 - 1) * MAX_EFISH_SPEED;
+	public static double randomSpeed(SplittableRandom rand) {
+		double speed = (rand.nextDouble() * 2 - 1) * MAX_EFISH_SPEED;
 
 		// Check if speed is not too slow
 		if (speed < 0) {
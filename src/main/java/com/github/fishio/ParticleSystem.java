@@ -0,0 +1,413 @@
+package com.github.fishio;
+
+import java.util.SplittableRandom;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Particles for effects, like bubbles, the burst when a fish is eaten and
+ * the death of a fish.<br>
+ * <br>
+ * The particles are stored in primitive arrays that form a ring buffer
+ * with a fixed capacity: new particles are added after the newest one, and
+ * when the buffer is full, the oldest particle is replaced. There are no
+ * objects per particle, and nothing is allocated when particles are added,
+ * updated or drawn.<br>
+ * <br>
+ * The particles are simulated by the game thread with {@link #update()},
+ * once per tick. A copy is handed to the render thread with the render
+ * commands (see {@link #copyFrom(ParticleSystem)}), which draws all of them
+ * in a single pass with {@link #render(GraphicsContext, double)}.
+ */
+public final class ParticleSystem {
+	/**
+	 * The default maximal amount of particles.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * The kinds of particles, which decide how particles move and look.
+	 */
+	public enum Kind {
+		/**
+		 * A bubble, that rises.
+		 */
+		BUBBLE(Color.color(0.85, 0.95, 1.0), -0.05, 0.98, true),
+
+		/**
+		 * A spark of the burst when a player eats something.
+		 */
+		EAT(Color.GOLD, 0, 0.9, false),
+
+		/**
+		 * A piece of a fish that died, that slowly sinks.
+		 */
+		DEATH(Color.color(0.8, 0.2, 0.1), 0.04, 0.95, false);
+
+		private final Color color;
+		private final double gravity;
+		private final double drag;
+		private final boolean outline;
+
+		/**
+		 * @param color
+		 * 		the color of the particles.
+		 * @param gravity
+		 * 		the change of the vertical speed every tick.
+		 * @param drag
+		 * 		the factor the speed is multiplied with every tick.
+		 * @param outline
+		 * 		if only the outline of the particles is drawn.
+		 */
+		Kind(Color color, double gravity, double drag, boolean outline) {
+			this.color = color;
+			this.gravity = gravity;
+			this.drag = drag;
+			this.outline = outline;
+		}
+	}
+
+	private static final Kind[] KINDS = Kind.values();
+
+	private int capacity;
+	private double[] x;
+	private double[] y;
+	private double[] vx;
+	private double[] vy;
+	private double[] size;
+	private int[] age;
+	private int[] life;
+	private byte[] kind;
+	private int head;
+	private int count;
+	private int alive;
+	private SplittableRandom random = new SplittableRandom();
+
+	/**
+	 * Creates a new, empty ParticleSystem with the
+	 * {@link #DEFAULT_CAPACITY}.
+	 */
+	public ParticleSystem() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new, empty ParticleSystem. A system without capacity can
+	 * not hold particles until another system is copied into it.
+	 *
+	 * @param capacity
+	 * 		the maximal amount of particles.
+	 */
+	public ParticleSystem(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("The capacity can not be negative!");
+		}
+
+		this.capacity = capacity;
+		this.x = new double[capacity];
+		this.y = new double[capacity];
+		this.vx = new double[capacity];
+		this.vy = new double[capacity];
+		this.size = new double[capacity];
+		this.age = new int[capacity];
+		this.life = new int[capacity];
+		this.kind = new byte[capacity];
+	}
+
+	/**
+	 * Adds a particle. If there is no room for it, the oldest particle is
+	 * replaced.
+	 *
+	 * @param type
+	 * 		the kind of particle.
+	 * @param px
+	 * 		the x coordinate of the center.
+	 * @param py
+	 * 		the y coordinate of the center.
+	 * @param speedX
+	 * 		the horizontal speed, in pixels per tick.
+	 * @param speedY
+	 * 		the vertical speed, in pixels per tick.
+	 * @param diameter
+	 * 		the diameter of the particle.
+	 * @param ticks
+	 * 		the amount of ticks the particle lives.
+	 */
+	public void emit(Kind type, double px, double py, double speedX, double speedY, double diameter, int ticks) {
+		if (ticks <= 0 || capacity == 0) {
+			return;
+		}
+
+		if (count == capacity) {
+			if (age[head] < life[head]) {
+				alive--;
+			}
+			head = next(head);
+			count--;
+		}
+
+		int i = (head + count) % capacity;
+		x[i] = px;
+		y[i] = py;
+		vx[i] = speedX;
+		vy[i] = speedY;
+		size[i] = diameter;
+		age[i] = 0;
+		life[i] = ticks;
+		kind[i] = (byte) type.ordinal();
+		count++;
+		alive++;
+	}
+
+	/**
+	 * Adds a burst of particles, flying away from a point in random
+	 * directions.
+	 *
+	 * @param type
+	 * 		the kind of particles.
+	 * @param px
+	 * 		the x coordinate of the center of the burst.
+	 * @param py
+	 * 		the y coordinate of the center of the burst.
+	 * @param amount
+	 * 		the amount of particles.
+	 * @param speed
+	 * 		the maximal speed of the particles, in pixels per tick.
+	 * @param diameter
+	 * 		the maximal diameter of the particles.
+	 * @param ticks
+	 * 		the maximal amount of ticks the particles live.
+	 */
+	public void burst(Kind type, double px, double py, int amount, double speed, double diameter, int ticks) {
+		for (int n = 0; n < amount; n++) {
+			double angle = random.nextDouble() * 2 * Math.PI;
+			double v = speed * (0.25 + 0.75 * random.nextDouble());
+			double d = diameter * (0.5 + 0.5 * random.nextDouble());
+			int t = (int) (ticks * (0.5 + 0.5 * random.nextDouble()));
+			emit(type, px, py, Math.cos(angle) * v, Math.sin(angle) * v, d, t);
+		}
+	}
+
+	/**
+	 * Moves all particles, and removes the particles that have reached the
+	 * end of their life.
+	 */
+	public void update() {
+		for (int n = 0, i = head; n < count; n++, i = next(i)) {
+			if (age[i] >= life[i]) {
+				continue;
+			}
+
+			age[i]++;
+			if (age[i] >= life[i]) {
+				alive--;
+				continue;
+			}
+
+			Kind type = KINDS[kind[i]];
+			vy[i] += type.gravity;
+			vx[i] *= type.drag;
+			vy[i] *= type.drag;
+			x[i] += vx[i];
+			y[i] += vy[i];
+		}
+
+		//Particles live for different times, so only the dead ones at the start can be dropped.
+		while (count > 0 && age[head] >= life[head]) {
+			head = next(head);
+			count--;
+		}
+	}
+
+	/**
+	 * Draws all particles, at their position between the last two ticks.
+	 * Particles fade out near the end of their life.
+	 *
+	 * @param gc
+	 * 		the graphicscontext to draw on.
+	 * @param alpha
+	 * 		how far we are into the next tick.
+	 */
+	public void render(GraphicsContext gc, double alpha) {
+		if (alive == 0) {
+			return;
+		}
+
+		double opacity = gc.getGlobalAlpha();
+		double back = 1 - alpha;
+		int lastKind = -1;
+		gc.setLineWidth(1);
+		for (int n = 0, i = head; n < count; n++, i = next(i)) {
+			if (age[i] >= life[i]) {
+				continue;
+			}
+
+			if (kind[i] != lastKind) {
+				lastKind = kind[i];
+				gc.setFill(KINDS[lastKind].color);
+				gc.setStroke(KINDS[lastKind].color);
+			}
+
+			double d = size[i];
+			double px = x[i] - vx[i] * back - d / 2;
+			double py = y[i] - vy[i] * back - d / 2;
+			gc.setGlobalAlpha(opacity * Math.min(1, 2.0 * (life[i] - age[i]) / life[i]));
+			if (KINDS[lastKind].outline) {
+				gc.strokeOval(px, py, d, d);
+			} else {
+				gc.fillOval(px, py, d, d);
+			}
+		}
+		gc.setGlobalAlpha(opacity);
+	}
+
+	/**
+	 * Works out the bounds of all particles, wherever they are drawn between
+	 * the last two ticks.
+	 *
+	 * @param out
+	 * 		the array to write the bounds to: the minimal x and y and the
+	 * 		maximal x and y.
+	 *
+	 * @return
+	 * 		<code>true</code> if there are particles, <code>false</code> if
+	 * 		there are none, in which case nothing is written.
+	 */
+	public boolean getBounds(double[] out) {
+		if (alive == 0) {
+			return false;
+		}
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int n = 0, i = head; n < count; n++, i = next(i)) {
+			if (age[i] >= life[i]) {
+				continue;
+			}
+
+			//A pixel more on every side, for the antialiasing of the edges.
+			double r = size[i] / 2 + 1;
+			minX = Math.min(minX, Math.min(x[i], x[i] - vx[i]) - r);
+			minY = Math.min(minY, Math.min(y[i], y[i] - vy[i]) - r);
+			maxX = Math.max(maxX, Math.max(x[i], x[i] - vx[i]) + r);
+			maxY = Math.max(maxY, Math.max(y[i], y[i] - vy[i]) + r);
+		}
+
+		out[0] = minX;
+		out[1] = minY;
+		out[2] = maxX;
+		out[3] = maxY;
+		return true;
+	}
+
+	/**
+	 * Makes this system an exact copy of the given system. The particles
+	 * are copied to the start of the arrays, so only as many are copied as
+	 * there are. The arrays are only replaced if the capacities differ, so
+	 * this system gets the capacity of the other system.
+	 *
+	 * @param other
+	 * 		the system to copy.
+	 */
+	public void copyFrom(ParticleSystem other) {
+		if (capacity != other.capacity) {
+			capacity = other.capacity;
+			x = new double[other.capacity];
+			y = new double[other.capacity];
+			vx = new double[other.capacity];
+			vy = new double[other.capacity];
+			size = new double[other.capacity];
+			age = new int[other.capacity];
+			life = new int[other.capacity];
+			kind = new byte[other.capacity];
+		}
+
+		//The particles can wrap around the end of the ring, and are then copied in two parts.
+		int first = Math.min(other.count, other.capacity - other.head);
+		int second = other.count - first;
+		copy(other.x, x, other.head, first, second);
+		copy(other.y, y, other.head, first, second);
+		copy(other.vx, vx, other.head, first, second);
+		copy(other.vy, vy, other.head, first, second);
+		copy(other.size, size, other.head, first, second);
+		copy(other.age, age, other.head, first, second);
+		copy(other.life, life, other.head, first, second);
+		copy(other.kind, kind, other.head, first, second);
+		head = 0;
+		count = other.count;
+		alive = other.alive;
+	}
+
+	/**
+	 * Copies a part of a ring to the start of an array.
+	 *
+	 * @param src
+	 * 		the ring to copy from.
+	 * @param dest
+	 * 		the array to copy to.
+	 * @param from
+	 * 		the index of the first element in the ring.
+	 * @param first
+	 * 		the amount of elements from the index to the end of the ring.
+	 * @param second
+	 * 		the amount of elements at the start of the ring.
+	 */
+	private static void copy(Object src, Object dest, int from, int first, int second) {
+		System.arraycopy(src, from, dest, 0, first);
+		System.arraycopy(src, 0, dest, first, second);
+	}
+
+	/**
+	 * @param i
+	 * 		an index in the ring.
+	 *
+	 * @return
+	 * 		the index after it.
+	 */
+	private int next(int i) {
+		i++;
+		if (i == capacity) {
+			return 0;
+		}
+		return i;
+	}
+
+	/**
+	 * Sets the random generator for the directions, speeds and sizes of
+	 * bursts.
+	 *
+	 * @param random
+	 * 		the random generator.
+	 */
+	public void setRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * Removes all particles.
+	 */
+	public void clear() {
+		head = 0;
+		count = 0;
+		alive = 0;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of particles that are alive.
+	 */
+	public int size() {
+		return alive;
+	}
+
+	/**
+	 * @return
+	 * 		the maximal amount of particles.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,358 @@
+package com.github.fishio;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.fishio.listeners.TickListener;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * An overlay that shows how the game performs while it is played: the
+ * render FPS, the resolution the entities are drawn at, the simulation
+ * TPS, the time of every stage of a tick, a graph of the frame times, the
+ * amount of entities and collidables, the amount of narrow phase collision
+ * checks, the hit rate of the {@link ScaledSpriteCache}, and the heap and
+ * garbage collector activity.
+ * <br>
+ * <br>
+ * The overlay listens to the render thread while it is shown, and costs
+ * nothing while it is hidden. Frame times are recorded every frame, but
+ * the statistics are only gathered and drawn every
+ * {@link #REFRESH_NANOS}, in a panel that is the only thing that is
+ * cleared. It should be drawn on a layer of its own (the HUD layer of
+ * {@link RenderLayers}), so that it never has to be restored.
+ */
+public class PerformanceOverlay implements TickListener {
+	/**
+	 * The amount of frames in the frame time graph.
+	 */
+	public static final int FRAME_HISTORY = 120;
+
+	/**
+	 * The time between two refreshes of the overlay, in nanoseconds.
+	 */
+	public static final long REFRESH_NANOS = 250_000_000L;
+
+	private static final double PANEL_X = 10;
+	private static final double PANEL_Y = 10;
+	private static final double PANEL_WIDTH = 250;
+	private static final double PADDING = 6;
+	private static final double LINE_HEIGHT = 14;
+	private static final double GRAPH_HEIGHT = 40;
+	private static final double GRAPH_MAX_MILLIS = 50;
+	private static final double TARGET_MILLIS = 1000.0 / 60;
+
+	private final PlayingField pf;
+	private final GraphicsContext gc;
+	private boolean visible;
+
+	private final long[] frameTimes = new long[FRAME_HISTORY];
+	private int frameCount;
+	private int nextFrame;
+	private long lastFrame;
+
+	private long lastSample;
+	private long lastTick;
+	private long lastGcCount;
+	private long lastGcMillis;
+	private long lastHits;
+	private long lastMisses;
+	private List<String> lines = Collections.emptyList();
+	private double drawnHeight;
+
+	/**
+	 * Creates a new, hidden PerformanceOverlay.
+	 *
+	 * @param pf
+	 * 		the playing field to show the performance of.
+	 * @param gc
+	 * 		the graphicscontext of the layer to draw the overlay on.
+	 */
+	public PerformanceOverlay(PlayingField pf, GraphicsContext gc) {
+		this.pf = pf;
+		this.gc = gc;
+	}
+
+	/**
+	 * Shows or hides the overlay.<br>
+	 * <br>
+	 * This should be called on the JavaFX Application Thread.
+	 *
+	 * @param visible
+	 * 		<code>true</code> to show the overlay.
+	 */
+	public void setVisible(boolean visible) {
+		if (this.visible == visible) {
+			return;
+		}
+
+		this.visible = visible;
+		if (visible) {
+			frameCount = 0;
+			lastFrame = 0;
+			lastSample = 0;
+			pf.registerRenderListener(this);
+		} else {
+			pf.unregisterRenderListener(this);
+			clear();
+		}
+	}
+
+	/**
+	 * Shows the overlay if it is hidden, and hides it if it is shown.
+	 */
+	public void toggle() {
+		setVisible(!visible);
+	}
+
+	/**
+	 * @return
+	 * 		if the overlay is shown.
+	 */
+	public boolean isVisible() {
+		return visible;
+	}
+
+	@Override
+	public void preTick() { }
+
+	@Override
+	public void postTick() {
+		long now = System.nanoTime();
+		recordFrame(now);
+		if (now - lastSample >= REFRESH_NANOS) {
+			sample(now);
+			draw();
+		}
+	}
+
+	/**
+	 * Records that a frame was drawn at the given time.
+	 *
+	 * @param now
+	 * 		the time in nanoseconds.
+	 */
+	public void recordFrame(long now) {
+		if (lastFrame != 0) {
+			frameTimes[nextFrame] = now - lastFrame;
+			nextFrame = (nextFrame + 1) % FRAME_HISTORY;
+			frameCount = Math.min(frameCount + 1, FRAME_HISTORY);
+		}
+		lastFrame = now;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of frame times that are recorded, at most
+	 * 		{@link #FRAME_HISTORY}.
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * @param i
+	 * 		the index of the frame, 0 being the oldest recorded frame.
+	 *
+	 * @return
+	 * 		the time of the frame, in nanoseconds.
+	 */
+	public long getFrameTime(int i) {
+		return frameTimes[(nextFrame - frameCount + i + FRAME_HISTORY) % FRAME_HISTORY];
+	}
+
+	/**
+	 * @return
+	 * 		the average amount of frames per second over the recorded frames,
+	 * 		or 0 if no frames are recorded.
+	 */
+	public double getFps() {
+		long total = 0;
+		for (int i = 0; i < frameCount; i++) {
+			total += frameTimes[i];
+		}
+
+		if (total == 0) {
+			return 0;
+		}
+		return frameCount * 1E9 / total;
+	}
+
+	/**
+	 * Gathers the statistics to show, and formats them as lines of text.
+	 *
+	 * @param now
+	 * 		the time in nanoseconds.
+	 */
+	public void sample(long now) {
+		long tick = pf.getTickCount();
+		long gcCount = 0;
+		long gcMillis = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			gcCount += Math.max(0, bean.getCollectionCount());
+			gcMillis += Math.max(0, bean.getCollectionTime());
+		}
+		ScaledSpriteCache cache = ScaledSpriteCache.getDefault();
+		long hits = cache.getHits();
+		long misses = cache.getMisses();
+
+		//The rates are measured since the last sample, so the first sample has none.
+		double seconds = (now - lastSample) / 1E9;
+		if (lastSample == 0) {
+			seconds = 0;
+		}
+
+		ArrayList<String> res = new ArrayList<>();
+		double fps = getFps();
+		res.add(format("FPS: %.1f (%.2f ms)", fps, frameMillis(fps)));
+		if (pf.getRenderer() != null) {
+			res.add(format("Render scale: %.0f%%", 100 * pf.getRenderer().getRenderScale()));
+		}
+		res.add(format("TPS: %.1f", rate(tick - lastTick, seconds)));
+		res.add(format("Entities: %d, collidables: %d", pf.getEntityCount(), pf.getCollidableCount()));
+		res.add(format("Narrow phase: %d tests/tick", pf.getNarrowPhaseTests()));
+		res.add(format("Sprite cache: %.1f%% hits", hitRate(hits - lastHits, misses - lastMisses)));
+
+		Runtime runtime = Runtime.getRuntime();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		res.add(format("Heap: %d / %d MB", used >> 20, runtime.maxMemory() >> 20));
+		res.add(format("GC: %.1f/s, %.1f ms/s", rate(gcCount - lastGcCount, seconds),
+				rate(gcMillis - lastGcMillis, seconds)));
+
+		for (Map.Entry<String, Long> timing : pf.getPipeline().getTimings().entrySet()) {
+			res.add(format("  %s: %.3f ms", timing.getKey(), timing.getValue() / 1E6));
+		}
+
+		lines = res;
+		lastSample = now;
+		lastTick = tick;
+		lastGcCount = gcCount;
+		lastGcMillis = gcMillis;
+		lastHits = hits;
+		lastMisses = misses;
+	}
+
+	/**
+	 * @return
+	 * 		the lines of text of the last sample.
+	 */
+	public List<String> getLines() {
+		return lines;
+	}
+
+	/**
+	 * Draws the overlay: a panel with the lines of text of the last sample,
+	 * and the frame time graph below them.
+	 */
+	private void draw() {
+		clear();
+
+		double height = 2 * PADDING + lines.size() * LINE_HEIGHT + GRAPH_HEIGHT;
+		gc.setFill(Color.color(0, 0, 0, 0.6));
+		gc.fillRect(PANEL_X, PANEL_Y, PANEL_WIDTH, height);
+		drawnHeight = height;
+
+		gc.setFill(Color.WHITE);
+		double y = PANEL_Y + PADDING + LINE_HEIGHT - 3;
+		for (String line : lines) {
+			gc.fillText(line, PANEL_X + PADDING, y);
+			y += LINE_HEIGHT;
+		}
+
+		//One bar per frame, with a line at the time of a frame at 60 FPS.
+		double bottom = PANEL_Y + height - PADDING;
+		double barWidth = (PANEL_WIDTH - 2 * PADDING) / FRAME_HISTORY;
+		double scale = (GRAPH_HEIGHT - PADDING) / GRAPH_MAX_MILLIS;
+		for (int i = 0; i < frameCount; i++) {
+			double millis = Math.min(GRAPH_MAX_MILLIS, getFrameTime(i) / 1E6);
+			gc.setFill(Color.LIMEGREEN);
+			if (millis > TARGET_MILLIS) {
+				gc.setFill(Color.ORANGERED);
+			}
+			gc.fillRect(PANEL_X + PADDING + i * barWidth, bottom - millis * scale, barWidth, millis * scale);
+		}
+
+		gc.setStroke(Color.YELLOW);
+		gc.setLineWidth(1);
+		gc.strokeLine(PANEL_X + PADDING, bottom - TARGET_MILLIS * scale, PANEL_X + PANEL_WIDTH - PADDING,
+				bottom - TARGET_MILLIS * scale);
+	}
+
+	/**
+	 * Clears the part of the layer the overlay was drawn on.
+	 */
+	private void clear() {
+		if (drawnHeight > 0) {
+			gc.clearRect(PANEL_X, PANEL_Y, PANEL_WIDTH, drawnHeight);
+			drawnHeight = 0;
+		}
+	}
+
+	/**
+	 * @param amount
+	 * 		an amount.
+	 * @param seconds
+	 * 		the time it took, in seconds.
+	 *
+	 * @return
+	 * 		the amount per second, or 0 if no time has passed.
+	 */
+	private static double rate(long amount, double seconds) {
+		if (seconds <= 0) {
+			return 0;
+		}
+		return amount / seconds;
+	}
+
+	/**
+	 * @param fps
+	 * 		the amount of frames per second.
+	 *
+	 * @return
+	 * 		the time of a frame in milliseconds, or 0 if there are no frames.
+	 */
+	private static double frameMillis(double fps) {
+		if (fps <= 0) {
+			return 0;
+		}
+		return 1000 / fps;
+	}
+
+	/**
+	 * @param hits
+	 * 		the amount of hits.
+	 * @param misses
+	 * 		the amount of misses.
+	 *
+	 * @return
+	 * 		the percentage of hits, or 0 if there were none of either.
+	 */
+	private static double hitRate(long hits, long misses) {
+		if (hits + misses == 0) {
+			return 0;
+		}
+		return 100.0 * hits / (hits + misses);
+	}
+
+	/**
+	 * Formats a line of text, independent of the locale.
+	 *
+	 * @param format
+	 * 		the format string.
+	 * @param args
+	 * 		the arguments.
+	 *
+	 * @return
+	 * 		the formatted line.
+	 */
+	private static String format(String format, Object... args) {
+		return String.format(Locale.ROOT, format, args);
+	}
+}
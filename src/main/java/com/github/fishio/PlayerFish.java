@@ -1,7 +1,8 @@
 package com.github.fishio;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
@@ -29,6 +30,11 @@ public class PlayerFish extends Entity implements IMovable {
 	private static final KeyCode KEY_LEFT = KeyCode.LEFT;
 	private static final KeyCode KEY_RIGHT = KeyCode.RIGHT;
 
+	/**
+	 * Inputs from the user, waiting to be applied on the game thread.
+	 */
+	private final ConcurrentLinkedQueue<KeyInput> inputQueue = new ConcurrentLinkedQueue<>();
+
 	private Image sprite;
 
 	private SimpleIntegerProperty score = new SimpleIntegerProperty(0);
@@ -55,35 +61,93 @@ public class PlayerFish extends Entity implements IMovable {
 	 *            The sprite of the player fish
 	 */
 	public PlayerFish(ICollisionArea ca, Stage stage, Image sprite) {
-		super(ca);		
+		this(ca, sprite);
+
+		stage.addEventHandler(KeyEvent.KEY_PRESSED, event -> queueKey(event.getCode(), true));
+		stage.addEventHandler(KeyEvent.KEY_RELEASED, event -> queueKey(event.getCode(), false));
+	}
+
+	/**
+	 * Creates a Player fish that is not controlled by the keyboard.<br>
+	 * <br>
+	 * It can be controlled with {@link #queueInput(KeyInput)} instead, for
+	 * example in headless mode.
+	 * 
+	 * @param ca
+	 *            The (inital) bounding area of the PlayerFish
+	 * @param sprite
+	 *            The sprite of the player fish, can be <code>null</code>.
+	 */
+	public PlayerFish(ICollisionArea ca, Image sprite) {
+		super(ca);
 
 		this.sprite = sprite;
+	}
 
-		stage.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
-			KeyCode pressedKey = event.getCode();
-			if (pressedKey == KEY_UP) {
-				upPressed = true;
-			} else if (pressedKey == KEY_DOWN) {
-				downPressed = true;
-			} else if (pressedKey == KEY_LEFT) {
-				leftPressed = true;
-			} else if (pressedKey == KEY_RIGHT) {
-				rightPressed = true;
-			}
-		});
-
-		stage.addEventHandler(KeyEvent.KEY_RELEASED, event -> {
-			KeyCode releasedKey = event.getCode();
-			if (releasedKey == KEY_UP) {
-				upPressed = false;
-			} else if (releasedKey == KEY_DOWN) {
-				downPressed = false;
-			} else if (releasedKey == KEY_LEFT) {
-				leftPressed = false;
-			} else if (releasedKey == KEY_RIGHT) {
-				rightPressed = false;
-			}
-		});
+	/**
+	 * Queues the input for the given key, if it is one of the arrow keys.
+	 * 
+	 * @param key
+	 * 		the key that was pressed or released.
+	 * @param pressed
+	 * 		true if the key was pressed, false if it was released.
+	 */
+	private void queueKey(KeyCode key, boolean pressed) {
+		if (key == KEY_UP) {
+			queueInput(new KeyInput(Direction.UP, pressed));
+		} else if (key == KEY_DOWN) {
+			queueInput(new KeyInput(Direction.DOWN, pressed));
+		} else if (key == KEY_LEFT) {
+			queueInput(new KeyInput(Direction.LEFT, pressed));
+		} else if (key == KEY_RIGHT) {
+			queueInput(new KeyInput(Direction.RIGHT, pressed));
+		}
+	}
+
+	/**
+	 * Queues the given input. It is applied on the game thread at the start
+	 * of the next tick.<br>
+	 * <br>
+	 * This method is safe to call from any thread.
+	 * 
+	 * @param input
+	 * 		the input to queue.
+	 */
+	public void queueInput(KeyInput input) {
+		inputQueue.offer(input);
+	}
+
+	/**
+	 * Takes the next queued input from the queue.
+	 * 
+	 * @return
+	 * 		the next queued input, or <code>null</code> if there is none.
+	 */
+	public KeyInput pollInput() {
+		return inputQueue.poll();
+	}
+
+	/**
+	 * Applies the given input directly.
+	 * 
+	 * @param input
+	 * 		the input to apply.
+	 */
+	public void applyInput(KeyInput input) {
+		switch (input.getDirection()) {
+		case UP:
+			upPressed = input.isPressed();
+			break;
+		case DOWN:
+			downPressed = input.isPressed();
+			break;
+		case LEFT:
+			leftPressed = input.isPressed();
+			break;
+		default:
+			rightPressed = input.isPressed();
+			break;
+		}
 	}
 
 	/**
@@ -305,19 +369,21 @@ public class PlayerFish extends Entity implements IMovable {
 	}
 
 	@Override
-	public void render(GraphicsContext gc) {
-		//Don't render if dead.
-		if (isDead()) {
-			return;
-		}
-		getBoundingArea().setRotation(this); //update rotation;
+	public void writeRenderCommand(RenderCommandBuffer commands, int index) {
+		commands.set(index, sprite, getBoundingArea(), getPreviousCenterX(), getPreviousCenterY(), isReversed());
+	}
 
+	/**
+	 * @return
+	 * 		true if the sprite should be drawn facing left.
+	 */
+	private boolean isReversed() {
 		if (vx > 0) {
-			drawRotatedImage(gc, sprite, getBoundingArea(), false);
+			return false;
 		} else if (vx < 0) {
-			drawRotatedImage(gc, sprite, getBoundingArea(), true);
+			return true;
 		} else {
-			drawRotatedImage(gc, sprite, getBoundingArea(), vy < 0);
+			return vy < 0;
 		}
 	}
 
@@ -1,18 +1,23 @@
 package com.github.fishio;
 
 import java.util.ArrayList;
-import java.util.ListIterator;
-
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.fishio.listeners.DeathEvent;
+import com.github.fishio.listeners.EatEvent;
+import com.github.fishio.listeners.EventBus;
+import com.github.fishio.listeners.EventListener;
+import com.github.fishio.listeners.ScoreEvent;
+import com.github.fishio.listeners.SpawnEvent;
+import com.github.fishio.listeners.TickEvent;
+import com.github.fishio.listeners.TickEvent.Phase;
 import com.github.fishio.listeners.TickListener;
 
-import javafx.animation.Animation.Status;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import javafx.util.Duration;
 
 /**
  * Represents the PlayingField.
@@ -23,23 +28,133 @@ public abstract class PlayingField {
 	public static final int WINDOW_Y = 670;
 	public static final double GAME_TPS = 60;
 
-	private Timeline gameThread;
-	private Timeline renderThread;
-	private int fps;
-
-	private Canvas canvas;
+	/**
+	 * The maximum amount of ticks the game thread catches up on at once.
+	 */
+	public static final int MAX_CATCH_UP_TICKS = 5;
 
-	private ArrayList<TickListener> gameListeners = new ArrayList<>();
-	private ArrayList<TickListener> renderListeners = new ArrayList<>();
-	private ArrayList<IDrawable> drawables = new ArrayList<>();
+	private final FixedTimestep timestep = new FixedTimestep(GAME_TPS, MAX_CATCH_UP_TICKS);
+	private GameThread gameThread;
+	private RenderDriver renderThread;
+	private final RenderExchange commands = new RenderExchange();
+	private final PlayingFieldRenderer renderer;
+	private int fps;
+	private final AdaptiveScheduler scheduler;
+	private final ParticleSystem particles = new ParticleSystem();
+	private final boolean headless;
+
+	private final EventBus events = new EventBus();
+	private volatile boolean batchedEvents;
+	private final ConcurrentHashMap<TickListener, EventListener<TickEvent>> gameListeners =
+			new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<TickListener, EventListener<TickEvent>> renderListeners =
+			new ConcurrentHashMap<>();
+	private final DrawOrder drawables = new DrawOrder();
 	private ArrayList<IMovable> movables = new ArrayList<>();
 	private ArrayList<Entity> entities = new ArrayList<>();
 	private ArrayList<ICollidable> collidables = new ArrayList<>();
 
-	private Image background;
+	private volatile boolean debugView;
+	private final DebugShapes collisionDebug = new DebugShapes();
+	private final AtomicInteger narrowTests = new AtomicInteger();
+	private volatile int lastNarrowTests;
+	private volatile int lastEntityCount;
+	private volatile int lastCollidableCount;
+
+	private RandomService random = new RandomService();
+	private InputLog inputLog;
+	private InputLog replayLog;
+	private long tickCount;
+
 	private int enemyCount;
 	private static final int MAX_ENEMY_COUNT = 10;
 
+	/**
+	 * The distance outside the window in which entities are kept awake.<br>
+	 * Entities move at most {@link LevelBuilder#MAX_EFISH_SPEED} per tick, so
+	 * a coarse update can never move a sleeping entity past this margin.
+	 */
+	public static final double ACTIVE_MARGIN = 64;
+
+	/**
+	 * The amount of ticks between two (coarse) updates of a sleeping entity.
+	 */
+	public static final int SLEEP_UPDATE_INTERVAL = 8;
+
+	/**
+	 * The default amount of objects from which the movement phase and the
+	 * building of the render list are split up in parallel jobs.
+	 */
+	public static final int PARALLEL_THRESHOLD = 512;
+
+	/**
+	 * The amount of movables that are moved together by a single job.
+	 */
+	public static final int MOVE_CHUNK_SIZE = 128;
+
+	/**
+	 * The amount of drawables for which the render state is built by a
+	 * single job.
+	 */
+	public static final int RENDER_CHUNK_SIZE = 256;
+
+	/**
+	 * The amount of collidables from which the broadphase grid is used.
+	 */
+	public static final int BROADPHASE_THRESHOLD = 64;
+
+	/**
+	 * The width and height of a cell of the broadphase grid.
+	 */
+	public static final double BROADPHASE_CELL_SIZE = 128;
+
+	/**
+	 * The amount of candidate pairs that are checked together by a single
+	 * narrow phase job.
+	 */
+	public static final int NARROW_PHASE_BATCH = 16;
+
+	/**
+	 * The names of the jobs submitted by the stages of a tick.
+	 */
+	public static final String JOB_MOVE = "move";
+	public static final String JOB_NARROW_PHASE = "narrowPhase";
+	public static final String JOB_RENDER_LIST = "renderList";
+
+	private int parallelThreshold = PARALLEL_THRESHOLD;
+	private JobSystem jobs = JobSystem.getDefault();
+	private final SpatialGrid grid = new SpatialGrid(BROADPHASE_CELL_SIZE);
+	private final SpawnScheduler spawner;
+
+	/**
+	 * The names of the stages of a tick, in the default order.
+	 */
+	public static final String STAGE_PRE_LISTENERS = "preListeners";
+	public static final String STAGE_INPUT = "input";
+	public static final String STAGE_MOVE = "move";
+	public static final String STAGE_SPAWN = "spawn";
+	public static final String STAGE_PRE_COLLISIONS = "preCollisions";
+	public static final String STAGE_COLLISIONS = "collisions";
+	public static final String STAGE_PRE_CLEANUP = "preCleanup";
+	public static final String STAGE_CLEANUP = "cleanup";
+	public static final String STAGE_PARTICLES = "particles";
+	public static final String STAGE_EVENTS = "events";
+	public static final String STAGE_POST_LISTENERS = "postListeners";
+	public static final String STAGE_SNAPSHOT = "snapshot";
+
+	private final TickPipeline pipeline = new TickPipeline();
+
+	/**
+	 * The amount of ticks between two bubbles of a player.
+	 */
+	public static final int BUBBLE_INTERVAL = 30;
+
+	private static final int BUBBLE_TICKS = 120;
+	private static final int EAT_PARTICLES = 12;
+	private static final double EAT_PARTICLE_SPEED = 3;
+	private static final double EAT_PARTICLE_SIZE = 4;
+	private static final int EAT_PARTICLE_TICKS = 20;
+
 	/**
 	 * Creates the playing field with a set framerate.
 	 * 
@@ -47,7 +162,7 @@ public abstract class PlayingField {
 	 *            the (target) framerate.
 	 */
 	public PlayingField(int fps) {
-		this(fps, null);
+		this(fps, (Canvas) null);
 	}
 
 	/**
@@ -59,19 +174,101 @@ public abstract class PlayingField {
 	 *            the canvas to use, can be <code>null</code> to create one.
 	 */
 	public PlayingField(int fps, Canvas canvas) {
+		this(fps, canvas, false);
+	}
+
+	/**
+	 * Creates the playing field with a set framerate and canvas.<br>
+	 * <br>
+	 * A headless playing field has no canvas and no render thread, and does
+	 * not need the JavaFX toolkit. It can be advanced with {@link #step(int)}
+	 * as fast as possible, or with the game thread in real time.
+	 * 
+	 * @param fps
+	 *            the (target) framerate. Ignored when headless.
+	 * @param canvas
+	 *            the canvas to use, can be <code>null</code> to create one.
+	 *            Ignored when headless.
+	 * @param headless
+	 *            if true, creates a headless playing field.
+	 */
+	public PlayingField(int fps, Canvas canvas, boolean headless) {
+		this(fps, createLayers(canvas, headless), headless);
+	}
+
+	/**
+	 * Creates the playing field with a set framerate, that draws every
+	 * layer on its own canvas.
+	 * 
+	 * @param fps
+	 *            the (target) framerate.
+	 * @param layers
+	 *            the canvases to draw the layers on.
+	 */
+	public PlayingField(int fps, RenderLayers layers) {
+		this(fps, layers, false);
+	}
+
+	/**
+	 * Creates the playing field with a set framerate and render layers.
+	 * 
+	 * @param fps
+	 *            the (target) framerate. Ignored when headless.
+	 * @param layers
+	 *            the canvases to draw the layers on. Ignored when headless.
+	 * @param headless
+	 *            if true, creates a headless playing field.
+	 */
+	protected PlayingField(int fps, RenderLayers layers, boolean headless) {
 		this.fps = fps;
+		this.headless = headless;
+		this.scheduler = new AdaptiveScheduler(timestep.getStepNanos(), getFrameNanos(fps));
+		this.particles.setRandom(random.getEffectsRandom());
+		this.spawner = new SpawnScheduler(headless, JobSystem.getIo());
 
-		if (canvas == null) {
-			this.canvas = new Canvas(WINDOW_X, WINDOW_Y);
+		if (headless) {
+			this.renderer = null;
 		} else {
-			this.canvas = canvas;
+			this.renderer = new PlayingFieldRenderer(layers, commands, getFrameNanos(fps));
+			this.scheduler.setRenderHeadroom(renderer::hasHeadroom);
 		}
 
 		//count enemies
 		enemyCount = 0;
 
+		createPipeline();
 		createGameThread();
-		createRenderThread();
+		if (!headless) {
+			createRenderThread();
+		}
+	}
+
+	/**
+	 * Creates the render layers for a single canvas.
+	 * 
+	 * @param canvas
+	 *            the canvas to draw all layers on, can be <code>null</code>
+	 *            to create one.
+	 * @param headless
+	 *            if the playing field is headless.
+	 * @return the render layers, or <code>null</code> if headless.
+	 */
+	protected static RenderLayers createLayers(Canvas canvas, boolean headless) {
+		if (headless) {
+			return null;
+		} else if (canvas == null) {
+			return new RenderLayers(new Canvas(WINDOW_X, WINDOW_Y));
+		}
+		return new RenderLayers(canvas);
+	}
+
+	/**
+	 * @return
+	 * 		if this playing field is headless (has no canvas and no render
+	 * 		thread).
+	 */
+	public boolean isHeadless() {
+		return headless;
 	}
 
 	/**
@@ -85,22 +282,49 @@ public abstract class PlayingField {
 
 	/**
 	 * Sets the (target) framerate for the render thread in
-	 * frames per second.
+	 * frames per second.<br>
+	 * <br>
+	 * The render thread renders at most once per pulse of the display, so
+	 * this is a cap on the framerate. It takes effect immediately.
 	 * 
 	 * @param fps
-	 * 		the new framerate
+	 * 		the new framerate, or 0 to render every pulse.
 	 */
 	public void setFPS(int fps) {
 		this.fps = fps;
+		scheduler.setFrameBudget(getFrameNanos(fps));
+		if (headless) {
+			return;
+		}
 
-		Timeline oldRenderThread = renderThread;
-		createRenderThread();
+		renderer.getResolutionScaler().setFrameBudget(getFrameNanos(fps));
+		renderThread.setFpsCap(fps);
+	}
 
-		//If render thread was running, start the new one and stop the old one.
-		if (oldRenderThread.getStatus() == Status.RUNNING) {
-			renderThread.play();
-			oldRenderThread.stop();
+	/**
+	 * Gives back the length of a single frame.
+	 * 
+	 * @param fps
+	 * 		the framerate.
+	 * 
+	 * @return
+	 * 		the length of a single frame in nanoseconds, or the length of a
+	 * 		single tick if there is no framerate.
+	 */
+	private long getFrameNanos(int fps) {
+		if (fps <= 0) {
+			return timestep.getStepNanos();
 		}
+		return Math.round(1E9 / fps);
+	}
+
+	/**
+	 * @return
+	 * 		the scheduler that measures the load of this playing field, and
+	 * 		decides on the quality of the game.
+	 */
+	public AdaptiveScheduler getScheduler() {
+		return scheduler;
 	}
 
 	/**
@@ -122,93 +346,450 @@ public abstract class PlayingField {
 	}
 
 	/**
-	 * Creates the rendering thread.
+	 * Creates the rendering thread.<br>
+	 * <br>
+	 * Rendering is driven by the pulses of the JavaFX toolkit, so frames
+	 * are aligned with the refresh of the display.
 	 */
 	protected final void createRenderThread() {
-		Duration dur = Duration.millis(1000.0 / getFPS());
-
-		KeyFrame frame = new KeyFrame(dur, event -> {
+		renderThread = new RenderDriver(getFPS(), now -> {
 			//Call listeners pretick
 			preListeners(true);
 
-			//Re-render items
-			redraw();
+			//Re-render items, unless we have to skip this frame.
+			if (scheduler.shouldRender()) {
+				long start = System.nanoTime();
+				if (renderer.redraw(now)) {
+					long duration = System.nanoTime() - start;
+					scheduler.recordFrame(duration);
+					renderer.getResolutionScaler().recordFrame(duration);
+				}
+			}
 
 			//Call listeners posttick
 			postListeners(true);
-		}, new KeyValue[0]);
+		});
+	}
+
+	/**
+	 * Creates the game thread.<br>
+	 * <br>
+	 * The game thread is a dedicated thread that runs the simulation with a
+	 * fixed timestep: it runs as many ticks as fit in the time that has
+	 * passed, up to {@link #MAX_CATCH_UP_TICKS} at once. The duration of
+	 * every tick is recorded by the {@link AdaptiveScheduler}.
+	 */
+	protected final void createGameThread() {
+		gameThread = new GameThread("Game thread", timestep, () -> {
+			long start = System.nanoTime();
+			tick();
+			scheduler.recordTick(System.nanoTime() - start);
+		});
+	}
+
+	/**
+	 * Creates the pipeline with the default stages of a tick.
+	 */
+	private void createPipeline() {
+		//Call listeners pretick
+		pipeline.add(STAGE_PRE_LISTENERS, () -> preListeners(false));
 
-		Timeline tl = new Timeline(frame);
-		tl.setCycleCount(-1);
+		//Apply the input of the players
+		pipeline.add(STAGE_INPUT, this::applyPlayerInput, STAGE_PRE_LISTENERS);
 
-		renderThread = tl;
+		//Move all movables
+		pipeline.add(STAGE_MOVE, this::moveMovables, STAGE_INPUT);
+
+		//Add new entities
+		pipeline.add(STAGE_SPAWN, this::addEntities, STAGE_MOVE);
+
+		//Check for collisions
+		pipeline.add(STAGE_PRE_COLLISIONS, () -> fireTick(Phase.PRE_COLLISIONS, false), STAGE_SPAWN);
+		pipeline.add(STAGE_COLLISIONS, this::checkPlayerCollisions, STAGE_PRE_COLLISIONS);
+
+		//Cleanup dead entities.
+		pipeline.add(STAGE_PRE_CLEANUP, () -> fireTick(Phase.PRE_CLEANUP, false), STAGE_COLLISIONS);
+		pipeline.add(STAGE_CLEANUP, this::cleanupDead, STAGE_PRE_CLEANUP);
+
+		//Move the particles of the effects
+		pipeline.add(STAGE_PARTICLES, this::updateParticles, STAGE_CLEANUP);
+
+		//Dispatch the events of this tick, if they are batched
+		pipeline.add(STAGE_EVENTS, events::flush, STAGE_PARTICLES);
+
+		//Call listeners posttick
+		pipeline.add(STAGE_POST_LISTENERS, () -> postListeners(false), STAGE_EVENTS);
+
+		//Hand the new state over to the render thread
+		pipeline.add(STAGE_SNAPSHOT, this::publishSnapshot, STAGE_POST_LISTENERS);
 	}
 
 	/**
-	 * Creates the game thread.
+	 * Gives back the pipeline of stages that make up a tick.<br>
+	 * <br>
+	 * Stages can be added, disabled, replaced or run at a lower rate, and
+	 * every stage is timed.
+	 * 
+	 * @return
+	 * 		the tick pipeline.
 	 */
-	protected final void createGameThread() {
-		Duration dur = Duration.millis(1000.0 / GAME_TPS);
+	public TickPipeline getPipeline() {
+		return pipeline;
+	}
 
-		KeyFrame frame = new KeyFrame(dur, event -> {
-			//Call listeners pretick
-			preListeners(false);
+	/**
+	 * Runs a single game tick, by running all stages of the pipeline.
+	 */
+	public void tick() {
+		pipeline.run(tickCount);
 
-			//Move all movables
-			moveMovables();
+		//Publish the counts of this tick, so they can be read from other threads.
+		lastNarrowTests = narrowTests.getAndSet(0);
+		lastEntityCount = entities.size();
+		lastCollidableCount = collidables.size();
 
-			//Add new entities
-			addEntities();
+		tickCount++;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of collision checks between two collidables (the narrow
+	 * 		phase) in the last tick.
+	 */
+	public int getNarrowPhaseTests() {
+		return lastNarrowTests;
+	}
 
-			//Check for collisions
-			checkPlayerCollisions();
+	/**
+	 * @return
+	 * 		the amount of entities after the last tick.
+	 */
+	public int getEntityCount() {
+		return lastEntityCount;
+	}
 
-			//Cleanup dead entities.
-			cleanupDead();
+	/**
+	 * @return
+	 * 		the amount of collidables after the last tick.
+	 */
+	public int getCollidableCount() {
+		return lastCollidableCount;
+	}
 
-			//Call listeners posttick
-			postListeners(false);
-		}, new KeyValue[0]);
+	/**
+	 * Applies the queued inputs of all players.<br>
+	 * <br>
+	 * If an input log is set, the inputs are recorded. If a replay log is
+	 * set, the inputs recorded for this tick are queued first.
+	 */
+	public void applyPlayerInput() {
+		ArrayList<PlayerFish> players = getPlayers();
+		if (replayLog != null) {
+			replayLog.replay(tickCount, players);
+		}
 
-		Timeline tl = new Timeline(frame);
-		tl.setCycleCount(-1);
+		for (int i = 0; i < players.size(); i++) {
+			PlayerFish player = players.get(i);
+			KeyInput input = player.pollInput();
+			while (input != null) {
+				if (inputLog != null) {
+					inputLog.record(tickCount, i, input);
+				}
 
-		gameThread = tl;
+				player.applyInput(input);
+				input = player.pollInput();
+			}
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the amount of ticks that have been run.
+	 */
+	public long getTickCount() {
+		return tickCount;
 	}
 
 	/**
-	 * Called to redraw the screen.
+	 * @return
+	 * 		the RandomService of this playing field.
+	 */
+	public RandomService getRandom() {
+		return random;
+	}
+
+	/**
+	 * Sets the RandomService of this playing field.<br>
+	 * <br>
+	 * To reproduce a game, this should be set before the first tick.
+	 * 
+	 * @param random
+	 * 		the new RandomService.
 	 */
-	public void redraw() {
-		GraphicsContext gc = canvas.getGraphicsContext2D();
+	public void setRandom(RandomService random) {
+		this.random = random;
+		particles.setRandom(random.getEffectsRandom());
+	}
 
-		//Clear screen
-		gc.clearRect(0, 0, WINDOW_X, WINDOW_Y);
+	/**
+	 * Sets the log to record the inputs of the players in.
+	 * 
+	 * @param log
+	 * 		the log to record in, or <code>null</code> to stop recording.
+	 */
+	public void setInputLog(InputLog log) {
+		this.inputLog = log;
+	}
 
-		//draw background image
-		gc.drawImage(background, 0, 0);
+	/**
+	 * Sets the log to replay the inputs of the players from.
+	 * 
+	 * @param log
+	 * 		the log to replay, or <code>null</code> to stop replaying.
+	 */
+	public void setReplayLog(InputLog log) {
+		this.replayLog = log;
+	}
 
-		//Render all drawables, in reverse order
-		ListIterator<IDrawable> li = drawables.listIterator(drawables.size());
-		while (li.hasPrevious()) {
-			li.previous().render(gc);
+	/**
+	 * Writes the render commands of all drawables, and publishes them for
+	 * the render thread.<br>
+	 * <br>
+	 * The commands are written into a buffer that is reused, at a fixed
+	 * index for every drawable, so that they can be written by several jobs
+	 * at once. The drawables are read from an array that the draw order
+	 * reuses as well.
+	 */
+	public void publishSnapshot() {
+		//Nobody renders the commands of a headless field.
+		if (headless) {
+			return;
+		}
+
+		RenderCommandBuffer back = commands.getBack();
+		drawables.update();
+		IDrawable[] array = drawables.getOrdered();
+		int size = drawables.size();
+		back.reset(size);
+		if (size < parallelThreshold) {
+			writeRenderCommands(array, back, 0, size);
+		} else {
+			jobs.parallelFor(JOB_RENDER_LIST, size, RENDER_CHUNK_SIZE,
+					(from, to) -> writeRenderCommands(array, back, from, to)).join();
+		}
+		back.compact();
+		back.getParticles().copyFrom(particles);
+		if (debugView) {
+			back.getDebugShapes().copyFrom(collisionDebug);
 		}
+
+		back.setTiming(tickCount, timestep.getAlpha(), System.nanoTime(), timestep.getStepNanos());
+		commands.publish();
 	}
 
 	/**
-	 * Checks for player collisions.
+	 * Writes the render commands of a range of drawables, which are in the
+	 * order they are drawn. Sleeping and dead entities are not rendered,
+	 * and their commands stay hidden.
+	 * 
+	 * @param array
+	 * 		the drawables.
+	 * @param buffer
+	 * 		the buffer to write the commands into.
+	 * @param from
+	 * 		the first index (inclusive).
+	 * @param to
+	 * 		the last index (exclusive).
+	 */
+	private static void writeRenderCommands(IDrawable[] array, RenderCommandBuffer buffer, int from, int to) {
+		for (int i = from; i < to; i++) {
+			IDrawable d = array[i];
+			if (d instanceof Entity && (((Entity) d).isSleeping() || ((Entity) d).isDead())) {
+				continue;
+			}
+
+			d.writeRenderCommand(buffer, i);
+		}
+	}
+
+	/**
+	 * @return
+	 * 		if the collision debug view is shown.
+	 */
+	public boolean isDebugView() {
+		return debugView;
+	}
+
+	/**
+	 * Shows or hides the collision debug view, see
+	 * {@link CollisionDebugView}. While it is shown, the game thread
+	 * collects the broadphase cells and the checked pairs, and every frame
+	 * is redrawn completely.
+	 * 
+	 * @param debugView
+	 * 		<code>true</code> to show the debug view.
+	 */
+	public void setDebugView(boolean debugView) {
+		this.debugView = debugView;
+		if (renderer != null) {
+			renderer.setDebugView(debugView);
+		}
+	}
+
+	/**
+	 * Checks for player collisions.<br>
+	 * <br>
+	 * With many collidables, a grid is used to only check the collidables
+	 * near each player (the broadphase). If there are many of those, they
+	 * are checked in parallel batches of jobs (the narrow phase), against
+	 * the state at the start of the check. The collisions found are then
+	 * handled one by one, in the order of the collidables.
 	 */
 	public void checkPlayerCollisions() {
-		for (int i = 0; i < getPlayers().size(); i++) {
-			for (int j = 0; j < collidables.size(); j++) {
-				ICollidable c1 = getPlayers().get(i);
-				ICollidable c2 = collidables.get(j);
-				if (c1 != c2 && c1.doesCollides(c2)) {
-					c1.onCollide(c2);
-					c2.onCollide(c1);
+		boolean debug = debugView;
+		if (debug) {
+			collisionDebug.clear();
+		}
+
+		ArrayList<PlayerFish> players = getPlayers();
+		if (collidables.size() < BROADPHASE_THRESHOLD) {
+			for (int i = 0; i < players.size(); i++) {
+				for (int j = 0; j < collidables.size(); j++) {
+					ICollidable c2 = collidables.get(j);
+					if (c2 instanceof Entity && ((Entity) c2).isSleeping() || players.get(i) == c2) {
+						continue;
+					}
+
+					boolean hit = collides(players.get(i), c2);
+					if (debug) {
+						addDebugPair(players.get(i), c2, hit);
+					}
+					if (hit) {
+						collide(players.get(i), c2);
+					}
+				}
+			}
+			return;
+		}
+
+		grid.clear();
+		for (int j = 0; j < collidables.size(); j++) {
+			ICollidable c2 = collidables.get(j);
+			if (!(c2 instanceof Entity && ((Entity) c2).isSleeping())) {
+				grid.insert(j, c2.getBoundingArea());
+			}
+		}
+		if (debug) {
+			int[] cells = grid.getCells();
+			for (int i = 0; i < cells.length; i += 2) {
+				collisionDebug.addRect(cells[i] * BROADPHASE_CELL_SIZE, cells[i + 1] * BROADPHASE_CELL_SIZE,
+						BROADPHASE_CELL_SIZE, BROADPHASE_CELL_SIZE);
+			}
+		}
+
+		for (PlayerFish player : players) {
+			int[] candidates = grid.query(player.getBoundingArea());
+			if (candidates.length < 2 * NARROW_PHASE_BATCH) {
+				for (int j : candidates) {
+					ICollidable c2 = collidables.get(j);
+					if (player == c2) {
+						continue;
+					}
+
+					boolean hit = collides(player, c2);
+					if (debug) {
+						addDebugPair(player, c2, hit);
+					}
+					if (hit) {
+						collide(player, c2);
+					}
+				}
+				continue;
+			}
+
+			boolean[] hits = new boolean[candidates.length];
+			jobs.parallelFor(JOB_NARROW_PHASE, candidates.length, NARROW_PHASE_BATCH, (from, to) -> {
+				for (int k = from; k < to; k++) {
+					ICollidable c2 = collidables.get(candidates[k]);
+					hits[k] = player != c2 && collides(player, c2);
+				}
+			}).join();
+
+			for (int k = 0; k < candidates.length; k++) {
+				if (debug && player != collidables.get(candidates[k])) {
+					addDebugPair(player, collidables.get(candidates[k]), hits[k]);
 				}
+				if (hits[k]) {
+					collide(player, collidables.get(candidates[k]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a line between a pair that was checked for collisions to the
+	 * debug view.
+	 * 
+	 * @param c1
+	 * 		the player.
+	 * @param c2
+	 * 		the collidable.
+	 * @param hit
+	 * 		if the pair collides.
+	 */
+	private void addDebugPair(ICollidable c1, ICollidable c2, boolean hit) {
+		ICollisionArea a1 = c1.getBoundingArea();
+		ICollisionArea a2 = c2.getBoundingArea();
+		collisionDebug.addLine(a1.getCenterX(), a1.getCenterY(), a2.getCenterX(), a2.getCenterY(), hit);
+	}
+
+	/**
+	 * Handles a collision between a player and a collidable, and fires the
+	 * events that belong to it.
+	 * 
+	 * @param c1
+	 * 		the player.
+	 * @param c2
+	 * 		the collidable.
+	 */
+	private void collide(PlayerFish c1, ICollidable c2) {
+		int score = c1.scoreProperty().get();
+		boolean wasDead = c2 instanceof Entity && ((Entity) c2).isDead();
+
+		c1.onCollide(c2);
+		c2.onCollide(c1);
+
+		if (!wasDead && !c1.isDead() && c2 instanceof Entity && ((Entity) c2).isDead()) {
+			if (!headless) {
+				ICollisionArea eaten = c2.getBoundingArea();
+				particles.burst(ParticleSystem.Kind.EAT, eaten.getCenterX(), eaten.getCenterY(), EAT_PARTICLES,
+						EAT_PARTICLE_SPEED, EAT_PARTICLE_SIZE, EAT_PARTICLE_TICKS);
 			}
+			fire(new EatEvent(tickCount, c1, (Entity) c2));
+		}
+		if (score != c1.scoreProperty().get()) {
+			fire(new ScoreEvent(tickCount, c1, score, c1.scoreProperty().get()));
+		}
+	}
+
+	/**
+	 * Checks if two collidables collide. When the quality of the game is
+	 * lowered, only the bounding boxes are checked.
+	 * 
+	 * @param c1
+	 * 		the first collidable.
+	 * @param c2
+	 * 		the second collidable.
+	 * 
+	 * @return
+	 * 		if the collidables collide.
+	 */
+	private boolean collides(ICollidable c1, ICollidable c2) {
+		narrowTests.incrementAndGet();
+		if (scheduler.isSimpleCollisions()) {
+			return c1.getBoundingArea().boxIntersects(c2.getBoundingArea());
 		}
+		return c1.doesCollides(c2);
 	}
 
 	/**
@@ -225,23 +806,74 @@ public abstract class PlayingField {
 		for (Entity e : tbr) {
 			remove(e);
 			enemyCount--;
+			if (!headless) {
+				e.drawDeath(particles);
+			}
+			fire(new DeathEvent(tickCount, e));
 		}
 	}
 
+	/**
+	 * Lets every player blow a bubble every {@link #BUBBLE_INTERVAL} ticks,
+	 * and moves all particles.<br>
+	 * <br>
+	 * Nobody sees the particles of a headless field, so it has none.
+	 */
+	public void updateParticles() {
+		if (headless) {
+			return;
+		}
+
+		if (tickCount % BUBBLE_INTERVAL == 0) {
+			SplittableRandom effects = random.getEffectsRandom();
+			for (PlayerFish player : getPlayers()) {
+				if (player.isDead()) {
+					continue;
+				}
+
+				ICollisionArea area = player.getBoundingArea();
+				particles.emit(ParticleSystem.Kind.BUBBLE, area.getCenterX(), area.getCenterY(),
+						effects.nextDouble() - 0.5, -0.5, 4 + 4 * effects.nextDouble(), BUBBLE_TICKS);
+			}
+		}
+
+		particles.update();
+	}
+
+	/**
+	 * @return
+	 * 		the particles of the effects of this playing field.
+	 */
+	public ParticleSystem getParticles() {
+		return particles;
+	}
+
 	/**
 	 * Adds new entities.
 	 */
 	public void addEntities() {
 
-		//add enemy entities
-		while (enemyCount < MAX_ENEMY_COUNT) {
+		//request enemy entities
+		while (enemyCount + spawner.size() < MAX_ENEMY_COUNT) {
 			//TODO add scalible enemyFish
-			EnemyFish eFish = LevelBuilder.randomizedFish(getPlayers().get(0).getBoundingArea());
+			spawner.request(LevelBuilder.randomizedSpawn(getPlayers().get(0).getBoundingArea(), random, tickCount));
+		}
+
+		//A headless field spawns all of them at once, to stay reproducible.
+		for (EnemyFish eFish : spawner.spawn(tickCount, !headless)) {
 			add(eFish);
 			enemyCount++;
 		}
 	}
 
+	/**
+	 * @return
+	 * 		the scheduler that spawns the enemies of this playing field.
+	 */
+	public SpawnScheduler getSpawner() {
+		return spawner;
+	}
+
 	/**
 	 * Gives back the different players in the field.
 	 * 
@@ -250,51 +882,206 @@ public abstract class PlayingField {
 	public abstract ArrayList<PlayerFish> getPlayers();
 
 	/**
-	 * Moves Movable items.
+	 * Moves Movable items.<br>
+	 * <br>
+	 * Sleeping entities only get a coarse update once every
+	 * {@link #SLEEP_UPDATE_INTERVAL} ticks, in which they catch up on the
+	 * ticks they have slept through.<br>
+	 * <br>
+	 * When the quality of the game is lowered, the AI of the enemies is not
+	 * updated every tick. They keep moving in the same direction in between.<br>
+	 * <br>
+	 * With many movables, they are moved in parallel jobs, in chunks of
+	 * {@link #MOVE_CHUNK_SIZE}. This includes updating their AI. Every movable only changes its own state
+	 * while moving. Hitting a wall is collected per chunk, and handled after
+	 * all movables have moved, in the order of the movables. This way, the
+	 * result is the same as when moving sequentially.
 	 */
 	public void moveMovables() {
-		for (IMovable m : movables) {
-			m.preMove();
-			
-			ICollisionArea box = m.getBoundingArea();
-			double maxx = Math.max(box.getTopRight().x, box.getBottomRight().x);
-			double minx = Math.min(box.getTopLeft().x, box.getBottomLeft().x);
-			double maxy = Math.max(box.getBottomLeft().y, box.getBottomRight().y);
-			double miny = Math.min(box.getTopLeft().y, box.getTopRight().y);
-			if (m instanceof PlayerFish) {	// prevent playerfish from leaving the screen
-				if (maxx >= WINDOW_X
-						|| minx <= 0
-						|| maxy >= WINDOW_Y
-						|| miny <= 0) {
-					m.hitWall();
+		boolean updateAi = tickCount % scheduler.getAiInterval() == 0;
+		IMovable[] array = movables.toArray(new IMovable[movables.size()]);
+
+		List<List<IMovable>> hits;
+		if (array.length < parallelThreshold) {
+			hits = Collections.singletonList(moveRange(array, 0, array.length, updateAi));
+		} else {
+			//Every chunk sets only its own element, so the list is never changed structurally.
+			int chunks = (array.length + MOVE_CHUNK_SIZE - 1) / MOVE_CHUNK_SIZE;
+			List<List<IMovable>> chunkHits = new ArrayList<>(Collections.nCopies(chunks, null));
+			jobs.parallelFor(JOB_MOVE, array.length, MOVE_CHUNK_SIZE,
+					(from, to) -> {
+						chunkHits.set(from / MOVE_CHUNK_SIZE, moveRange(array, from, to, updateAi));
+					}).join();
+			hits = chunkHits;
+		}
+
+		//All movables have moved now, so we can handle the walls that were hit.
+		for (List<IMovable> list : hits) {
+			for (IMovable m : list) {
+				m.hitWall();
+			}
+		}
+	}
+
+	/**
+	 * Moves a range of movables.
+	 * 
+	 * @param array
+	 * 		the array of movables.
+	 * @param from
+	 * 		the first index to move (inclusive).
+	 * @param to
+	 * 		the last index to move (exclusive).
+	 * @param updateAi
+	 * 		if the AI of enemies should be updated.
+	 * 
+	 * @return
+	 * 		the movables that hit a wall, in order.
+	 */
+	private List<IMovable> moveRange(IMovable[] array, int from, int to, boolean updateAi) {
+		ArrayList<IMovable> hits = new ArrayList<>(0);
+		for (int i = from; i < to; i++) {
+			IMovable m = array[i];
+			if (m instanceof Entity && ((Entity) m).isSleeping()) {
+				Entity e = (Entity) m;
+				int ticks = e.addSleepTick();
+				if (ticks >= SLEEP_UPDATE_INTERVAL) {
+					e.resetSleepTicks();
+					moveMovable(m, ticks, hits);
 				}
 			} else {
-				if (maxx >= WINDOW_X + 2.0 * box.getWidth()
-						|| minx <= -1 - 2.0 * box.getWidth()
-						|| maxy >= WINDOW_Y + 2.0 * box.getHeight() + 1
-						|| miny <= 0 - 2.0 * box.getHeight() - 1) {
-					m.hitWall();
+				if (updateAi || m instanceof PlayerFish) {
+					m.preMove();
 				}
+				moveMovable(m, 1, hits);
 			}
+		}
+		return hits;
+	}
 
-			box.move(m.getSpeedVector());
+	/**
+	 * Sets the amount of objects from which the movement phase and the
+	 * building of the render list are split up in parallel jobs.
+	 * 
+	 * @param threshold
+	 * 		the new threshold. Use {@link Integer#MAX_VALUE} to never split
+	 * 		them up.
+	 */
+	public void setParallelThreshold(int threshold) {
+		this.parallelThreshold = threshold;
+	}
 
-			if (!m.canMoveThroughWall()) {
+	/**
+	 * @return
+	 * 		the job system that runs the parallel jobs of this playing field.
+	 */
+	public JobSystem getJobSystem() {
+		return jobs;
+	}
 
-				if (maxx > WINDOW_X) {
-					box.move(new Vec2d(-(maxx - WINDOW_X), 0));
-				} if (minx < 0) {
-					box.move(new Vec2d(-minx, 0));
-				} if (maxy > WINDOW_Y) {
-					box.move(new Vec2d(0, maxy - WINDOW_Y));
-				} if (miny < 0) {
-					box.move(new Vec2d(0, miny));
-				}
+	/**
+	 * Sets the job system that runs the parallel jobs of this playing
+	 * field. By default, the shared {@link JobSystem#getDefault()} is used.
+	 * Sprites are always loaded by the {@link JobSystem#getIo() IO workers}.
+	 * The software compositor of the renderer draws with it as well.
+	 * 
+	 * @param jobs
+	 * 		the new job system.
+	 */
+	public void setJobSystem(JobSystem jobs) {
+		this.jobs = jobs;
+		if (renderer != null) {
+			renderer.setJobSystem(jobs);
+		}
+	}
+
+	/**
+	 * Moves a single Movable item.
+	 * 
+	 * @param m
+	 * 		the movable to move.
+	 * @param ticks
+	 * 		the amount of ticks to move the movable for.
+	 * @param hits
+	 * 		the list to add the movable to if it hits a wall.
+	 */
+	private void moveMovable(IMovable m, int ticks, List<IMovable> hits) {
+		ICollisionArea box = m.getBoundingArea();
+		double maxx = Math.max(box.getTopRight().x, box.getBottomRight().x);
+		double minx = Math.min(box.getTopLeft().x, box.getBottomLeft().x);
+		double maxy = Math.max(box.getBottomLeft().y, box.getBottomRight().y);
+		double miny = Math.min(box.getTopLeft().y, box.getTopRight().y);
+		if (m instanceof PlayerFish) {	// prevent playerfish from leaving the screen
+			if (maxx >= WINDOW_X
+					|| minx <= 0
+					|| maxy >= WINDOW_Y
+					|| miny <= 0) {
+				hits.add(m);
+			}
+		} else {
+			if (maxx >= WINDOW_X + 2.0 * box.getWidth()
+					|| minx <= -1 - 2.0 * box.getWidth()
+					|| maxy >= WINDOW_Y + 2.0 * box.getHeight() + 1
+					|| miny <= 0 - 2.0 * box.getHeight() - 1) {
+				hits.add(m);
+			}
+		}
+
+		if (m instanceof Entity) {
+			((Entity) m).savePreviousCenter();
+		}
 
+		Vec2d speed = m.getSpeedVector();
+		speed.x *= ticks;
+		speed.y *= ticks;
+
+		//Screen coordinates have the y axis pointing down.
+		double dx = speed.x;
+		double dy = -speed.y;
+		box.move(speed);
+		box.setRotation(m);
+
+		if (!m.canMoveThroughWall()) {
+
+			if (maxx > WINDOW_X) {
+				box.move(new Vec2d(-(maxx - WINDOW_X), 0));
+			} if (minx < 0) {
+				box.move(new Vec2d(-minx, 0));
+			} if (maxy > WINDOW_Y) {
+				box.move(new Vec2d(0, maxy - WINDOW_Y));
+			} if (miny < 0) {
+				box.move(new Vec2d(0, miny));
 			}
+
+		} else if (m instanceof Entity) {
+			//Only entities that can leave the screen can fall asleep.
+			((Entity) m).setSleeping(!isInActiveRegion(minx + dx, maxx + dx, miny + dy, maxy + dy));
 		}
 	}
 
+	/**
+	 * Checks if the given bounds are (partly) inside the active region.<br>
+	 * <br>
+	 * The active region is the visible window, extended with
+	 * {@link #ACTIVE_MARGIN} on every side.
+	 * 
+	 * @param minx
+	 * 		the minimal x coordinate.
+	 * @param maxx
+	 * 		the maximal x coordinate.
+	 * @param miny
+	 * 		the minimal y coordinate.
+	 * @param maxy
+	 * 		the maximal y coordinate.
+	 * 
+	 * @return
+	 * 		true if the bounds overlap with the active region, false otherwise.
+	 */
+	public static boolean isInActiveRegion(double minx, double maxx, double miny, double maxy) {
+		return maxx >= -ACTIVE_MARGIN && minx <= WINDOW_X + ACTIVE_MARGIN
+				&& maxy >= -ACTIVE_MARGIN && miny <= WINDOW_Y + ACTIVE_MARGIN;
+	}
+
 	/**
 	 * Calls all listeners pre tick.
 	 * 
@@ -303,23 +1090,7 @@ public abstract class PlayingField {
 	 * 		if false, calls the game listeners.
 	 */
 	public void preListeners(boolean render) {
-		ArrayList<TickListener> list;
-		if (render) {
-			list = renderListeners;
-		} else {
-			list = gameListeners;
-		}
-
-		//TODO Concurrency
-		for (TickListener tl : list) {
-			try {
-				tl.preTick();
-			} catch (Exception ex) {
-				//TODO Handle exception differently
-				System.err.println("Error in preTick!");
-				ex.printStackTrace();
-			}
-		}
+		fireTick(Phase.PRE_TICK, render);
 	}
 
 	/**
@@ -330,40 +1101,87 @@ public abstract class PlayingField {
 	 * 		if false, calls the game listeners.
 	 */
 	public void postListeners(boolean render) {
-		ArrayList<TickListener> list;
-		if (render) {
-			list = renderListeners;
+		fireTick(Phase.POST_TICK, render);
+	}
+
+	/**
+	 * Publishes a TickEvent right away.
+	 * 
+	 * @param phase
+	 * 		the point in the tick.
+	 * @param render
+	 * 		if true, for a rendered frame, if false, for a game tick.
+	 */
+	private void fireTick(Phase phase, boolean render) {
+		events.publish(new TickEvent(tickCount, phase, render));
+	}
+
+	/**
+	 * Fires a game event. The event is dispatched right away, or at the end
+	 * of the tick if events are batched.
+	 * 
+	 * @param event
+	 * 		the event.
+	 */
+	protected void fire(Object event) {
+		if (batchedEvents) {
+			events.post(event);
 		} else {
-			list = gameListeners;
+			events.publish(event);
 		}
+	}
 
-		//TODO Concurrency
-		for (TickListener tl : list) {
-			try {
-				tl.postTick();
-			} catch (Exception ex) {
-				//TODO Handle exception differently
-				System.err.println("Error in postTick!");
-				ex.printStackTrace();
-			}
-		}
+	/**
+	 * Gives back the event bus of this playing field.<br>
+	 * <br>
+	 * All events of the game are published on this bus: ticks, spawns,
+	 * deaths, eating and score changes. Listeners can subscribe from any
+	 * thread, and are called on the thread that fires the event (usually
+	 * the game thread).
+	 * 
+	 * @return
+	 * 		the event bus.
+	 */
+	public EventBus getEvents() {
+		return events;
+	}
+
+	/**
+	 * Sets if game events are dispatched in a batch at the end of each
+	 * tick, instead of right away. Tick events are always dispatched right
+	 * away.
+	 * 
+	 * @param batched
+	 * 		<code>true</code> to batch events.
+	 */
+	public void setBatchedEvents(boolean batched) {
+		this.batchedEvents = batched;
 	}
 
 	/**
 	 * Gives back the renderthread.
 	 * 
-	 * @return the renderthread.
+	 * @return the renderthread, or <code>null</code> if headless.
 	 */
-	public Timeline getRenderThread() {
+	public RenderDriver getRenderThread() {
 		return renderThread;
 	}
 
+	/**
+	 * @return
+	 * 		the renderer that draws the render commands of this playing
+	 * 		field, or <code>null</code> if headless.
+	 */
+	public PlayingFieldRenderer getRenderer() {
+		return renderer;
+	}
+
 	/**
 	 * Returns the gamethread.
 	 * 
 	 * @return the gamethread.
 	 */
-	public Timeline getGameThread() {
+	public GameThread getGameThread() {
 		return gameThread;
 	}
 
@@ -371,7 +1189,9 @@ public abstract class PlayingField {
 	 * Starts the game.
 	 */
 	public void startGame() {
-		renderThread.play();
+		if (renderThread != null) {
+			renderThread.start();
+		}
 		gameThread.play();
 	}
 
@@ -380,7 +1200,31 @@ public abstract class PlayingField {
 	 */
 	public void stopGame() {
 		gameThread.stop();
-		renderThread.stop();
+		if (renderThread != null) {
+			renderThread.stop();
+		}
+	}
+
+	/**
+	 * Runs the given amount of ticks right away, on the calling thread.<br>
+	 * <br>
+	 * This can be used to run the simulation as fast as possible, for
+	 * example in headless mode. The game thread must not be running.
+	 * 
+	 * @param ticks
+	 * 		the amount of ticks to run.
+	 * 
+	 * @throws IllegalStateException
+	 * 		if the game thread is running.
+	 */
+	public void step(int ticks) {
+		if (gameThread.isRunning()) {
+			throw new IllegalStateException("Cannot step while the game thread is running!");
+		}
+
+		for (int i = 0; i < ticks; i++) {
+			tick();
+		}
 	}
 	
 	/**
@@ -388,20 +1232,14 @@ public abstract class PlayingField {
 	 * 		if the game is running or not (stopped / paused)
 	 */
 	public boolean isRunning() {
-		return gameThread.getStatus() == Status.RUNNING;
+		return gameThread.isRunning();
 	}
 
 	/**
-	 * Gives back the canvas of the Playing Field.
-	 * 
-	 * @return the canvas that is the PlayingField.
-	 */
-	public Canvas getCanvas() {
-		return canvas;
-	}
-
-	/**
-	 * Adds the given object to this Playing Field.
+	 * Adds the given object to this Playing Field.<br>
+	 * <br>
+	 * This should only be called from the game thread, or while the game
+	 * thread is stopped.
 	 * 
 	 * @param o
 	 * 		the object to add.
@@ -417,6 +1255,7 @@ public abstract class PlayingField {
 
 		if (o instanceof Entity) {
 			entities.add((Entity) o);
+			fire(new SpawnEvent(tickCount, (Entity) o));
 		}
 
 		if (o instanceof ICollidable) {
@@ -425,14 +1264,17 @@ public abstract class PlayingField {
 	}
 
 	/**
-	 * Removes the given object from this playing field.
+	 * Removes the given object from this playing field.<br>
+	 * <br>
+	 * This should only be called from the game thread, or while the game
+	 * thread is stopped.
 	 * 
 	 * @param o
 	 * 		the object to remove.
 	 */
 	public void remove(Object o) {
 		if (o instanceof IDrawable) {
-			drawables.remove(o);
+			drawables.remove((IDrawable) o);
 		}
 
 		if (o instanceof IMovable) {
@@ -451,16 +1293,20 @@ public abstract class PlayingField {
 	/**
 	 * Clear this PlayingField.<br>
 	 * <br>
-	 * This removes all Entities and Drawables.
+	 * This removes all Entities and Drawables.<br>
+	 * <br>
+	 * This should only be called while the game thread is stopped.
 	 */
 	public void clear() {
-		GraphicsContext gc = canvas.getGraphicsContext2D();
 		for (Entity e : entities) {
 			e.setDead();
 		}
 
-		for (IDrawable d : drawables) {
-			d.drawDeath(gc);
+		particles.clear();
+		if (!headless) {
+			for (IDrawable d : drawables.toArray()) {
+				d.drawDeath(particles);
+			}
 		}
 
 		entities.clear();
@@ -468,17 +1314,25 @@ public abstract class PlayingField {
 		movables.clear();
 		collidables.clear();
 		
+		spawner.clear();
 		enemyCount = 0;
+		if (renderer != null) {
+			renderer.requestFullRedraw();
+		}
+		publishSnapshot();
 	}
 
 	/**
-	 * Registers the given TickListener for the game thread.
+	 * Registers the given TickListener for the game thread.<br>
+	 * <br>
+	 * The listener is called on the game thread, not on the JavaFX
+	 * Application Thread.
 	 * 
 	 * @param tl
 	 * 		the TickListener to register.
 	 */
 	public void registerGameListener(TickListener tl) {
-		gameListeners.add(tl);
+		registerTickListener(tl, false, gameListeners);
 	}
 
 	/**
@@ -488,7 +1342,7 @@ public abstract class PlayingField {
 	 * 		the TickListener to unregister.
 	 */
 	public void unregisterGameListener(TickListener tl) {
-		gameListeners.remove(tl);
+		unregisterTickListener(tl, gameListeners);
 	}
 
 	/**
@@ -498,7 +1352,7 @@ public abstract class PlayingField {
 	 * 		the TickListener to register.
 	 */
 	public void registerRenderListener(TickListener tl) {
-		gameListeners.add(tl);
+		registerTickListener(tl, true, renderListeners);
 	}
 
 	/**
@@ -508,20 +1362,46 @@ public abstract class PlayingField {
 	 * 		the TickListener to unregister.
 	 */
 	public void unregisterRenderListener(TickListener tl) {
-		gameListeners.remove(tl);
+		unregisterTickListener(tl, renderListeners);
 	}
 
 	/**
-	 * Set the background image of the level.
-	 * @param image
-	 * 			The background image.
+	 * Subscribes a TickListener to the tick events of the game or the
+	 * render thread.
+	 * 
+	 * @param tl
+	 * 		the TickListener.
+	 * @param render
+	 * 		if true, for the render thread, if false, for the game thread.
+	 * @param adapters
+	 * 		the subscribed listeners of the thread.
 	 */
-	public void setBackground(Image image) {
-		if (image.isError()) {
-			System.err.println("Error loading the new background!\nUsing old one instead");
-			return;
+	private void registerTickListener(TickListener tl, boolean render,
+			ConcurrentHashMap<TickListener, EventListener<TickEvent>> adapters) {
+		EventListener<TickEvent> adapter = event -> {
+			if (event.isRender() == render) {
+				event.dispatchTo(tl);
+			}
+		};
+
+		if (adapters.putIfAbsent(tl, adapter) == null) {
+			events.subscribe(TickEvent.class, adapter);
 		}
+	}
 
-		background = image;
+	/**
+	 * Unsubscribes a TickListener from the tick events.
+	 * 
+	 * @param tl
+	 * 		the TickListener.
+	 * @param adapters
+	 * 		the subscribed listeners of the thread.
+	 */
+	private void unregisterTickListener(TickListener tl,
+			ConcurrentHashMap<TickListener, EventListener<TickEvent>> adapters) {
+		EventListener<TickEvent> adapter = adapters.remove(tl);
+		if (adapter != null) {
+			events.unsubscribe(TickEvent.class, adapter);
+		}
 	}
 }
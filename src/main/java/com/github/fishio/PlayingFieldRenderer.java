@@ -0,0 +1,698 @@
+package com.github.fishio;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.github.fishio.RenderLayers.Layer;
+import com.github.fishio.SoftwareCompositor.Texture;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.transform.Scale;
+
+/**
+ * Draws a playing field on its {@link RenderLayers}, on the render
+ * thread.<br>
+ * <br>
+ * The game thread publishes the render commands of every tick in a
+ * {@link RenderExchange}, and this only draws the last published
+ * {@link RenderCommandBuffer}: it never reads the entities themselves. It
+ * owns everything that is only needed to draw: the background and
+ * scenery layers, the dirty regions, the {@link SoftwareCompositor}, the
+ * {@link ResolutionScaler} and the {@link CollisionDebugView}.
+ */
+public class PlayingFieldRenderer {
+	private static final int WINDOW_X = PlayingField.WINDOW_X;
+	private static final int WINDOW_Y = PlayingField.WINDOW_Y;
+
+	/**
+	 * The part of the screen from which a frame is redrawn completely,
+	 * instead of only the dirty regions.
+	 */
+	public static final double FULL_REDRAW_RATIO = 0.5;
+
+	private static final Texture MISSING_SPRITE = Texture.solid(0xFFFF0000);
+
+	private final RenderExchange commands;
+	private final RenderCommandBuffer drawn = new RenderCommandBuffer();
+	private volatile boolean fullRedraw = true;
+	private double lastAlpha;
+	private double[] bounds = new double[0];
+	private double[] drawnBounds = new double[0];
+	private final DirtyRegions dirty = new DirtyRegions(WINDOW_X, WINDOW_Y);
+	private volatile boolean dirtyRendering = true;
+	private volatile double lastRedrawArea;
+	private int culled;
+	private volatile int lastCulled;
+	private volatile boolean softwareRendering;
+	private boolean lastSoftware;
+	private volatile boolean debugView;
+	private boolean lastDebug;
+	private volatile JobSystem jobs = JobSystem.getDefault();
+	private SoftwareCompositor compositor;
+	private WritableImage frameImage;
+	private Image compositedBackground;
+	private final IdentityHashMap<Image, Texture> textures = new IdentityHashMap<>();
+	private final ResolutionScaler resolution;
+	private volatile double canvasScale = 1;
+	private double[] particleBounds = new double[4];
+	private double[] drawnParticleBounds = new double[4];
+	private boolean drawnParticles;
+	private final double[] sceneryBounds = new double[4];
+	private final CollisionDebugView debugRenderer = new CollisionDebugView();
+
+	private final RenderLayers layers;
+	private final Canvas canvas;
+	private final CopyOnWriteArrayList<SpriteState> scenery = new CopyOnWriteArrayList<>();
+	private Image background;
+
+	/**
+	 * Creates a new PlayingFieldRenderer.
+	 * 
+	 * @param layers
+	 *            the canvases to draw the layers on.
+	 * @param commands
+	 *            the exchange the game thread publishes the render commands
+	 *            in.
+	 * @param frameNanos
+	 *            the time available for a single frame, in nanoseconds.
+	 */
+	public PlayingFieldRenderer(RenderLayers layers, RenderExchange commands, long frameNanos) {
+		this.layers = layers;
+		this.canvas = layers.getCanvas(Layer.ENTITIES);
+		this.commands = commands;
+		this.resolution = new ResolutionScaler(frameNanos);
+	}
+
+	/**
+	 * Makes sure the next frame is redrawn completely, e.g. after the
+	 * playing field has been cleared.
+	 */
+	public void requestFullRedraw() {
+		fullRedraw = true;
+	}
+
+	/**
+	 * Called to redraw the screen.<br>
+	 * <br>
+	 * This draws the last render commands published by the game thread. Entities
+	 * are drawn at a position interpolated between their previous and
+	 * current position, depending on how far we are into the next tick.
+	 */
+	public void redraw() {
+		fullRedraw = true;
+		redraw(System.nanoTime());
+	}
+
+	/**
+	 * Redraws the screen for the given time, if anything has changed since
+	 * the last time it was drawn.<br>
+	 * <br>
+	 * Nothing changes when there are no new commands and the entities are
+	 * already drawn at their current position, e.g. when the game is paused.
+	 * Otherwise, only the regions where something was or is drawn that has
+	 * moved or changed are redrawn, see {@link #setDirtyRendering(boolean)}.
+	 * The background and scenery layers are only redrawn when they change.
+	 * 
+	 * @param now
+	 * 		the time to draw the frame for, in nanoseconds.
+	 * 
+	 * @return
+	 * 		<code>true</code> if the screen was redrawn, <code>false</code>
+	 * 		if nothing has changed.
+	 */
+	public boolean redraw(long now) {
+		boolean staticChanged = redrawStaticLayers();
+
+		boolean fresh = commands.acquire();
+		RenderCommandBuffer frame = commands.getFront();
+		double alpha = frame.getAlpha(now);
+		if (!fresh && !fullRedraw && alpha == lastAlpha) {
+			return staticChanged;
+		}
+
+		boolean software = softwareRendering;
+		boolean debug = debugView;
+		boolean full = fullRedraw || !dirtyRendering || IDrawable.DEBUG || debug || lastDebug
+				|| software != lastSoftware;
+		lastDebug = debug;
+		fullRedraw = false;
+		lastAlpha = alpha;
+		lastSoftware = software;
+		GraphicsContext gc = canvas.getGraphicsContext2D();
+
+		//A frame at a lower resolution is redrawn completely, so it is scaled up without seams.
+		if (applyRenderScale(gc, software)) {
+			full = true;
+		}
+
+		//Work out the bounds once, to cull and to find the dirty regions with.
+		if (bounds.length < 4 * frame.size()) {
+			bounds = new double[4 * frame.size()];
+		}
+		for (int i = 0; i < frame.size(); i++) {
+			frame.getBounds(i, alpha, bounds, 4 * i);
+		}
+		boolean hasParticles = frame.getParticles().getBounds(particleBounds);
+		culled = 0;
+
+		if (software) {
+			composite(gc, frame, alpha);
+			frame.getParticles().render(gc, alpha);
+			if (debug) {
+				debugRenderer.draw(gc, frame, alpha);
+			}
+			lastRedrawArea = WINDOW_X * WINDOW_Y;
+			lastCulled = culled;
+			return true;
+		}
+
+		if (!full) {
+			markDirty(frame, hasParticles);
+			full = dirty.getArea() > FULL_REDRAW_RATIO * WINDOW_X * WINDOW_Y;
+		}
+
+		if (full) {
+			//Clear screen
+			gc.clearRect(0, 0, WINDOW_X, WINDOW_Y);
+
+			//draw background image and scenery, if they have no layer of their own
+			if (!layers.isLayered()) {
+				gc.drawImage(background, 0, 0);
+				for (SpriteState state : scenery) {
+					state.render(gc, 1.0);
+				}
+			}
+
+			for (int i = 0; i < frame.size(); i++) {
+				if (isVisible(bounds, 4 * i)) {
+					frame.render(i, gc, alpha);
+				}
+			}
+			frame.getParticles().render(gc, alpha);
+			if (debug) {
+				debugRenderer.draw(gc, frame, alpha);
+			}
+			lastRedrawArea = WINDOW_X * WINDOW_Y;
+		} else {
+			redrawDirty(gc, frame, alpha);
+			lastRedrawArea = dirty.getArea();
+		}
+
+		//Keep what was drawn, as the buffer of the frame is handed back to the game thread later.
+		drawn.copyFrom(frame);
+		double[] tmp = drawnBounds;
+		drawnBounds = bounds;
+		bounds = tmp;
+		tmp = drawnParticleBounds;
+		drawnParticleBounds = particleBounds;
+		particleBounds = tmp;
+		drawnParticles = hasParticles;
+		lastCulled = culled;
+		return true;
+	}
+
+	/**
+	 * Resizes the canvas of the entities to the resolution the
+	 * {@link ResolutionScaler} has picked, if it has changed. The canvas is
+	 * scaled back up to the size of the screen by the scene graph, and the
+	 * graphicscontext is scaled down, so everything is still drawn in the
+	 * coordinates of the playing field.<br>
+	 * <br>
+	 * The resolution is only lowered when the entities have a canvas of
+	 * their own (the other layers would be scaled as well), and never for
+	 * the software compositor, which draws a frame at full resolution.
+	 * 
+	 * @param gc
+	 * 		the graphicscontext of the canvas of the entities.
+	 * @param software
+	 * 		if the frame is drawn by the software compositor.
+	 * 
+	 * @return
+	 * 		<code>true</code> if the frame is drawn at a lower resolution, or
+	 * 		the resolution has changed.
+	 */
+	private boolean applyRenderScale(GraphicsContext gc, boolean software) {
+		double scale = 1;
+		if (layers.isLayered() && !software) {
+			scale = resolution.getScale();
+		}
+
+		if (scale == canvasScale) {
+			return scale < 1;
+		}
+
+		canvasScale = scale;
+		canvas.setWidth(Math.ceil(WINDOW_X * scale));
+		canvas.setHeight(Math.ceil(WINDOW_Y * scale));
+		canvas.getTransforms().clear();
+		if (scale < 1) {
+			canvas.getTransforms().add(new Scale(1 / scale, 1 / scale, 0, 0));
+		}
+		gc.setTransform(scale, 0, 0, scale, 0, 0);
+		return true;
+	}
+
+	/**
+	 * Checks if the given bounds are (partly) on the screen. Counts the
+	 * bounds as culled if they are not.
+	 * 
+	 * @param bounds
+	 * 		the bounds of states.
+	 * @param o
+	 * 		the index of the bounds to check in the array.
+	 * 
+	 * @return
+	 * 		<code>true</code> if the bounds are (partly) on the screen.
+	 */
+	private boolean isVisible(double[] bounds, int o) {
+		if (bounds[o + 2] <= 0 || bounds[o] >= WINDOW_X || bounds[o + 3] <= 0 || bounds[o + 1] >= WINDOW_Y) {
+			culled++;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of sprites that were not drawn in the last frame,
+	 * 		because they were completely outside the screen.
+	 */
+	public int getCulledCount() {
+		return lastCulled;
+	}
+
+	/**
+	 * Redraws the background and scenery layers, if they have changed.<br>
+	 * <br>
+	 * When all layers are drawn on a single canvas, the background and
+	 * scenery are drawn with the entities instead, so the next frame is
+	 * then redrawn completely.
+	 * 
+	 * @return
+	 * 		<code>true</code> if a layer was redrawn.
+	 */
+	private boolean redrawStaticLayers() {
+		boolean backgroundChanged = layers.clearDirty(Layer.BACKGROUND);
+		boolean sceneryChanged = layers.clearDirty(Layer.SCENERY);
+		if (!backgroundChanged && !sceneryChanged) {
+			return false;
+		}
+
+		if (!layers.isLayered()) {
+			fullRedraw = true;
+			return true;
+		}
+
+		if (backgroundChanged) {
+			GraphicsContext gc = layers.getGraphics(Layer.BACKGROUND);
+			gc.clearRect(0, 0, WINDOW_X, WINDOW_Y);
+			gc.drawImage(background, 0, 0);
+		}
+
+		if (sceneryChanged) {
+			GraphicsContext gc = layers.getGraphics(Layer.SCENERY);
+			gc.clearRect(0, 0, WINDOW_X, WINDOW_Y);
+			for (SpriteState state : scenery) {
+				state.render(gc, 1.0);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Marks the regions that have to be redrawn: the old and new bounds of
+	 * every state that has moved or changed since the last frame, and of
+	 * all particles.<br>
+	 * <br>
+	 * Commands are matched with the commands of the last frame by their
+	 * index. When entities are added or removed, the commands after them are
+	 * all marked, which is more than needed, but never less.
+	 * 
+	 * @param frame
+	 * 		the commands to draw.
+	 * @param hasParticles
+	 * 		if the frame has particles.
+	 */
+	private void markDirty(RenderCommandBuffer frame, boolean hasParticles) {
+		dirty.clear();
+
+		//Particles move every tick, so all of them are redrawn.
+		if (drawnParticles) {
+			dirty.add(drawnParticleBounds[0], drawnParticleBounds[1], drawnParticleBounds[2], drawnParticleBounds[3]);
+		}
+		if (hasParticles) {
+			dirty.add(particleBounds[0], particleBounds[1], particleBounds[2], particleBounds[3]);
+		}
+
+		int common = Math.min(frame.size(), drawn.size());
+		for (int i = 0; i < Math.max(frame.size(), drawn.size()); i++) {
+			int o = 4 * i;
+			if (i < common && frame.looksLike(i, drawn, i)
+					&& bounds[o] == drawnBounds[o] && bounds[o + 1] == drawnBounds[o + 1]) {
+				continue;
+			}
+
+			if (i < drawn.size()) {
+				dirty.add(drawnBounds[o], drawnBounds[o + 1], drawnBounds[o + 2], drawnBounds[o + 3]);
+			}
+			if (i < frame.size()) {
+				dirty.add(bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3]);
+			}
+		}
+	}
+
+	/**
+	 * Redraws only the dirty regions: clears them, and draws the commands that
+	 * overlap them, clipped to them. If there are no separate layers for
+	 * the background and scenery, those are restored inside them first.
+	 * 
+	 * @param gc
+	 * 		the graphicscontext to draw on.
+	 * @param frame
+	 * 		the commands to draw.
+	 * @param alpha
+	 * 		how far we are into the next tick.
+	 */
+	private void redrawDirty(GraphicsContext gc, RenderCommandBuffer frame, double alpha) {
+		if (dirty.isEmpty()) {
+			return;
+		}
+
+		gc.save();
+		gc.beginPath();
+		for (int i = 0; i < dirty.size(); i++) {
+			gc.rect(dirty.getMinX(i), dirty.getMinY(i), dirty.getWidth(i), dirty.getHeight(i));
+		}
+		gc.clip();
+
+		for (int i = 0; i < dirty.size(); i++) {
+			double x = dirty.getMinX(i);
+			double y = dirty.getMinY(i);
+			double w = dirty.getWidth(i);
+			double h = dirty.getHeight(i);
+			gc.clearRect(x, y, w, h);
+			if (layers.isLayered() || background == null) {
+				continue;
+			}
+
+			//The background is drawn at its own size, so only the part of it that is in the region is drawn.
+			double bw = Math.min(w, background.getWidth() - x);
+			double bh = Math.min(h, background.getHeight() - y);
+			if (bw > 0 && bh > 0) {
+				gc.drawImage(background, x, y, bw, bh, x, y, bw, bh);
+			}
+		}
+
+		if (!layers.isLayered()) {
+			for (SpriteState state : scenery) {
+				state.getBounds(1.0, sceneryBounds, 0);
+				if (dirty.intersects(sceneryBounds[0], sceneryBounds[1], sceneryBounds[2], sceneryBounds[3])) {
+					state.render(gc, 1.0);
+				}
+			}
+		}
+
+		for (int i = 0; i < frame.size(); i++) {
+			int o = 4 * i;
+			if (isVisible(bounds, o) && dirty.intersects(bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3])) {
+				frame.render(i, gc, alpha);
+			}
+		}
+		frame.getParticles().render(gc, alpha);
+		gc.restore();
+	}
+
+	/**
+	 * Renders a frame with the software compositor, and draws it as a
+	 * single image.
+	 * 
+	 * @param gc
+	 * 		the graphicscontext to draw on.
+	 * @param frame
+	 * 		the commands to draw.
+	 * @param alpha
+	 * 		how far we are into the next tick.
+	 */
+	private void composite(GraphicsContext gc, RenderCommandBuffer frame, double alpha) {
+		if (compositor == null) {
+			compositor = new SoftwareCompositor(WINDOW_X, WINDOW_Y, SoftwareCompositor.DEFAULT_TILE_SIZE, jobs);
+			frameImage = new WritableImage(WINDOW_X, WINDOW_Y);
+		}
+		compositor.setJobSystem(jobs);
+
+		//Without layers, the background and scenery are part of the frame.
+		if (!layers.isLayered() && compositedBackground != background) {
+			compositedBackground = background;
+			compositor.setBackground(readPixels(background));
+		}
+
+		compositor.clear();
+		if (!layers.isLayered()) {
+			for (SpriteState state : scenery) {
+				blit(state.getSprite(), state.getX(), state.getY(), state.getWidth(), state.getHeight(),
+						state.getRotation(), state.isReversed());
+			}
+		}
+		for (int i = 0; i < frame.size(); i++) {
+			if (isVisible(bounds, 4 * i)) {
+				blit(frame.getSprite(i), frame.getX(i, alpha), frame.getY(i, alpha), frame.getWidth(i),
+						frame.getHeight(i), frame.getRotation(i), frame.isMirrored(i));
+			}
+		}
+		compositor.render();
+
+		frameImage.getPixelWriter().setPixels(0, 0, WINDOW_X, WINDOW_Y, PixelFormat.getIntArgbPreInstance(),
+				compositor.getPixels(), 0, WINDOW_X);
+		gc.clearRect(0, 0, WINDOW_X, WINDOW_Y);
+		gc.drawImage(frameImage, 0, 0);
+	}
+
+	/**
+	 * Adds a blit of a sprite to the software compositor.
+	 * 
+	 * @param sprite
+	 * 		the sprite to draw, can be <code>null</code>.
+	 * @param x
+	 * 		the x coordinate of the center.
+	 * @param y
+	 * 		the y coordinate of the center.
+	 * @param width
+	 * 		the width.
+	 * @param height
+	 * 		the height.
+	 * @param rotation
+	 * 		the rotation in degrees.
+	 * @param mirror
+	 * 		if the sprite is drawn mirrored (left/right).
+	 */
+	private void blit(Image sprite, double x, double y, double width, double height, double rotation,
+			boolean mirror) {
+		if (sprite == null) {
+			//A red rectangle, which is never rotated.
+			compositor.blit(MISSING_SPRITE, x, y, width, height, 0, false);
+			return;
+		}
+
+		Texture texture = textures.computeIfAbsent(sprite, i -> Texture.fromImage(i, TextureAtlas.MAX_SPRITE_SIZE));
+		compositor.blit(texture, x, y, width, height, rotation, mirror);
+	}
+
+	/**
+	 * Reads the pixels of an image, with the size of the screen.
+	 * 
+	 * @param image
+	 * 		the image, can be <code>null</code>.
+	 * 
+	 * @return
+	 * 		the pixels as premultiplied ARGB ints, or <code>null</code> if
+	 * 		there is no image.
+	 */
+	private static int[] readPixels(Image image) {
+		if (image == null || image.getPixelReader() == null) {
+			return null;
+		}
+
+		int[] res = new int[WINDOW_X * WINDOW_Y];
+		int w = Math.min(WINDOW_X, (int) image.getWidth());
+		int h = Math.min(WINDOW_Y, (int) image.getHeight());
+		image.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), res, 0, WINDOW_X);
+		return res;
+	}
+
+	/**
+	 * @return
+	 * 		the scaler that picks the resolution the entities are drawn at.
+	 */
+	public ResolutionScaler getResolutionScaler() {
+		return resolution;
+	}
+
+	/**
+	 * @return
+	 * 		if the cost of frames can still be lowered by drawing the
+	 * 		entities at a lower resolution, see
+	 * 		{@link #applyRenderScale(GraphicsContext, boolean)}.
+	 */
+	public boolean hasHeadroom() {
+		return layers.isLayered() && !softwareRendering && resolution.hasHeadroom();
+	}
+
+	/**
+	 * @return
+	 * 		the scale of the resolution the entities were last drawn at, 1
+	 * 		being full resolution.
+	 */
+	public double getRenderScale() {
+		return canvasScale;
+	}
+
+	/**
+	 * Sets if the entities are drawn at a lower resolution when frames take
+	 * longer than the budget, see {@link ResolutionScaler}. It is enabled
+	 * by default, but only used when the entities have a canvas of their
+	 * own.
+	 * 
+	 * @param dynamic
+	 * 		<code>true</code> to lower the resolution when needed.
+	 */
+	public void setDynamicResolution(boolean dynamic) {
+		resolution.setEnabled(dynamic);
+	}
+
+	/**
+	 * @return
+	 * 		if frames are rendered with the software compositor.
+	 */
+	public boolean isSoftwareRendering() {
+		return softwareRendering;
+	}
+
+	/**
+	 * Sets if frames are rendered with the {@link SoftwareCompositor}: all
+	 * sprites are drawn into a buffer of pixels by the workers of the job
+	 * system, and the buffer is drawn as a single image. This is faster
+	 * than drawing every sprite with the canvas when there are thousands.
+	 * 
+	 * @param softwareRendering
+	 * 		<code>true</code> to use the software compositor.
+	 */
+	public void setSoftwareRendering(boolean softwareRendering) {
+		this.softwareRendering = softwareRendering;
+	}
+
+	/**
+	 * @return
+	 * 		if only the dirty regions of the screen are redrawn.
+	 */
+	public boolean isDirtyRendering() {
+		return dirtyRendering;
+	}
+
+	/**
+	 * Sets if only the dirty regions of the screen are redrawn. If not,
+	 * the whole screen is redrawn every frame.
+	 * 
+	 * @param dirtyRendering
+	 * 		<code>true</code> to only redraw the dirty regions.
+	 */
+	public void setDirtyRendering(boolean dirtyRendering) {
+		this.dirtyRendering = dirtyRendering;
+	}
+
+	/**
+	 * @return
+	 * 		the area of the screen that was redrawn in the last frame, in
+	 * 		pixels.
+	 */
+	public double getLastRedrawArea() {
+		return lastRedrawArea;
+	}
+
+	/**
+	 * Sets if the collision debug view is drawn, see
+	 * {@link CollisionDebugView}. While it is drawn, every frame is redrawn
+	 * completely.
+	 * 
+	 * @param debugView
+	 * 		<code>true</code> to draw the debug view.
+	 */
+	public void setDebugView(boolean debugView) {
+		this.debugView = debugView;
+	}
+
+	/**
+	 * Sets the job system the software compositor draws with.
+	 * 
+	 * @param jobs
+	 * 		the job system.
+	 */
+	public void setJobSystem(JobSystem jobs) {
+		this.jobs = jobs;
+	}
+
+	/**
+	 * Set the background image of the level.
+	 * @param image
+	 * 			The background image.
+	 */
+	public void setBackground(Image image) {
+		if (image.isError()) {
+			System.err.println("Error loading the new background!\nUsing old one instead");
+			return;
+		}
+
+		background = image;
+		layers.markDirty(Layer.BACKGROUND);
+	}
+
+	/**
+	 * Adds static scenery, e.g. seaweed or an anchor. Scenery is drawn
+	 * above the background and below all entities, and does not move.
+	 * 
+	 * @param state
+	 * 			how the scenery should be drawn.
+	 */
+	public void addScenery(SpriteState state) {
+		scenery.add(state);
+		layers.markDirty(Layer.SCENERY);
+	}
+
+	/**
+	 * Removes all scenery.
+	 */
+	public void clearScenery() {
+		scenery.clear();
+		layers.markDirty(Layer.SCENERY);
+	}
+
+	/**
+	 * @return
+	 * 		the static scenery.
+	 */
+	public List<SpriteState> getScenery() {
+		return Collections.unmodifiableList(scenery);
+	}
+
+	/**
+	 * Gives back the canvas the entities are drawn on.
+	 * 
+	 * @return the canvas of the entities.
+	 */
+	public Canvas getCanvas() {
+		return canvas;
+	}
+
+	/**
+	 * @return
+	 * 		the canvases the layers are drawn on.
+	 */
+	public RenderLayers getLayers() {
+		return layers;
+	}
+}
@@ -1,7 +1,14 @@
 package com.github.fishio;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
 
 import javafx.animation.FadeTransition;
 import javafx.fxml.FXMLLoader;
@@ -25,73 +32,134 @@ public final class Preloader {
 	public static final HashMap<String, Scene> SCREENS = new HashMap<String, Scene>();
 	
 	/**
-	 * A map which holds the loaded images.
+	 * A map which holds the loaded images.<br>
+	 * <br>
+	 * The image maps are shared by all worlds, and can be read from any
+	 * thread without locking.
 	 */
-	public static final HashMap<String, Image> IMAGES = new HashMap<String, Image>();
+	public static final ConcurrentHashMap<String, Image> IMAGES = new ConcurrentHashMap<String, Image>();
 	
 	/**
 	 * A map which holds the alpha map of an image.
 	 */
-	public static final HashMap<String, boolean[][]> IMAGE_DATA = new HashMap<String, boolean[][]>();
+	public static final ConcurrentHashMap<String, boolean[][]> IMAGE_DATA =
+			new ConcurrentHashMap<String, boolean[][]>();
 	
 	/**
 	 * A map which holds the relative size of images.
 	 */
-	public static final HashMap<String, Double> IMAGE_ALPHARATS = new HashMap<String, Double>();
+	public static final ConcurrentHashMap<String, Double> IMAGE_ALPHARATS = new ConcurrentHashMap<String, Double>();
+	
+	private static volatile TextureAtlas atlas;
 	
 	
 	/**
-	 * An empty scene for indicating that a screen is still being loaded.
+	 * Holds an empty scene for indicating that a screen is still being loaded.<br>
+	 * <br>
+	 * The scene is only created when it is first used, so that the images
+	 * can also be used without the JavaFX toolkit (headless).
 	 */
-	private static final Scene EMPTY_SCENE = new Scene(new HBox());
+	private static final class EmptyScene {
+		private static final Scene INSTANCE = new Scene(new HBox());
+		
+		private EmptyScene() { }
+	}
 	
 	/**
 	 * Preload all the screens.
 	 */
 	public static void preloadScreens() {
-		//Create a new thread to load the screens.
-		Thread thread = new Thread(() -> {
+		//Load the screens in a job.
+		JobSystem.getIo().submit("preloadScreens", () -> {
 			loadScreen("mainMenu");
 			loadScreen("singlePlayer");
 			loadScreen("helpScreen");
 			
 			//We don't load the splash screen, because it is shown immediately.
 		});
-		
-		thread.start();
 	}
 	
 	/**
 	 * Preload all images.
 	 */
 	public static void preloadImages() {
-		Thread thread = new Thread(() -> {
-			tryPreLoad("background.png", false);
-			tryPreLoad("logo.png", false);
-			
-			//Load fish sprites
-			tryPreLoad("sprites/fish/playerFish.png", true);
-			for (int i = 0; i < 29; i++) {
-				tryPreLoad("sprites/fish/fish" + i + ".png", true);
-			}
-			
-			tryPreLoad("sprites/fish/special/barrelFish.png", true);
-			tryPreLoad("sprites/fish/special/clownFish1.png", true);
-			tryPreLoad("sprites/fish/special/clownFish2.png", true);
-			tryPreLoad("sprites/fish/special/jellyfish.png", true);
-			tryPreLoad("sprites/fish/special/submarine.png", true);
-			tryPreLoad("sprites/fish/special/swordfish.png", true);
-			tryPreLoad("sprites/fish/special/turtle.png", true);
-			
-			tryPreLoad("sprites/anchor1.png", false);
-			tryPreLoad("sprites/anchor2.png", false);
-			tryPreLoad("sprites/fishingPole.png", false);
-			tryPreLoad("sprites/float.png", false);
-			tryPreLoad("sprites/seaweed1.png", false);
-			tryPreLoad("sprites/starfish.png", false);
-		});
+		preloadImage("background.png", false);
+		preloadImage("logo.png", false);
+		
+		ArrayList<String> sprites = new ArrayList<String>();
+		ArrayList<Job> jobs = new ArrayList<Job>();
+		
+		//Load fish sprites
+		sprites.add("sprites/fish/playerFish.png");
+		for (int i = 0; i < 29; i++) {
+			sprites.add("sprites/fish/fish" + i + ".png");
+		}
+		
+		sprites.add("sprites/fish/special/barrelFish.png");
+		sprites.add("sprites/fish/special/clownFish1.png");
+		sprites.add("sprites/fish/special/clownFish2.png");
+		sprites.add("sprites/fish/special/jellyfish.png");
+		sprites.add("sprites/fish/special/submarine.png");
+		sprites.add("sprites/fish/special/swordfish.png");
+		sprites.add("sprites/fish/special/turtle.png");
+		for (String sprite : sprites) {
+			jobs.add(preloadImage(sprite, true));
+		}
 		
-		thread.start();
+		//Load scenery sprites
+		String[] scenery = {"sprites/anchor1.png", "sprites/anchor2.png", "sprites/fishingPole.png",
+				"sprites/float.png", "sprites/seaweed1.png", "sprites/starfish.png"};
+		for (String sprite : scenery) {
+			sprites.add(sprite);
+			jobs.add(preloadImage(sprite, false));
+		}
+		
+		//Pack all sprites in an atlas once they are loaded. Packing is no IO, so it runs on the default workers.
+		JobSystem.getDefault().submit("buildAtlas", () -> buildAtlas(sprites), jobs.toArray(new Job[jobs.size()]));
+	}
+	
+	/**
+	 * Builds the texture atlas of the given sprites.<br>
+	 * <br>
+	 * If building the atlas causes an Exception, an error message and the
+	 * stack trace are output to System.err, and sprites are drawn from their
+	 * own images instead.
+	 * 
+	 * @param sprites
+	 * 		the files of the sprites.
+	 */
+	private static void buildAtlas(List<String> sprites) {
+		try {
+			atlas = TextureAtlas.build(sprites);
+		} catch (Exception ex) {
+			System.err.println("Error while building the texture atlas");
+			ex.printStackTrace();
+		}
+	}
+	
+	/**
+	 * @return
+	 * 		the texture atlas of all preloaded sprites, or <code>null</code>
+	 * 		if it is not built (yet).
+	 */
+	public static TextureAtlas getAtlas() {
+		return atlas;
+	}
+	
+	/**
+	 * Submits a job that preloads an image. The images are loaded in
+	 * parallel, by the {@link JobSystem#getIo() IO workers}.
+	 * 
+	 * @param file
+	 * 		the file of the image.
+	 * @param pixelData
+	 * 		if the pixel data of the image should be loaded as well.
+	 * 
+	 * @return
+	 * 		the submitted job.
+	 */
+	private static Job preloadImage(String file, boolean pixelData) {
+		return JobSystem.getIo().submit("preloadImage", () -> tryPreLoad(file, pixelData));
 	}
 	
 	/**
@@ -103,10 +171,8 @@ public final class Preloader {
 	 * 		the file of the image.
 	 */
 	private static void tryPreLoad(String file, boolean pixelData) {
-		synchronized (IMAGES) {
-			if (IMAGES.containsKey(file)) {
-				return;
-			}
+		if (IMAGES.containsKey(file)) {
+			return;
 		}
 		
 		Image image;
@@ -120,17 +186,10 @@ public final class Preloader {
 			boolean[][] data = CollisionMask.buildData(image);
 			double alphaRatio = CollisionMask.getAlphaRatio(data);
 			
-			synchronized (IMAGE_ALPHARATS) {
-				IMAGE_ALPHARATS.put(file, alphaRatio);
-			}
-			
-			synchronized (IMAGE_DATA) {
-				IMAGE_DATA.put(file, data);
-			}			
-		}
-		synchronized (IMAGES) {
-			IMAGES.put(file, image);
+			IMAGE_ALPHARATS.putIfAbsent(file, alphaRatio);
+			IMAGE_DATA.putIfAbsent(file, data);
 		}
+		IMAGES.putIfAbsent(file, image);
 	}
 	
 	/**
@@ -144,23 +203,16 @@ public final class Preloader {
 	 * 		the image
 	 */
 	public static Image getImageOrLoad(String file) {
-		synchronized (IMAGES) {
-			Image image = IMAGES.get(file);
-			if (image != null) {
-				return image;
-			}
-		}
-		
-		Image image = new Image(file);
-		synchronized (IMAGES) {
-			IMAGES.put(file, image);
-		}
-		return image;
+		return IMAGES.computeIfAbsent(file, Image::new);
 	}
 	
 	/**
 	 * Gets the alpha data of an Image for the given filepath.<br>
-	 * If it is not loaded, it builds the data.
+	 * If it is not loaded, it builds the data.<br>
+	 * <br>
+	 * If the Image itself is not loaded either, the data is built from the
+	 * file directly, without loading a JavaFX Image. This allows the data to
+	 * be used in headless mode.
 	 * 
 	 * @param file
 	 * 		the file of the Image.
@@ -169,20 +221,48 @@ public final class Preloader {
 	 * 		the alpha data of the image
 	 */
 	public static boolean[][] getAlphaDataOrLoad(String file) {
-		boolean[][] data;
-		synchronized (IMAGE_DATA) {
-			data = IMAGE_DATA.get(file);
-			if (data != null) {
-				return data;
+		boolean[][] data = IMAGE_DATA.get(file);
+		if (data != null) {
+			return data;
+		}
+		
+		return IMAGE_DATA.computeIfAbsent(file, f -> {
+			Image image = IMAGES.get(f);
+			if (image != null) {
+				return CollisionMask.buildData(image);
+			} else {
+				return CollisionMask.buildData(readBufferedImage(f));
 			}
+		});
+	}
+
+	/**
+	 * Reads the given file as a BufferedImage, without using JavaFX.
+	 * 
+	 * @param file
+	 * 		the file of the image, relative to the classpath.
+	 * 
+	 * @return
+	 * 		the image.
+	 * 
+	 * @throws LoaderException
+	 * 		if the image cannot be read.
+	 */
+	private static BufferedImage readBufferedImage(String file) {
+		URL url = Preloader.class.getClassLoader().getResource(file);
+		if (url == null) {
+			throw new LoaderException("No image found for " + file + "!");
 		}
 		
-		Image image = getImageOrLoad(file);
-		data = CollisionMask.buildData(image);
-		synchronized (IMAGE_DATA) {
-			IMAGE_DATA.put(file, data);
+		try {
+			BufferedImage image = ImageIO.read(url);
+			if (image == null) {
+				throw new LoaderException("Unable to decode image " + file + "!");
+			}
+			return image;
+		} catch (IOException ex) {
+			throw new LoaderException("Error while reading image " + file, ex);
 		}
-		return data;
 	}
 
 	/**
@@ -196,19 +276,12 @@ public final class Preloader {
 	 * 		the ratio.
 	 */
 	public static double getSpriteAlphaRatioOrLoad(String file) {
-		synchronized (IMAGE_ALPHARATS) {
 		Double temp = IMAGE_ALPHARATS.get(file);
-			if (temp != null) {
-				return temp.doubleValue();
-			}
+		if (temp != null) {
+			return temp.doubleValue();
 		}
 		
-		boolean[][] data = getAlphaDataOrLoad(file);
-		double alphaRatio = CollisionMask.getAlphaRatio(data);
-		synchronized (IMAGE_ALPHARATS) {
-			IMAGE_ALPHARATS.put(file, alphaRatio);
-		}
-		return alphaRatio;
+		return IMAGE_ALPHARATS.computeIfAbsent(file, f -> CollisionMask.getAlphaRatio(getAlphaDataOrLoad(f)));
 	}
 	
 	/**
@@ -225,16 +298,33 @@ public final class Preloader {
 	 * 		if the image for this filepath is not yet loaded.
 	 */
 	public static Image getImage(String file) {
-		synchronized (IMAGES) {
-			Image image = IMAGES.get(file);
-			if (image != null) {
-				return image;
-			} else {
-				throw new IllegalArgumentException("No image loaded for " + file + "!");
-			}
+		Image image = IMAGES.get(file);
+		if (image != null) {
+			return image;
+		} else {
+			throw new IllegalArgumentException("No image loaded for " + file + "!");
 		}
 	}
-	
+
+	/**
+	 * Checks if a sprite is loaded, so that a fish with it can be created
+	 * without loading anything.
+	 *
+	 * @param file
+	 * 		the filepath of the sprite.
+	 * @param image
+	 * 		if the image itself is needed as well, and not only the pixel data.
+	 *
+	 * @return
+	 * 		<code>true</code> if everything that is needed is loaded.
+	 */
+	public static boolean isCached(String file, boolean image) {
+		if (!IMAGE_DATA.containsKey(file) || !IMAGE_ALPHARATS.containsKey(file)) {
+			return false;
+		}
+		return !image || IMAGES.containsKey(file);
+	}
+
 	/**
 	 * Load the screen from the given file, and store it for later use.
 	 * 
@@ -252,7 +342,7 @@ public final class Preloader {
 				//Check if this screen is already being loaded
 				oldScene = SCREENS.get(filename);
 				
-				if (oldScene == EMPTY_SCENE) {
+				if (oldScene == EmptyScene.INSTANCE) {
 					//The screen is being loaded.
 					//We break out of the synchronized block and start waiting below.
 					break sync;
@@ -261,12 +351,12 @@ public final class Preloader {
 					return oldScene;
 				}
 	
-				//Indicate that we are loading the screen by putting the EMPTY_SCENE in the map.
-				SCREENS.put(filename, EMPTY_SCENE);
+				//Indicate that we are loading the screen by putting the EmptyScene.INSTANCE in the map.
+				SCREENS.put(filename, EmptyScene.INSTANCE);
 			}
 		
-		//While the scene is the EMPTY_SCENE (indicates that the scene is being loaded), we wait.
-		if (oldScene == EMPTY_SCENE) {
+		//While the scene is the EmptyScene.INSTANCE (indicates that the scene is being loaded), we wait.
+		if (oldScene == EmptyScene.INSTANCE) {
 			do {
 				try {
 					Thread.sleep(50L);
@@ -277,7 +367,7 @@ public final class Preloader {
 				} catch (InterruptedException ex) {
 					throw new LoaderException("Interrupted while waiting for screen to get loaded!", ex);
 				}
-			} while (oldScene == EMPTY_SCENE);
+			} while (oldScene == EmptyScene.INSTANCE);
 			
 			return oldScene;
 		}
@@ -339,9 +429,9 @@ public final class Preloader {
 		
 		if (scene == null) {
 			throw new IllegalArgumentException("No screen with name " + filename + " is loaded!");
-		} else if (scene == EMPTY_SCENE) {
+		} else if (scene == EmptyScene.INSTANCE) {
 			//Screen is being loaded, so sleep for a bit and try again
-			while (scene == EMPTY_SCENE) {
+			while (scene == EmptyScene.INSTANCE) {
 				try {
 					Thread.sleep(50L);
 					
@@ -0,0 +1,81 @@
+package com.github.fishio;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Provides the random numbers for a single world.<br>
+ * <br>
+ * Every subsystem gets its own stream of random numbers, all derived from
+ * a single seed. Given the same seed (and the same input), a world will
+ * therefore always play out the same way.<br>
+ * <br>
+ * The generators are not synchronized: a RandomService should only be used
+ * by the thread that runs its world.
+ */
+public class RandomService {
+	private final long seed;
+	private final SplittableRandom spawnRandom;
+	private final SplittableRandom aiRandom;
+	private final SplittableRandom effectsRandom;
+
+	/**
+	 * Creates a new RandomService with a random seed.
+	 */
+	public RandomService() {
+		this(ThreadLocalRandom.current().nextLong());
+	}
+
+	/**
+	 * Creates a new RandomService with the given seed.
+	 * 
+	 * @param seed
+	 * 		the seed.
+	 */
+	public RandomService(long seed) {
+		this.seed = seed;
+
+		SplittableRandom root = new SplittableRandom(seed);
+		this.spawnRandom = root.split();
+		this.aiRandom = root.split();
+		this.effectsRandom = root.split();
+	}
+
+	/**
+	 * @return
+	 * 		the seed of this RandomService.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return
+	 * 		the random generator used for spawning entities.
+	 */
+	public SplittableRandom getSpawnRandom() {
+		return spawnRandom;
+	}
+
+	/**
+	 * @return
+	 * 		the random generator used for effects, like particles. Effects do
+	 * 		not change the game, so they never use the other generators.
+	 */
+	public SplittableRandom getEffectsRandom() {
+		return effectsRandom;
+	}
+
+	/**
+	 * Creates a new random generator for the AI of a single entity.<br>
+	 * <br>
+	 * Every entity gets its own generator, so that the order in which
+	 * entities are updated does not influence their behavior.
+	 * 
+	 * @return
+	 * 		a new random generator.
+	 */
+	public SplittableRandom createAiRandom() {
+		return aiRandom.split();
+	}
+}
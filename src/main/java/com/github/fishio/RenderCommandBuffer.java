@@ -0,0 +1,503 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * A list of render commands, one for every sprite to draw, stored in
+ * primitive arrays.<br>
+ * <br>
+ * The game thread writes the commands after every tick, and the render
+ * thread draws them, so rendering never touches the live entities. The
+ * buffers are reused from tick to tick (see {@link RenderExchange}), so
+ * writing the commands does not create any objects. Because a buffer is
+ * plain data, it can also be copied, kept and drawn again later.<br>
+ * <br>
+ * A command can be written at a fixed index, so that jobs can write the
+ * commands of different drawables at the same time. Commands that are not
+ * written stay hidden, and are removed by {@link #compact()}.
+ */
+public final class RenderCommandBuffer {
+	/**
+	 * The flag of commands that draw their sprite mirrored (left/right).
+	 */
+	public static final int FLAG_MIRROR = 1;
+
+	/**
+	 * The flag of commands that should not be drawn.
+	 */
+	public static final int FLAG_HIDDEN = 2;
+
+	//The layout of the doubles of a single command.
+	private static final int X = 0;
+	private static final int Y = 1;
+	private static final int PREVIOUS_X = 2;
+	private static final int PREVIOUS_Y = 3;
+	private static final int WIDTH = 4;
+	private static final int HEIGHT = 5;
+	private static final int ROTATION = 6;
+	private static final int COS = 7;
+	private static final int SIN = 8;
+	private static final int HALF_BOUNDS_X = 9;
+	private static final int HALF_BOUNDS_Y = 10;
+	private static final int SIZE = 11;
+	private static final int STRIDE = 12;
+
+	private final SpriteRegistry registry;
+	private int count;
+	private int[] sprites = new int[0];
+	private byte[] flags = new byte[0];
+	private double[] data = new double[0];
+	private final DebugShapes debugShapes = new DebugShapes();
+	private final ParticleSystem particles = new ParticleSystem(0);
+
+	private long tick;
+	private double alpha;
+	private long time;
+	private long stepNanos = 1L;
+
+	/**
+	 * Creates a new, empty RenderCommandBuffer that uses the default
+	 * {@link SpriteRegistry}.
+	 */
+	public RenderCommandBuffer() {
+		this(SpriteRegistry.getDefault());
+	}
+
+	/**
+	 * Creates a new, empty RenderCommandBuffer.
+	 *
+	 * @param registry
+	 * 		the registry to look the ids of sprites up with.
+	 */
+	public RenderCommandBuffer(SpriteRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * Removes all commands, debug shapes and particles.
+	 */
+	public void clear() {
+		debugShapes.clear();
+		particles.clear();
+		count = 0;
+	}
+
+	/**
+	 * Removes all commands, debug shapes and particles, and makes room for
+	 * the given amount of hidden commands, to be written with the set
+	 * methods.
+	 *
+	 * @param size
+	 * 		the amount of commands.
+	 */
+	public void reset(int size) {
+		debugShapes.clear();
+		particles.clear();
+		ensureCapacity(size);
+		count = size;
+		Arrays.fill(flags, 0, size, (byte) FLAG_HIDDEN);
+	}
+
+	/**
+	 * Makes sure the arrays can hold the given amount of commands.
+	 *
+	 * @param capacity
+	 * 		the amount of commands.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (sprites.length >= capacity) {
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, 2 * sprites.length);
+		sprites = Arrays.copyOf(sprites, newCapacity);
+		flags = Arrays.copyOf(flags, newCapacity);
+		data = Arrays.copyOf(data, newCapacity * STRIDE);
+	}
+
+	/**
+	 * Adds a command to the end of this buffer.
+	 *
+	 * @param sprite
+	 * 		the sprite to draw, can be <code>null</code>.
+	 * @param ca
+	 * 		the collision area to take the position, size and rotation from.
+	 * @param previousX
+	 * 		the x coordinate of the center before the last tick.
+	 * @param previousY
+	 * 		the y coordinate of the center before the last tick.
+	 * @param reverse
+	 * 		when true reverse left/right orientation of the sprite.
+	 */
+	public void add(Image sprite, ICollisionArea ca, double previousX, double previousY, boolean reverse) {
+		ensureCapacity(count + 1);
+		count++;
+		set(count - 1, sprite, ca, previousX, previousY, reverse);
+	}
+
+	/**
+	 * Writes the command at the given index.
+	 *
+	 * @param index
+	 * 		the index of the command.
+	 * @param sprite
+	 * 		the sprite to draw, can be <code>null</code>.
+	 * @param ca
+	 * 		the collision area to take the position, size and rotation from.
+	 * @param previousX
+	 * 		the x coordinate of the center before the last tick.
+	 * @param previousY
+	 * 		the y coordinate of the center before the last tick.
+	 * @param reverse
+	 * 		when true reverse left/right orientation of the sprite.
+	 */
+	public void set(int index, Image sprite, ICollisionArea ca, double previousX, double previousY,
+			boolean reverse) {
+		set(index, registry.getId(sprite), ca.getCenterX(), ca.getCenterY(), previousX, previousY,
+				ca.getWidth(), ca.getHeight(), ca.getRotation(), ca.getSize(), reverse);
+	}
+
+	/**
+	 * Writes the command to draw a state at the given index.
+	 *
+	 * @param index
+	 * 		the index of the command.
+	 * @param state
+	 * 		the state to draw.
+	 */
+	public void set(int index, SpriteState state) {
+		set(index, registry.getId(state.getSprite()), state.getX(), state.getY(), state.getPreviousX(),
+				state.getPreviousY(), state.getWidth(), state.getHeight(), state.getRotation(), state.getSize(),
+				state.isReversed());
+	}
+
+	/**
+	 * Writes the command at the given index.
+	 *
+	 * @param index
+	 * 		the index of the command.
+	 * @param sprite
+	 * 		the id of the sprite to draw.
+	 * @param x
+	 * 		the x coordinate of the center.
+	 * @param y
+	 * 		the y coordinate of the center.
+	 * @param previousX
+	 * 		the x coordinate of the center before the last tick.
+	 * @param previousY
+	 * 		the y coordinate of the center before the last tick.
+	 * @param width
+	 * 		the width.
+	 * @param height
+	 * 		the height.
+	 * @param rotation
+	 * 		the rotation in degrees.
+	 * @param size
+	 * 		the size, only shown when debugging.
+	 * @param reverse
+	 * 		when true reverse left/right orientation of the sprite.
+	 */
+	public void set(int index, int sprite, double x, double y, double previousX, double previousY,
+			double width, double height, double rotation, double size, boolean reverse) {
+		sprites[index] = sprite;
+		flags[index] = 0;
+		if (reverse) {
+			flags[index] = FLAG_MIRROR;
+		}
+
+		//Cache the rotation and the size of the bounding box of the rotated sprite, like SpriteState does.
+		double rad = Math.toRadians(rotation);
+		double cos = Math.cos(rad);
+		double sin = Math.sin(rad);
+
+		int o = index * STRIDE;
+		data[o + X] = x;
+		data[o + Y] = y;
+		data[o + PREVIOUS_X] = previousX;
+		data[o + PREVIOUS_Y] = previousY;
+		data[o + WIDTH] = width;
+		data[o + HEIGHT] = height;
+		data[o + ROTATION] = rotation;
+		data[o + COS] = cos;
+		data[o + SIN] = sin;
+		data[o + HALF_BOUNDS_X] = 0.5 * (width * Math.abs(cos) + height * Math.abs(sin))
+				+ SpriteState.BOUNDS_MARGIN;
+		data[o + HALF_BOUNDS_Y] = 0.5 * (width * Math.abs(sin) + height * Math.abs(cos))
+				+ SpriteState.BOUNDS_MARGIN;
+		data[o + SIZE] = size;
+	}
+
+	/**
+	 * Removes all hidden commands, keeping the others in the same order.
+	 */
+	public void compact() {
+		int to = 0;
+		for (int from = 0; from < count; from++) {
+			if ((flags[from] & FLAG_HIDDEN) != 0) {
+				continue;
+			}
+
+			if (to != from) {
+				sprites[to] = sprites[from];
+				flags[to] = flags[from];
+				System.arraycopy(data, from * STRIDE, data, to * STRIDE, STRIDE);
+			}
+			to++;
+		}
+		count = to;
+	}
+
+	/**
+	 * Makes this buffer an exact copy of the given buffer.
+	 *
+	 * @param other
+	 * 		the buffer to copy.
+	 */
+	public void copyFrom(RenderCommandBuffer other) {
+		ensureCapacity(other.count);
+		count = other.count;
+		System.arraycopy(other.sprites, 0, sprites, 0, count);
+		System.arraycopy(other.flags, 0, flags, 0, count);
+		System.arraycopy(other.data, 0, data, 0, count * STRIDE);
+		debugShapes.copyFrom(other.debugShapes);
+		particles.copyFrom(other.particles);
+		tick = other.tick;
+		alpha = other.alpha;
+		time = other.time;
+		stepNanos = other.stepNanos;
+	}
+
+	/**
+	 * Sets when the commands in this buffer were written.
+	 *
+	 * @param tick
+	 * 		the tick the commands were written after.
+	 * @param alpha
+	 * 		how far the simulation was into the next tick.
+	 * @param time
+	 * 		the time in nanoseconds at which the commands were written.
+	 * @param stepNanos
+	 * 		the length of a tick in nanoseconds.
+	 */
+	public void setTiming(long tick, double alpha, long time, long stepNanos) {
+		this.tick = tick;
+		this.alpha = alpha;
+		this.time = time;
+		this.stepNanos = stepNanos;
+	}
+
+	/**
+	 * @return
+	 * 		the tick the commands were written after.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gives back how far we are between the previous and the last tick of
+	 * these commands at the given time.
+	 *
+	 * @param now
+	 * 		the current time in nanoseconds.
+	 *
+	 * @return
+	 * 		a value between 0 and 1 (both inclusive).
+	 */
+	public double getAlpha(long now) {
+		double res = alpha + (double) (now - time) / stepNanos;
+		return Math.max(0.0, Math.min(1.0, res));
+	}
+
+	/**
+	 * Draws a command on the given GraphicsContext.
+	 *
+	 * @param index
+	 * 		the index of the command.
+	 * @param gc
+	 * 		the graphicscontext to draw on.
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1). Used to interpolate the position.
+	 */
+	public void render(int index, GraphicsContext gc, double alpha) {
+		int o = index * STRIDE;
+		SpriteState.draw(gc, getSprite(index), getX(index, alpha), getY(index, alpha), data[o + WIDTH],
+				data[o + HEIGHT], data[o + ROTATION], data[o + COS], data[o + SIN], isMirrored(index),
+				data[o + SIZE]);
+	}
+
+	/**
+	 * Gives back the bounds of the pixels a command covers when drawn,
+	 * with a margin of {@link SpriteState#BOUNDS_MARGIN} pixels for
+	 * anti-aliasing.
+	 *
+	 * @param index
+	 * 		the index of the command.
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1).
+	 * @param out
+	 * 		the array to write the minimal x, minimal y, maximal x and
+	 * 		maximal y coordinates to.
+	 * @param offset
+	 * 		the index in the array to start writing at.
+	 */
+	public void getBounds(int index, double alpha, double[] out, int offset) {
+		int o = index * STRIDE;
+		double cx = getX(index, alpha);
+		double cy = getY(index, alpha);
+
+		out[offset] = cx - data[o + HALF_BOUNDS_X];
+		out[offset + 1] = cy - data[o + HALF_BOUNDS_Y];
+		out[offset + 2] = cx + data[o + HALF_BOUNDS_X];
+		out[offset + 3] = cy + data[o + HALF_BOUNDS_Y];
+	}
+
+	/**
+	 * Checks if a command looks exactly the same as a command of another
+	 * buffer, not taking the position into account.
+	 *
+	 * @param index
+	 * 		the index of the command.
+	 * @param other
+	 * 		the other buffer.
+	 * @param otherIndex
+	 * 		the index of the command in the other buffer.
+	 *
+	 * @return
+	 * 		<code>true</code> if both commands draw the same sprite, with the
+	 * 		same size, rotation and orientation.
+	 */
+	public boolean looksLike(int index, RenderCommandBuffer other, int otherIndex) {
+		int o = index * STRIDE;
+		int p = otherIndex * STRIDE;
+		return sprites[index] == other.sprites[otherIndex] && flags[index] == other.flags[otherIndex]
+				&& data[o + WIDTH] == other.data[p + WIDTH] && data[o + HEIGHT] == other.data[p + HEIGHT]
+				&& data[o + ROTATION] == other.data[p + ROTATION];
+	}
+
+	/**
+	 * @return
+	 * 		the shapes to draw for debugging, on top of the commands.
+	 */
+	public DebugShapes getDebugShapes() {
+		return debugShapes;
+	}
+
+	/**
+	 * @return
+	 * 		the particles to draw, on top of the commands. They have no
+	 * 		capacity until particles are copied into them.
+	 */
+	public ParticleSystem getParticles() {
+		return particles;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of commands.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 *
+	 * @return
+	 * 		the id of the sprite of the command.
+	 */
+	public int getSpriteId(int index) {
+		return sprites[index];
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 *
+	 * @return
+	 * 		the sprite of the command, can be <code>null</code>.
+	 */
+	public Image getSprite(int index) {
+		return registry.get(sprites[index]);
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1).
+	 *
+	 * @return
+	 * 		the interpolated x coordinate of the center.
+	 */
+	public double getX(int index, double alpha) {
+		int o = index * STRIDE;
+		return data[o + X] + (data[o + PREVIOUS_X] - data[o + X]) * (1.0 - alpha);
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1).
+	 *
+	 * @return
+	 * 		the interpolated y coordinate of the center.
+	 */
+	public double getY(int index, double alpha) {
+		int o = index * STRIDE;
+		return data[o + Y] + (data[o + PREVIOUS_Y] - data[o + Y]) * (1.0 - alpha);
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 *
+	 * @return
+	 * 		the width.
+	 */
+	public double getWidth(int index) {
+		return data[index * STRIDE + WIDTH];
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 *
+	 * @return
+	 * 		the height.
+	 */
+	public double getHeight(int index) {
+		return data[index * STRIDE + HEIGHT];
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 *
+	 * @return
+	 * 		the rotation in degrees.
+	 */
+	public double getRotation(int index) {
+		return data[index * STRIDE + ROTATION];
+	}
+
+	/**
+	 * @param index
+	 * 		the index of a command.
+	 *
+	 * @return
+	 * 		if the sprite is drawn mirrored (left/right).
+	 */
+	public boolean isMirrored(int index) {
+		return (flags[index] & FLAG_MIRROR) != 0;
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.fishio;
+
+import java.util.function.LongConsumer;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Drives rendering with the pulses of the JavaFX toolkit, which are aligned
+ * with the refresh of the display.<br>
+ * <br>
+ * At most one frame is rendered per pulse, with the timestamp of the pulse.
+ * An optional cap on the framerate skips pulses, see {@link FramePacer}.
+ * The cap can be changed while running.
+ */
+public class RenderDriver extends AnimationTimer {
+	private final FramePacer pacer;
+	private final LongConsumer frame;
+	private volatile boolean running;
+
+	/**
+	 * Creates a new RenderDriver. The driver is not started.
+	 *
+	 * @param fpsCap
+	 * 		the maximum framerate, or 0 for no cap.
+	 * @param frame
+	 * 		called to render a frame, with the timestamp of the pulse in
+	 * 		nanoseconds.
+	 */
+	public RenderDriver(int fpsCap, LongConsumer frame) {
+		this.pacer = new FramePacer(fpsCap);
+		this.frame = frame;
+	}
+
+	@Override
+	public void handle(long now) {
+		if (pacer.pulse(now)) {
+			frame.accept(now);
+		}
+	}
+
+	@Override
+	public void start() {
+		pacer.reset();
+		running = true;
+		super.start();
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		super.stop();
+	}
+
+	/**
+	 * @return
+	 * 		if this driver is running.
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Sets the maximum framerate.
+	 *
+	 * @param fpsCap
+	 * 		the maximum framerate, or 0 for no cap.
+	 */
+	public void setFpsCap(int fpsCap) {
+		pacer.setFpsCap(fpsCap);
+	}
+
+	/**
+	 * @return
+	 * 		the pacer that decides which pulses are rendered, and measures
+	 * 		the frame intervals.
+	 */
+	public FramePacer getPacer() {
+		return pacer;
+	}
+}
@@ -0,0 +1,91 @@
+package com.github.fishio;
+
+/**
+ * Hands render commands from the game thread to the render thread, with
+ * three {@link RenderCommandBuffer}s that are reused.<br>
+ * <br>
+ * The game thread writes into its own buffer and publishes it, which
+ * swaps it with the buffer in the middle. The render thread takes the
+ * middle buffer when a new one was published, by swapping it with its own
+ * buffer. Both threads can therefore work on their buffer for as long as
+ * they want: the game thread never waits for a frame, and the render
+ * thread always draws the latest complete commands.
+ */
+public final class RenderExchange {
+	private RenderCommandBuffer back;
+	private RenderCommandBuffer middle;
+	private RenderCommandBuffer front;
+	private boolean fresh;
+
+	/**
+	 * Creates a new RenderExchange, with empty buffers that use the
+	 * default {@link SpriteRegistry}.
+	 */
+	public RenderExchange() {
+		this(SpriteRegistry.getDefault());
+	}
+
+	/**
+	 * Creates a new RenderExchange, with empty buffers.
+	 *
+	 * @param registry
+	 * 		the registry the buffers look the ids of sprites up with.
+	 */
+	public RenderExchange(SpriteRegistry registry) {
+		this.back = new RenderCommandBuffer(registry);
+		this.middle = new RenderCommandBuffer(registry);
+		this.front = new RenderCommandBuffer(registry);
+	}
+
+	/**
+	 * Gives back the buffer to write the next commands into. Only the game
+	 * thread should use it, until it calls {@link #publish()}.
+	 *
+	 * @return
+	 * 		the buffer of the game thread.
+	 */
+	public RenderCommandBuffer getBack() {
+		return back;
+	}
+
+	/**
+	 * Publishes the commands written into the buffer of the game thread.
+	 * The game thread gets another buffer to write the next commands into.
+	 */
+	public synchronized void publish() {
+		RenderCommandBuffer tmp = middle;
+		middle = back;
+		back = tmp;
+		fresh = true;
+	}
+
+	/**
+	 * Takes the last published commands for the render thread, if any were
+	 * published since it last took them.
+	 *
+	 * @return
+	 * 		<code>true</code> if there were new commands.
+	 */
+	public synchronized boolean acquire() {
+		if (!fresh) {
+			return false;
+		}
+
+		RenderCommandBuffer tmp = front;
+		front = middle;
+		middle = tmp;
+		fresh = false;
+		return true;
+	}
+
+	/**
+	 * Gives back the buffer of the render thread, with the commands it took
+	 * last. Only the render thread should use it.
+	 *
+	 * @return
+	 * 		the buffer of the render thread.
+	 */
+	public synchronized RenderCommandBuffer getFront() {
+		return front;
+	}
+}
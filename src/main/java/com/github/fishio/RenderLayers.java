@@ -0,0 +1,187 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * The canvases a playing field is drawn on, one for every layer.<br>
+ * <br>
+ * The canvases are stacked on top of each other, so every layer can be
+ * redrawn on its own: the background and the scenery only when they
+ * change, the entities every frame and the HUD by whoever draws it.<br>
+ * <br>
+ * For compatibility, all layers can also be drawn on a single canvas. The
+ * {@link PlayingFieldRenderer} then has to draw the background and scenery
+ * below the entities itself.<br>
+ * <br>
+ * Every layer has a dirty flag, which is set when the layer has to be
+ * redrawn, and cleared by whoever redraws it. All layers start dirty, as
+ * nothing has been drawn yet. The flags can be set and cleared from any
+ * thread.
+ */
+public class RenderLayers {
+	/**
+	 * The layers, from the bottom to the top.
+	 */
+	public enum Layer {
+		BACKGROUND,
+		SCENERY,
+		ENTITIES,
+		HUD
+	}
+
+	private final EnumMap<Layer, Canvas> canvases = new EnumMap<>(Layer.class);
+	private final boolean layered;
+	private final AtomicInteger dirty = new AtomicInteger((1 << Layer.values().length) - 1);
+
+	/**
+	 * Creates RenderLayers that draw all layers on a single canvas.
+	 *
+	 * @param canvas
+	 * 		the canvas to draw on.
+	 */
+	public RenderLayers(Canvas canvas) {
+		for (Layer layer : Layer.values()) {
+			canvases.put(layer, canvas);
+		}
+		this.layered = false;
+	}
+
+	/**
+	 * Creates RenderLayers with a canvas for every layer. The canvases
+	 * should be stacked in this order, with the background at the bottom.
+	 *
+	 * @param background
+	 * 		the canvas for the background.
+	 * @param scenery
+	 * 		the canvas for the scenery.
+	 * @param entities
+	 * 		the canvas for the entities.
+	 * @param hud
+	 * 		the canvas for the HUD.
+	 */
+	public RenderLayers(Canvas background, Canvas scenery, Canvas entities, Canvas hud) {
+		if (background == null || scenery == null || entities == null || hud == null) {
+			throw new IllegalArgumentException("Every layer needs a canvas!");
+		}
+
+		canvases.put(Layer.BACKGROUND, background);
+		canvases.put(Layer.SCENERY, scenery);
+		canvases.put(Layer.ENTITIES, entities);
+		canvases.put(Layer.HUD, hud);
+		this.layered = true;
+	}
+
+	/**
+	 * Creates RenderLayers with a new canvas for every layer.
+	 *
+	 * @param width
+	 * 		the width of the canvases.
+	 * @param height
+	 * 		the height of the canvases.
+	 *
+	 * @return
+	 * 		the new RenderLayers.
+	 */
+	public static RenderLayers create(double width, double height) {
+		return new RenderLayers(new Canvas(width, height), new Canvas(width, height),
+				new Canvas(width, height), new Canvas(width, height));
+	}
+
+	/**
+	 * @param layer
+	 * 		a layer.
+	 *
+	 * @return
+	 * 		the canvas the given layer is drawn on.
+	 */
+	public Canvas getCanvas(Layer layer) {
+		return canvases.get(layer);
+	}
+
+	/**
+	 * @param layer
+	 * 		a layer.
+	 *
+	 * @return
+	 * 		the GraphicsContext to draw the given layer with.
+	 */
+	public GraphicsContext getGraphics(Layer layer) {
+		return canvases.get(layer).getGraphicsContext2D();
+	}
+
+	/**
+	 * @return
+	 * 		if every layer has its own canvas.
+	 */
+	public boolean isLayered() {
+		return layered;
+	}
+
+	/**
+	 * Marks a layer as dirty, so it is redrawn.
+	 *
+	 * @param layer
+	 * 		the layer.
+	 */
+	public void markDirty(Layer layer) {
+		dirty.accumulateAndGet(bit(layer), (flags, bit) -> flags | bit);
+	}
+
+	/**
+	 * @param layer
+	 * 		a layer.
+	 *
+	 * @return
+	 * 		if the given layer has to be redrawn.
+	 */
+	public boolean isDirty(Layer layer) {
+		return (dirty.get() & bit(layer)) != 0;
+	}
+
+	/**
+	 * Clears the dirty flag of a layer, before it is redrawn. If the layer
+	 * is marked dirty again while it is redrawn, it stays dirty.
+	 *
+	 * @param layer
+	 * 		the layer.
+	 *
+	 * @return
+	 * 		if the layer was dirty.
+	 */
+	public boolean clearDirty(Layer layer) {
+		int bit = bit(layer);
+		return (dirty.getAndAccumulate(bit, (flags, b) -> flags & ~b) & bit) != 0;
+	}
+
+	/**
+	 * @param layer
+	 * 		a layer.
+	 *
+	 * @return
+	 * 		the bit of the layer in the dirty flags.
+	 */
+	private static int bit(Layer layer) {
+		return 1 << layer.ordinal();
+	}
+
+	/**
+	 * @return
+	 * 		the distinct canvases, from the bottom to the top.
+	 */
+	public List<Canvas> getCanvases() {
+		ArrayList<Canvas> res = new ArrayList<>();
+		for (Canvas canvas : canvases.values()) {
+			if (!res.contains(canvas)) {
+				res.add(canvas);
+			}
+		}
+		return Collections.unmodifiableList(res);
+	}
+}
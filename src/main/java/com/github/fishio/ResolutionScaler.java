@@ -0,0 +1,211 @@
+package com.github.fishio;
+
+/**
+ * Picks the resolution at which the entities are drawn, based on how long
+ * frames take to draw.<br>
+ * <br>
+ * When frames take longer than the budget, the entities are drawn at a
+ * lower resolution (see {@link #SCALES}) and scaled up to the size of the
+ * screen, which trades sharpness for fill rate. When frames become cheap
+ * again, the resolution is raised one step at a time.<br>
+ * <br>
+ * Like the {@link AdaptiveScheduler}, the resolution is lowered quickly,
+ * but only raised after frames have been cheap for a while. A step up is
+ * also only taken if the frames are expected to still fit in the budget at
+ * the higher resolution, as the cost of drawing grows with the amount of
+ * pixels. This prevents switching back and forth.<br>
+ * <br>
+ * Lowering the resolution is the first answer to slow frames: while the
+ * scaler has headroom (see {@link #hasHeadroom()}), the
+ * {@link AdaptiveScheduler} does not lower the framerate for slow
+ * frames.<br>
+ * <br>
+ * Should only be used by the render thread, but the scale can be read
+ * from any thread.
+ */
+public class ResolutionScaler {
+	/**
+	 * The scales of the resolution, from full resolution to lowest.
+	 */
+	private static final double[] SCALES = {1.0, 0.75, 0.5};
+
+	/**
+	 * The weight of a new measurement in the moving average.
+	 */
+	public static final double SMOOTHING = AdaptiveScheduler.SMOOTHING;
+
+	/**
+	 * The fraction of the budget above which the resolution is lowered.
+	 */
+	public static final double HIGH_LOAD = 1.0;
+
+	/**
+	 * The fraction of the budget that frames are expected to use at the
+	 * higher resolution, below which the resolution is raised.
+	 */
+	public static final double LOW_LOAD = 0.7;
+
+	/**
+	 * The amount of slow frames in a row after which the resolution is
+	 * lowered.
+	 */
+	public static final int DEGRADE_FRAMES = 30;
+
+	/**
+	 * The amount of fast frames in a row after which the resolution is
+	 * raised.
+	 */
+	public static final int RECOVER_FRAMES = 180;
+
+	private volatile long frameBudget;
+	private volatile boolean enabled = true;
+	private volatile int step;
+	private double frameCost;
+	private int slowFrames;
+	private int fastFrames;
+	private volatile long changes;
+
+	/**
+	 * Creates a new ResolutionScaler, at full resolution.
+	 *
+	 * @param frameBudget
+	 * 		the time available for a single frame, in nanoseconds.
+	 */
+	public ResolutionScaler(long frameBudget) {
+		setFrameBudget(frameBudget);
+	}
+
+	/**
+	 * Records how long drawing a frame took at the current scale, and
+	 * updates the scale.
+	 *
+	 * @param nanos
+	 * 		the duration of the frame, in nanoseconds.
+	 */
+	public void recordFrame(long nanos) {
+		frameCost += SMOOTHING * (nanos - frameCost);
+		if (!enabled) {
+			return;
+		}
+
+		double load = frameCost / frameBudget;
+		if (load > HIGH_LOAD) {
+			fastFrames = 0;
+			slowFrames++;
+			if (slowFrames >= DEGRADE_FRAMES && step < SCALES.length - 1) {
+				setStep(step + 1);
+			}
+		} else if (step > 0 && load * square(SCALES[step - 1] / SCALES[step]) < LOW_LOAD) {
+			slowFrames = 0;
+			fastFrames++;
+			if (fastFrames >= RECOVER_FRAMES) {
+				setStep(step - 1);
+			}
+		} else {
+			slowFrames = 0;
+			fastFrames = 0;
+		}
+	}
+
+	/**
+	 * Changes the scale. The average cost is scaled with the amount of
+	 * pixels, as a guess of the cost at the new scale.
+	 *
+	 * @param newStep
+	 * 		the index of the new scale.
+	 */
+	private void setStep(int newStep) {
+		frameCost *= square(SCALES[newStep] / SCALES[step]);
+		step = newStep;
+		slowFrames = 0;
+		fastFrames = 0;
+		changes++;
+	}
+
+	/**
+	 * @param value
+	 * 		a value.
+	 *
+	 * @return
+	 * 		the value squared.
+	 */
+	private static double square(double value) {
+		return value * value;
+	}
+
+	/**
+	 * @return
+	 * 		the current scale of the resolution, 1 being full resolution.
+	 */
+	public double getScale() {
+		return SCALES[step];
+	}
+
+	/**
+	 * @return
+	 * 		if the scaler is enabled and can still lower the resolution.
+	 */
+	public boolean hasHeadroom() {
+		return enabled && step < SCALES.length - 1;
+	}
+
+	/**
+	 * @return
+	 * 		the lowest scale of the resolution.
+	 */
+	public static double getMinimumScale() {
+		return SCALES[SCALES.length - 1];
+	}
+
+	/**
+	 * @return
+	 * 		the average duration of a frame, in nanoseconds.
+	 */
+	public double getFrameCost() {
+		return frameCost;
+	}
+
+	/**
+	 * @return
+	 * 		how often the scale has changed.
+	 */
+	public long getChanges() {
+		return changes;
+	}
+
+	/**
+	 * @return
+	 * 		if the scale is changed based on the frame times.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets if the scale is changed based on the frame times. When disabled,
+	 * the resolution goes back to full resolution.
+	 *
+	 * @param enabled
+	 * 		<code>true</code> to change the scale when needed.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+		if (!enabled && step != 0) {
+			setStep(0);
+		}
+	}
+
+	/**
+	 * Sets the time available for a single frame.
+	 *
+	 * @param frameBudget
+	 * 		the new budget, in nanoseconds.
+	 */
+	public void setFrameBudget(long frameBudget) {
+		if (frameBudget <= 0) {
+			throw new IllegalArgumentException("The budget must be positive!");
+		}
+
+		this.frameBudget = frameBudget;
+	}
+}
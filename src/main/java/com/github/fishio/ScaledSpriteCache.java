@@ -0,0 +1,404 @@
+package com.github.fishio;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A cache of sprites that are scaled down to the size they are drawn at.<br>
+ * <br>
+ * Most sprites are far larger than they are drawn, so drawing them means
+ * resampling the full sprite every frame. Instead, the size a sprite is
+ * drawn at is rounded up to a size bucket (there are
+ * {@link #BUCKETS_PER_OCTAVE} buckets for every halving of the size), and
+ * a variant of the sprite with that size is generated by a background job.
+ * Drawing the variant is then almost a 1:1 copy. Mirrored sprites get
+ * their own variants, so they do not have to be flipped when drawn.<br>
+ * <br>
+ * Variants that have not been used for the longest time are removed when
+ * the variants take more memory than the budget.
+ */
+public class ScaledSpriteCache {
+	/**
+	 * The amount of size buckets for every halving of the size.
+	 */
+	public static final int BUCKETS_PER_OCTAVE = 4;
+
+	/**
+	 * The default memory budget, in bytes.
+	 */
+	public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+	/**
+	 * The name of the jobs that generate variants.
+	 */
+	public static final String JOB_SCALE = "scaleSprite";
+
+	private static ScaledSpriteCache defaultCache;
+
+	private final LinkedHashMap<Key, Image> variants = new LinkedHashMap<>(16, 0.75f, true);
+	private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+	private final Key probe = new Key(null, 0, false);
+	private final JobSystem jobs;
+	private long budget;
+	private long bytes;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Creates a new ScaledSpriteCache.
+	 *
+	 * @param jobs
+	 * 		the job system to generate the variants with.
+	 * @param budget
+	 * 		the maximal amount of memory for the variants, in bytes.
+	 */
+	public ScaledSpriteCache(JobSystem jobs, long budget) {
+		this.jobs = jobs;
+		this.budget = budget;
+	}
+
+	/**
+	 * Gives back the cache shared by the whole game. It is created when it
+	 * is first used.
+	 *
+	 * @return
+	 * 		the default ScaledSpriteCache.
+	 */
+	public static synchronized ScaledSpriteCache getDefault() {
+		if (defaultCache == null) {
+			defaultCache = new ScaledSpriteCache(JobSystem.getDefault(), DEFAULT_BUDGET);
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * Gives back the variant of a sprite to draw it at the given size. If
+	 * there is no such variant yet, a job is started to generate it.
+	 *
+	 * @param sprite
+	 * 		the full size sprite.
+	 * @param width
+	 * 		the width to draw the sprite at.
+	 * @param height
+	 * 		the height to draw the sprite at.
+	 * @param mirrored
+	 * 		if the sprite is drawn mirrored (left/right).
+	 *
+	 * @return
+	 * 		the variant, which is at least as large as the given size, or
+	 * 		<code>null</code> if it is not generated yet or the sprite is not
+	 * 		drawn smaller than it is.
+	 */
+	public Image get(Image sprite, double width, double height, boolean mirrored) {
+		double sw = sprite.getWidth();
+		double sh = sprite.getHeight();
+		if (sw <= 0 || sh <= 0 || width <= 0 || height <= 0) {
+			return null;
+		}
+
+		int bucket = bucket(Math.max(width / sw, height / sh));
+		if (bucket >= 0) {
+			return null;
+		}
+
+		//Look up with the probe, so a key is only allocated when a new variant is requested.
+		synchronized (variants) {
+			probe.set(sprite, bucket, mirrored);
+			Image variant = variants.get(probe);
+			boolean requested = variant == null && pending.contains(probe);
+			probe.set(null, 0, false);
+			if (variant != null) {
+				hits++;
+				return variant;
+			}
+			misses++;
+			if (requested) {
+				return null;
+			}
+		}
+
+		Key key = new Key(sprite, bucket, mirrored);
+		if (pending.add(key)) {
+			jobs.submit(JOB_SCALE, () -> {
+				try {
+					generate(key);
+				} finally {
+					pending.remove(key);
+				}
+			});
+		}
+		return null;
+	}
+
+	/**
+	 * Generates a variant and adds it to the cache.
+	 *
+	 * @param key
+	 * 		the key of the variant.
+	 */
+	private void generate(Key key) {
+		Image sprite = key.sprite;
+		int sw = (int) sprite.getWidth();
+		int sh = (int) sprite.getHeight();
+		double scale = bucketScale(key.bucket);
+		int dw = Math.max(1, (int) Math.ceil(sw * scale));
+		int dh = Math.max(1, (int) Math.ceil(sh * scale));
+
+		if (sprite.getPixelReader() == null) {
+			return;
+		}
+
+		int[] src = new int[sw * sh];
+		sprite.getPixelReader().getPixels(0, 0, sw, sh, PixelFormat.getIntArgbPreInstance(), src, 0, sw);
+		int[] dst = downscale(src, sw, sh, dw, dh, key.mirrored);
+
+		WritableImage variant = new WritableImage(dw, dh);
+		variant.getPixelWriter().setPixels(0, 0, dw, dh, PixelFormat.getIntArgbPreInstance(), dst, 0, dw);
+
+		synchronized (variants) {
+			if (variants.put(key, variant) == null) {
+				bytes += 4L * dw * dh;
+			}
+			evict();
+		}
+	}
+
+	/**
+	 * Removes the least recently used variants, until the variants fit in
+	 * the budget.
+	 */
+	private void evict() {
+		Iterator<Map.Entry<Key, Image>> it = variants.entrySet().iterator();
+		while (bytes > budget && it.hasNext()) {
+			Image variant = it.next().getValue();
+			bytes -= 4L * (long) variant.getWidth() * (long) variant.getHeight();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Scales an image down, by averaging all source pixels that fall in a
+	 * destination pixel (a box filter).<br>
+	 * <br>
+	 * The pixels should have premultiplied alpha, so that transparent
+	 * pixels do not darken the edges of the sprite.
+	 *
+	 * @param src
+	 * 		the source pixels, as ARGB ints, row by row.
+	 * @param sw
+	 * 		the width of the source.
+	 * @param sh
+	 * 		the height of the source.
+	 * @param dw
+	 * 		the width of the result, at most the source width.
+	 * @param dh
+	 * 		the height of the result, at most the source height.
+	 * @param mirror
+	 * 		if the result should be mirrored left/right.
+	 *
+	 * @return
+	 * 		the pixels of the result, as ARGB ints, row by row.
+	 */
+	public static int[] downscale(int[] src, int sw, int sh, int dw, int dh, boolean mirror) {
+		int[] dst = new int[dw * dh];
+		for (int dy = 0; dy < dh; dy++) {
+			int y0 = (int) ((long) dy * sh / dh);
+			int y1 = Math.max(y0 + 1, (int) ((long) (dy + 1) * sh / dh));
+			for (int dx = 0; dx < dw; dx++) {
+				int x0 = (int) ((long) dx * sw / dw);
+				int x1 = Math.max(x0 + 1, (int) ((long) (dx + 1) * sw / dw));
+
+				long a = 0;
+				long r = 0;
+				long g = 0;
+				long b = 0;
+				for (int y = y0; y < y1; y++) {
+					for (int x = x0; x < x1; x++) {
+						int p = src[y * sw + x];
+						a += p >>> 24;
+						r += (p >> 16) & 0xFF;
+						g += (p >> 8) & 0xFF;
+						b += p & 0xFF;
+					}
+				}
+
+				long n = (long) (x1 - x0) * (y1 - y0);
+				int pixel = (int) ((a / n) << 24 | (r / n) << 16 | (g / n) << 8 | (b / n));
+				int tx = dx;
+				if (mirror) {
+					tx = dw - 1 - dx;
+				}
+				dst[dy * dw + tx] = pixel;
+			}
+		}
+		return dst;
+	}
+
+	/**
+	 * Gives back the size bucket for a scale. The scale of the bucket is
+	 * at least the given scale.
+	 *
+	 * @param scale
+	 * 		the scale the sprite is drawn at.
+	 *
+	 * @return
+	 * 		the bucket. Negative buckets are smaller than the sprite.
+	 */
+	public static int bucket(double scale) {
+		return (int) Math.ceil(Math.log(scale) / Math.log(2) * BUCKETS_PER_OCTAVE - 1E-9);
+	}
+
+	/**
+	 * @param bucket
+	 * 		a size bucket.
+	 *
+	 * @return
+	 * 		the scale of the variants in the bucket.
+	 */
+	public static double bucketScale(int bucket) {
+		return Math.pow(2, (double) bucket / BUCKETS_PER_OCTAVE);
+	}
+
+	/**
+	 * Removes all variants.
+	 */
+	public void clear() {
+		synchronized (variants) {
+			variants.clear();
+			bytes = 0;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the amount of variants in this cache.
+	 */
+	public int size() {
+		synchronized (variants) {
+			return variants.size();
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the memory used by the variants, in bytes.
+	 */
+	public long getBytes() {
+		synchronized (variants) {
+			return bytes;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times a variant was asked for and found.
+	 */
+	public long getHits() {
+		synchronized (variants) {
+			return hits;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times a variant was asked for, but not generated
+	 * 		yet.
+	 */
+	public long getMisses() {
+		synchronized (variants) {
+			return misses;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the maximal amount of memory for the variants, in bytes.
+	 */
+	public long getBudget() {
+		synchronized (variants) {
+			return budget;
+		}
+	}
+
+	/**
+	 * Sets the maximal amount of memory for the variants. Variants are
+	 * removed if they do not fit anymore.
+	 *
+	 * @param budget
+	 * 		the new budget, in bytes.
+	 */
+	public void setBudget(long budget) {
+		synchronized (variants) {
+			this.budget = budget;
+			evict();
+		}
+	}
+
+	/**
+	 * The key of a variant: the sprite (by identity), the bucket and if it
+	 * is mirrored.<br>
+	 * <br>
+	 * Only the probe used for lookups is ever changed, the keys in the cache
+	 * never change.
+	 */
+	private static final class Key {
+		private Image sprite;
+		private int bucket;
+		private boolean mirrored;
+
+		/**
+		 * Creates a new Key.
+		 *
+		 * @param sprite
+		 * 		the full size sprite.
+		 * @param bucket
+		 * 		the size bucket.
+		 * @param mirrored
+		 * 		if the variant is mirrored.
+		 */
+		private Key(Image sprite, int bucket, boolean mirrored) {
+			set(sprite, bucket, mirrored);
+		}
+
+		/**
+		 * Changes this key.
+		 *
+		 * @param sprite
+		 * 		the full size sprite.
+		 * @param bucket
+		 * 		the size bucket.
+		 * @param mirrored
+		 * 		if the variant is mirrored.
+		 */
+		private void set(Image sprite, int bucket, boolean mirrored) {
+			this.sprite = sprite;
+			this.bucket = bucket;
+			this.mirrored = mirrored;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other = (Key) obj;
+			return sprite == other.sprite && bucket == other.bucket && mirrored == other.mirrored;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode(sprite);
+			hash = 31 * hash + bucket;
+			hash = 31 * hash + Boolean.hashCode(mirrored);
+			return hash;
+		}
+	}
+}
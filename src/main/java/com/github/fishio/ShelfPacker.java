@@ -0,0 +1,112 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+
+/**
+ * Packs rectangles into pages of a fixed size, on shelves.<br>
+ * <br>
+ * A shelf is a row with the height of the first rectangle put on it.
+ * Rectangles are put on the first shelf they fit on, and a new shelf is
+ * started below the last one when they fit on none. When a page is full,
+ * a new page is started. Packing works best when the rectangles are added
+ * from the highest to the lowest.
+ */
+public class ShelfPacker {
+	private final int pageWidth;
+	private final int pageHeight;
+	private final int padding;
+
+	private final ArrayList<int[]> shelves = new ArrayList<>();
+	private int page;
+	private int nextShelfY;
+
+	/**
+	 * Creates a new ShelfPacker.
+	 *
+	 * @param pageWidth
+	 * 		the width of a page.
+	 * @param pageHeight
+	 * 		the height of a page.
+	 * @param padding
+	 * 		the amount of empty space around every rectangle.
+	 */
+	public ShelfPacker(int pageWidth, int pageHeight, int padding) {
+		if (pageWidth <= 0 || pageHeight <= 0 || padding < 0) {
+			throw new IllegalArgumentException("Invalid page size or padding!");
+		}
+
+		this.pageWidth = pageWidth;
+		this.pageHeight = pageHeight;
+		this.padding = padding;
+	}
+
+	/**
+	 * Finds a place for a rectangle.
+	 *
+	 * @param width
+	 * 		the width of the rectangle.
+	 * @param height
+	 * 		the height of the rectangle.
+	 *
+	 * @return
+	 * 		the page, x and y coordinate of the top left corner of the
+	 * 		rectangle (without padding).
+	 *
+	 * @throws IllegalArgumentException
+	 * 		if the rectangle does not fit on a page.
+	 */
+	public int[] pack(int width, int height) {
+		int w = width + 2 * padding;
+		int h = height + 2 * padding;
+		if (width <= 0 || height <= 0 || w > pageWidth || h > pageHeight) {
+			throw new IllegalArgumentException("A " + width + "x" + height + " rectangle does not fit on a page!");
+		}
+
+		//Every shelf is {y, height, used width}.
+		for (int[] shelf : shelves) {
+			if (h <= shelf[1] && shelf[2] + w <= pageWidth) {
+				int[] res = {page, shelf[2] + padding, shelf[0] + padding};
+				shelf[2] += w;
+				return res;
+			}
+		}
+
+		if (nextShelfY + h > pageHeight) {
+			page++;
+			shelves.clear();
+			nextShelfY = 0;
+		}
+
+		shelves.add(new int[] {nextShelfY, h, w});
+		int[] res = {page, padding, nextShelfY + padding};
+		nextShelfY += h;
+		return res;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of pages that are (partly) used.
+	 */
+	public int getPageCount() {
+		if (page == 0 && shelves.isEmpty()) {
+			return 0;
+		}
+		return page + 1;
+	}
+
+	/**
+	 * @return
+	 * 		the width of a page.
+	 */
+	public int getPageWidth() {
+		return pageWidth;
+	}
+
+	/**
+	 * @return
+	 * 		the height of a page.
+	 */
+	public int getPageHeight() {
+		return pageHeight;
+	}
+}
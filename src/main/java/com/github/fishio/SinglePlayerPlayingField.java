@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import com.github.fishio.control.SinglePlayerController;
 import com.github.fishio.listeners.TickListener;
 
+import javafx.application.Platform;
 import javafx.scene.canvas.Canvas;
 
 /**
@@ -28,7 +29,23 @@ public class SinglePlayerPlayingField extends PlayingField {
 	 *            on.
 	 */
 	public SinglePlayerPlayingField(int fps, Canvas canvas, SinglePlayerController screenController) {
-		super(fps, canvas);
+		this(fps, createLayers(canvas, false), screenController);
+	}
+
+	/**
+	 * Creates the playing field for a single player, that draws every layer
+	 * on its own canvas.
+	 * 
+	 * @param fps
+	 *            the (target) framerate.
+	 * @param layers
+	 *            the canvases to draw the layers on.
+	 * @param screenController
+	 *            the screenController on which this playing field is located
+	 *            on.
+	 */
+	public SinglePlayerPlayingField(int fps, RenderLayers layers, SinglePlayerController screenController) {
+		super(fps, layers);
 
 		this.screenController = screenController;
 
@@ -48,8 +65,8 @@ public class SinglePlayerPlayingField extends PlayingField {
 
 					//Stop the render thread after the animation is done.
 					//This is in order to prevent the rendering from stopping prematurely.
-					SinglePlayerPlayingField.this.screenController.showDeathScreen(true,
-							event -> getRenderThread().stop());
+					Platform.runLater(() -> SinglePlayerPlayingField.this.screenController.showDeathScreen(true,
+							event -> getRenderThread().stop()));
 				}
 			}
 		});
@@ -65,8 +82,9 @@ public class SinglePlayerPlayingField extends PlayingField {
 		this.player = new PlayerFish(ca, FishIO.getInstance().getPrimaryStage(), 
 				Preloader.getImageOrLoad("sprites/fish/playerFish.png"));
 
+		//The score changes on the game thread, so update the display on the JavaFX thread.
 		this.player.scoreProperty().addListener((observable, oldValue, newValue) -> {
-			screenController.updateScoreDisplay(newValue.intValue());
+			Platform.runLater(() -> screenController.updateScoreDisplay(newValue.intValue()));
 		});
 
 		add(this.player);
@@ -78,6 +96,7 @@ public class SinglePlayerPlayingField extends PlayingField {
 
 		//Also add the playerfish again.
 		addPlayerFish();
+		publishSnapshot();
 	}
 
 	@Override
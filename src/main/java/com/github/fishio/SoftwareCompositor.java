@@ -0,0 +1,468 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+/**
+ * Renders sprites into a frame buffer of pixels, on the workers of a
+ * {@link JobSystem}, instead of with a GraphicsContext.<br>
+ * <br>
+ * The frame is split into square tiles. Every blit is put in the tiles it
+ * covers, and every tile is then rasterized by a job: the background is
+ * copied, and the blits are drawn over it in the order they were added,
+ * with alpha blending. Pixels are premultiplied ARGB ints, and only
+ * integer blending and nearest neighbour sampling are used, so the same
+ * blits always give exactly the same frame, however many workers there
+ * are.<br>
+ * <br>
+ * The blits are kept in a pool that grows when needed, and is reused for
+ * every frame, so adding blits allocates nothing once the pool is large
+ * enough.
+ */
+public class SoftwareCompositor {
+	/**
+	 * The default width and height of a tile.
+	 */
+	public static final int DEFAULT_TILE_SIZE = 64;
+
+	/**
+	 * The amount of tiles rasterized by a single job.
+	 */
+	public static final int TILES_PER_JOB = 4;
+
+	/**
+	 * The name of the jobs that rasterize tiles.
+	 */
+	public static final String JOB_RASTERIZE = "rasterize";
+
+	private final int width;
+	private final int height;
+	private final int tileSize;
+	private final int tilesX;
+	private final int tilesY;
+	private final int[] frame;
+	private int[] background;
+	private JobSystem jobs;
+
+	private Blit[] blits = new Blit[64];
+	private int blitCount;
+	private final int[][] bins;
+	private final int[] binSizes;
+
+	/**
+	 * Creates a new SoftwareCompositor.
+	 *
+	 * @param width
+	 * 		the width of the frame.
+	 * @param height
+	 * 		the height of the frame.
+	 * @param tileSize
+	 * 		the width and height of a tile.
+	 * @param jobs
+	 * 		the job system to rasterize the tiles with.
+	 */
+	public SoftwareCompositor(int width, int height, int tileSize, JobSystem jobs) {
+		if (width <= 0 || height <= 0 || tileSize <= 0) {
+			throw new IllegalArgumentException("Invalid frame or tile size!");
+		}
+
+		this.width = width;
+		this.height = height;
+		this.tileSize = tileSize;
+		this.tilesX = (width + tileSize - 1) / tileSize;
+		this.tilesY = (height + tileSize - 1) / tileSize;
+		this.frame = new int[width * height];
+		this.jobs = jobs;
+		this.bins = new int[tilesX * tilesY][8];
+		this.binSizes = new int[tilesX * tilesY];
+	}
+
+	/**
+	 * Sets the background that every frame starts with.
+	 *
+	 * @param pixels
+	 * 		the pixels of the background, with the size of the frame, or
+	 * 		<code>null</code> for a transparent background.
+	 */
+	public void setBackground(int[] pixels) {
+		if (pixels != null && pixels.length != width * height) {
+			throw new IllegalArgumentException("The background must have the size of the frame!");
+		}
+
+		this.background = pixels;
+	}
+
+	/**
+	 * Sets the job system to rasterize the tiles with.
+	 *
+	 * @param jobs
+	 * 		the new job system.
+	 */
+	public void setJobSystem(JobSystem jobs) {
+		this.jobs = jobs;
+	}
+
+	/**
+	 * Removes all blits, to start a new frame. The blits are kept in the
+	 * pool, to be reused by the next frame.
+	 */
+	public void clear() {
+		blitCount = 0;
+	}
+
+	/**
+	 * Adds a blit of a texture to the frame.
+	 *
+	 * @param texture
+	 * 		the texture to draw.
+	 * @param cx
+	 * 		the x coordinate of the center.
+	 * @param cy
+	 * 		the y coordinate of the center.
+	 * @param w
+	 * 		the width to draw the texture with.
+	 * @param h
+	 * 		the height to draw the texture with.
+	 * @param rotation
+	 * 		the rotation in degrees, like {@link ICollisionArea#getRotation()}.
+	 * @param mirror
+	 * 		if the texture should be mirrored left/right.
+	 */
+	public void blit(Texture texture, double cx, double cy, double w, double h, double rotation, boolean mirror) {
+		if (w <= 0 || h <= 0) {
+			return;
+		}
+
+		if (blitCount == blits.length) {
+			blits = Arrays.copyOf(blits, blits.length * 2);
+		}
+		Blit b = blits[blitCount];
+		if (b == null) {
+			b = new Blit();
+			blits[blitCount] = b;
+		}
+
+		b.set(texture, cx, cy, w, h, rotation, mirror);
+		if (b.minX < b.maxX && b.minY < b.maxY) {
+			blitCount++;
+		}
+	}
+
+	/**
+	 * Renders all blits into the frame, and waits until it is done.
+	 */
+	public void render() {
+		bin();
+		jobs.parallelFor(JOB_RASTERIZE, tilesX * tilesY, TILES_PER_JOB, (from, to) -> {
+			for (int t = from; t < to; t++) {
+				renderTile(t);
+			}
+		}).join();
+	}
+
+	/**
+	 * Puts the index of every blit in the bins of the tiles it covers.
+	 */
+	private void bin() {
+		Arrays.fill(binSizes, 0);
+		for (int i = 0; i < blitCount; i++) {
+			Blit b = blits[i];
+			int tx1 = (b.maxX - 1) / tileSize;
+			int ty1 = (b.maxY - 1) / tileSize;
+			for (int ty = b.minY / tileSize; ty <= ty1; ty++) {
+				for (int tx = b.minX / tileSize; tx <= tx1; tx++) {
+					int t = ty * tilesX + tx;
+					if (binSizes[t] == bins[t].length) {
+						bins[t] = Arrays.copyOf(bins[t], bins[t].length * 2);
+					}
+					bins[t][binSizes[t]] = i;
+					binSizes[t]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Rasterizes a single tile.
+	 *
+	 * @param t
+	 * 		the index of the tile.
+	 */
+	private void renderTile(int t) {
+		int x0 = (t % tilesX) * tileSize;
+		int y0 = (t / tilesX) * tileSize;
+		int x1 = Math.min(width, x0 + tileSize);
+		int y1 = Math.min(height, y0 + tileSize);
+
+		for (int y = y0; y < y1; y++) {
+			int row = y * width;
+			if (background == null) {
+				Arrays.fill(frame, row + x0, row + x1, 0);
+			} else {
+				System.arraycopy(background, row + x0, frame, row + x0, x1 - x0);
+			}
+		}
+
+		for (int i = 0; i < binSizes[t]; i++) {
+			rasterize(blits[bins[t][i]], x0, y0, x1, y1);
+		}
+	}
+
+	/**
+	 * Draws the part of a blit that falls within the given rectangle.
+	 *
+	 * @param b
+	 * 		the blit.
+	 * @param cx0
+	 * 		the minimal x coordinate of the rectangle.
+	 * @param cy0
+	 * 		the minimal y coordinate of the rectangle.
+	 * @param cx1
+	 * 		the maximal x coordinate of the rectangle (exclusive).
+	 * @param cy1
+	 * 		the maximal y coordinate of the rectangle (exclusive).
+	 */
+	private void rasterize(Blit b, int cx0, int cy0, int cx1, int cy1) {
+		int x0 = Math.max(cx0, b.minX);
+		int y0 = Math.max(cy0, b.minY);
+		int x1 = Math.min(cx1, b.maxX);
+		int y1 = Math.min(cy1, b.maxY);
+
+		Texture tex = b.texture;
+		double su = tex.width / b.w;
+		double sv = tex.height / b.h;
+		double hw = 0.5 * b.w;
+		double hh = 0.5 * b.h;
+
+		for (int y = y0; y < y1; y++) {
+			double dy = y + 0.5 - b.cy;
+			int row = y * width;
+			for (int x = x0; x < x1; x++) {
+				//Map the center of the pixel back onto the texture.
+				double dx = x + 0.5 - b.cx;
+				double lx = b.cos * dx + b.sin * dy + hw;
+				double ly = b.cos * dy - b.sin * dx + hh;
+				if (lx < 0 || ly < 0 || lx >= b.w || ly >= b.h) {
+					continue;
+				}
+
+				int u = Math.min(tex.width - 1, (int) (lx * su));
+				int v = Math.min(tex.height - 1, (int) (ly * sv));
+				if (b.mirror) {
+					u = tex.width - 1 - u;
+				}
+
+				int src = tex.pixels[v * tex.width + u];
+				int sa = src >>> 24;
+				if (sa == 255) {
+					frame[row + x] = src;
+				} else if (sa != 0) {
+					frame[row + x] = blend(src, frame[row + x]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Draws a premultiplied pixel over another (source over).
+	 *
+	 * @param src
+	 * 		the pixel to draw.
+	 * @param dst
+	 * 		the pixel to draw over.
+	 *
+	 * @return
+	 * 		the blended pixel.
+	 */
+	public static int blend(int src, int dst) {
+		int inv = 255 - (src >>> 24);
+		int a = (src >>> 24) + ((dst >>> 24) * inv + 127) / 255;
+		int r = ((src >> 16) & 0xFF) + (((dst >> 16) & 0xFF) * inv + 127) / 255;
+		int g = ((src >> 8) & 0xFF) + (((dst >> 8) & 0xFF) * inv + 127) / 255;
+		int bl = (src & 0xFF) + ((dst & 0xFF) * inv + 127) / 255;
+		return Math.min(255, a) << 24 | Math.min(255, r) << 16 | Math.min(255, g) << 8 | Math.min(255, bl);
+	}
+
+	/**
+	 * Gives back the frame. It is only complete after {@link #render()}
+	 * has returned.
+	 *
+	 * @return
+	 * 		the pixels of the frame, as premultiplied ARGB ints, row by row.
+	 */
+	public int[] getPixels() {
+		return frame;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of blits in the current frame.
+	 */
+	public int getBlitCount() {
+		return blitCount;
+	}
+
+	/**
+	 * @return
+	 * 		the width of the frame.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return
+	 * 		the height of the frame.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * The pixels of an image that can be blitted.
+	 */
+	public static final class Texture {
+		private final int[] pixels;
+		private final int width;
+		private final int height;
+
+		/**
+		 * Creates a new Texture.
+		 *
+		 * @param pixels
+		 * 		the pixels, as premultiplied ARGB ints, row by row.
+		 * @param width
+		 * 		the width.
+		 * @param height
+		 * 		the height.
+		 */
+		public Texture(int[] pixels, int width, int height) {
+			if (width <= 0 || height <= 0 || pixels.length != width * height) {
+				throw new IllegalArgumentException("The pixels do not match the size of the texture!");
+			}
+
+			this.pixels = pixels;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * Creates a texture of a single color.
+		 *
+		 * @param argb
+		 * 		the color, as premultiplied ARGB int.
+		 *
+		 * @return
+		 * 		the texture.
+		 */
+		public static Texture solid(int argb) {
+			return new Texture(new int[] {argb}, 1, 1);
+		}
+
+		/**
+		 * Creates a texture of an image. Images that are larger than the
+		 * given size are scaled down to fit.
+		 *
+		 * @param image
+		 * 		the image.
+		 * @param maxSize
+		 * 		the maximal width and height of the texture.
+		 *
+		 * @return
+		 * 		the texture.
+		 */
+		public static Texture fromImage(Image image, int maxSize) {
+			int w = (int) image.getWidth();
+			int h = (int) image.getHeight();
+			int[] pixels = new int[w * h];
+			image.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbPreInstance(), pixels, 0, w);
+			if (w <= maxSize && h <= maxSize) {
+				return new Texture(pixels, w, h);
+			}
+
+			double scale = Math.min((double) maxSize / w, (double) maxSize / h);
+			int dw = Math.max(1, (int) Math.round(w * scale));
+			int dh = Math.max(1, (int) Math.round(h * scale));
+			return new Texture(ScaledSpriteCache.downscale(pixels, w, h, dw, dh, false), dw, dh);
+		}
+
+		/**
+		 * @return
+		 * 		the width.
+		 */
+		public int getWidth() {
+			return width;
+		}
+
+		/**
+		 * @return
+		 * 		the height.
+		 */
+		public int getHeight() {
+			return height;
+		}
+	}
+
+	/**
+	 * A texture drawn at a position, size and rotation. Blits are pooled,
+	 * and set again for every frame.
+	 */
+	private final class Blit {
+		private Texture texture;
+		private double cx;
+		private double cy;
+		private double w;
+		private double h;
+		private double cos;
+		private double sin;
+		private boolean mirror;
+		private int minX;
+		private int minY;
+		private int maxX;
+		private int maxY;
+
+		/**
+		 * Sets the texture, position, size and rotation of this blit, and
+		 * works out the pixels it covers.
+		 *
+		 * @param texture
+		 * 		the texture to draw.
+		 * @param cx
+		 * 		the x coordinate of the center.
+		 * @param cy
+		 * 		the y coordinate of the center.
+		 * @param w
+		 * 		the width.
+		 * @param h
+		 * 		the height.
+		 * @param rotation
+		 * 		the rotation in degrees.
+		 * @param mirror
+		 * 		if the texture is mirrored.
+		 */
+		private void set(Texture texture, double cx, double cy, double w, double h, double rotation,
+				boolean mirror) {
+			this.texture = texture;
+			this.cx = cx;
+			this.cy = cy;
+			this.w = w;
+			this.h = h;
+			this.mirror = mirror;
+
+			//Sprites are drawn rotated by 360 - rotation degrees, like SpriteState does.
+			//The 360 is left out, so that no rotation gives an exact sine of 0.
+			double rad = Math.toRadians(-rotation);
+			this.cos = Math.cos(rad);
+			this.sin = Math.sin(rad);
+
+			double hw = 0.5 * (w * Math.abs(cos) + h * Math.abs(sin));
+			double hh = 0.5 * (w * Math.abs(sin) + h * Math.abs(cos));
+			this.minX = (int) Math.max(0, Math.floor(cx - hw));
+			this.minY = (int) Math.max(0, Math.floor(cy - hh));
+			this.maxX = (int) Math.min(width, Math.ceil(cx + hw));
+			this.maxY = (int) Math.min(height, Math.ceil(cy + hh));
+		}
+	}
+}
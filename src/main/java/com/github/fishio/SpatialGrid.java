@@ -0,0 +1,258 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A uniform grid for finding which objects might overlap (the broadphase
+ * of the collision detection).<br>
+ * <br>
+ * Objects are inserted with an id and their axis aligned bounds, and are
+ * put in every cell their bounds overlap. A query gives back the ids of
+ * all objects in the cells that the queried bounds overlap. These are only
+ * candidates: their exact shapes still have to be checked.
+ */
+public class SpatialGrid {
+	private final double cellSize;
+	private final HashMap<Long, Cell> cells = new HashMap<>();
+	private int size;
+
+	/**
+	 * Creates a new SpatialGrid.
+	 *
+	 * @param cellSize
+	 * 		the width and height of a cell.
+	 */
+	public SpatialGrid(double cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("The cell size must be positive!");
+		}
+
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Removes all objects from this grid.
+	 */
+	public void clear() {
+		cells.clear();
+		size = 0;
+	}
+
+	/**
+	 * Inserts an object.
+	 *
+	 * @param id
+	 * 		the id of the object.
+	 * @param minx
+	 * 		the minimal x coordinate of the object.
+	 * @param miny
+	 * 		the minimal y coordinate of the object.
+	 * @param maxx
+	 * 		the maximal x coordinate of the object.
+	 * @param maxy
+	 * 		the maximal y coordinate of the object.
+	 */
+	public void insert(int id, double minx, double miny, double maxx, double maxy) {
+		int cx1 = cell(minx);
+		int cx2 = cell(maxx);
+		int cy1 = cell(miny);
+		int cy2 = cell(maxy);
+		for (int cx = cx1; cx <= cx2; cx++) {
+			for (int cy = cy1; cy <= cy2; cy++) {
+				add(key(cx, cy), id);
+			}
+		}
+		size++;
+	}
+
+	/**
+	 * Inserts an object, with the bounds of the circle around its collision
+	 * area. These bounds do not depend on the rotation of the area.
+	 *
+	 * @param id
+	 * 		the id of the object.
+	 * @param area
+	 * 		the collision area of the object.
+	 */
+	public void insert(int id, ICollisionArea area) {
+		double r = getRadius(area);
+		insert(id, area.getCenterX() - r, area.getCenterY() - r, area.getCenterX() + r, area.getCenterY() + r);
+	}
+
+	/**
+	 * Gives back the ids of all objects that might overlap the given
+	 * bounds.
+	 *
+	 * @param minx
+	 * 		the minimal x coordinate.
+	 * @param miny
+	 * 		the minimal y coordinate.
+	 * @param maxx
+	 * 		the maximal x coordinate.
+	 * @param maxy
+	 * 		the maximal y coordinate.
+	 *
+	 * @return
+	 * 		the ids, sorted and without duplicates.
+	 */
+	public int[] query(double minx, double miny, double maxx, double maxy) {
+		int[] res = new int[16];
+		int count = 0;
+
+		int cx1 = cell(minx);
+		int cx2 = cell(maxx);
+		int cy1 = cell(miny);
+		int cy2 = cell(maxy);
+		for (int cx = cx1; cx <= cx2; cx++) {
+			for (int cy = cy1; cy <= cy2; cy++) {
+				Cell cell = cells.get(key(cx, cy));
+				if (cell == null) {
+					continue;
+				}
+
+				if (count + cell.size > res.length) {
+					res = Arrays.copyOf(res, Math.max(res.length * 2, count + cell.size));
+				}
+				System.arraycopy(cell.ids, 0, res, count, cell.size);
+				count += cell.size;
+			}
+		}
+
+		//Sort and remove the objects that are in multiple cells.
+		Arrays.sort(res, 0, count);
+		int unique = 0;
+		for (int i = 0; i < count; i++) {
+			if (unique == 0 || res[unique - 1] != res[i]) {
+				res[unique] = res[i];
+				unique++;
+			}
+		}
+		return Arrays.copyOf(res, unique);
+	}
+
+	/**
+	 * Gives back the ids of all objects that might overlap the circle
+	 * around the given collision area.
+	 *
+	 * @param area
+	 * 		the collision area.
+	 *
+	 * @return
+	 * 		the ids, sorted and without duplicates.
+	 */
+	public int[] query(ICollisionArea area) {
+		double r = getRadius(area);
+		return query(area.getCenterX() - r, area.getCenterY() - r, area.getCenterX() + r, area.getCenterY() + r);
+	}
+
+	/**
+	 * @return
+	 * 		the amount of objects in this grid.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of cells that contain at least one object.
+	 */
+	public int getCellCount() {
+		return cells.size();
+	}
+
+	/**
+	 * @return
+	 * 		the x and y index of every cell that contains at least one
+	 * 		object, in no particular order.
+	 */
+	public int[] getCells() {
+		int[] res = new int[2 * cells.size()];
+		int i = 0;
+		for (long key : cells.keySet()) {
+			res[i] = (int) (key >> 32);
+			res[i + 1] = (int) key;
+			i += 2;
+		}
+		return res;
+	}
+
+	/**
+	 * @return
+	 * 		the width and height of a cell.
+	 */
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Adds an id to a cell.
+	 *
+	 * @param key
+	 * 		the key of the cell.
+	 * @param id
+	 * 		the id to add.
+	 */
+	private void add(Long key, int id) {
+		Cell cell = cells.get(key);
+		if (cell == null) {
+			cell = new Cell();
+			cells.put(key, cell);
+		} else if (cell.size == cell.ids.length) {
+			cell.ids = Arrays.copyOf(cell.ids, cell.ids.length * 2);
+		}
+
+		cell.ids[cell.size] = id;
+		cell.size++;
+	}
+
+	/**
+	 * @param coord
+	 * 		a coordinate.
+	 *
+	 * @return
+	 * 		the index of the cell the coordinate is in.
+	 */
+	private int cell(double coord) {
+		return (int) Math.floor(coord / cellSize);
+	}
+
+	/**
+	 * @param cx
+	 * 		the x index of a cell.
+	 * @param cy
+	 * 		the y index of a cell.
+	 *
+	 * @return
+	 * 		the key of the cell.
+	 */
+	private static Long key(int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gives back the radius of the circle around a collision area, with a
+	 * pixel of margin for rounding.<br>
+	 * <br>
+	 * Two areas can only collide if their centers are closer than the sum
+	 * of their radii, however they are rotated.
+	 *
+	 * @param area
+	 * 		a collision area.
+	 *
+	 * @return
+	 * 		the radius.
+	 */
+	public static double getRadius(ICollisionArea area) {
+		return 0.5 * Math.hypot(area.getWidth(), area.getHeight()) + 1;
+	}
+
+	/**
+	 * The ids of the objects in a single cell.
+	 */
+	private static final class Cell {
+		private int[] ids = new int[4];
+		private int size;
+	}
+}
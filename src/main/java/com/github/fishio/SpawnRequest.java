@@ -0,0 +1,119 @@
+package com.github.fishio;
+
+import java.util.SplittableRandom;
+
+/**
+ * The randomly chosen properties of an enemy fish that is going to be
+ * spawned.<br>
+ * <br>
+ * All random choices are made when the request is created, so the fish
+ * that is eventually spawned does not depend on when it is spawned. This
+ * keeps games reproducible from their seed.
+ */
+public final class SpawnRequest {
+	private final String sprite;
+	private final int size;
+	private final int side;
+	private final double position;
+	private final double speedX;
+	private final double speedY;
+	private final SplittableRandom aiRandom;
+	private final long tick;
+
+	/**
+	 * Creates a new SpawnRequest.
+	 * 
+	 * @param sprite
+	 * 		the file of the sprite of the fish.
+	 * @param size
+	 * 		the size of the fish.
+	 * @param side
+	 * 		the side of the screen the fish enters from: 0 for left, 1 for
+	 * 		top, 2 for right and 3 for bottom.
+	 * @param position
+	 * 		the position along the side, between 0 and 1.
+	 * @param speedX
+	 * 		the horizontal speed of the fish.
+	 * @param speedY
+	 * 		the vertical speed of the fish.
+	 * @param aiRandom
+	 * 		the random generator for the AI of the fish.
+	 * @param tick
+	 * 		the tick in which the fish was requested.
+	 */
+	public SpawnRequest(String sprite, int size, int side, double position, double speedX, double speedY,
+			SplittableRandom aiRandom, long tick) {
+		this.sprite = sprite;
+		this.size = size;
+		this.side = side;
+		this.position = position;
+		this.speedX = speedX;
+		this.speedY = speedY;
+		this.aiRandom = aiRandom;
+		this.tick = tick;
+	}
+
+	/**
+	 * @return
+	 * 		the file of the sprite of the fish.
+	 */
+	public String getSprite() {
+		return sprite;
+	}
+
+	/**
+	 * @return
+	 * 		the size of the fish.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return
+	 * 		the side of the screen the fish enters from.
+	 */
+	public int getSide() {
+		return side;
+	}
+
+	/**
+	 * @return
+	 * 		the position along the side, between 0 and 1.
+	 */
+	public double getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return
+	 * 		the horizontal speed of the fish.
+	 */
+	public double getSpeedX() {
+		return speedX;
+	}
+
+	/**
+	 * @return
+	 * 		the vertical speed of the fish.
+	 */
+	public double getSpeedY() {
+		return speedY;
+	}
+
+	/**
+	 * @return
+	 * 		the random generator for the AI of the fish.
+	 */
+	public SplittableRandom getAiRandom() {
+		return aiRandom;
+	}
+
+	/**
+	 * @return
+	 * 		the tick in which the fish was requested.
+	 */
+	public long getTick() {
+		return tick;
+	}
+}
@@ -0,0 +1,224 @@
+package com.github.fishio;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spawns enemy fish incrementally, so that spawning many fish at once
+ * (e.g. after a lot of fish died, or when a game is restarted) does not
+ * cause a spike in the duration of a tick.<br>
+ * <br>
+ * Fish are requested with a {@link SpawnRequest}, and are spawned in later
+ * ticks, within a time budget per tick. At least one fish is spawned per
+ * tick, so the queue always empties. When a fish is requested, its sprite
+ * is loaded in the background if it is not loaded yet, and the fish waits
+ * for at most {@link #MAX_WAIT_TICKS} ticks until its sprite is ready.<br>
+ * <br>
+ * Without a budget, every requested fish is spawned immediately. This is
+ * used in headless mode, so that games stay reproducible.
+ */
+public class SpawnScheduler {
+	/**
+	 * The default time per tick that can be spent on spawning, in
+	 * nanoseconds.
+	 */
+	public static final long DEFAULT_BUDGET_NANOS = 1_000_000L;
+
+	/**
+	 * The maximum amount of ticks a fish waits for its sprite to be loaded
+	 * in the background. After that, the sprite is loaded when the fish is
+	 * spawned.
+	 */
+	public static final int MAX_WAIT_TICKS = 30;
+
+	/**
+	 * The name of the jobs that load sprites in the background.
+	 */
+	public static final String JOB_PREFETCH = "prefetchSprite";
+
+	private final ArrayDeque<SpawnRequest> queue = new ArrayDeque<>();
+	private final Set<String> prefetching = ConcurrentHashMap.newKeySet();
+	private final boolean headless;
+	private JobSystem jobs;
+	private long budgetNanos = DEFAULT_BUDGET_NANOS;
+
+	private long spawned;
+	private long deferred;
+	private long lastSpawnNanos;
+
+	/**
+	 * Creates a new SpawnScheduler.
+	 *
+	 * @param headless
+	 * 		if true, the spawned fish get no sprite image, and only the pixel
+	 * 		data of sprites is loaded.
+	 * @param jobs
+	 * 		the job system to load sprites with.
+	 */
+	public SpawnScheduler(boolean headless, JobSystem jobs) {
+		this.headless = headless;
+		this.jobs = jobs;
+	}
+
+	/**
+	 * Requests a fish to be spawned. If the sprite of the fish is not
+	 * loaded yet, it starts loading in the background.
+	 *
+	 * @param request
+	 * 		the properties of the fish.
+	 */
+	public void request(SpawnRequest request) {
+		queue.addLast(request);
+
+		String sprite = request.getSprite();
+		if (!isReady(sprite) && prefetching.add(sprite)) {
+			jobs.submit(JOB_PREFETCH, () -> {
+				try {
+					prefetch(sprite);
+				} finally {
+					prefetching.remove(sprite);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Spawns the requested fish that are due.
+	 *
+	 * @param tick
+	 * 		the current tick.
+	 * @param budgeted
+	 * 		if the time budget should be used. If false, all requested fish
+	 * 		are spawned, whether their sprites are ready or not.
+	 *
+	 * @return
+	 * 		the spawned fish, in the order they were requested.
+	 */
+	public ArrayList<EnemyFish> spawn(long tick, boolean budgeted) {
+		ArrayList<EnemyFish> res = new ArrayList<>();
+		long start = System.nanoTime();
+
+		int count = queue.size();
+		for (int i = 0; i < count; i++) {
+			if (budgeted && !res.isEmpty() && System.nanoTime() - start >= budgetNanos) {
+				break;
+			}
+
+			SpawnRequest request = queue.pollFirst();
+			if (budgeted && !isReady(request.getSprite()) && tick - request.getTick() < MAX_WAIT_TICKS) {
+				//Try again in a later tick, when the sprite is loaded.
+				queue.addLast(request);
+				deferred++;
+				continue;
+			}
+
+			res.add(LevelBuilder.buildFish(request, headless));
+		}
+
+		spawned += res.size();
+		lastSpawnNanos = System.nanoTime() - start;
+		return res;
+	}
+
+	/**
+	 * Loads everything that is needed to create a fish with the given
+	 * sprite.
+	 *
+	 * @param sprite
+	 * 		the file of the sprite.
+	 */
+	private void prefetch(String sprite) {
+		if (!headless) {
+			Preloader.getImageOrLoad(sprite);
+		}
+		Preloader.getAlphaDataOrLoad(sprite);
+		Preloader.getSpriteAlphaRatioOrLoad(sprite);
+	}
+
+	/**
+	 * @param sprite
+	 * 		the file of a sprite.
+	 *
+	 * @return
+	 * 		if a fish with the given sprite can be created without loading
+	 * 		anything.
+	 */
+	private boolean isReady(String sprite) {
+		return Preloader.isCached(sprite, !headless);
+	}
+
+	/**
+	 * Removes all requests that have not been spawned yet.
+	 */
+	public void clear() {
+		queue.clear();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of requested fish that have not been spawned yet.
+	 */
+	public int size() {
+		return queue.size();
+	}
+
+	/**
+	 * @return
+	 * 		the time per tick that can be spent on spawning, in nanoseconds.
+	 */
+	public long getBudgetNanos() {
+		return budgetNanos;
+	}
+
+	/**
+	 * Sets the time per tick that can be spent on spawning. At least one
+	 * fish is spawned per tick, whatever the budget is.
+	 *
+	 * @param budgetNanos
+	 * 		the new budget, in nanoseconds.
+	 */
+	public void setBudgetNanos(long budgetNanos) {
+		if (budgetNanos < 0) {
+			throw new IllegalArgumentException("The budget cannot be negative!");
+		}
+
+		this.budgetNanos = budgetNanos;
+	}
+
+	/**
+	 * Sets the job system to load sprites with.
+	 *
+	 * @param jobs
+	 * 		the new job system.
+	 */
+	public void setJobSystem(JobSystem jobs) {
+		this.jobs = jobs;
+	}
+
+	/**
+	 * @return
+	 * 		the total amount of spawned fish.
+	 */
+	public long getSpawned() {
+		return spawned;
+	}
+
+	/**
+	 * @return
+	 * 		the total amount of times a fish was put back in the queue,
+	 * 		because its sprite was not loaded yet.
+	 */
+	public long getDeferred() {
+		return deferred;
+	}
+
+	/**
+	 * @return
+	 * 		the time spent on spawning in the last tick, in nanoseconds.
+	 */
+	public long getLastSpawnNanos() {
+		return lastSpawnNanos;
+	}
+}
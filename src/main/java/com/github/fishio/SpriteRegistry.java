@@ -0,0 +1,114 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+
+/**
+ * Gives every sprite a small, fixed id, so that render commands can refer
+ * to sprites with an int instead of an object.<br>
+ * <br>
+ * Sprites are registered by the game thread (or the jobs building the
+ * render commands) and looked up by the render thread. Ids are never
+ * reused, so a sprite keeps its id for as long as the registry exists.
+ */
+public final class SpriteRegistry {
+	/**
+	 * The id of "no sprite", which is drawn as a red rectangle.
+	 */
+	public static final int NO_SPRITE = -1;
+
+	private static SpriteRegistry defaultRegistry;
+
+	private final Map<Image, Integer> ids = new ConcurrentHashMap<>();
+	private volatile Image[] sprites = new Image[16];
+	private int count;
+
+	/**
+	 * Gives back the registry shared by the whole game. It is created when
+	 * it is first used.
+	 *
+	 * @return
+	 * 		the default SpriteRegistry.
+	 */
+	public static synchronized SpriteRegistry getDefault() {
+		if (defaultRegistry == null) {
+			defaultRegistry = new SpriteRegistry();
+		}
+		return defaultRegistry;
+	}
+
+	/**
+	 * Gives back the id of a sprite, registering it if it has no id yet.
+	 *
+	 * @param sprite
+	 * 		the sprite, can be <code>null</code>.
+	 *
+	 * @return
+	 * 		the id of the sprite, or {@link #NO_SPRITE} if it is
+	 * 		<code>null</code>.
+	 */
+	public int getId(Image sprite) {
+		if (sprite == null) {
+			return NO_SPRITE;
+		}
+
+		Integer id = ids.get(sprite);
+		if (id != null) {
+			return id;
+		}
+		return register(sprite);
+	}
+
+	/**
+	 * Registers a sprite, unless another thread did already.
+	 *
+	 * @param sprite
+	 * 		the sprite.
+	 *
+	 * @return
+	 * 		the id of the sprite.
+	 */
+	private synchronized int register(Image sprite) {
+		Integer id = ids.get(sprite);
+		if (id != null) {
+			return id;
+		}
+
+		Image[] array = sprites;
+		if (count == array.length) {
+			array = Arrays.copyOf(array, 2 * count);
+		}
+		array[count] = sprite;
+
+		//Publish the array before the id, so whoever sees the id can look the sprite up.
+		sprites = array;
+		ids.put(sprite, count);
+		return count++;
+	}
+
+	/**
+	 * @param id
+	 * 		the id of a sprite.
+	 *
+	 * @return
+	 * 		the sprite with the given id, or <code>null</code> if it is
+	 * 		{@link #NO_SPRITE}.
+	 */
+	public Image get(int id) {
+		if (id == NO_SPRITE) {
+			return null;
+		}
+		return sprites[id];
+	}
+
+	/**
+	 * @return
+	 * 		the amount of registered sprites.
+	 */
+	public synchronized int size() {
+		return count;
+	}
+}
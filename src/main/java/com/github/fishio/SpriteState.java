@@ -0,0 +1,326 @@
+package com.github.fishio;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Immutable snapshot of how a drawable should be rendered.<br>
+ * <br>
+ * SpriteStates are created by the game thread, and rendered by the render
+ * thread, so that rendering never has to touch the live entities.
+ */
+public final class SpriteState {
+	/**
+	 * The margin around the bounds of a state, for the pixels that are
+	 * touched by anti-aliasing.
+	 */
+	public static final double BOUNDS_MARGIN = 2;
+
+	private final Image sprite;
+	private final double x;
+	private final double y;
+	private final double previousX;
+	private final double previousY;
+	private final double width;
+	private final double height;
+	private final double rotation;
+	private final double size;
+	private final boolean reverse;
+	private final double cos;
+	private final double sin;
+	private final double halfBoundsX;
+	private final double halfBoundsY;
+
+	/**
+	 * Creates a new SpriteState for an object that does not move.
+	 * 
+	 * @param sprite
+	 * 		the sprite to draw. If <code>null</code>, a red rectangle is drawn
+	 * 		instead.
+	 * @param ca
+	 * 		the collision area to take the position, size and rotation from.
+	 * @param reverse
+	 * 		when true reverse left/right orientation of the sprite.
+	 */
+	public SpriteState(Image sprite, ICollisionArea ca, boolean reverse) {
+		this(sprite, ca, ca.getCenterX(), ca.getCenterY(), reverse);
+	}
+
+	/**
+	 * Creates a new SpriteState.
+	 * 
+	 * @param sprite
+	 * 		the sprite to draw. If <code>null</code>, a red rectangle is drawn
+	 * 		instead.
+	 * @param ca
+	 * 		the collision area to take the position, size and rotation from.
+	 * @param previousX
+	 * 		the x coordinate of the center before the last tick.
+	 * @param previousY
+	 * 		the y coordinate of the center before the last tick.
+	 * @param reverse
+	 * 		when true reverse left/right orientation of the sprite.
+	 */
+	public SpriteState(Image sprite, ICollisionArea ca, double previousX, double previousY, boolean reverse) {
+		this.sprite = sprite;
+		this.x = ca.getCenterX();
+		this.y = ca.getCenterY();
+		this.previousX = previousX;
+		this.previousY = previousY;
+		this.width = ca.getWidth();
+		this.height = ca.getHeight();
+		this.rotation = ca.getRotation();
+		this.size = ca.getSize();
+		this.reverse = reverse;
+
+		//Cache the rotation and the size of the bounding box of the rotated sprite.
+		double rad = Math.toRadians(rotation);
+		this.cos = Math.cos(rad);
+		this.sin = Math.sin(rad);
+		this.halfBoundsX = 0.5 * (width * Math.abs(cos) + height * Math.abs(sin)) + BOUNDS_MARGIN;
+		this.halfBoundsY = 0.5 * (width * Math.abs(sin) + height * Math.abs(cos)) + BOUNDS_MARGIN;
+	}
+
+	/**
+	 * Renders this state on the given GraphicsContext.
+	 * 
+	 * @param gc
+	 * 		the graphicscontext to render on.
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1). Used to interpolate the position.
+	 */
+	public void render(GraphicsContext gc, double alpha) {
+		draw(gc, sprite, getX(alpha), getY(alpha), width, height, rotation, cos, sin, reverse, size);
+	}
+
+	/**
+	 * Draws a sprite on the given GraphicsContext.<br>
+	 * <br>
+	 * This is shared by the states and the {@link RenderCommandBuffer}, so
+	 * that both draw exactly the same.
+	 * 
+	 * @param gc
+	 * 		the graphicscontext to draw on.
+	 * @param sprite
+	 * 		the sprite to draw. If <code>null</code>, a red rectangle is drawn
+	 * 		instead.
+	 * @param cx
+	 * 		the x coordinate of the center.
+	 * @param cy
+	 * 		the y coordinate of the center.
+	 * @param width
+	 * 		the width.
+	 * @param height
+	 * 		the height.
+	 * @param rotation
+	 * 		the rotation in degrees.
+	 * @param cos
+	 * 		the cosine of the rotation.
+	 * @param sin
+	 * 		the sine of the rotation.
+	 * @param reverse
+	 * 		when true reverse left/right orientation of the sprite.
+	 * @param size
+	 * 		the size, only shown when debugging.
+	 */
+	static void draw(GraphicsContext gc, Image sprite, double cx, double cy, double width, double height,
+			double rotation, double cos, double sin, boolean reverse, double size) {
+		if (sprite == null) {
+			gc.setFill(Color.RED);
+			gc.fillRect(cx - 0.5 * width, cy - 0.5 * height, width, height);
+			return;
+		}
+
+		double w = width;
+		if (reverse) {
+			w = -width;
+		}
+
+		//Only rotated sprites need a transform, which is a rotation of 360 - rotation degrees around the center.
+		boolean rotated = rotation != 0;
+		if (rotated) {
+			gc.save();
+			gc.transform(cos, -sin, sin, cos, cx - cos * cx - sin * cy, cy + sin * cx - cos * cy);
+		}
+
+		//Draw a variant that is scaled (and mirrored) already, if there is one.
+		Image variant = ScaledSpriteCache.getDefault().get(sprite, width, height, reverse);
+
+		//Otherwise, draw from the atlas, unless the sprite is not in it or is drawn larger than it is in the atlas.
+		TextureAtlas atlas = Preloader.getAtlas();
+		TextureAtlas.Region region = null;
+		if (variant == null && atlas != null) {
+			region = atlas.get(sprite);
+		}
+
+		if (variant != null) {
+			gc.drawImage(variant, cx - 0.5 * width, cy - 0.5 * height, width, height);
+		} else if (region != null && width <= region.getWidth() && height <= region.getHeight()) {
+			gc.drawImage(region.getPage(), region.getX(), region.getY(), region.getWidth(), region.getHeight(),
+					cx - 0.5 * w, cy - 0.5 * height, w, height);
+		} else {
+			gc.drawImage(sprite, cx - 0.5 * w, cy - 0.5 * height, w, height);
+		}
+
+		if (rotated) {
+			gc.restore();
+		}
+
+		// debug rendering
+		if (IDrawable.DEBUG) {
+			gc.setFill(Color.RED);
+			gc.fillText("angle: " + String.valueOf(rotation),	//angle display
+					cx, cy - (0.5 * height + 10));
+			gc.fillText("size: " + String.valueOf(size),		//size display
+					cx, cy - (0.5 * height + 25));
+
+			gc.setFill(Color.CYAN);
+			gc.fillOval(cx, cy, 2, 2);	//draw sprite center
+		}
+	}
+
+	/**
+	 * Gives back the bounds of the pixels this state covers when rendered,
+	 * with a margin of {@link #BOUNDS_MARGIN} pixels for anti-aliasing.
+	 *
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1).
+	 * @param out
+	 * 		the array to write the minimal x, minimal y, maximal x and
+	 * 		maximal y coordinates to.
+	 * @param offset
+	 * 		the index in the array to start writing at.
+	 */
+	public void getBounds(double alpha, double[] out, int offset) {
+		double cx = getX(alpha);
+		double cy = getY(alpha);
+
+		out[offset] = cx - halfBoundsX;
+		out[offset + 1] = cy - halfBoundsY;
+		out[offset + 2] = cx + halfBoundsX;
+		out[offset + 3] = cy + halfBoundsY;
+	}
+
+	/**
+	 * Checks if this state looks exactly the same as the given state, not
+	 * taking the position into account.
+	 *
+	 * @param other
+	 * 		the other state.
+	 *
+	 * @return
+	 * 		<code>true</code> if both states draw the same sprite, with the
+	 * 		same size, rotation and orientation.
+	 */
+	public boolean looksLike(SpriteState other) {
+		return sprite == other.sprite && width == other.width && height == other.height
+				&& rotation == other.rotation && reverse == other.reverse;
+	}
+
+	/**
+	 * @return
+	 * 		the sprite to draw, can be <code>null</code>.
+	 */
+	public Image getSprite() {
+		return sprite;
+	}
+
+	/**
+	 * @return
+	 * 		the x coordinate of the center.
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * @return
+	 * 		the y coordinate of the center.
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1).
+	 *
+	 * @return
+	 * 		the interpolated x coordinate of the center.
+	 */
+	public double getX(double alpha) {
+		return x + (previousX - x) * (1.0 - alpha);
+	}
+
+	/**
+	 * @param alpha
+	 * 		how far we are between the previous tick (0) and the last
+	 * 		tick (1).
+	 *
+	 * @return
+	 * 		the interpolated y coordinate of the center.
+	 */
+	public double getY(double alpha) {
+		return y + (previousY - y) * (1.0 - alpha);
+	}
+
+	/**
+	 * @return
+	 * 		the x coordinate of the center before the last tick.
+	 */
+	public double getPreviousX() {
+		return previousX;
+	}
+
+	/**
+	 * @return
+	 * 		the y coordinate of the center before the last tick.
+	 */
+	public double getPreviousY() {
+		return previousY;
+	}
+
+	/**
+	 * @return
+	 * 		the width.
+	 */
+	public double getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return
+	 * 		the height.
+	 */
+	public double getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return
+	 * 		the rotation in degrees.
+	 */
+	public double getRotation() {
+		return rotation;
+	}
+
+	/**
+	 * @return
+	 * 		the size.
+	 */
+	public double getSize() {
+		return size;
+	}
+
+	/**
+	 * @return
+	 * 		if the left/right orientation of the sprite is reversed.
+	 */
+	public boolean isReversed() {
+		return reverse;
+	}
+}
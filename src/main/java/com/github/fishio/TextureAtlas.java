@@ -0,0 +1,242 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * A few large images (pages) that contain many sprites.<br>
+ * <br>
+ * Drawing all sprites from the same image means the graphics pipeline
+ * does not have to switch textures between them, and can batch the draws.
+ * Sprites that are larger than {@link #MAX_SPRITE_SIZE} are scaled down
+ * to fit, since they are never drawn that large. The region of a sprite
+ * can be looked up by its file, or by the (full size) Image of the
+ * {@link Preloader}.<br>
+ * <br>
+ * An atlas does not change after it is built, so it can be used from any
+ * thread.
+ */
+public final class TextureAtlas {
+	/**
+	 * The width and height of a page.
+	 */
+	public static final int PAGE_SIZE = 2048;
+
+	/**
+	 * The amount of transparent pixels around every sprite, so that
+	 * neighbouring sprites do not bleed into each other when scaled.
+	 */
+	public static final int PADDING = 2;
+
+	/**
+	 * The maximal width and height of a sprite in the atlas.
+	 */
+	public static final int MAX_SPRITE_SIZE = 512;
+
+	private final List<Image> pages;
+	private final IdentityHashMap<Image, Region> regions;
+	private final HashMap<String, Region> files;
+
+	/**
+	 * Creates a new TextureAtlas.
+	 *
+	 * @param pages
+	 * 		the pages.
+	 * @param regions
+	 * 		the regions, by full size image.
+	 * @param files
+	 * 		the regions, by file.
+	 */
+	private TextureAtlas(List<Image> pages, IdentityHashMap<Image, Region> regions, HashMap<String, Region> files) {
+		this.pages = Collections.unmodifiableList(pages);
+		this.regions = regions;
+		this.files = files;
+	}
+
+	/**
+	 * Builds an atlas of the given sprites. The sprites are loaded with
+	 * the {@link Preloader}, if they are not loaded yet.
+	 *
+	 * @param spriteFiles
+	 * 		the files of the sprites.
+	 *
+	 * @return
+	 * 		the atlas.
+	 */
+	public static TextureAtlas build(List<String> spriteFiles) {
+		ArrayList<String> sorted = new ArrayList<>();
+		HashMap<String, Image> sources = new HashMap<>();
+		for (String file : spriteFiles) {
+			//Sprites that could not be loaded are left out.
+			Image image = Preloader.getImageOrLoad(file);
+			if (!image.isError() && !sources.containsKey(file)) {
+				sorted.add(file);
+				sources.put(file, getSource(file, image));
+			}
+		}
+
+		//Shelf packing works best from the highest to the lowest sprite.
+		sorted.sort((a, b) -> Double.compare(sources.get(b).getHeight(), sources.get(a).getHeight()));
+
+		ShelfPacker packer = new ShelfPacker(PAGE_SIZE, PAGE_SIZE, PADDING);
+		ArrayList<Image> pages = new ArrayList<>();
+		IdentityHashMap<Image, Region> regions = new IdentityHashMap<>();
+		HashMap<String, Region> files = new HashMap<>();
+		for (String file : sorted) {
+			Image source = sources.get(file);
+			int w = (int) source.getWidth();
+			int h = (int) source.getHeight();
+			int[] place = packer.pack(w, h);
+			while (pages.size() <= place[0]) {
+				pages.add(new WritableImage(PAGE_SIZE, PAGE_SIZE));
+			}
+
+			WritableImage page = (WritableImage) pages.get(place[0]);
+			page.getPixelWriter().setPixels(place[1], place[2], w, h, source.getPixelReader(), 0, 0);
+
+			Region region = new Region(page, place[1], place[2], w, h);
+			regions.put(Preloader.getImageOrLoad(file), region);
+			files.put(file, region);
+		}
+
+		return new TextureAtlas(pages, regions, files);
+	}
+
+	/**
+	 * Gives back the image to copy into the atlas for a sprite: the sprite
+	 * itself, or a scaled down version if it is too large.
+	 *
+	 * @param file
+	 * 		the file of the sprite.
+	 * @param image
+	 * 		the full size sprite.
+	 *
+	 * @return
+	 * 		an image that is at most {@link #MAX_SPRITE_SIZE} wide and high.
+	 */
+	private static Image getSource(String file, Image image) {
+		if (image.getWidth() <= MAX_SPRITE_SIZE && image.getHeight() <= MAX_SPRITE_SIZE) {
+			return image;
+		}
+		return new Image(file, MAX_SPRITE_SIZE, MAX_SPRITE_SIZE, true, true);
+	}
+
+	/**
+	 * @param image
+	 * 		a full size sprite.
+	 *
+	 * @return
+	 * 		the region of the sprite, or <code>null</code> if it is not in
+	 * 		this atlas.
+	 */
+	public Region get(Image image) {
+		return regions.get(image);
+	}
+
+	/**
+	 * @param file
+	 * 		the file of a sprite.
+	 *
+	 * @return
+	 * 		the region of the sprite, or <code>null</code> if it is not in
+	 * 		this atlas.
+	 */
+	public Region get(String file) {
+		return files.get(file);
+	}
+
+	/**
+	 * @return
+	 * 		the pages of this atlas.
+	 */
+	public List<Image> getPages() {
+		return pages;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of sprites in this atlas.
+	 */
+	public int size() {
+		return files.size();
+	}
+
+	/**
+	 * The place of a sprite in an atlas.
+	 */
+	public static final class Region {
+		private final Image page;
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+
+		/**
+		 * Creates a new Region.
+		 *
+		 * @param page
+		 * 		the page the sprite is on.
+		 * @param x
+		 * 		the x coordinate of the sprite on the page.
+		 * @param y
+		 * 		the y coordinate of the sprite on the page.
+		 * @param width
+		 * 		the width of the sprite on the page.
+		 * @param height
+		 * 		the height of the sprite on the page.
+		 */
+		private Region(Image page, int x, int y, int width, int height) {
+			this.page = page;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * @return
+		 * 		the page the sprite is on.
+		 */
+		public Image getPage() {
+			return page;
+		}
+
+		/**
+		 * @return
+		 * 		the x coordinate of the sprite on the page.
+		 */
+		public int getX() {
+			return x;
+		}
+
+		/**
+		 * @return
+		 * 		the y coordinate of the sprite on the page.
+		 */
+		public int getY() {
+			return y;
+		}
+
+		/**
+		 * @return
+		 * 		the width of the sprite on the page.
+		 */
+		public int getWidth() {
+			return width;
+		}
+
+		/**
+		 * @return
+		 * 		the height of the sprite on the page.
+		 */
+		public int getHeight() {
+			return height;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tick, split up in named {@link TickStage}s.<br>
+ * <br>
+ * Stages are run in the order of their constraints (see
+ * {@link TickStage#after(String...)} and
+ * {@link TickStage#before(String...)}). Stages without a constraint between
+ * them run in the order they were added. The constraints of a stage can
+ * not be changed once it is in the pipeline; remove it first.<br>
+ * <br>
+ * The pipeline can be modified from any thread. Changes take effect from
+ * the next tick.
+ */
+public class TickPipeline {
+	private final LinkedHashMap<String, TickStage> stages = new LinkedHashMap<>();
+	private volatile TickStage[] order = new TickStage[0];
+
+	/**
+	 * Adds a stage to this pipeline.
+	 *
+	 * @param stage
+	 * 		the stage to add.
+	 *
+	 * @return
+	 * 		the added stage.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		if there already is a stage with the same name.
+	 * @throws IllegalStateException
+	 * 		if the stage already is in a pipeline, or if the constraints of
+	 * 		the stages contain a cycle.
+	 */
+	public synchronized TickStage add(TickStage stage) {
+		if (stages.containsKey(stage.getName())) {
+			throw new IllegalArgumentException("There already is a stage named " + stage.getName() + "!");
+		}
+
+		stage.setAdded(true);
+		stages.put(stage.getName(), stage);
+		try {
+			order = sort();
+		} catch (IllegalStateException ex) {
+			stages.remove(stage.getName());
+			stage.setAdded(false);
+			throw ex;
+		}
+		return stage;
+	}
+
+	/**
+	 * Adds a new stage to this pipeline.
+	 *
+	 * @param name
+	 * 		the name of the stage.
+	 * @param action
+	 * 		the action of the stage.
+	 * @param after
+	 * 		the names of the stages the new stage runs after.
+	 *
+	 * @return
+	 * 		the added stage.
+	 */
+	public TickStage add(String name, Runnable action, String... after) {
+		return add(new TickStage(name, action).after(after));
+	}
+
+	/**
+	 * Removes the stage with the given name.
+	 *
+	 * @param name
+	 * 		the name of the stage.
+	 *
+	 * @return
+	 * 		the removed stage, or <code>null</code> if there is no such stage.
+	 */
+	public synchronized TickStage remove(String name) {
+		TickStage stage = stages.remove(name);
+		if (stage != null) {
+			stage.setAdded(false);
+			order = sort();
+		}
+		return stage;
+	}
+
+	/**
+	 * Gives back the stage with the given name.
+	 *
+	 * @param name
+	 * 		the name of the stage.
+	 *
+	 * @return
+	 * 		the stage.
+	 *
+	 * @throws IllegalArgumentException
+	 * 		if there is no stage with the given name.
+	 */
+	public synchronized TickStage get(String name) {
+		TickStage stage = stages.get(name);
+		if (stage == null) {
+			throw new IllegalArgumentException("There is no stage named " + name + "!");
+		}
+		return stage;
+	}
+
+	/**
+	 * Replaces the action of the stage with the given name.
+	 *
+	 * @param name
+	 * 		the name of the stage.
+	 * @param action
+	 * 		the new action.
+	 */
+	public void replace(String name, Runnable action) {
+		get(name).setAction(action);
+	}
+
+	/**
+	 * Enables or disables the stage with the given name.
+	 *
+	 * @param name
+	 * 		the name of the stage.
+	 * @param enabled
+	 * 		<code>true</code> to enable, <code>false</code> to disable.
+	 */
+	public void setEnabled(String name, boolean enabled) {
+		get(name).setEnabled(enabled);
+	}
+
+	/**
+	 * Sets the amount of ticks between two runs of the stage with the given
+	 * name.
+	 *
+	 * @param name
+	 * 		the name of the stage.
+	 * @param interval
+	 * 		the new interval.
+	 */
+	public void setInterval(String name, int interval) {
+		get(name).setInterval(interval);
+	}
+
+	/**
+	 * Runs all stages, in order.
+	 *
+	 * @param tick
+	 * 		the number of the current tick.
+	 */
+	public void run(long tick) {
+		for (TickStage stage : order) {
+			stage.run(tick);
+		}
+	}
+
+	/**
+	 * @return
+	 * 		all stages, in the order they are run.
+	 */
+	public List<TickStage> getStages() {
+		return Collections.unmodifiableList(Arrays.asList(order));
+	}
+
+	/**
+	 * Gives back the duration of the last run of every stage.
+	 *
+	 * @return
+	 * 		a map from the names of the stages to their last duration in
+	 * 		nanoseconds, in the order the stages are run.
+	 */
+	public Map<String, Long> getTimings() {
+		LinkedHashMap<String, Long> res = new LinkedHashMap<>();
+		for (TickStage stage : order) {
+			res.put(stage.getName(), stage.getLastNanos());
+		}
+		return res;
+	}
+
+	/**
+	 * Resets the recorded timings of all stages.
+	 */
+	public void resetTimings() {
+		for (TickStage stage : order) {
+			stage.resetTimings();
+		}
+	}
+
+	/**
+	 * Sorts the stages on their constraints.
+	 *
+	 * @return
+	 * 		the stages in the order they should be run.
+	 *
+	 * @throws IllegalStateException
+	 * 		if the constraints contain a cycle.
+	 */
+	private TickStage[] sort() {
+		//Count for every stage the amount of stages that have to run before it.
+		HashMap<String, List<String>> successors = new HashMap<>();
+		HashMap<String, Integer> incoming = new HashMap<>();
+		for (String name : stages.keySet()) {
+			successors.put(name, new ArrayList<>());
+			incoming.put(name, 0);
+		}
+
+		for (TickStage stage : stages.values()) {
+			for (String other : stage.getAfter()) {
+				addEdge(other, stage.getName(), successors, incoming);
+			}
+			for (String other : stage.getBefore()) {
+				addEdge(stage.getName(), other, successors, incoming);
+			}
+		}
+
+		//Repeatedly take the first stage (in order of adding) that can run.
+		ArrayList<TickStage> res = new ArrayList<>(stages.size());
+		ArrayList<TickStage> left = new ArrayList<>(stages.values());
+		while (!left.isEmpty()) {
+			TickStage next = null;
+			for (TickStage stage : left) {
+				if (incoming.get(stage.getName()) == 0) {
+					next = stage;
+					break;
+				}
+			}
+
+			if (next == null) {
+				throw new IllegalStateException("The order of the stages " + left + " contains a cycle!");
+			}
+
+			left.remove(next);
+			res.add(next);
+			for (String other : successors.get(next.getName())) {
+				incoming.put(other, incoming.get(other) - 1);
+			}
+		}
+
+		return res.toArray(new TickStage[res.size()]);
+	}
+
+	/**
+	 * Adds a constraint between two stages, if both are in this pipeline.
+	 *
+	 * @param first
+	 * 		the stage that runs first.
+	 * @param second
+	 * 		the stage that runs second.
+	 * @param successors
+	 * 		the stages that run after every stage.
+	 * @param incoming
+	 * 		the amount of stages that run before every stage.
+	 */
+	private void addEdge(String first, String second, Map<String, List<String>> successors,
+			Map<String, Integer> incoming) {
+		if (!stages.containsKey(first) || !stages.containsKey(second)) {
+			return;
+		}
+
+		successors.get(first).add(second);
+		incoming.put(second, incoming.get(second) + 1);
+	}
+}
@@ -0,0 +1,273 @@
+package com.github.fishio;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A named stage of a {@link TickPipeline}.<br>
+ * <br>
+ * A stage runs a single part of a tick, e.g. moving all entities. Stages
+ * can be disabled, replaced with another implementation or run only once
+ * every few ticks. The time every run of the stage takes is recorded.<br>
+ * <br>
+ * The constraints on the order of a stage can only be set before it is
+ * added to a pipeline, as the pipeline sorts its stages when they are
+ * added.
+ */
+public class TickStage {
+	private final String name;
+	private final Set<String> after = new LinkedHashSet<>();
+	private final Set<String> before = new LinkedHashSet<>();
+	private boolean added;
+
+	private volatile Runnable action;
+	private volatile boolean enabled = true;
+	private volatile int interval = 1;
+
+	private volatile long lastNanos;
+	private volatile long totalNanos;
+	private volatile long runs;
+
+	/**
+	 * Creates a new TickStage.
+	 *
+	 * @param name
+	 * 		the (unique) name of the stage.
+	 * @param action
+	 * 		the action to run.
+	 */
+	public TickStage(String name, Runnable action) {
+		if (name == null || action == null) {
+			throw new IllegalArgumentException("A stage needs a name and an action!");
+		}
+
+		this.name = name;
+		this.action = action;
+	}
+
+	/**
+	 * Makes this stage run after the given stages. Stages that are not in
+	 * the pipeline are ignored.
+	 *
+	 * @param names
+	 * 		the names of the stages to run after.
+	 *
+	 * @return
+	 * 		this stage.
+	 *
+	 * @throws IllegalStateException
+	 * 		if this stage has already been added to a pipeline.
+	 */
+	public synchronized TickStage after(String... names) {
+		checkNotAdded();
+		after.addAll(Arrays.asList(names));
+		return this;
+	}
+
+	/**
+	 * Makes this stage run before the given stages. Stages that are not in
+	 * the pipeline are ignored.
+	 *
+	 * @param names
+	 * 		the names of the stages to run before.
+	 *
+	 * @return
+	 * 		this stage.
+	 *
+	 * @throws IllegalStateException
+	 * 		if this stage has already been added to a pipeline.
+	 */
+	public synchronized TickStage before(String... names) {
+		checkNotAdded();
+		before.addAll(Arrays.asList(names));
+		return this;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 * 		if this stage has already been added to a pipeline.
+	 */
+	private void checkNotAdded() {
+		if (added) {
+			throw new IllegalStateException(this + " has already been added to a pipeline!");
+		}
+	}
+
+	/**
+	 * Marks this stage as added to or removed from a pipeline. The
+	 * constraints of a stage can not change while it is in a pipeline.
+	 *
+	 * @param added
+	 * 		<code>true</code> when the stage is added, <code>false</code>
+	 * 		when it is removed.
+	 *
+	 * @throws IllegalStateException
+	 * 		if the stage is added while it already is in a pipeline.
+	 */
+	synchronized void setAdded(boolean added) {
+		if (added) {
+			checkNotAdded();
+		}
+		this.added = added;
+	}
+
+	/**
+	 * Runs this stage, if it is enabled and it is its turn.
+	 *
+	 * @param tick
+	 * 		the number of the current tick.
+	 */
+	public void run(long tick) {
+		if (!enabled || tick % interval != 0) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		action.run();
+		long time = System.nanoTime() - start;
+
+		lastNanos = time;
+		totalNanos += time;
+		runs++;
+	}
+
+	/**
+	 * @return
+	 * 		the name of this stage.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return
+	 * 		the names of the stages this stage runs after.
+	 */
+	public Set<String> getAfter() {
+		return Collections.unmodifiableSet(after);
+	}
+
+	/**
+	 * @return
+	 * 		the names of the stages this stage runs before.
+	 */
+	public Set<String> getBefore() {
+		return Collections.unmodifiableSet(before);
+	}
+
+	/**
+	 * @return
+	 * 		the action of this stage.
+	 */
+	public Runnable getAction() {
+		return action;
+	}
+
+	/**
+	 * Replaces the action of this stage, e.g. with a faster implementation.
+	 *
+	 * @param action
+	 * 		the new action.
+	 */
+	public void setAction(Runnable action) {
+		if (action == null) {
+			throw new IllegalArgumentException("A stage needs an action!");
+		}
+
+		this.action = action;
+		resetTimings();
+	}
+
+	/**
+	 * @return
+	 * 		if this stage is enabled.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables this stage.
+	 *
+	 * @param enabled
+	 * 		<code>true</code> to enable, <code>false</code> to disable.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of ticks between two runs of this stage.
+	 */
+	public int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Sets the amount of ticks between two runs of this stage. With an
+	 * interval of 1, the stage runs every tick.
+	 *
+	 * @param interval
+	 * 		the new interval.
+	 */
+	public void setInterval(int interval) {
+		if (interval <= 0) {
+			throw new IllegalArgumentException("The interval must be positive!");
+		}
+
+		this.interval = interval;
+	}
+
+	/**
+	 * @return
+	 * 		the duration of the last run of this stage, in nanoseconds.
+	 */
+	public long getLastNanos() {
+		return lastNanos;
+	}
+
+	/**
+	 * @return
+	 * 		the total duration of all runs of this stage, in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times this stage has run.
+	 */
+	public long getRuns() {
+		return runs;
+	}
+
+	/**
+	 * @return
+	 * 		the average duration of a run of this stage, in nanoseconds.
+	 */
+	public double getAverageNanos() {
+		long r = runs;
+		if (r == 0) {
+			return 0.0;
+		}
+		return (double) totalNanos / r;
+	}
+
+	/**
+	 * Resets the recorded timings of this stage.
+	 */
+	public void resetTimings() {
+		lastNanos = 0;
+		totalNanos = 0;
+		runs = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "TickStage[" + name + "]";
+	}
+}
@@ -0,0 +1,408 @@
+package com.github.fishio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Runs many independent playing fields (worlds) in parallel.<br>
+ * <br>
+ * The worlds are stepped on a work-stealing pool, in slices of a fixed
+ * amount of ticks. After each slice a world is put at the back of the
+ * queue again, so all worlds make progress at about the same rate, no
+ * matter how many worlds there are.<br>
+ * <br>
+ * A world is only ever stepped by one thread at a time. The worlds should
+ * be headless, and must not be running their own game thread.
+ */
+public class WorldRunner {
+	/**
+	 * The default amount of ticks a world is stepped before it gives way to
+	 * the other worlds.
+	 */
+	public static final int DEFAULT_SLICE_TICKS = 32;
+
+	private final ForkJoinPool pool;
+	private final int sliceTicks;
+
+	private final List<World> worlds = new ArrayList<>();
+	private final LongAdder totalTicks = new LongAdder();
+	private final AtomicInteger activeWorlds = new AtomicInteger();
+	private final AtomicInteger finishedWorlds = new AtomicInteger();
+	private final AtomicInteger failedWorlds = new AtomicInteger();
+	private final Object completionLock = new Object();
+
+	private volatile long startTime = -1;
+	private volatile long endTime = -1;
+
+	/**
+	 * Creates a new WorldRunner which uses all available processors.
+	 */
+	public WorldRunner() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_SLICE_TICKS);
+	}
+
+	/**
+	 * Creates a new WorldRunner.
+	 *
+	 * @param parallelism
+	 * 		the amount of threads to step worlds on.
+	 * @param sliceTicks
+	 * 		the amount of ticks a world is stepped before it gives way to the
+	 * 		other worlds.
+	 */
+	public WorldRunner(int parallelism, int sliceTicks) {
+		//asyncMode makes the local queues FIFO, which keeps the scheduling fair.
+		this(createPool(parallelism), sliceTicks);
+	}
+
+	/**
+	 * Creates a new WorldRunner that steps worlds on the given pool.
+	 *
+	 * @param pool
+	 * 		the pool to step worlds on.
+	 * @param sliceTicks
+	 * 		the amount of ticks a world is stepped before it gives way to the
+	 * 		other worlds.
+	 */
+	WorldRunner(ForkJoinPool pool, int sliceTicks) {
+		if (sliceTicks <= 0) {
+			throw new IllegalArgumentException("parallelism and sliceTicks must be positive!");
+		}
+
+		this.pool = pool;
+		this.sliceTicks = sliceTicks;
+	}
+
+	/**
+	 * Creates the pool of a WorldRunner.
+	 *
+	 * @param parallelism
+	 * 		the amount of threads.
+	 *
+	 * @return
+	 * 		the new pool.
+	 */
+	private static ForkJoinPool createPool(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism and sliceTicks must be positive!");
+		}
+		return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+	}
+
+	/**
+	 * Submits a world that is run for the given amount of ticks.
+	 *
+	 * @param field
+	 * 		the playing field to run.
+	 * @param tickBudget
+	 * 		the amount of ticks to run the world for.
+	 *
+	 * @return
+	 * 		the submitted world.
+	 */
+	public World submit(PlayingField field, long tickBudget) {
+		return submit(field, tickBudget, null);
+	}
+
+	/**
+	 * Submits a world that is run until the given condition holds, or until
+	 * it has used up its tick budget.
+	 *
+	 * @param field
+	 * 		the playing field to run.
+	 * @param tickBudget
+	 * 		the maximum amount of ticks to run the world for.
+	 * @param finished
+	 * 		checked after every tick. When it returns <code>true</code>, the
+	 * 		world is finished. Can be <code>null</code>.
+	 *
+	 * @return
+	 * 		the submitted world.
+	 *
+	 * @throws RejectedExecutionException
+	 * 		if this runner has been shut down.
+	 */
+	public World submit(PlayingField field, long tickBudget, Predicate<PlayingField> finished) {
+		if (field.isRunning()) {
+			throw new IllegalStateException("Cannot run a field which is running its own game thread!");
+		}
+		if (tickBudget < 0) {
+			throw new IllegalArgumentException("The tick budget cannot be negative!");
+		}
+		if (pool.isShutdown()) {
+			throw new RejectedExecutionException("The runner has been shut down!");
+		}
+
+		World world = new World(field, tickBudget, finished);
+		synchronized (worlds) {
+			worlds.add(world);
+		}
+
+		activeWorlds.incrementAndGet();
+		if (startTime == -1) {
+			startTime = System.nanoTime();
+		}
+		try {
+			pool.execute(world);
+		} catch (RejectedExecutionException ex) {
+			//The runner was shut down after the check above.
+			world.finished = true;
+			finish(world);
+			throw ex;
+		}
+		return world;
+	}
+
+	/**
+	 * Waits until all submitted worlds are finished.
+	 *
+	 * @param timeout
+	 * 		the maximum time to wait.
+	 * @param unit
+	 * 		the unit of the timeout.
+	 *
+	 * @return
+	 * 		<code>true</code> if all worlds finished, <code>false</code> if
+	 * 		the timeout elapsed first.
+	 *
+	 * @throws InterruptedException
+	 * 		if the current thread is interrupted while waiting.
+	 */
+	public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (completionLock) {
+			while (activeWorlds.get() > 0) {
+				long left = deadline - System.nanoTime();
+				if (left <= 0) {
+					return false;
+				}
+
+				TimeUnit.NANOSECONDS.timedWait(completionLock, left);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels all worlds and stops the threads of this runner.
+	 */
+	public void shutdown() {
+		synchronized (worlds) {
+			for (World world : worlds) {
+				world.cancel();
+			}
+		}
+		pool.shutdown();
+	}
+
+	/**
+	 * @return
+	 * 		a copy of the list of submitted worlds.
+	 */
+	public List<World> getWorlds() {
+		synchronized (worlds) {
+			return new ArrayList<>(worlds);
+		}
+	}
+
+	/**
+	 * @return
+	 * 		the amount of ticks run over all worlds together.
+	 */
+	public long getTotalTicks() {
+		return totalTicks.sum();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of worlds that are not finished yet.
+	 */
+	public int getActiveWorlds() {
+		return activeWorlds.get();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of worlds that are finished, including the ones that
+	 * 		failed.
+	 */
+	public int getFinishedWorlds() {
+		return finishedWorlds.get();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of worlds that stopped because of an exception.
+	 */
+	public int getFailedWorlds() {
+		return failedWorlds.get();
+	}
+
+	/**
+	 * Gives back the throughput of this runner: the amount of ticks run over
+	 * all worlds together, per second, from the first submit until the last
+	 * world finished (or until now, if worlds are still running).
+	 *
+	 * @return
+	 * 		the amount of ticks per second.
+	 */
+	public double getTicksPerSecond() {
+		long start = startTime;
+		if (start == -1) {
+			return 0.0;
+		}
+
+		long end = endTime;
+		if (end == -1 || activeWorlds.get() > 0) {
+			end = System.nanoTime();
+		}
+
+		long elapsed = Math.max(1, end - start);
+		return getTotalTicks() * 1E9 / elapsed;
+	}
+
+	/**
+	 * Called by a world when it is finished.
+	 *
+	 * @param world
+	 * 		the world.
+	 */
+	private void finish(World world) {
+		if (world.failure != null) {
+			failedWorlds.incrementAndGet();
+		}
+		finishedWorlds.incrementAndGet();
+
+		if (activeWorlds.decrementAndGet() == 0) {
+			endTime = System.nanoTime();
+			synchronized (completionLock) {
+				completionLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * A single world that is run by a WorldRunner.
+	 */
+	public final class World implements Runnable {
+		private final PlayingField field;
+		private final long tickBudget;
+		private final Predicate<PlayingField> condition;
+
+		private volatile long ticks;
+		private volatile boolean finished;
+		private volatile boolean cancelled;
+		private volatile Throwable failure;
+
+		/**
+		 * Creates a new World.
+		 *
+		 * @param field
+		 * 		the playing field.
+		 * @param tickBudget
+		 * 		the maximum amount of ticks.
+		 * @param condition
+		 * 		the condition for the world to be finished, or
+		 * 		<code>null</code>.
+		 */
+		private World(PlayingField field, long tickBudget, Predicate<PlayingField> condition) {
+			this.field = field;
+			this.tickBudget = tickBudget;
+			this.condition = condition;
+		}
+
+		/**
+		 * Runs one slice of ticks, and resubmits this world if it is not
+		 * finished yet.
+		 */
+		@Override
+		public void run() {
+			if (finished) {
+				return;
+			}
+
+			long slice = Math.min(sliceTicks, tickBudget - ticks);
+			long done = 0;
+			boolean conditionMet = false;
+			try {
+				while (done < slice && !cancelled && !conditionMet) {
+					field.step(1);
+					done++;
+					conditionMet = condition != null && condition.test(field);
+				}
+			} catch (Throwable t) {
+				failure = t;
+			} finally {
+				ticks += done;
+				totalTicks.add(done);
+			}
+
+			if (failure != null || cancelled || conditionMet || ticks >= tickBudget || pool.isShutdown()) {
+				finished = true;
+				finish(this);
+				return;
+			}
+
+			try {
+				pool.execute(this);
+			} catch (RejectedExecutionException ex) {
+				//The runner was shut down after the check above.
+				finished = true;
+				finish(this);
+			}
+		}
+
+		/**
+		 * Stops this world after the current slice.
+		 */
+		public void cancel() {
+			cancelled = true;
+		}
+
+		/**
+		 * @return
+		 * 		the playing field of this world.
+		 */
+		public PlayingField getField() {
+			return field;
+		}
+
+		/**
+		 * @return
+		 * 		the amount of ticks this world has run.
+		 */
+		public long getTicks() {
+			return ticks;
+		}
+
+		/**
+		 * @return
+		 * 		the maximum amount of ticks this world runs.
+		 */
+		public long getTickBudget() {
+			return tickBudget;
+		}
+
+		/**
+		 * @return
+		 * 		if this world is finished.
+		 */
+		public boolean isFinished() {
+			return finished;
+		}
+
+		/**
+		 * @return
+		 * 		the exception that stopped this world, or <code>null</code>.
+		 */
+		public Throwable getFailure() {
+			return failure;
+		}
+	}
+}
@@ -1,8 +1,10 @@
 package com.github.fishio.control;
 
 import com.github.fishio.FishIO;
+import com.github.fishio.PerformanceOverlay;
 import com.github.fishio.PlayingField;
 import com.github.fishio.Preloader;
+import com.github.fishio.RenderLayers;
 import com.github.fishio.SinglePlayerPlayingField;
 
 import javafx.animation.FadeTransition;
@@ -13,6 +15,8 @@ import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
@@ -24,9 +28,15 @@ import javafx.util.Duration;
  */
 public class SinglePlayerController implements ScreenController {
 
+	@FXML
+	private Canvas backgroundCanvas;
+	@FXML
+	private Canvas sceneryCanvas;
 	@FXML
 	private Canvas gameCanvas;
 	@FXML
+	private Canvas hudCanvas;
+	@FXML
 	private VBox deathScreen;
 	@FXML
 	private Label scoreField;
@@ -47,12 +57,24 @@ public class SinglePlayerController implements ScreenController {
 	private Button btnDSMenu;
 
 	private PlayingField pf;
+	private PerformanceOverlay overlay;
 
 	@Override
 	public void init(Scene scene) {
 		//setup the playing field
-		pf = new SinglePlayerPlayingField(60, gameCanvas, this);
-		pf.setBackground(Preloader.getImageOrLoad("background.png"));
+		RenderLayers layers = new RenderLayers(backgroundCanvas, sceneryCanvas, gameCanvas, hudCanvas);
+		pf = new SinglePlayerPlayingField(60, layers, this);
+		pf.getRenderer().setBackground(Preloader.getImageOrLoad("background.png"));
+
+		//F3 shows or hides the performance overlay, F4 the collision debug view.
+		overlay = new PerformanceOverlay(pf, hudCanvas.getGraphicsContext2D());
+		scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+			if (event.getCode() == KeyCode.F3) {
+				overlay.toggle();
+			} else if (event.getCode() == KeyCode.F4) {
+				pf.setDebugView(!pf.isDebugView());
+			}
+		});
 	}
 	
 	@Override
@@ -152,7 +174,7 @@ public class SinglePlayerController implements ScreenController {
 		pf.clear();
 		
 		//Start the render thread (it takes some time to appear).
-		pf.getRenderThread().play();
+		pf.getRenderThread().start();
 		
 		//Hide the deathscreen. When the animation is done, start the game thread.
 		showDeathScreen(false, event -> pf.getGameThread().play());
@@ -226,6 +248,13 @@ public class SinglePlayerController implements ScreenController {
 		return btnDSMenu;
 	}
 
+	/**
+	 * @return the performance overlay
+	 */
+	public PerformanceOverlay getOverlay() {
+		return overlay;
+	}
+
 	/**
 	 * @return the playingfield
 	 */
@@ -1,5 +1,7 @@
 package com.github.fishio.control;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 import javafx.animation.FadeTransition;
 import javafx.animation.SequentialTransition;
 import javafx.animation.Animation.Status;
@@ -39,7 +41,7 @@ public class SplashScreenController implements ScreenController {
 
 	@Override
 	public void init(Scene scene) {
-		slogan.setText(slogans[(int) (Math.random() * slogans.length)]);
+		slogan.setText(slogans[ThreadLocalRandom.current().nextInt(slogans.length)]);
 		
 		//If you press any key, we skip the splash.
 		scene.setOnKeyPressed(event -> {
@@ -0,0 +1,31 @@
+package com.github.fishio.listeners;
+
+import com.github.fishio.Entity;
+
+/**
+ * Fired when a dead entity is removed from a playing field.
+ */
+public class DeathEvent extends GameEvent {
+	private final Entity entity;
+
+	/**
+	 * Creates a new DeathEvent.
+	 * 
+	 * @param tick
+	 * 		the current tick.
+	 * @param entity
+	 * 		the entity that died.
+	 */
+	public DeathEvent(long tick, Entity entity) {
+		super(tick);
+		this.entity = entity;
+	}
+
+	/**
+	 * @return
+	 * 		the entity that died.
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+}
@@ -0,0 +1,44 @@
+package com.github.fishio.listeners;
+
+import com.github.fishio.Entity;
+import com.github.fishio.PlayerFish;
+
+/**
+ * Fired when a player eats another entity.
+ */
+public class EatEvent extends GameEvent {
+	private final PlayerFish player;
+	private final Entity eaten;
+
+	/**
+	 * Creates a new EatEvent.
+	 * 
+	 * @param tick
+	 * 		the current tick.
+	 * @param player
+	 * 		the player that ate.
+	 * @param eaten
+	 * 		the entity that was eaten.
+	 */
+	public EatEvent(long tick, PlayerFish player, Entity eaten) {
+		super(tick);
+		this.player = player;
+		this.eaten = eaten;
+	}
+
+	/**
+	 * @return
+	 * 		the player that ate.
+	 */
+	public PlayerFish getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return
+	 * 		the entity that was eaten.
+	 */
+	public Entity getEaten() {
+		return eaten;
+	}
+}
@@ -0,0 +1,169 @@
+package com.github.fishio.listeners;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatches typed events to the listeners subscribed to them.<br>
+ * <br>
+ * A listener subscribed to a type receives all events of that type and of
+ * its subclasses. Listeners are called in the order they were subscribed.
+ * <br>
+ * <br>
+ * Events can be dispatched synchronously with {@link #publish(Object)}, or
+ * queued with {@link #post(Object)} and dispatched in a batch later with
+ * {@link #flush()}.<br>
+ * <br>
+ * Listeners can be (un)subscribed from any thread, also while events are
+ * being dispatched. A dispatch that is in progress is not affected.<br>
+ * <br>
+ * An exception thrown by a listener does not stop the dispatch to the
+ * other listeners. It is counted, and the last one is kept.
+ */
+public class EventBus {
+	private final ConcurrentHashMap<Class<?>, CopyOnWriteArrayList<EventListener<?>>> listeners =
+			new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder dispatched = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private volatile RuntimeException lastFailure;
+
+	/**
+	 * Subscribes a listener to events of the given type.
+	 *
+	 * @param type
+	 * 		the type of events.
+	 * @param listener
+	 * 		the listener.
+	 *
+	 * @param <E>
+	 * 		the type of events.
+	 */
+	public <E> void subscribe(Class<E> type, EventListener<? super E> listener) {
+		listeners.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(listener);
+	}
+
+	/**
+	 * Unsubscribes a listener from events of the given type.
+	 *
+	 * @param type
+	 * 		the type of events.
+	 * @param listener
+	 * 		the listener.
+	 *
+	 * @param <E>
+	 * 		the type of events.
+	 *
+	 * @return
+	 * 		<code>true</code> if the listener was subscribed.
+	 */
+	public <E> boolean unsubscribe(Class<E> type, EventListener<? super E> listener) {
+		CopyOnWriteArrayList<EventListener<?>> list = listeners.get(type);
+		if (list == null) {
+			return false;
+		}
+		return list.remove(listener);
+	}
+
+	/**
+	 * Dispatches an event to all listeners right away, on the current
+	 * thread.
+	 *
+	 * @param event
+	 * 		the event.
+	 */
+	public void publish(Object event) {
+		Class<?> type = event.getClass();
+		while (type != null) {
+			CopyOnWriteArrayList<EventListener<?>> list = listeners.get(type);
+			if (list != null) {
+				for (EventListener<?> listener : list) {
+					dispatch(listener, event);
+				}
+			}
+
+			type = type.getSuperclass();
+		}
+	}
+
+	/**
+	 * Queues an event, to be dispatched with the next {@link #flush()}.
+	 *
+	 * @param event
+	 * 		the event.
+	 */
+	public void post(Object event) {
+		queue.add(event);
+	}
+
+	/**
+	 * Dispatches all queued events, in the order they were posted.
+	 *
+	 * @return
+	 * 		the amount of events dispatched.
+	 */
+	public int flush() {
+		int count = 0;
+		Object event = queue.poll();
+		while (event != null) {
+			publish(event);
+			count++;
+			event = queue.poll();
+		}
+		return count;
+	}
+
+	/**
+	 * Dispatches an event to a single listener.
+	 *
+	 * @param listener
+	 * 		the listener.
+	 * @param event
+	 * 		the event. Its type matches the type of the listener.
+	 */
+	@SuppressWarnings("unchecked")
+	private void dispatch(EventListener<?> listener, Object event) {
+		dispatched.increment();
+		try {
+			((EventListener<Object>) listener).onEvent(event);
+		} catch (RuntimeException ex) {
+			failures.increment();
+			lastFailure = ex;
+		}
+	}
+
+	/**
+	 * @return
+	 * 		if there are queued events.
+	 */
+	public boolean hasQueuedEvents() {
+		return !queue.isEmpty();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times an event was handed to a listener.
+	 */
+	public long getDispatched() {
+		return dispatched.sum();
+	}
+
+	/**
+	 * @return
+	 * 		the amount of times a listener threw an exception.
+	 */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	/**
+	 * @return
+	 * 		the last exception thrown by a listener, or <code>null</code>.
+	 */
+	public RuntimeException getLastFailure() {
+		return lastFailure;
+	}
+}
@@ -0,0 +1,19 @@
+package com.github.fishio.listeners;
+
+/**
+ * A listener for events of a certain type, which can be subscribed to an
+ * {@link EventBus}.
+ *
+ * @param <E>
+ * 		the type of events.
+ */
+@FunctionalInterface
+public interface EventListener<E> {
+	/**
+	 * Called when an event is dispatched.
+	 * 
+	 * @param event
+	 * 		the event.
+	 */
+	void onEvent(E event);
+}
@@ -0,0 +1,28 @@
+package com.github.fishio.listeners;
+
+/**
+ * An event that happened in a playing field.<br>
+ * <br>
+ * Events are immutable, so they can safely be handed to other threads.
+ */
+public abstract class GameEvent {
+	private final long tick;
+
+	/**
+	 * Creates a new GameEvent.
+	 * 
+	 * @param tick
+	 * 		the tick in which the event happened.
+	 */
+	public GameEvent(long tick) {
+		this.tick = tick;
+	}
+
+	/**
+	 * @return
+	 * 		the tick in which the event happened.
+	 */
+	public long getTick() {
+		return tick;
+	}
+}
@@ -0,0 +1,55 @@
+package com.github.fishio.listeners;
+
+import com.github.fishio.PlayerFish;
+
+/**
+ * Fired when the score of a player changes.
+ */
+public class ScoreEvent extends GameEvent {
+	private final PlayerFish player;
+	private final int oldScore;
+	private final int newScore;
+
+	/**
+	 * Creates a new ScoreEvent.
+	 * 
+	 * @param tick
+	 * 		the current tick.
+	 * @param player
+	 * 		the player whose score changed.
+	 * @param oldScore
+	 * 		the score before the change.
+	 * @param newScore
+	 * 		the score after the change.
+	 */
+	public ScoreEvent(long tick, PlayerFish player, int oldScore, int newScore) {
+		super(tick);
+		this.player = player;
+		this.oldScore = oldScore;
+		this.newScore = newScore;
+	}
+
+	/**
+	 * @return
+	 * 		the player whose score changed.
+	 */
+	public PlayerFish getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return
+	 * 		the score before the change.
+	 */
+	public int getOldScore() {
+		return oldScore;
+	}
+
+	/**
+	 * @return
+	 * 		the score after the change.
+	 */
+	public int getNewScore() {
+		return newScore;
+	}
+}
@@ -0,0 +1,31 @@
+package com.github.fishio.listeners;
+
+import com.github.fishio.Entity;
+
+/**
+ * Fired when an entity is added to a playing field.
+ */
+public class SpawnEvent extends GameEvent {
+	private final Entity entity;
+
+	/**
+	 * Creates a new SpawnEvent.
+	 * 
+	 * @param tick
+	 * 		the current tick.
+	 * @param entity
+	 * 		the entity that was added.
+	 */
+	public SpawnEvent(long tick, Entity entity) {
+		super(tick);
+		this.entity = entity;
+	}
+
+	/**
+	 * @return
+	 * 		the entity that was added.
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.fishio.listeners;
+
+/**
+ * Fired at the different points in a game tick or a rendered frame.
+ */
+public class TickEvent extends GameEvent {
+	/**
+	 * The points in a tick at which a TickEvent is fired.
+	 */
+	public enum Phase {
+		/**
+		 * At the start of the tick.
+		 */
+		PRE_TICK,
+
+		/**
+		 * Before collisions are checked.
+		 */
+		PRE_COLLISIONS,
+
+		/**
+		 * Before dead entities are cleaned up.
+		 */
+		PRE_CLEANUP,
+
+		/**
+		 * At the end of the tick.
+		 */
+		POST_TICK;
+	}
+
+	private final Phase phase;
+	private final boolean render;
+
+	/**
+	 * Creates a new TickEvent.
+	 * 
+	 * @param tick
+	 * 		the number of the tick.
+	 * @param phase
+	 * 		the point in the tick.
+	 * @param render
+	 * 		<code>true</code> for a rendered frame, <code>false</code> for a
+	 * 		game tick.
+	 */
+	public TickEvent(long tick, Phase phase, boolean render) {
+		super(tick);
+		this.phase = phase;
+		this.render = render;
+	}
+
+	/**
+	 * @return
+	 * 		the point in the tick.
+	 */
+	public Phase getPhase() {
+		return phase;
+	}
+
+	/**
+	 * @return
+	 * 		<code>true</code> for a rendered frame, <code>false</code> for a
+	 * 		game tick.
+	 */
+	public boolean isRender() {
+		return render;
+	}
+
+	/**
+	 * Calls the method of the given TickListener that belongs to the phase
+	 * of this event.
+	 * 
+	 * @param listener
+	 * 		the listener to call.
+	 */
+	public void dispatchTo(TickListener listener) {
+		switch (phase) {
+		case PRE_TICK:
+			listener.preTick();
+			break;
+		case PRE_COLLISIONS:
+			listener.preCollisions();
+			break;
+		case PRE_CLEANUP:
+			listener.preCleanup();
+			break;
+		default:
+			listener.postTick();
+			break;
+		}
+	}
+}
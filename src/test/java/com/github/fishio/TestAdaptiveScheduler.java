@@ -0,0 +1,231 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.fishio.AdaptiveScheduler.Level;
+
+/**
+ * Tests the AdaptiveScheduler class.
+ */
+public class TestAdaptiveScheduler {
+
+	private static final long BUDGET = 1000;
+
+	private AdaptiveScheduler scheduler;
+
+	/**
+	 * Creates a new scheduler before each test.
+	 */
+	@Before
+	public void setUp() {
+		scheduler = new AdaptiveScheduler(BUDGET, BUDGET);
+	}
+
+	/**
+	 * Records the given amount of ticks, all with the same duration.
+	 *
+	 * @param amount
+	 * 		the amount of ticks.
+	 * @param nanos
+	 * 		the duration of each tick.
+	 */
+	private void ticks(int amount, long nanos) {
+		for (int i = 0; i < amount; i++) {
+			scheduler.recordTick(nanos);
+		}
+	}
+
+	/**
+	 * Runs the given amount of frames like the render thread does, with a
+	 * cheap tick for every frame. Only the frames that should be rendered
+	 * are recorded.
+	 *
+	 * @param amount
+	 * 		the amount of frames.
+	 * @param nanos
+	 * 		the duration of each rendered frame.
+	 */
+	private void frames(int amount, long nanos) {
+		for (int i = 0; i < amount; i++) {
+			if (scheduler.shouldRender()) {
+				scheduler.recordFrame(nanos);
+			}
+			scheduler.recordTick(BUDGET / 4);
+		}
+	}
+
+	/**
+	 * Tests that the quality is not lowered under a low load.
+	 */
+	@Test
+	public void testLowLoad() {
+		ticks(1000, BUDGET / 4);
+		frames(1000, BUDGET / 4);
+
+		assertEquals(Level.NONE, scheduler.getLevel());
+		assertFalse(scheduler.isReducedFps());
+		assertEquals(0, scheduler.getLevelChanges());
+		assertEquals(0, scheduler.getFpsChanges());
+	}
+
+	/**
+	 * Tests that slow ticks lower the detail of the simulation one level at
+	 * a time, in order, and leave the framerate alone.
+	 */
+	@Test
+	public void testDegrade() {
+		ticks(AdaptiveScheduler.DEGRADE_TICKS + 10, BUDGET * 2);
+		assertEquals(Level.SIMPLE_COLLISIONS, scheduler.getLevel());
+		assertTrue(scheduler.isSimpleCollisions());
+		assertEquals(1, scheduler.getAiInterval());
+
+		ticks(AdaptiveScheduler.DEGRADE_TICKS, BUDGET * 2);
+		assertEquals(Level.REDUCED_AI, scheduler.getLevel());
+		assertEquals(2, scheduler.getAiInterval());
+
+		//Cannot go lower than the lowest level.
+		ticks(1000, BUDGET * 2);
+		assertEquals(Level.REDUCED_AI, scheduler.getLevel());
+		assertEquals(2, scheduler.getLevelChanges());
+		assertFalse(scheduler.isReducedFps());
+	}
+
+	/**
+	 * Tests that the detail is raised again, but only after the load has
+	 * been low for a while.
+	 */
+	@Test
+	public void testRecover() {
+		scheduler.setLevel(Level.REDUCED_AI);
+
+		ticks(AdaptiveScheduler.RECOVER_TICKS - 1, 0);
+		assertEquals(Level.REDUCED_AI, scheduler.getLevel());
+
+		ticks(1, 0);
+		assertEquals(Level.SIMPLE_COLLISIONS, scheduler.getLevel());
+
+		ticks(AdaptiveScheduler.RECOVER_TICKS, 0);
+		assertEquals(Level.NONE, scheduler.getLevel());
+	}
+
+	/**
+	 * Tests that a moderate load neither lowers nor raises the detail.
+	 */
+	@Test
+	public void testHysteresis() {
+		scheduler.setLevel(Level.SIMPLE_COLLISIONS);
+		ticks(1000, BUDGET * 7 / 10);
+
+		assertEquals(Level.SIMPLE_COLLISIONS, scheduler.getLevel());
+	}
+
+	/**
+	 * Tests that when only rendering is too slow, only the framerate is
+	 * lowered, that the render load then drops with the fraction of frames
+	 * that is rendered, and that the framerate is raised again once the
+	 * frames are cheap.
+	 */
+	@Test
+	public void testRenderOverload() {
+		frames(AdaptiveScheduler.DEGRADE_TICKS * 3, BUDGET * 3);
+		assertTrue(scheduler.isReducedFps());
+		assertEquals(Level.NONE, scheduler.getLevel());
+		assertTrue(scheduler.getRenderLoad() < scheduler.getFrameCost() / BUDGET * 0.6);
+
+		//The frames stay too slow, which should never lower the simulation detail.
+		frames(1000, BUDGET * 3);
+		assertTrue(scheduler.isReducedFps());
+		assertEquals(Level.NONE, scheduler.getLevel());
+		assertEquals(0, scheduler.getLevelChanges());
+
+		frames(3 * AdaptiveScheduler.RECOVER_TICKS, BUDGET / 4);
+		assertFalse(scheduler.isReducedFps());
+		assertEquals(2, scheduler.getFpsChanges());
+	}
+
+	/**
+	 * Tests that the framerate is not raised when the frames only fit in
+	 * the budget because half of them are skipped.
+	 */
+	@Test
+	public void testRenderHysteresis() {
+		scheduler.setReducedFps(true);
+		frames(10 * AdaptiveScheduler.RECOVER_TICKS, BUDGET * 7 / 10);
+
+		assertTrue(scheduler.isReducedFps());
+		assertTrue(scheduler.getRenderLoad() < AdaptiveScheduler.LOW_LOAD);
+	}
+
+	/**
+	 * Tests that slow frames do not lower the framerate while the resolution
+	 * can still be lowered, but do once it is at its lowest.
+	 */
+	@Test
+	public void testRenderHeadroom() {
+		ResolutionScaler scaler = new ResolutionScaler(BUDGET);
+		scheduler.setRenderHeadroom(scaler::hasHeadroom);
+
+		int frames = 0;
+		while (scaler.hasHeadroom()) {
+			if (scheduler.shouldRender()) {
+				scaler.recordFrame(BUDGET * 3);
+				scheduler.recordFrame(BUDGET * 3);
+			}
+			assertFalse(scheduler.isReducedFps());
+			assertTrue(frames++ < 1000);
+		}
+		assertEquals(ResolutionScaler.getMinimumScale(), scaler.getScale(), 0);
+
+		frames(AdaptiveScheduler.DEGRADE_TICKS + 10, BUDGET * 3);
+		assertTrue(scheduler.isReducedFps());
+		assertEquals(Level.NONE, scheduler.getLevel());
+	}
+
+	/**
+	 * Tests that slow ticks lower the detail of the simulation, even when
+	 * the resolution can still be lowered.
+	 */
+	@Test
+	public void testRenderHeadroomSlowTicks() {
+		scheduler.setRenderHeadroom(() -> true);
+		ticks(AdaptiveScheduler.DEGRADE_TICKS + 10, BUDGET * 2);
+
+		assertEquals(Level.SIMPLE_COLLISIONS, scheduler.getLevel());
+	}
+
+	/**
+	 * Tests that a slow frame causes the next frame to be skipped.
+	 */
+	@Test
+	public void testSkipSlowFrame() {
+		assertTrue(scheduler.shouldRender());
+		scheduler.recordFrame(BUDGET * 2);
+
+		assertFalse(scheduler.shouldRender());
+		assertTrue(scheduler.shouldRender());
+		assertEquals(1, scheduler.getSkippedFrames());
+	}
+
+	/**
+	 * Tests that only every other frame is rendered with a reduced framerate.
+	 */
+	@Test
+	public void testReducedFps() {
+		scheduler.setReducedFps(true);
+
+		int rendered = 0;
+		for (int i = 0; i < 10; i++) {
+			if (scheduler.shouldRender()) {
+				rendered++;
+			}
+		}
+
+		assertEquals(5, rendered);
+		assertEquals(5, scheduler.getSkippedFrames());
+	}
+}
@@ -0,0 +1,95 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests the parts of the CollisionDebugView class that do not need
+ * JavaFX.
+ */
+public class TestCollisionDebugView {
+	private static final int C = CollisionDebugView.MASK_COLOR;
+
+	/**
+	 * @param width
+	 * 		the width of the data.
+	 * @param height
+	 * 		the height of the data.
+	 *
+	 * @return
+	 * 		collision data in which every pixel is set.
+	 */
+	private static boolean[][] full(int width, int height) {
+		boolean[][] data = new boolean[width][height];
+		for (boolean[] column : data) {
+			Arrays.fill(column, true);
+		}
+		return data;
+	}
+
+	/**
+	 * Tests that an unrotated mask covers its whole size, around the
+	 * center.
+	 */
+	@Test
+	public void testRasterize() {
+		int[] box = new int[4];
+		int[] pixels = CollisionDebugView.rasterize(full(8, 4), 4, 2, 0, C, box);
+
+		assertArrayEquals(new int[] {-2, -1, 4, 2}, box);
+		assertArrayEquals(new int[] {C, C, C, C, C, C, C, C}, pixels);
+	}
+
+	/**
+	 * Tests that a mask rotated by 90 degrees has its width and height
+	 * swapped.
+	 */
+	@Test
+	public void testRasterizeRotated() {
+		int[] box = new int[4];
+		CollisionDebugView.rasterize(full(8, 4), 6, 2, 90, C, box);
+
+		assertEquals(2, box[2]);
+		assertEquals(6, box[3]);
+	}
+
+	/**
+	 * Tests that the pixels are placed exactly like
+	 * {@link CollisionMask#getMask()} places them.
+	 */
+	@Test
+	public void testLikeGetMask() {
+		boolean[][] data = {{true, false}, {false, true}, {true, true}};
+		CollisionMask mask = new CollisionMask(new Vec2d(50, 40), 9, 6, data, 0.5);
+		mask.setRotation(30);
+
+		int[] box = new int[4];
+		int[] pixels = CollisionDebugView.rasterize(data, 9, 6, 30, C, box);
+		int count = 0;
+		for (int i = 0; i < pixels.length; i++) {
+			if (pixels[i] != 0) {
+				int x = 50 + box[0] + i % box[2];
+				int y = 40 + box[1] + i / box[2];
+				count++;
+				assertEquals(true, mask.getMask().contains(new Vec2d(x, y)));
+			}
+		}
+		assertEquals(mask.getMask().size(), count);
+	}
+
+	/**
+	 * Tests that an empty mask gives an empty result.
+	 */
+	@Test
+	public void testRasterizeEmpty() {
+		int[] box = new int[4];
+		int[] pixels = CollisionDebugView.rasterize(new boolean[2][2], 4, 4, 0, C, box);
+
+		assertEquals(0, pixels.length);
+		assertArrayEquals(new int[4], box);
+	}
+}
@@ -0,0 +1,117 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the DirtyRegions class.
+ */
+public class TestDirtyRegions {
+
+	private DirtyRegions dirty;
+
+	/**
+	 * Creates new dirty regions for a 100x100 screen before each test.
+	 */
+	@Before
+	public void setUp() {
+		dirty = new DirtyRegions(100, 100, 4);
+	}
+
+	/**
+	 * Tests that rectangles are rounded outwards and clipped to the screen.
+	 */
+	@Test
+	public void testAddClipped() {
+		dirty.add(-10.5, 10.2, 20.5, 19.8);
+
+		assertEquals(1, dirty.size());
+		assertEquals(0.0, dirty.getMinX(0), 0.0);
+		assertEquals(10.0, dirty.getMinY(0), 0.0);
+		assertEquals(21.0, dirty.getWidth(0), 0.0);
+		assertEquals(10.0, dirty.getHeight(0), 0.0);
+	}
+
+	/**
+	 * Tests that rectangles outside the screen are ignored.
+	 */
+	@Test
+	public void testAddOutside() {
+		dirty.add(-50, -50, -10, -10);
+		dirty.add(150, 20, 200, 30);
+
+		assertTrue(dirty.isEmpty());
+	}
+
+	/**
+	 * Tests that overlapping rectangles are merged.
+	 */
+	@Test
+	public void testMergeOverlapping() {
+		dirty.add(10, 10, 20, 20);
+		dirty.add(15, 15, 30, 30);
+
+		assertEquals(1, dirty.size());
+		assertEquals(400.0, dirty.getArea(), 0.0);
+	}
+
+	/**
+	 * Tests that a rectangle that connects two others merges all three.
+	 */
+	@Test
+	public void testMergeChain() {
+		dirty.add(0, 0, 10, 10);
+		dirty.add(20, 0, 30, 10);
+		assertEquals(2, dirty.size());
+
+		dirty.add(5, 0, 25, 10);
+		assertEquals(1, dirty.size());
+		assertEquals(300.0, dirty.getArea(), 0.0);
+	}
+
+	/**
+	 * Tests that the amount of rectangles never exceeds the maximum, and
+	 * that the closest rectangles are merged.
+	 */
+	@Test
+	public void testMaxRegions() {
+		dirty.add(0, 0, 10, 10);
+		dirty.add(90, 0, 100, 10);
+		dirty.add(0, 90, 10, 100);
+		dirty.add(90, 90, 100, 100);
+		dirty.add(12, 0, 22, 10);
+
+		assertEquals(4, dirty.size());
+		assertEquals(4 * 100.0 + 120.0, dirty.getArea(), 0.0);
+		assertTrue(dirty.intersects(10, 0, 12, 10));
+	}
+
+	/**
+	 * Tests {@link DirtyRegions#intersects(double, double, double, double)}.
+	 */
+	@Test
+	public void testIntersects() {
+		dirty.add(10, 10, 20, 20);
+
+		assertTrue(dirty.intersects(15, 15, 16, 16));
+		assertTrue(dirty.intersects(0, 0, 11, 11));
+		assertFalse(dirty.intersects(20, 20, 30, 30));
+		assertFalse(dirty.intersects(50, 50, 60, 60));
+	}
+
+	/**
+	 * Tests {@link DirtyRegions#clear()}.
+	 */
+	@Test
+	public void testClear() {
+		dirty.add(10, 10, 20, 20);
+		dirty.clear();
+
+		assertTrue(dirty.isEmpty());
+		assertEquals(0.0, dirty.getArea(), 0.0);
+	}
+}
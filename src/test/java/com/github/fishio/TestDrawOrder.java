@@ -0,0 +1,166 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the DrawOrder class.
+ */
+public class TestDrawOrder {
+	private DrawOrder order;
+
+	/**
+	 * Creates a new, empty DrawOrder before each test.
+	 */
+	@Before
+	public void setUp() {
+		order = new DrawOrder();
+	}
+
+	/**
+	 * Tests that drawables are ordered by depth, and by the order they were
+	 * added within a depth.
+	 */
+	@Test
+	public void testOrder() {
+		Drawable a = new Drawable(DrawOrder.DEPTH_FISH + 1);
+		Drawable b = new Drawable(DrawOrder.DEPTH_HUD);
+		Drawable c = new Drawable(DrawOrder.DEPTH_FISH + 1);
+		Drawable d = new Drawable(DrawOrder.DEPTH_SCENERY);
+		order.add(a);
+		order.add(b);
+		order.add(c);
+		order.add(d);
+
+		assertArrayEquals(new IDrawable[] {d, a, c, b}, order.toArray());
+	}
+
+	/**
+	 * Tests that a drawable whose depth has changed is moved on top of its
+	 * new depth, and that the others keep their order.
+	 */
+	@Test
+	public void testUpdate() {
+		Drawable a = new Drawable(DrawOrder.DEPTH_FISH);
+		Drawable b = new Drawable(DrawOrder.DEPTH_FISH);
+		Drawable c = new Drawable(DrawOrder.DEPTH_FISH + 1);
+		Drawable d = new Drawable(DrawOrder.DEPTH_FISH);
+		order.add(a);
+		order.add(b);
+		order.add(c);
+		order.add(d);
+
+		a.depth = DrawOrder.DEPTH_FISH + 1;
+		assertEquals(1, order.update());
+		assertArrayEquals(new IDrawable[] {b, d, c, a}, order.toArray());
+		assertEquals(0, order.update());
+	}
+
+	/**
+	 * Tests removing drawables.
+	 */
+	@Test
+	public void testRemove() {
+		Drawable a = new Drawable(DrawOrder.DEPTH_FISH);
+		Drawable b = new Drawable(DrawOrder.DEPTH_FISH);
+		order.add(a);
+		order.add(b);
+
+		assertTrue(order.remove(a));
+		assertFalse(order.remove(a));
+		assertEquals(1, order.size());
+		assertArrayEquals(new IDrawable[] {b}, order.toArray());
+	}
+
+	/**
+	 * Tests that the ordered array is reused, grows when needed and does
+	 * not keep removed drawables.
+	 */
+	@Test
+	public void testGetOrdered() {
+		Drawable a = new Drawable(DrawOrder.DEPTH_FISH + 1);
+		Drawable b = new Drawable(DrawOrder.DEPTH_FISH);
+		order.add(a);
+		order.add(b);
+
+		IDrawable[] first = order.getOrdered();
+		assertSame(b, first[0]);
+		assertSame(a, first[1]);
+		assertSame(first, order.getOrdered());
+
+		order.remove(b);
+		assertSame(a, order.getOrdered()[0]);
+		assertNull(order.getOrdered()[1]);
+
+		for (int i = 0; i < first.length; i++) {
+			order.add(new Drawable(DrawOrder.DEPTH_FISH));
+		}
+		IDrawable[] grown = order.getOrdered();
+		assertTrue(grown.length >= order.size());
+		assertSame(a, grown[order.size() - 1]);
+	}
+
+	/**
+	 * Tests that a drawable is only added once, and that depths out of
+	 * range are clamped.
+	 */
+	@Test
+	public void testAddTwiceAndClamp() {
+		Drawable a = new Drawable(1000);
+		order.add(a);
+		order.add(a);
+
+		assertEquals(1, order.size());
+		assertEquals(1, order.size(DrawOrder.DEPTHS - 1));
+	}
+
+	/**
+	 * Tests that larger fish get a depth that is not lower than that of
+	 * smaller fish.
+	 */
+	@Test
+	public void testFishDepth() {
+		assertEquals(DrawOrder.DEPTH_FISH, DrawOrder.fishDepth(0));
+		int last = DrawOrder.DEPTH_FISH;
+		for (double size = 1; size < 1E12; size *= 1.5) {
+			int depth = DrawOrder.fishDepth(size);
+			assertTrue(depth >= last);
+			assertTrue(depth < DrawOrder.DEPTH_HUD);
+			last = depth;
+		}
+		assertTrue(DrawOrder.fishDepth(40 * 40) > DrawOrder.fishDepth(10 * 10));
+	}
+
+	/**
+	 * A drawable with a depth that can be changed.
+	 */
+	private static final class Drawable implements IDrawable {
+		private int depth;
+
+		/**
+		 * @param depth
+		 * 		the depth of this drawable.
+		 */
+		private Drawable(int depth) {
+			this.depth = depth;
+		}
+
+		@Override
+		public int getDepth() {
+			return depth;
+		}
+
+		@Override
+		public void drawDeath(ParticleSystem particles) { }
+
+		@Override
+		public void writeRenderCommand(RenderCommandBuffer commands, int index) { }
+	}
+}
@@ -148,4 +148,102 @@ public class TestEnemyFish {
 		assertEquals(-LevelBuilder.MAX_EFISH_SPEED, enemy1.getSpeedVector().x, 0.0);
 		assertEquals(-LevelBuilder.MAX_EFISH_SPEED, enemy1.getSpeedVector().y, 0.0);
 	}
+	
+	/**
+	 * Test for {@link Entity#addSleepTick()}.
+	 */
+	@Test
+	public void testaddSleepTick() {
+		enemy1.setSleeping(true);
+		enemy1.addSleepTick();
+		assertEquals(2, enemy1.addSleepTick());
+	}
+	
+	/**
+	 * Test for {@link Entity#setSleeping(boolean)}, which should reset
+	 * the amount of ticks slept.
+	 */
+	@Test
+	public void testsetSleeping() {
+		enemy1.setSleeping(true);
+		enemy1.addSleepTick();
+		enemy1.setSleeping(false);
+		assertFalse(enemy1.isSleeping());
+		assertEquals(1, enemy1.addSleepTick());
+	}
+	
+	/**
+	 * Creates a sleeping enemy fish outside the active region, to the
+	 * right of the window, that swims towards the window.
+	 * 
+	 * @return
+	 * 		the enemy fish.
+	 */
+	private static EnemyFish createSleepingEnemy() {
+		BoundingBox bb = new BoundingBox(new Vec2d(PlayingField.WINDOW_X + 200, 335), 200, 50);
+		EnemyFish enemy = new EnemyFish(bb, null, -2.0, 0.0);
+		enemy.setSleeping(true);
+		return enemy;
+	}
+
+	/**
+	 * Tests that a sleeping enemy in a {@link HeadlessPlayingField} only
+	 * moves once every {@link PlayingField#SLEEP_UPDATE_INTERVAL} ticks, by
+	 * its speed times the amount of ticks it slept, and that it wakes up
+	 * when it enters the {@link PlayingField#ACTIVE_MARGIN}.
+	 */
+	@Test
+	public void testSleepingMovement() {
+		HeadlessPlayingField pf = new HeadlessPlayingField(42L);
+		EnemyFish enemy = createSleepingEnemy();
+		pf.add(enemy);
+		double x = enemy.getBoundingArea().getCenterX();
+
+		pf.step(PlayingField.SLEEP_UPDATE_INTERVAL - 1);
+		assertEquals(x, enemy.getBoundingArea().getCenterX(), 1E-9);
+		assertTrue(enemy.isSleeping());
+
+		pf.step(1);
+		x -= 2.0 * PlayingField.SLEEP_UPDATE_INTERVAL;
+		assertEquals(x, enemy.getBoundingArea().getCenterX(), 1E-9);
+		assertTrue(enemy.isSleeping());
+
+		//The left side is now at 68 pixels from the window, just outside the margin.
+		pf.step(PlayingField.SLEEP_UPDATE_INTERVAL);
+		x -= 2.0 * PlayingField.SLEEP_UPDATE_INTERVAL;
+		assertEquals(x, enemy.getBoundingArea().getCenterX(), 1E-9);
+		assertTrue(PlayingField.WINDOW_X + PlayingField.ACTIVE_MARGIN < x - 100);
+		assertTrue(enemy.isSleeping());
+
+		pf.step(PlayingField.SLEEP_UPDATE_INTERVAL);
+		x -= 2.0 * PlayingField.SLEEP_UPDATE_INTERVAL;
+		assertEquals(x, enemy.getBoundingArea().getCenterX(), 1E-9);
+		assertFalse(enemy.isSleeping());
+		assertFalse(enemy.isDead());
+	}
+
+	/**
+	 * Tests that a sleeping enemy in a {@link HeadlessPlayingField} is
+	 * skipped for collisions, until it wakes up.
+	 */
+	@Test
+	public void testSleepingCollisions() {
+		HeadlessPlayingField pf = new HeadlessPlayingField(42L);
+		PlayerFish player = pf.getPlayer();
+
+		//A large enemy that would eat the player right away.
+		BoundingBox bb = new BoundingBox(new Vec2d(player.getBoundingArea().getCenterX(),
+				player.getBoundingArea().getCenterY()), 300, 150);
+		EnemyFish enemy = new EnemyFish(bb, null, 0.5, 0.0);
+		enemy.setSleeping(true);
+		pf.add(enemy);
+
+		pf.step(1);
+		assertFalse(player.isDead());
+
+		//On its coarse update, it is in the active region, wakes up and collides.
+		pf.step(PlayingField.SLEEP_UPDATE_INTERVAL - 1);
+		assertFalse(enemy.isSleeping());
+		assertTrue(player.isDead());
+	}
 }
@@ -0,0 +1,95 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the FixedTimestep class.
+ */
+public class TestFixedTimestep {
+
+	private static final long STEP = 10000000L;
+
+	private FixedTimestep timestep;
+
+	/**
+	 * Creates a new FixedTimestep of 100 ticks per second, which catches up
+	 * on at most 5 ticks at once.
+	 */
+	@Before
+	public void setUp() {
+		timestep = new FixedTimestep(100, 5);
+		timestep.advance(0L);
+	}
+
+	/**
+	 * Tests {@link FixedTimestep#getStepNanos()}.
+	 */
+	@Test
+	public void testGetStepNanos() {
+		assertEquals(STEP, timestep.getStepNanos());
+	}
+
+	/**
+	 * Tests that {@link FixedTimestep#advance(long)} does not run any ticks
+	 * on the first call.
+	 */
+	@Test
+	public void testAdvanceFirst() {
+		FixedTimestep ts = new FixedTimestep(100, 5);
+		assertEquals(0, ts.advance(5 * STEP));
+	}
+
+	/**
+	 * Tests {@link FixedTimestep#advance(long)} with time left over.
+	 */
+	@Test
+	public void testAdvanceAccumulates() {
+		assertEquals(0, timestep.advance(STEP / 2));
+		assertEquals(1, timestep.advance(STEP + STEP / 2));
+		assertEquals(0.5, timestep.getAlpha(), 1E-9);
+	}
+
+	/**
+	 * Tests that {@link FixedTimestep#advance(long)} catches up on
+	 * multiple ticks.
+	 */
+	@Test
+	public void testAdvanceCatchUp() {
+		assertEquals(3, timestep.advance(3 * STEP));
+		assertEquals(0.0, timestep.getAlpha(), 1E-9);
+	}
+
+	/**
+	 * Tests that {@link FixedTimestep#advance(long)} never catches up on more
+	 * ticks than the maximum.
+	 */
+	@Test
+	public void testAdvanceCap() {
+		assertEquals(5, timestep.advance(20 * STEP));
+		assertEquals(15, timestep.getDroppedTicks());
+		assertEquals(0, timestep.advance(20 * STEP));
+	}
+
+	/**
+	 * Tests {@link FixedTimestep#getAlpha(long)}.
+	 */
+	@Test
+	public void testGetAlphaNow() {
+		assertEquals(0.25, timestep.getAlpha(STEP / 4), 1E-9);
+		assertEquals(1.0, timestep.getAlpha(3 * STEP), 1E-9);
+	}
+
+	/**
+	 * Tests {@link FixedTimestep#reset()}.
+	 */
+	@Test
+	public void testReset() {
+		timestep.advance(STEP / 2);
+		timestep.reset();
+		assertEquals(0, timestep.advance(10 * STEP));
+		assertEquals(1, timestep.advance(11 * STEP));
+	}
+}
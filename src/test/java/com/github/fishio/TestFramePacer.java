@@ -0,0 +1,91 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the FramePacer class.
+ */
+public class TestFramePacer {
+
+	/**
+	 * The interval between pulses of a 60 Hz display.
+	 */
+	private static final long PULSE = 16_666_667L;
+
+	/**
+	 * Tests that every pulse is rendered without a cap.
+	 */
+	@Test
+	public void testNoCap() {
+		FramePacer pacer = new FramePacer(0);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(pacer.pulse(i * PULSE));
+		}
+
+		assertEquals(10, pacer.getFrames());
+		assertEquals(0, pacer.getSkippedPulses());
+		assertEquals(PULSE, pacer.getLastInterval());
+		assertEquals(60.0, pacer.getMeasuredFps(), 0.01);
+	}
+
+	/**
+	 * Tests that a cap of half the refresh rate renders every other pulse,
+	 * even with jitter in the pulse timestamps.
+	 */
+	@Test
+	public void testCap() {
+		FramePacer pacer = new FramePacer(30);
+		int rendered = 0;
+		for (int i = 0; i < 60; i++) {
+			long jitter = (i % 3 - 1) * 500_000L;
+			if (pacer.pulse(i * PULSE + jitter)) {
+				rendered++;
+			}
+		}
+
+		assertEquals(30, rendered);
+		assertEquals(30, pacer.getSkippedPulses());
+		assertEquals(30.0, pacer.getMeasuredFps(), 1.0);
+	}
+
+	/**
+	 * Tests that the cap can be changed, and is given back.
+	 */
+	@Test
+	public void testSetCap() {
+		FramePacer pacer = new FramePacer(30);
+		assertEquals(30, pacer.getFpsCap());
+
+		pacer.pulse(0);
+		assertFalse(pacer.pulse(PULSE));
+
+		pacer.setFpsCap(0);
+		assertEquals(0, pacer.getFpsCap());
+		assertTrue(pacer.pulse(2 * PULSE));
+	}
+
+	/**
+	 * Tests that the first pulse after a reset is always rendered.
+	 */
+	@Test
+	public void testReset() {
+		FramePacer pacer = new FramePacer(1);
+		assertTrue(pacer.pulse(0));
+		assertFalse(pacer.pulse(PULSE));
+
+		pacer.reset();
+		assertTrue(pacer.pulse(2 * PULSE));
+	}
+
+	/**
+	 * Tests that a negative cap is rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCap() {
+		new FramePacer(-1);
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the GameThread class.
+ */
+public class TestGameThread {
+
+	private static final double TPS = 100;
+
+	private GameThread thread;
+
+	/**
+	 * Stops the game thread after each test.
+	 */
+	@After
+	public void tearDown() {
+		if (thread != null) {
+			thread.stop();
+		}
+	}
+
+	/**
+	 * Waits until the given condition holds.
+	 *
+	 * @param condition
+	 * 		the condition.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("Timed out!");
+			}
+			Thread.sleep(1);
+		}
+	}
+
+	/**
+	 * Tests that ticks run on the game thread, at about the rate of the
+	 * timestep, and that no ticks run after stopping.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testCadence() throws InterruptedException {
+		AtomicInteger ticks = new AtomicInteger();
+		AtomicReference<Thread> tickThread = new AtomicReference<>();
+		thread = new GameThread("Test game thread", new FixedTimestep(TPS, 5), () -> {
+			tickThread.set(Thread.currentThread());
+			ticks.incrementAndGet();
+		});
+
+		assertFalse(thread.isRunning());
+		thread.play();
+		assertTrue(thread.isRunning());
+		Thread.sleep(300);
+		thread.stop();
+		assertFalse(thread.isRunning());
+
+		//About 30 ticks, with a wide margin for slow machines.
+		int count = ticks.get();
+		assertTrue("ran " + count + " ticks", count >= 10 && count <= 40);
+		assertEquals("Test game thread", tickThread.get().getName());
+
+		Thread.sleep(50);
+		assertEquals(count, ticks.get());
+		assertNull(thread.getFailure());
+	}
+
+	/**
+	 * Tests that the game thread can be started again after stopping.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testRestart() throws InterruptedException {
+		AtomicInteger ticks = new AtomicInteger();
+		thread = new GameThread("Test game thread", new FixedTimestep(TPS, 5), ticks::incrementAndGet);
+
+		thread.play();
+		waitFor(() -> ticks.get() > 0);
+		thread.stop();
+
+		int count = ticks.get();
+		thread.play();
+		waitFor(() -> ticks.get() > count);
+		assertTrue(thread.isRunning());
+	}
+
+	/**
+	 * Tests that a failing tick stops the game thread, and that the
+	 * exception is kept.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testFailure() throws InterruptedException {
+		IllegalStateException ex = new IllegalStateException("Expected by the test");
+		AtomicInteger ticks = new AtomicInteger();
+		thread = new GameThread("Test game thread", new FixedTimestep(TPS, 5), () -> {
+			ticks.incrementAndGet();
+			throw ex;
+		});
+
+		thread.play();
+		waitFor(() -> !thread.isRunning());
+
+		assertSame(ex, thread.getFailure());
+		Thread.sleep(50);
+		assertEquals(1, ticks.get());
+	}
+}
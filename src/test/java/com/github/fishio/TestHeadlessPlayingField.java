@@ -0,0 +1,223 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the HeadlessPlayingField class, without starting JavaFX.
+ */
+public class TestHeadlessPlayingField {
+
+	private HeadlessPlayingField pf;
+
+	/**
+	 * Creates a new headless playing field before each test.
+	 */
+	@Before
+	public void setUp() {
+		pf = new HeadlessPlayingField();
+	}
+
+	/**
+	 * Tests that a headless field has no renderer and no render thread.
+	 */
+	@Test
+	public void testHeadless() {
+		assertTrue(pf.isHeadless());
+		assertNull(pf.getRenderer());
+		assertNull(pf.getRenderThread());
+	}
+
+	/**
+	 * Tests {@link PlayingField#step(int)}.
+	 */
+	@Test
+	public void testStep() {
+		pf.getPlayer().setSpeedX(0.0);
+		pf.getPlayer().queueInput(new KeyInput(Direction.RIGHT, true));
+		pf.step(10);
+
+		assertTrue(pf.getPlayer().getSpeedX() > 0.0);
+		assertFalse(pf.isRunning());
+	}
+
+	/**
+	 * Tests that input queued from another thread is applied on the next
+	 * tick, and not before.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting for the other thread.
+	 */
+	@Test
+	public void testInputFromOtherThread() throws InterruptedException {
+		pf.getPlayer().setSpeedX(0.0);
+		Thread input = new Thread(() -> pf.getPlayer().queueInput(new KeyInput(Direction.RIGHT, true)));
+		input.start();
+		input.join();
+
+		assertEquals(0.0, pf.getPlayer().getSpeedX(), 0);
+
+		pf.step(1);
+		assertEquals(pf.getPlayer().getAcceleration(), pf.getPlayer().getSpeedX(), 1E-9);
+	}
+
+	/**
+	 * Tests that input queued from another thread is applied by the
+	 * running game thread.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testInputWhileRunning() throws InterruptedException {
+		pf.getPlayer().setSpeedX(0.0);
+		pf.startGame();
+		try {
+			Thread input = new Thread(() -> pf.getPlayer().queueInput(new KeyInput(Direction.RIGHT, true)));
+			input.start();
+			input.join();
+
+			long deadline = System.nanoTime() + 5_000_000_000L;
+			while (pf.getPlayer().getSpeedX() <= 0.0 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			assertTrue(pf.getPlayer().getSpeedX() > 0.0);
+			assertTrue(pf.isRunning());
+		} finally {
+			pf.stopGame();
+		}
+		assertNull(pf.getGameThread().getFailure());
+	}
+
+	/**
+	 * Tests {@link HeadlessPlayingField#stepUntilDead(int)} never runs more
+	 * than the maximum amount of ticks.
+	 */
+	@Test
+	public void testStepUntilDead() {
+		int ticks = pf.stepUntilDead(600);
+
+		assertTrue(ticks <= 600);
+		assertEquals(ticks < 600, pf.getPlayer().isDead());
+	}
+
+	/**
+	 * Tests {@link HeadlessPlayingField#clear()}.
+	 */
+	@Test
+	public void testClear() {
+		PlayerFish old = pf.getPlayer();
+		pf.step(5);
+		pf.clear();
+
+		assertTrue(old.isDead());
+		assertFalse(pf.getPlayer().isDead());
+	}
+
+	/**
+	 * Tests that two fields with the same seed and the same input play out
+	 * exactly the same.
+	 */
+	@Test
+	public void testDeterministic() {
+		HeadlessPlayingField pf1 = new HeadlessPlayingField(42L);
+		HeadlessPlayingField pf2 = new HeadlessPlayingField(42L);
+
+		pf1.getPlayer().queueInput(new KeyInput(Direction.UP, true));
+		pf2.getPlayer().queueInput(new KeyInput(Direction.UP, true));
+		pf1.step(300);
+		pf2.step(300);
+
+		assertEquals(pf1.getPlayer().isDead(), pf2.getPlayer().isDead());
+		assertEquals(pf1.getPlayer().scoreProperty().get(), pf2.getPlayer().scoreProperty().get());
+		assertEquals(pf1.getPlayer().getBoundingArea().getCenterX(),
+				pf2.getPlayer().getBoundingArea().getCenterX(), 0.0);
+		assertEquals(pf1.getPlayer().getBoundingArea().getCenterY(),
+				pf2.getPlayer().getBoundingArea().getCenterY(), 0.0);
+	}
+
+	/**
+	 * Tests that a game can be replayed from its seed and input log.
+	 */
+	@Test
+	public void testReplay() {
+		InputLog log = new InputLog();
+		HeadlessPlayingField pf1 = new HeadlessPlayingField(7L);
+		pf1.setInputLog(log);
+		pf1.getPlayer().queueInput(new KeyInput(Direction.LEFT, true));
+		pf1.step(50);
+		pf1.getPlayer().queueInput(new KeyInput(Direction.LEFT, false));
+		pf1.getPlayer().queueInput(new KeyInput(Direction.DOWN, true));
+		pf1.step(50);
+
+		HeadlessPlayingField pf2 = new HeadlessPlayingField(7L);
+		pf2.setReplayLog(log);
+		pf2.step(100);
+
+		assertEquals(3, log.size());
+		assertEquals(pf1.getPlayer().getBoundingArea().getCenterX(),
+				pf2.getPlayer().getBoundingArea().getCenterX(), 0.0);
+		assertEquals(pf1.getPlayer().getBoundingArea().getCenterY(),
+				pf2.getPlayer().getBoundingArea().getCenterY(), 0.0);
+	}
+
+	/**
+	 * Adds a swarm of enemies to the given field.
+	 * 
+	 * @param field
+	 * 		the field.
+	 * @param amount
+	 * 		the amount of enemies.
+	 * 
+	 * @return
+	 * 		the enemies that were added.
+	 */
+	private static ArrayList<EnemyFish> addSwarm(PlayingField field, int amount) {
+		SplittableRandom random = new SplittableRandom(3L);
+		ArrayList<EnemyFish> swarm = new ArrayList<>();
+		for (int i = 0; i < amount; i++) {
+			BoundingBox box = new BoundingBox(new Vec2d(random.nextDouble(-200, 1480), random.nextDouble(-200, 870)),
+					20, 10);
+			EnemyFish fish = new EnemyFish(box, null, random.nextDouble(-3, 3), random.nextDouble(-3, 3),
+					random.split());
+			field.add(fish);
+			swarm.add(fish);
+		}
+		return swarm;
+	}
+
+	/**
+	 * Tests that moving in parallel gives the same result as moving
+	 * sequentially.
+	 */
+	@Test
+	public void testParallelMovement() {
+		HeadlessPlayingField sequential = new HeadlessPlayingField(5L);
+		sequential.setParallelThreshold(Integer.MAX_VALUE);
+		ArrayList<EnemyFish> swarm1 = addSwarm(sequential, 2000);
+
+		HeadlessPlayingField parallel = new HeadlessPlayingField(5L);
+		parallel.setParallelThreshold(0);
+		ArrayList<EnemyFish> swarm2 = addSwarm(parallel, 2000);
+
+		sequential.step(60);
+		parallel.step(60);
+
+		for (int i = 0; i < swarm1.size(); i++) {
+			EnemyFish f1 = swarm1.get(i);
+			EnemyFish f2 = swarm2.get(i);
+			assertEquals(f1.isDead(), f2.isDead());
+			assertEquals(f1.isSleeping(), f2.isSleeping());
+			assertEquals(f1.getBoundingArea().getCenterX(), f2.getBoundingArea().getCenterX(), 0.0);
+			assertEquals(f1.getBoundingArea().getCenterY(), f2.getBoundingArea().getCenterY(), 0.0);
+		}
+	}
+}
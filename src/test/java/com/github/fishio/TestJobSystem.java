@@ -0,0 +1,192 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the JobSystem and Job classes.
+ */
+public class TestJobSystem {
+
+	private JobSystem jobs;
+
+	/**
+	 * Creates a new job system before each test.
+	 */
+	@Before
+	public void setUp() {
+		jobs = new JobSystem(4);
+	}
+
+	/**
+	 * Shuts the job system down after each test.
+	 */
+	@After
+	public void tearDown() {
+		jobs.shutdown();
+	}
+
+	/**
+	 * Tests that a job runs and is timed.
+	 */
+	@Test
+	public void testSubmit() {
+		AtomicInteger counter = new AtomicInteger();
+		Job job = jobs.submit("count", counter::incrementAndGet);
+		job.join();
+
+		assertTrue(job.isDone());
+		assertFalse(job.isFailed());
+		assertEquals(1, counter.get());
+		assertTrue(job.getNanos() >= 0);
+		assertEquals(1, jobs.getJobCount("count"));
+		assertTrue(jobs.getTimings().containsKey("count"));
+	}
+
+	/**
+	 * Tests that a job only starts when its dependencies are done.
+	 */
+	@Test
+	public void testDependencies() {
+		List<String> order = new CopyOnWriteArrayList<>();
+		Job a = jobs.submit("a", () -> {
+			sleep(20);
+			order.add("a");
+		});
+		Job b = jobs.submit("b", () -> order.add("b"));
+		Job c = jobs.submit("c", () -> order.add("c"), a, b);
+		c.join();
+
+		assertEquals(3, order.size());
+		assertEquals("c", order.get(2));
+	}
+
+	/**
+	 * Tests that a failing job makes the jobs that depend on it fail.
+	 */
+	@Test
+	public void testFailure() {
+		AtomicInteger counter = new AtomicInteger();
+		Job a = jobs.submit("a", () -> {
+			throw new IllegalStateException();
+		});
+		Job b = jobs.submit("b", counter::incrementAndGet, a);
+
+		try {
+			b.join();
+		} catch (IllegalStateException ex) {
+			assertTrue(a.isFailed());
+			assertTrue(b.isFailed());
+			assertEquals(0, counter.get());
+			return;
+		}
+
+		throw new AssertionError("The failure was not passed on!");
+	}
+
+	/**
+	 * Tests that a job submitted after a shutdown fails, instead of never
+	 * being done.
+	 */
+	@Test(expected = RejectedExecutionException.class)
+	public void testSubmitAfterShutdown() {
+		jobs.shutdown();
+		Job job = jobs.submit("late", () -> { });
+
+		assertTrue(job.isFailed());
+		job.join();
+	}
+
+	/**
+	 * Tests that a job whose dependencies are done after a shutdown fails,
+	 * instead of never being done.
+	 */
+	@Test(expected = RejectedExecutionException.class)
+	public void testDependencyDoneAfterShutdown() {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		Job dependency = new Job("dependency", future);
+		Job job = jobs.submit("late", () -> { }, dependency);
+
+		jobs.shutdown();
+		future.complete(null);
+
+		assertTrue(job.isFailed());
+		job.join();
+	}
+
+	/**
+	 * Tests that blocking jobs get workers of their own, apart from the
+	 * default workers.
+	 */
+	@Test
+	public void testIo() {
+		JobSystem io = JobSystem.getIo();
+		assertSame(io, JobSystem.getIo());
+		assertNotSame(JobSystem.getDefault(), io);
+		assertEquals(JobSystem.IO_WORKERS, io.getWorkers());
+
+		List<String> names = new CopyOnWriteArrayList<>();
+		io.submit("name", () -> names.add(Thread.currentThread().getName())).join();
+		assertTrue(names.get(0).startsWith("IO worker "));
+	}
+
+	/**
+	 * Tests that parallelFor covers every index exactly once.
+	 */
+	@Test
+	public void testParallelFor() {
+		int[] counts = new int[1000];
+		jobs.parallelFor("range", counts.length, 64, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				counts[i]++;
+			}
+		}).join();
+
+		for (int count : counts) {
+			assertEquals(1, count);
+		}
+		assertEquals(16, jobs.getJobCount("range"));
+	}
+
+	/**
+	 * Tests that parallelFor with no indices is done right away.
+	 */
+	@Test
+	public void testParallelForEmpty() {
+		Job job = jobs.parallelFor("empty", 0, 64, (from, to) -> {
+			throw new IllegalStateException();
+		});
+		job.join();
+
+		assertTrue(job.isDone());
+		assertEquals(Collections.emptyMap(), jobs.getTimings());
+	}
+
+	/**
+	 * Sleeps for the given amount of milliseconds.
+	 * 
+	 * @param millis
+	 * 		the amount of milliseconds.
+	 */
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.fishio.ParticleSystem.Kind;
+
+/**
+ * Tests the ParticleSystem class.
+ */
+public class TestParticleSystem {
+
+	private static final int CAPACITY = 8;
+
+	private ParticleSystem particles;
+	private final double[] bounds = new double[4];
+
+	/**
+	 * Creates a new, small particle system before each test.
+	 */
+	@Before
+	public void setUp() {
+		particles = new ParticleSystem(CAPACITY);
+	}
+
+	/**
+	 * Tests that particles die after their life, and that particles that
+	 * die earlier than older particles are not counted.
+	 */
+	@Test
+	public void testLife() {
+		particles.emit(Kind.EAT, 0, 0, 0, 0, 2, 5);
+		particles.emit(Kind.EAT, 0, 0, 0, 0, 2, 2);
+		assertEquals(2, particles.size());
+
+		particles.update();
+		assertEquals(2, particles.size());
+
+		particles.update();
+		assertEquals(1, particles.size());
+
+		for (int i = 0; i < 3; i++) {
+			particles.update();
+		}
+		assertEquals(0, particles.size());
+		assertFalse(particles.getBounds(bounds));
+	}
+
+	/**
+	 * Tests that particles without a life are not added.
+	 */
+	@Test
+	public void testNoLife() {
+		particles.emit(Kind.EAT, 0, 0, 0, 0, 2, 0);
+		assertEquals(0, particles.size());
+	}
+
+	/**
+	 * Tests that the oldest particle is replaced when the ring is full.
+	 */
+	@Test
+	public void testFull() {
+		particles.emit(Kind.EAT, -100, 0, 0, 0, 2, 100);
+		for (int i = 0; i < CAPACITY; i++) {
+			particles.emit(Kind.EAT, i, 0, 0, 0, 2, 100);
+		}
+
+		assertEquals(CAPACITY, particles.size());
+		assertTrue(particles.getBounds(bounds));
+		assertEquals(-2, bounds[0], 1E-9);
+		assertEquals(CAPACITY + 1, bounds[2], 1E-9);
+	}
+
+	/**
+	 * Tests that particles move with their speed, slowed down by the drag
+	 * of their kind, and that the bounds contain both their old and new
+	 * position.
+	 */
+	@Test
+	public void testMove() {
+		particles.emit(Kind.EAT, 10, 20, 10, 0, 2, 100);
+		particles.update();
+
+		assertTrue(particles.getBounds(bounds));
+		assertArrayEquals(new double[] {8, 18, 21, 22}, bounds, 1E-9);
+	}
+
+	/**
+	 * Tests that bubbles rise.
+	 */
+	@Test
+	public void testBubbleRises() {
+		particles.emit(Kind.BUBBLE, 0, 0, 0, 0, 2, 100);
+		for (int i = 0; i < 10; i++) {
+			particles.update();
+		}
+
+		assertTrue(particles.getBounds(bounds));
+		assertTrue(bounds[3] < 0);
+	}
+
+	/**
+	 * Tests that a copy has the same particles, also when they wrap around
+	 * the end of the ring.
+	 */
+	@Test
+	public void testCopyFrom() {
+		for (int i = 0; i < CAPACITY + 3; i++) {
+			particles.emit(Kind.EAT, i, i, 0, 0, 2, 100);
+		}
+
+		ParticleSystem copy = new ParticleSystem(0);
+		copy.copyFrom(particles);
+		assertEquals(CAPACITY, copy.getCapacity());
+		assertEquals(particles.size(), copy.size());
+
+		double[] copyBounds = new double[4];
+		assertTrue(particles.getBounds(bounds));
+		assertTrue(copy.getBounds(copyBounds));
+		assertArrayEquals(bounds, copyBounds, 0);
+
+		//The copy can be updated on its own.
+		copy.emit(Kind.EAT, 100, 100, 0, 0, 2, 100);
+		assertTrue(copy.getBounds(copyBounds));
+		assertEquals(102, copyBounds[3], 1E-9);
+	}
+
+	/**
+	 * Tests that bursts with the same random generator are the same.
+	 */
+	@Test
+	public void testBurst() {
+		particles.setRandom(new SplittableRandom(42));
+		particles.burst(Kind.DEATH, 50, 50, 5, 2, 4, 60);
+		particles.update();
+		assertEquals(5, particles.size());
+		assertTrue(particles.getBounds(bounds));
+
+		ParticleSystem other = new ParticleSystem(CAPACITY);
+		other.setRandom(new SplittableRandom(42));
+		other.burst(Kind.DEATH, 50, 50, 5, 2, 4, 60);
+		other.update();
+		double[] otherBounds = new double[4];
+		assertTrue(other.getBounds(otherBounds));
+		assertArrayEquals(bounds, otherBounds, 0);
+	}
+
+	/**
+	 * Tests that clearing removes all particles.
+	 */
+	@Test
+	public void testClear() {
+		particles.emit(Kind.EAT, 0, 0, 0, 0, 2, 100);
+		particles.clear();
+
+		assertEquals(0, particles.size());
+		assertFalse(particles.getBounds(bounds));
+	}
+}
@@ -0,0 +1,106 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the parts of the PerformanceOverlay class that do not draw.
+ */
+public class TestPerformanceOverlay {
+	private HeadlessPlayingField pf;
+	private PerformanceOverlay overlay;
+
+	/**
+	 * Creates a new overlay for a headless playing field before each test.
+	 * Nothing is ever drawn, so it has no graphicscontext.
+	 */
+	@Before
+	public void setUp() {
+		pf = new HeadlessPlayingField(1L);
+		overlay = new PerformanceOverlay(pf, null);
+	}
+
+	/**
+	 * Tests that the frame times are recorded from the second frame on,
+	 * and that the FPS is worked out from them.
+	 */
+	@Test
+	public void testFrames() {
+		long now = 1_000_000_000L;
+		overlay.recordFrame(now);
+		assertEquals(0, overlay.getFrameCount());
+		assertEquals(0, overlay.getFps(), 1E-9);
+
+		for (int i = 0; i < 10; i++) {
+			now += 20_000_000L;
+			overlay.recordFrame(now);
+		}
+		assertEquals(10, overlay.getFrameCount());
+		assertEquals(50, overlay.getFps(), 1E-9);
+	}
+
+	/**
+	 * Tests that only the last frames are kept, oldest first.
+	 */
+	@Test
+	public void testFrameHistory() {
+		long now = 1L;
+		overlay.recordFrame(now);
+		for (int i = 1; i <= PerformanceOverlay.FRAME_HISTORY + 5; i++) {
+			now += i;
+			overlay.recordFrame(now);
+		}
+
+		assertEquals(PerformanceOverlay.FRAME_HISTORY, overlay.getFrameCount());
+		assertEquals(6, overlay.getFrameTime(0));
+		assertEquals(PerformanceOverlay.FRAME_HISTORY + 5, overlay.getFrameTime(PerformanceOverlay.FRAME_HISTORY - 1));
+	}
+
+	/**
+	 * Tests that a sample shows the counts of the last tick and the time of
+	 * every stage.
+	 */
+	@Test
+	public void testSample() {
+		pf.tick();
+		overlay.sample(1_000_000_000L);
+		List<String> lines = overlay.getLines();
+
+		assertTrue(lines.contains("Entities: " + pf.getEntityCount() + ", collidables: " + pf.getCollidableCount()));
+		for (String stage : pf.getPipeline().getTimings().keySet()) {
+			assertTrue(lines.stream().anyMatch(line -> line.startsWith("  " + stage + ": ")));
+		}
+	}
+
+	/**
+	 * Tests that the TPS is measured between two samples.
+	 */
+	@Test
+	public void testTps() {
+		overlay.sample(1_000_000_000L);
+		for (int i = 0; i < 30; i++) {
+			pf.tick();
+		}
+		overlay.sample(1_500_000_000L);
+
+		assertTrue(overlay.getLines().contains("TPS: 60.0"));
+	}
+
+	/**
+	 * Tests showing and hiding the overlay.
+	 */
+	@Test
+	public void testToggle() {
+		assertFalse(overlay.isVisible());
+		overlay.toggle();
+		assertTrue(overlay.isVisible());
+		overlay.toggle();
+		assertFalse(overlay.isVisible());
+	}
+}
@@ -0,0 +1,77 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.fishio.RenderLayers.Layer;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Tests the parts of the PlayingFieldRenderer class that do not draw. The
+ * renderer is created without a canvas, as these do not need one.
+ */
+public class TestPlayingFieldRenderer {
+
+	private RenderLayers layers;
+	private PlayingFieldRenderer renderer;
+
+	/**
+	 * Creates a new renderer on layers without a canvas before each test.
+	 */
+	@Before
+	public void setUp() {
+		layers = new RenderLayers((Canvas) null);
+		renderer = new PlayingFieldRenderer(layers, new RenderExchange(), 1000);
+		layers.clearDirty(Layer.SCENERY);
+	}
+
+	/**
+	 * Tests that adding and clearing scenery marks the scenery layer dirty.
+	 */
+	@Test
+	public void testScenery() {
+		SpriteState state = new SpriteState(null, new BoundingBox(new Vec2d(100, 50), 40, 20), false);
+		renderer.addScenery(state);
+		assertEquals(1, renderer.getScenery().size());
+		assertTrue(layers.clearDirty(Layer.SCENERY));
+
+		renderer.clearScenery();
+		assertTrue(renderer.getScenery().isEmpty());
+		assertTrue(layers.isDirty(Layer.SCENERY));
+	}
+
+	/**
+	 * Tests that the scenery cannot be changed from outside the renderer.
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSceneryUnmodifiable() {
+		renderer.getScenery().clear();
+	}
+
+	/**
+	 * Tests that the resolution is never lowered when all layers share a
+	 * single canvas, as the other layers would be scaled as well.
+	 */
+	@Test
+	public void testNoHeadroomWithoutLayers() {
+		assertTrue(renderer.getResolutionScaler().hasHeadroom());
+		assertFalse(renderer.hasHeadroom());
+		assertEquals(1, renderer.getRenderScale(), 0);
+	}
+
+	/**
+	 * Tests the default settings of the renderer.
+	 */
+	@Test
+	public void testDefaults() {
+		assertTrue(renderer.isDirtyRendering());
+		assertFalse(renderer.isSoftwareRendering());
+		assertEquals(0, renderer.getLastRedrawArea(), 0);
+		assertEquals(0, renderer.getCulledCount());
+	}
+}
@@ -0,0 +1,43 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the RandomService class.
+ */
+public class TestRandomService {
+
+	/**
+	 * Tests {@link RandomService#getSeed()}.
+	 */
+	@Test
+	public void testGetSeed() {
+		assertEquals(123L, new RandomService(123L).getSeed());
+	}
+
+	/**
+	 * Tests that the same seed gives the same spawn numbers.
+	 */
+	@Test
+	public void testSameSeed() {
+		RandomService r1 = new RandomService(123L);
+		RandomService r2 = new RandomService(123L);
+
+		assertEquals(r1.getSpawnRandom().nextLong(), r2.getSpawnRandom().nextLong());
+		assertEquals(r1.createAiRandom().nextLong(), r2.createAiRandom().nextLong());
+	}
+
+	/**
+	 * Tests that every subsystem gets a different stream.
+	 */
+	@Test
+	public void testIndependentStreams() {
+		RandomService r = new RandomService(123L);
+
+		assertNotEquals(r.getSpawnRandom().nextLong(), r.createAiRandom().nextLong());
+		assertNotEquals(r.createAiRandom().nextLong(), r.createAiRandom().nextLong());
+	}
+}
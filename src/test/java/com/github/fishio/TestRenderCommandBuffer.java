@@ -0,0 +1,136 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the RenderCommandBuffer class.
+ */
+public class TestRenderCommandBuffer {
+	private RenderCommandBuffer buffer;
+
+	/**
+	 * Creates a new, empty buffer before each test.
+	 */
+	@Before
+	public void setUp() {
+		buffer = new RenderCommandBuffer(new SpriteRegistry());
+	}
+
+	/**
+	 * Tests that added commands keep the values they were written with.
+	 */
+	@Test
+	public void testAdd() {
+		BoundingBox box = new BoundingBox(new Vec2d(100, 50), 40, 20);
+		box.setRotation(30);
+		buffer.add(null, box, 90, 40, true);
+
+		assertEquals(1, buffer.size());
+		assertEquals(SpriteRegistry.NO_SPRITE, buffer.getSpriteId(0));
+		assertEquals(95, buffer.getX(0, 0.5), 1E-9);
+		assertEquals(45, buffer.getY(0, 0.5), 1E-9);
+		assertEquals(40, buffer.getWidth(0), 1E-9);
+		assertEquals(20, buffer.getHeight(0), 1E-9);
+		assertEquals(30, buffer.getRotation(0), 1E-9);
+		assertTrue(buffer.isMirrored(0));
+	}
+
+	/**
+	 * Tests that the bounds of a command are the same as the bounds of the
+	 * equal SpriteState.
+	 */
+	@Test
+	public void testBounds() {
+		BoundingBox box = new BoundingBox(new Vec2d(100, 50), 40, 20);
+		box.setRotation(30);
+		SpriteState state = new SpriteState(null, box, 90, 40, false);
+		buffer.reset(1);
+		buffer.set(0, state);
+
+		double[] expected = new double[4];
+		double[] bounds = new double[4];
+		state.getBounds(0.25, expected, 0);
+		buffer.getBounds(0, 0.25, bounds, 0);
+		assertArrayEquals(expected, bounds, 1E-9);
+	}
+
+	/**
+	 * Tests that commands that are not written are removed by compacting,
+	 * and that the others keep their order.
+	 */
+	@Test
+	public void testCompact() {
+		buffer.reset(4);
+		buffer.set(1, null, new BoundingBox(new Vec2d(10, 10), 4, 4), 10, 10, false);
+		buffer.set(3, null, new BoundingBox(new Vec2d(30, 30), 4, 4), 30, 30, false);
+		buffer.compact();
+
+		assertEquals(2, buffer.size());
+		assertEquals(10, buffer.getX(0, 1.0), 1E-9);
+		assertEquals(30, buffer.getX(1, 1.0), 1E-9);
+	}
+
+	/**
+	 * Tests that a buffer is emptied by resetting it.
+	 */
+	@Test
+	public void testReset() {
+		buffer.add(null, new BoundingBox(new Vec2d(10, 10), 4, 4), 10, 10, false);
+		buffer.reset(3);
+		buffer.compact();
+
+		assertEquals(0, buffer.size());
+	}
+
+	/**
+	 * Tests {@link RenderCommandBuffer#looksLike(int, RenderCommandBuffer, int)}.
+	 */
+	@Test
+	public void testLooksLike() {
+		buffer.add(null, new BoundingBox(new Vec2d(100, 50), 40, 20), 100, 50, false);
+		buffer.add(null, new BoundingBox(new Vec2d(10, 5), 40, 20), 10, 5, false);
+		buffer.add(null, new BoundingBox(new Vec2d(100, 50), 40, 20), 100, 50, true);
+
+		assertTrue(buffer.looksLike(0, buffer, 1));
+		assertFalse(buffer.looksLike(0, buffer, 2));
+	}
+
+	/**
+	 * Tests that a copy has the same commands and timing, and does not
+	 * change when the original is overwritten.
+	 */
+	@Test
+	public void testCopyFrom() {
+		buffer.add(null, new BoundingBox(new Vec2d(100, 50), 40, 20), 100, 50, false);
+		buffer.setTiming(7, 0.5, 1000L, 100L);
+
+		RenderCommandBuffer copy = new RenderCommandBuffer(new SpriteRegistry());
+		copy.copyFrom(buffer);
+		buffer.reset(1);
+		buffer.set(0, null, new BoundingBox(new Vec2d(5, 5), 4, 4), 5, 5, true);
+
+		assertEquals(1, copy.size());
+		assertEquals(7, copy.getTick());
+		assertEquals(100, copy.getX(0, 1.0), 1E-9);
+		assertFalse(copy.isMirrored(0));
+	}
+
+	/**
+	 * Tests that the alpha advances with time, and is clamped to [0, 1].
+	 */
+	@Test
+	public void testAlpha() {
+		buffer.setTiming(0, 0.25, 1000L, 100L);
+
+		assertEquals(0.25, buffer.getAlpha(1000L), 1E-9);
+		assertEquals(0.75, buffer.getAlpha(1050L), 1E-9);
+		assertEquals(1.0, buffer.getAlpha(5000L), 1E-9);
+		assertEquals(0.0, buffer.getAlpha(0L), 1E-9);
+	}
+}
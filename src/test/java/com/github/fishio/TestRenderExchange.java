@@ -0,0 +1,66 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the RenderExchange class.
+ */
+public class TestRenderExchange {
+	private RenderExchange exchange;
+
+	/**
+	 * Creates a new exchange before each test.
+	 */
+	@Before
+	public void setUp() {
+		exchange = new RenderExchange(new SpriteRegistry());
+	}
+
+	/**
+	 * Tests that nothing is taken when nothing was published.
+	 */
+	@Test
+	public void testAcquireNothing() {
+		assertFalse(exchange.acquire());
+		assertEquals(0, exchange.getFront().size());
+	}
+
+	/**
+	 * Tests that published commands are taken by the render thread once,
+	 * and that the game thread gets another buffer.
+	 */
+	@Test
+	public void testPublish() {
+		RenderCommandBuffer back = exchange.getBack();
+		back.setTiming(1, 0, 0L, 1L);
+		exchange.publish();
+
+		assertNotSame(back, exchange.getBack());
+		assertTrue(exchange.acquire());
+		assertSame(back, exchange.getFront());
+		assertFalse(exchange.acquire());
+	}
+
+	/**
+	 * Tests that the render thread takes the last published commands when
+	 * several were published, and that the three buffers are all reused.
+	 */
+	@Test
+	public void testLatest() {
+		for (int tick = 1; tick <= 3; tick++) {
+			exchange.getBack().setTiming(tick, 0, 0L, 1L);
+			exchange.publish();
+		}
+
+		assertTrue(exchange.acquire());
+		assertEquals(3, exchange.getFront().getTick());
+		assertNotSame(exchange.getFront(), exchange.getBack());
+	}
+}
@@ -0,0 +1,109 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.fishio.RenderLayers.Layer;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Tests the dirty flags of the RenderLayers class, without a stage. The
+ * layers are created without a canvas, as the flags do not need one.
+ */
+public class TestRenderLayers {
+
+	private RenderLayers layers;
+
+	/**
+	 * Creates new layers without a canvas before each test.
+	 */
+	@Before
+	public void setUp() {
+		layers = new RenderLayers((Canvas) null);
+	}
+
+	/**
+	 * Tests that all layers start dirty, as nothing has been drawn yet.
+	 */
+	@Test
+	public void testStartDirty() {
+		for (Layer layer : Layer.values()) {
+			assertTrue(layers.isDirty(layer));
+		}
+	}
+
+	/**
+	 * Tests that clearing a flag tells if the layer was dirty, only once.
+	 */
+	@Test
+	public void testClearDirty() {
+		assertTrue(layers.clearDirty(Layer.SCENERY));
+		assertFalse(layers.isDirty(Layer.SCENERY));
+		assertFalse(layers.clearDirty(Layer.SCENERY));
+	}
+
+	/**
+	 * Tests that marking and clearing a layer leaves the other layers
+	 * alone.
+	 */
+	@Test
+	public void testMarkDirty() {
+		for (Layer layer : Layer.values()) {
+			layers.clearDirty(layer);
+		}
+
+		layers.markDirty(Layer.BACKGROUND);
+		assertTrue(layers.isDirty(Layer.BACKGROUND));
+		assertFalse(layers.isDirty(Layer.SCENERY));
+		assertFalse(layers.isDirty(Layer.ENTITIES));
+		assertFalse(layers.isDirty(Layer.HUD));
+
+		layers.markDirty(Layer.HUD);
+		assertTrue(layers.clearDirty(Layer.BACKGROUND));
+		assertTrue(layers.isDirty(Layer.HUD));
+	}
+
+	/**
+	 * Tests that a layer that is marked dirty after its flag was cleared
+	 * (while it is redrawn) stays dirty.
+	 */
+	@Test
+	public void testMarkWhileRedrawing() {
+		assertTrue(layers.clearDirty(Layer.SCENERY));
+		layers.markDirty(Layer.SCENERY);
+
+		assertTrue(layers.clearDirty(Layer.SCENERY));
+		assertFalse(layers.isDirty(Layer.SCENERY));
+	}
+
+	/**
+	 * Tests that marks from another thread are seen, and none are lost
+	 * while flags of other layers are cleared at the same time.
+	 *
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting for the other thread.
+	 */
+	@Test
+	public void testOtherThread() throws InterruptedException {
+		layers.clearDirty(Layer.BACKGROUND);
+		Thread marker = new Thread(() -> {
+			for (int i = 0; i < 10000; i++) {
+				layers.markDirty(Layer.BACKGROUND);
+			}
+		});
+
+		marker.start();
+		for (int i = 0; i < 10000; i++) {
+			layers.clearDirty(Layer.SCENERY);
+			layers.markDirty(Layer.SCENERY);
+		}
+		marker.join();
+
+		assertTrue(layers.isDirty(Layer.BACKGROUND));
+		assertTrue(layers.isDirty(Layer.SCENERY));
+	}
+}
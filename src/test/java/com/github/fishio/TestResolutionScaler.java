@@ -0,0 +1,138 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ResolutionScaler class.
+ */
+public class TestResolutionScaler {
+
+	private static final long BUDGET = 1000;
+
+	private ResolutionScaler scaler;
+
+	/**
+	 * Creates a new scaler before each test.
+	 */
+	@Before
+	public void setUp() {
+		scaler = new ResolutionScaler(BUDGET);
+	}
+
+	/**
+	 * Records the given amount of frames, all with the same duration.
+	 *
+	 * @param amount
+	 * 		the amount of frames.
+	 * @param nanos
+	 * 		the duration of each frame.
+	 */
+	private void frames(int amount, long nanos) {
+		for (int i = 0; i < amount; i++) {
+			scaler.recordFrame(nanos);
+		}
+	}
+
+	/**
+	 * Tests that the resolution is not lowered when frames fit in the
+	 * budget.
+	 */
+	@Test
+	public void testWithinBudget() {
+		frames(1000, BUDGET * 9 / 10);
+
+		assertEquals(1.0, scaler.getScale(), 0);
+		assertEquals(0, scaler.getChanges());
+	}
+
+	/**
+	 * Tests that the resolution is lowered one step at a time, down to the
+	 * lowest scale.
+	 */
+	@Test
+	public void testDegrade() {
+		frames(ResolutionScaler.DEGRADE_FRAMES + 10, BUDGET * 2);
+		assertEquals(0.75, scaler.getScale(), 0);
+
+		frames(ResolutionScaler.DEGRADE_FRAMES, BUDGET * 2);
+		assertEquals(0.5, scaler.getScale(), 0);
+
+		//Cannot go lower than the lowest scale.
+		frames(1000, BUDGET * 2);
+		assertEquals(ResolutionScaler.getMinimumScale(), scaler.getScale(), 0);
+		assertEquals(2, scaler.getChanges());
+	}
+
+	/**
+	 * Tests that a short spike does not lower the resolution.
+	 */
+	@Test
+	public void testSpike() {
+		frames(100, BUDGET / 2);
+		frames(5, BUDGET * 3);
+		frames(100, BUDGET / 2);
+
+		assertEquals(1.0, scaler.getScale(), 0);
+	}
+
+	/**
+	 * Tests that the resolution is raised again, but only after frames have
+	 * been cheap for a while.
+	 */
+	@Test
+	public void testRecover() {
+		frames(ResolutionScaler.DEGRADE_FRAMES + 10, BUDGET * 2);
+		assertEquals(0.75, scaler.getScale(), 0);
+
+		frames(ResolutionScaler.RECOVER_FRAMES / 2, BUDGET / 4);
+		assertEquals(0.75, scaler.getScale(), 0);
+
+		frames(ResolutionScaler.RECOVER_FRAMES, BUDGET / 4);
+		assertEquals(1.0, scaler.getScale(), 0);
+	}
+
+	/**
+	 * Tests that the resolution is not raised when the frames would not fit
+	 * in the budget at the higher resolution, even though they fit at the
+	 * current one. This keeps it from switching back and forth.
+	 */
+	@Test
+	public void testHysteresis() {
+		frames(ResolutionScaler.DEGRADE_FRAMES + 10, BUDGET * 2);
+		assertEquals(0.75, scaler.getScale(), 0);
+
+		//Two thirds of the budget at 75% is more than the budget at full resolution.
+		frames(10 * ResolutionScaler.RECOVER_FRAMES, BUDGET * 2 / 3);
+		assertEquals(0.75, scaler.getScale(), 0);
+		assertEquals(1, scaler.getChanges());
+	}
+
+	/**
+	 * Tests that disabling the scaler goes back to full resolution, and
+	 * keeps it there.
+	 */
+	@Test
+	public void testDisable() {
+		frames(ResolutionScaler.DEGRADE_FRAMES + 10, BUDGET * 2);
+		assertEquals(0.75, scaler.getScale(), 0);
+
+		scaler.setEnabled(false);
+		assertFalse(scaler.isEnabled());
+		assertEquals(1.0, scaler.getScale(), 0);
+
+		frames(1000, BUDGET * 2);
+		assertEquals(1.0, scaler.getScale(), 0);
+	}
+
+	/**
+	 * Tests that the budget has to be positive.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidBudget() {
+		scaler.setFrameBudget(0);
+	}
+}
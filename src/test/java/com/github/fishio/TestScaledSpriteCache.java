@@ -0,0 +1,76 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the static parts of the ScaledSpriteCache class, which do not
+ * need JavaFX.
+ */
+public class TestScaledSpriteCache {
+
+	/**
+	 * Tests that the scale of a bucket is never smaller than the scale it
+	 * was picked for, and at most one bucket step larger.
+	 */
+	@Test
+	public void testBucket() {
+		double step = Math.pow(2, 1.0 / ScaledSpriteCache.BUCKETS_PER_OCTAVE);
+		for (double scale = 0.01; scale < 1.0; scale += 0.013) {
+			double bucketScale = ScaledSpriteCache.bucketScale(ScaledSpriteCache.bucket(scale));
+			assertTrue(bucketScale >= scale);
+			assertTrue(bucketScale < scale * step + 1E-9);
+		}
+	}
+
+	/**
+	 * Tests that exact powers of two get their own bucket.
+	 */
+	@Test
+	public void testBucketExact() {
+		assertEquals(0, ScaledSpriteCache.bucket(1.0));
+		assertEquals(-ScaledSpriteCache.BUCKETS_PER_OCTAVE, ScaledSpriteCache.bucket(0.5));
+		assertEquals(0.5, ScaledSpriteCache.bucketScale(-ScaledSpriteCache.BUCKETS_PER_OCTAVE), 1E-12);
+	}
+
+	/**
+	 * Tests that downscaling averages the pixels in every block.
+	 */
+	@Test
+	public void testDownscale() {
+		int[] src = {
+			0xFF000000, 0xFF000000, 0xFFFFFFFF, 0xFFFFFFFF,
+			0xFF000000, 0xFF000000, 0xFFFFFFFF, 0xFFFFFFFF,
+			0xFF404040, 0xFF808080, 0x00000000, 0x00000000,
+			0xFF404040, 0xFF808080, 0x00000000, 0x80808080,
+		};
+
+		int[] res = ScaledSpriteCache.downscale(src, 4, 4, 2, 2, false);
+		assertArrayEquals(new int[] {0xFF000000, 0xFFFFFFFF, 0xFF606060, 0x20202020}, res);
+	}
+
+	/**
+	 * Tests that a mirrored result is flipped left/right.
+	 */
+	@Test
+	public void testDownscaleMirrored() {
+		int[] src = {0xFF000000, 0xFF111111, 0xFF222222, 0xFF333333};
+
+		int[] res = ScaledSpriteCache.downscale(src, 4, 1, 4, 1, true);
+		assertArrayEquals(new int[] {0xFF333333, 0xFF222222, 0xFF111111, 0xFF000000}, res);
+	}
+
+	/**
+	 * Tests downscaling by a factor that does not divide the size.
+	 */
+	@Test
+	public void testDownscaleUneven() {
+		int[] src = {0xFF000000, 0xFF000000, 0xFF030303};
+
+		int[] res = ScaledSpriteCache.downscale(src, 3, 1, 2, 1, false);
+		assertArrayEquals(new int[] {0xFF000000, 0xFF010101}, res);
+	}
+}
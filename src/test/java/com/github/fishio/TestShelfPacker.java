@@ -0,0 +1,73 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ShelfPacker class.
+ */
+public class TestShelfPacker {
+
+	private ShelfPacker packer;
+
+	/**
+	 * Creates a new packer with 100x100 pages and a padding of 1 before
+	 * each test.
+	 */
+	@Before
+	public void setUp() {
+		packer = new ShelfPacker(100, 100, 1);
+	}
+
+	/**
+	 * Tests that rectangles are put next to each other on a shelf.
+	 */
+	@Test
+	public void testSameShelf() {
+		assertArrayEquals(new int[] {0, 1, 1}, packer.pack(30, 40));
+		assertArrayEquals(new int[] {0, 33, 1}, packer.pack(30, 20));
+		assertEquals(1, packer.getPageCount());
+	}
+
+	/**
+	 * Tests that a new shelf is started when a rectangle does not fit on
+	 * the existing shelves.
+	 */
+	@Test
+	public void testNewShelf() {
+		packer.pack(60, 40);
+		assertArrayEquals(new int[] {0, 1, 43}, packer.pack(60, 20));
+
+		//Fits next to the first rectangle.
+		assertArrayEquals(new int[] {0, 63, 1}, packer.pack(30, 30));
+	}
+
+	/**
+	 * Tests that a new page is started when a page is full.
+	 */
+	@Test
+	public void testNewPage() {
+		packer.pack(98, 60);
+		assertArrayEquals(new int[] {1, 1, 1}, packer.pack(98, 60));
+		assertEquals(2, packer.getPageCount());
+	}
+
+	/**
+	 * Tests that rectangles larger than a page are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooLarge() {
+		packer.pack(99, 10);
+	}
+
+	/**
+	 * Tests that an unused packer has no pages.
+	 */
+	@Test
+	public void testNoPages() {
+		assertEquals(0, packer.getPageCount());
+	}
+}
@@ -0,0 +1,202 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.fishio.SoftwareCompositor.Texture;
+
+/**
+ * Tests the SoftwareCompositor class.
+ */
+public class TestSoftwareCompositor {
+	private static final int RED = 0xFFFF0000;
+	private static final int BLUE = 0xFF0000FF;
+
+	private JobSystem jobs;
+	private SoftwareCompositor compositor;
+
+	/**
+	 * Creates a new 40x30 compositor with 16x16 tiles before each test.
+	 */
+	@Before
+	public void setUp() {
+		jobs = new JobSystem(4);
+		compositor = new SoftwareCompositor(40, 30, 16, jobs);
+	}
+
+	/**
+	 * Shuts the job system down after each test.
+	 */
+	@After
+	public void tearDown() {
+		jobs.shutdown();
+	}
+
+	/**
+	 * @param x
+	 * 		the x coordinate.
+	 * @param y
+	 * 		the y coordinate.
+	 *
+	 * @return
+	 * 		the pixel of the frame at the given coordinates.
+	 */
+	private int pixel(int x, int y) {
+		return compositor.getPixels()[y * compositor.getWidth() + x];
+	}
+
+	/**
+	 * Tests that a frame without blits is the background.
+	 */
+	@Test
+	public void testBackground() {
+		int[] background = new int[40 * 30];
+		Arrays.fill(background, BLUE);
+		compositor.setBackground(background);
+		compositor.render();
+
+		assertArrayEquals(background, compositor.getPixels());
+	}
+
+	/**
+	 * Tests that an unrotated blit covers exactly its rectangle, also
+	 * across tiles.
+	 */
+	@Test
+	public void testBlit() {
+		compositor.blit(Texture.solid(RED), 16, 16, 10, 6, 0, false);
+		compositor.render();
+
+		assertEquals(RED, pixel(11, 13));
+		assertEquals(RED, pixel(20, 18));
+		assertEquals(0, pixel(10, 13));
+		assertEquals(0, pixel(21, 13));
+		assertEquals(0, pixel(11, 12));
+		assertEquals(0, pixel(11, 19));
+	}
+
+	/**
+	 * Tests that a blit rotated by 90 degrees swaps its width and height.
+	 */
+	@Test
+	public void testRotatedBlit() {
+		compositor.blit(Texture.solid(RED), 20, 15, 10, 4, 90, false);
+		compositor.render();
+
+		assertEquals(RED, pixel(18, 10));
+		assertEquals(RED, pixel(21, 19));
+		assertEquals(0, pixel(17, 15));
+		assertEquals(0, pixel(22, 15));
+	}
+
+	/**
+	 * Tests that a mirrored blit is flipped left/right.
+	 */
+	@Test
+	public void testMirroredBlit() {
+		Texture texture = new Texture(new int[] {RED, BLUE}, 2, 1);
+		compositor.blit(texture, 20, 15, 2, 1, 0, true);
+		compositor.render();
+
+		assertEquals(BLUE, pixel(19, 14));
+		assertEquals(RED, pixel(20, 14));
+	}
+
+	/**
+	 * Tests that later blits are drawn over earlier ones, with alpha.
+	 */
+	@Test
+	public void testBlending() {
+		compositor.blit(Texture.solid(BLUE), 20, 15, 10, 10, 0, false);
+		compositor.blit(Texture.solid(0x80800000), 20, 15, 4, 4, 0, false);
+		compositor.render();
+
+		assertEquals(BLUE, pixel(16, 11));
+		assertEquals(0xFF80007F, pixel(20, 15));
+	}
+
+	/**
+	 * Tests {@link SoftwareCompositor#blend(int, int)}.
+	 */
+	@Test
+	public void testBlend() {
+		assertEquals(RED, SoftwareCompositor.blend(RED, BLUE));
+		assertEquals(BLUE, SoftwareCompositor.blend(0, BLUE));
+		assertEquals(0x80800000, SoftwareCompositor.blend(0x80800000, 0));
+	}
+
+	/**
+	 * Tests that the same blits give exactly the same frame, whatever the
+	 * tile size and amount of workers.
+	 */
+	@Test
+	public void testDeterministic() {
+		JobSystem single = new JobSystem(1);
+		try {
+			SoftwareCompositor other = new SoftwareCompositor(40, 30, 7, single);
+			Texture texture = new Texture(new int[] {RED, 0x40400000, BLUE, 0x80000080}, 2, 2);
+
+			SplittableRandom random = new SplittableRandom(42);
+			for (int i = 0; i < 200; i++) {
+				double x = random.nextDouble() * 50 - 5;
+				double y = random.nextDouble() * 40 - 5;
+				double w = random.nextDouble() * 12 + 1;
+				double h = random.nextDouble() * 12 + 1;
+				double rotation = random.nextDouble() * 360;
+				boolean mirror = random.nextBoolean();
+
+				compositor.blit(texture, x, y, w, h, rotation, mirror);
+				other.blit(texture, x, y, w, h, rotation, mirror);
+			}
+
+			compositor.render();
+			other.render();
+			assertArrayEquals(other.getPixels(), compositor.getPixels());
+		} finally {
+			single.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the blits are removed when a new frame is started.
+	 */
+	@Test
+	public void testClear() {
+		compositor.blit(Texture.solid(RED), 20, 15, 10, 10, 0, false);
+		compositor.clear();
+		compositor.render();
+
+		assertEquals(0, compositor.getBlitCount());
+		assertEquals(0, pixel(20, 15));
+	}
+
+	/**
+	 * Tests that the blits of a frame are reused by the next frame, also
+	 * when the pool has to grow, without anything of the previous frame
+	 * being drawn.
+	 */
+	@Test
+	public void testReuse() {
+		for (int i = 0; i < 100; i++) {
+			compositor.blit(Texture.solid(BLUE), 5 + i % 30, 5 + i % 20, 4, 4, 0, false);
+		}
+		compositor.render();
+		assertEquals(100, compositor.getBlitCount());
+
+		compositor.clear();
+		compositor.blit(Texture.solid(RED), 20, 15, 2, 2, 0, false);
+		compositor.blit(Texture.solid(RED), -10, -10, 2, 2, 0, false);
+		compositor.render();
+
+		assertEquals(1, compositor.getBlitCount());
+		assertEquals(RED, pixel(20, 15));
+		assertEquals(0, pixel(5, 5));
+	}
+}
@@ -0,0 +1,97 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the SpatialGrid class.
+ */
+public class TestSpatialGrid {
+
+	private SpatialGrid grid;
+
+	/**
+	 * Creates a new grid before each test.
+	 */
+	@Before
+	public void setUp() {
+		grid = new SpatialGrid(10);
+	}
+
+	/**
+	 * Tests that a query only finds objects in nearby cells.
+	 */
+	@Test
+	public void testQuery() {
+		grid.insert(0, 1, 1, 2, 2);
+		grid.insert(1, 50, 50, 52, 52);
+		grid.insert(2, 5, 5, 15, 15);
+
+		assertArrayEquals(new int[] {0, 2}, grid.query(0, 0, 3, 3));
+		assertArrayEquals(new int[] {1}, grid.query(51, 51, 51, 51));
+		assertArrayEquals(new int[0], grid.query(100, 100, 110, 110));
+	}
+
+	/**
+	 * Tests that objects in multiple cells are found once, sorted by id.
+	 */
+	@Test
+	public void testNoDuplicates() {
+		grid.insert(3, -15, -15, 15, 15);
+		grid.insert(1, 0, 0, 1, 1);
+
+		assertArrayEquals(new int[] {1, 3}, grid.query(-20, -20, 20, 20));
+		assertEquals(2, grid.size());
+		assertEquals(16, grid.getCellCount());
+	}
+
+	/**
+	 * Tests that the circle around a collision area is used, so rotation
+	 * does not matter.
+	 */
+	@Test
+	public void testCollisionArea() {
+		BoundingBox box = new BoundingBox(new Vec2d(100, 100), 40, 4);
+		box.setRotation(90);
+		grid.insert(7, box);
+
+		assertArrayEquals(new int[] {7}, grid.query(new BoundingBox(new Vec2d(100, 125), 2, 2)));
+		assertArrayEquals(new int[0], grid.query(new BoundingBox(new Vec2d(100, 160), 2, 2)));
+	}
+
+	/**
+	 * Tests clearing the grid.
+	 */
+	@Test
+	public void testClear() {
+		grid.insert(0, 1, 1, 2, 2);
+		grid.clear();
+
+		assertEquals(0, grid.size());
+		assertArrayEquals(new int[0], grid.query(0, 0, 3, 3));
+	}
+
+	/**
+	 * Tests that the cells with objects are given back by their indices,
+	 * also for negative coordinates.
+	 */
+	@Test
+	public void testGetCells() {
+		grid.insert(0, -5, 1, -1, 2);
+		grid.insert(1, 1, 1, 2, 2);
+
+		int[] cells = grid.getCells();
+		assertEquals(4, cells.length);
+		boolean negative = false;
+		boolean positive = false;
+		for (int i = 0; i < cells.length; i += 2) {
+			negative |= cells[i] == -1 && cells[i + 1] == 0;
+			positive |= cells[i] == 0 && cells[i + 1] == 0;
+		}
+		assertTrue(negative && positive);
+	}
+}
@@ -0,0 +1,152 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the SpawnScheduler class.
+ */
+public class TestSpawnScheduler {
+	private static final String SPRITE = "sprites/fish/fish3.png";
+
+	private JobSystem jobs;
+	private SpawnScheduler spawner;
+
+	/**
+	 * Creates a new headless spawn scheduler before each test.
+	 */
+	@Before
+	public void setUp() {
+		jobs = new JobSystem(1);
+		spawner = new SpawnScheduler(true, jobs);
+	}
+
+	/**
+	 * Shuts the job system down after each test.
+	 */
+	@After
+	public void tearDown() {
+		jobs.shutdown();
+	}
+
+	/**
+	 * Creates a spawn request.
+	 *
+	 * @param tick
+	 * 		the tick of the request.
+	 *
+	 * @return
+	 * 		a spawn request for a fish with {@link #SPRITE}.
+	 */
+	private SpawnRequest request(long tick) {
+		return new SpawnRequest(SPRITE, 100, 0, 0.5, 1.0, 0.0, new SplittableRandom(1), tick);
+	}
+
+	/**
+	 * Tests that all fish are spawned at once without a budget.
+	 */
+	@Test
+	public void testUnbudgeted() {
+		for (int i = 0; i < 10; i++) {
+			spawner.request(request(0));
+		}
+		assertEquals(10, spawner.size());
+
+		assertEquals(10, spawner.spawn(0, false).size());
+		assertEquals(0, spawner.size());
+		assertEquals(10, spawner.getSpawned());
+	}
+
+	/**
+	 * Tests that at least one fish is spawned per tick, even if the budget
+	 * is already used up.
+	 */
+	@Test
+	public void testBudgeted() {
+		Preloader.getAlphaDataOrLoad(SPRITE);
+		Preloader.getSpriteAlphaRatioOrLoad(SPRITE);
+		spawner.setBudgetNanos(0);
+		for (int i = 0; i < 3; i++) {
+			spawner.request(request(0));
+		}
+
+		assertEquals(1, spawner.spawn(0, true).size());
+		assertEquals(1, spawner.spawn(1, true).size());
+		assertEquals(1, spawner.spawn(2, true).size());
+		assertEquals(0, spawner.spawn(3, true).size());
+	}
+
+	/**
+	 * Tests that a fish waits for its sprite, but not longer than
+	 * {@link SpawnScheduler#MAX_WAIT_TICKS}.
+	 *
+	 * @throws InterruptedException
+	 * 		if the test is interrupted.
+	 */
+	@Test
+	public void testDeferred() throws InterruptedException {
+		//Keep the only worker busy, so the sprite is not loaded in the background.
+		CountDownLatch latch = new CountDownLatch(1);
+		jobs.submit("block", () -> {
+			try {
+				latch.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		Preloader.IMAGE_DATA.remove(SPRITE);
+
+		try {
+			spawner.request(request(0));
+			assertEquals(0, spawner.spawn(0, true).size());
+			assertEquals(1, spawner.getDeferred());
+			assertEquals(1, spawner.size());
+
+			assertEquals(1, spawner.spawn(SpawnScheduler.MAX_WAIT_TICKS, true).size());
+			assertEquals(0, spawner.size());
+		} finally {
+			latch.countDown();
+		}
+	}
+
+	/**
+	 * Tests that the sprite of a requested fish is loaded in the
+	 * background.
+	 *
+	 * @throws InterruptedException
+	 * 		if the test is interrupted.
+	 */
+	@Test
+	public void testPrefetch() throws InterruptedException {
+		Preloader.IMAGE_DATA.remove(SPRITE);
+		spawner.request(request(0));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!Preloader.isCached(SPRITE, false) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+
+		assertTrue(Preloader.isCached(SPRITE, false));
+		assertEquals(1, spawner.spawn(0, true).size());
+	}
+
+	/**
+	 * Tests {@link SpawnScheduler#clear()}.
+	 */
+	@Test
+	public void testClear() {
+		spawner.request(request(0));
+		spawner.request(request(0));
+		spawner.clear();
+
+		assertEquals(0, spawner.size());
+		assertEquals(0, spawner.spawn(0, false).size());
+	}
+}
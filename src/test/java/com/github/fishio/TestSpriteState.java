@@ -0,0 +1,70 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the SpriteState class.
+ */
+public class TestSpriteState {
+	private static final double M = SpriteState.BOUNDS_MARGIN;
+
+	/**
+	 * Tests the bounds of an unrotated state.
+	 */
+	@Test
+	public void testBounds() {
+		SpriteState state = new SpriteState(null, new BoundingBox(new Vec2d(100, 50), 40, 20), false);
+		double[] bounds = new double[4];
+		state.getBounds(1.0, bounds, 0);
+
+		assertArrayEquals(new double[] {80 - M, 40 - M, 120 + M, 60 + M}, bounds, 1E-9);
+	}
+
+	/**
+	 * Tests that the width and height of the bounds are swapped when the
+	 * state is rotated by 90 degrees.
+	 */
+	@Test
+	public void testBoundsRotated() {
+		BoundingBox box = new BoundingBox(new Vec2d(100, 50), 40, 20);
+		box.setRotation(90);
+		SpriteState state = new SpriteState(null, box, false);
+		double[] bounds = new double[8];
+		state.getBounds(1.0, bounds, 4);
+
+		assertArrayEquals(new double[] {90 - M, 30 - M, 110 + M, 70 + M},
+				new double[] {bounds[4], bounds[5], bounds[6], bounds[7]}, 1E-9);
+	}
+
+	/**
+	 * Tests that the position is interpolated between the previous and the
+	 * current position.
+	 */
+	@Test
+	public void testInterpolation() {
+		SpriteState state = new SpriteState(null, new BoundingBox(new Vec2d(100, 50), 40, 20), 90, 40, false);
+
+		assertEquals(90, state.getX(0.0), 1E-9);
+		assertEquals(95, state.getX(0.5), 1E-9);
+		assertEquals(100, state.getX(1.0), 1E-9);
+		assertEquals(45, state.getY(0.5), 1E-9);
+	}
+
+	/**
+	 * Tests {@link SpriteState#looksLike(SpriteState)}.
+	 */
+	@Test
+	public void testLooksLike() {
+		SpriteState a = new SpriteState(null, new BoundingBox(new Vec2d(100, 50), 40, 20), false);
+		SpriteState b = new SpriteState(null, new BoundingBox(new Vec2d(10, 5), 40, 20), false);
+		SpriteState c = new SpriteState(null, new BoundingBox(new Vec2d(100, 50), 40, 20), true);
+
+		assertTrue(a.looksLike(b));
+		assertFalse(a.looksLike(c));
+	}
+}
@@ -0,0 +1,239 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the TickPipeline and TickStage classes.
+ */
+public class TestTickPipeline {
+
+	private TickPipeline pipeline;
+	private List<String> log;
+
+	/**
+	 * Creates a new pipeline before each test.
+	 */
+	@Before
+	public void setUp() {
+		pipeline = new TickPipeline();
+		log = new ArrayList<>();
+	}
+
+	/**
+	 * Creates an action that adds the given name to the log.
+	 * 
+	 * @param name
+	 * 		the name to log.
+	 * 
+	 * @return
+	 * 		the action.
+	 */
+	private Runnable logger(String name) {
+		return () -> log.add(name);
+	}
+
+	/**
+	 * Tests that stages without constraints run in the order of adding.
+	 */
+	@Test
+	public void testAddOrder() {
+		pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"));
+		pipeline.add("c", logger("c"));
+		pipeline.run(0);
+
+		assertEquals(Arrays.asList("a", "b", "c"), log);
+	}
+
+	/**
+	 * Tests that the constraints of stages are respected.
+	 */
+	@Test
+	public void testConstraints() {
+		pipeline.add("c", logger("c"), "b");
+		pipeline.add(new TickStage("a", logger("a")).before("b"));
+		pipeline.add("b", logger("b"));
+		pipeline.add("d", logger("d"), "unknown");
+		pipeline.run(0);
+
+		assertEquals(Arrays.asList("a", "b", "c", "d"), log);
+	}
+
+	/**
+	 * Tests that a cycle in the constraints is rejected, and that the
+	 * pipeline is unchanged afterwards.
+	 */
+	@Test
+	public void testCycle() {
+		pipeline.add("a", logger("a"), "b");
+		try {
+			pipeline.add("b", logger("b"), "a");
+		} catch (IllegalStateException ex) {
+			pipeline.run(0);
+			assertEquals(Arrays.asList("a"), log);
+			return;
+		}
+
+		throw new AssertionError("The cycle was not detected!");
+	}
+
+	/**
+	 * Tests that the constraints of a stage cannot change while it is in a
+	 * pipeline, and that the order is unchanged afterwards.
+	 */
+	@Test
+	public void testConstraintAfterAdd() {
+		TickStage a = pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"));
+		try {
+			a.after("b");
+		} catch (IllegalStateException ex) {
+			pipeline.run(0);
+			assertEquals(Arrays.asList("a", "b"), log);
+			return;
+		}
+
+		throw new AssertionError("The constraint was added!");
+	}
+
+	/**
+	 * Tests that the constraints of a removed stage can be changed, and are
+	 * used when it is added again.
+	 */
+	@Test
+	public void testConstraintAfterRemove() {
+		TickStage a = pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"));
+		pipeline.remove("a");
+
+		pipeline.add(a.after("b"));
+		pipeline.run(0);
+		assertEquals(Arrays.asList("b", "a"), log);
+	}
+
+	/**
+	 * Tests that a stage cannot be in two pipelines.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testAddToTwoPipelines() {
+		TickStage a = pipeline.add("a", logger("a"));
+		new TickPipeline().add(a);
+	}
+
+	/**
+	 * Tests that two stages cannot have the same name.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicate() {
+		pipeline.add("a", logger("a"));
+		pipeline.add("a", logger("a"));
+	}
+
+	/**
+	 * Tests enabling and disabling stages.
+	 */
+	@Test
+	public void testEnabled() {
+		pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"));
+		pipeline.setEnabled("a", false);
+		pipeline.run(0);
+		pipeline.setEnabled("a", true);
+		pipeline.run(1);
+
+		assertEquals(Arrays.asList("b", "a", "b"), log);
+	}
+
+	/**
+	 * Tests running stages at a reduced rate.
+	 */
+	@Test
+	public void testInterval() {
+		pipeline.add("a", logger("a"));
+		pipeline.setInterval("a", 3);
+		for (int i = 0; i < 7; i++) {
+			pipeline.run(i);
+		}
+
+		assertEquals(3, log.size());
+		assertEquals(3, pipeline.get("a").getRuns());
+	}
+
+	/**
+	 * Tests replacing the action of a stage.
+	 */
+	@Test
+	public void testReplace() {
+		pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"));
+		pipeline.run(0);
+		pipeline.replace("a", logger("fast a"));
+		pipeline.run(1);
+
+		assertEquals(Arrays.asList("a", "b", "fast a", "b"), log);
+		assertEquals(1, pipeline.get("a").getRuns());
+	}
+
+	/**
+	 * Tests removing a stage.
+	 */
+	@Test
+	public void testRemove() {
+		pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"), "a");
+		pipeline.remove("a");
+		pipeline.run(0);
+
+		assertEquals(Arrays.asList("b"), log);
+	}
+
+	/**
+	 * Tests that every stage is timed.
+	 */
+	@Test
+	public void testTimings() {
+		pipeline.add("a", logger("a"));
+		pipeline.add("b", logger("b"));
+		pipeline.run(0);
+		pipeline.run(1);
+
+		assertEquals(Arrays.asList("a", "b"), new ArrayList<>(pipeline.getTimings().keySet()));
+		assertEquals(2, pipeline.get("b").getRuns());
+		assertTrue(pipeline.get("b").getTotalNanos() >= pipeline.get("b").getLastNanos());
+
+		pipeline.resetTimings();
+		assertEquals(0, pipeline.get("b").getRuns());
+		assertEquals(0.0, pipeline.get("b").getAverageNanos(), 0.0);
+	}
+
+	/**
+	 * Tests the default stages of a playing field.
+	 */
+	@Test
+	public void testPlayingFieldStages() {
+		HeadlessPlayingField pf = new HeadlessPlayingField(1L);
+		List<String> names = new ArrayList<>();
+		for (TickStage stage : pf.getPipeline().getStages()) {
+			names.add(stage.getName());
+		}
+
+		assertEquals(Arrays.asList(PlayingField.STAGE_PRE_LISTENERS, PlayingField.STAGE_INPUT,
+				PlayingField.STAGE_MOVE, PlayingField.STAGE_SPAWN, PlayingField.STAGE_PRE_COLLISIONS,
+				PlayingField.STAGE_COLLISIONS, PlayingField.STAGE_PRE_CLEANUP, PlayingField.STAGE_CLEANUP,
+				PlayingField.STAGE_PARTICLES, PlayingField.STAGE_EVENTS, PlayingField.STAGE_POST_LISTENERS,
+				PlayingField.STAGE_SNAPSHOT), names);
+
+		pf.getPipeline().add("custom", logger("custom"), PlayingField.STAGE_MOVE);
+		pf.step(2);
+		assertEquals(Arrays.asList("custom", "custom"), log);
+		assertEquals(2, pf.getPipeline().get(PlayingField.STAGE_MOVE).getRuns());
+	}
+}
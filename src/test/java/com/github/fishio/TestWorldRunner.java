@@ -0,0 +1,259 @@
+package com.github.fishio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the WorldRunner class.
+ */
+public class TestWorldRunner {
+
+	private WorldRunner runner;
+
+	/**
+	 * Creates a new runner before each test.
+	 */
+	@Before
+	public void setUp() {
+		runner = new WorldRunner(4, 16);
+	}
+
+	/**
+	 * Shuts the runner down after each test.
+	 */
+	@After
+	public void tearDown() {
+		runner.shutdown();
+	}
+
+	/**
+	 * Tests that all worlds run exactly their tick budget.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testTickBudget() throws InterruptedException {
+		for (int i = 0; i < 20; i++) {
+			runner.submit(new HeadlessPlayingField(i), 100);
+		}
+
+		assertTrue(runner.awaitCompletion(30, TimeUnit.SECONDS));
+		assertEquals(20, runner.getFinishedWorlds());
+		assertEquals(0, runner.getActiveWorlds());
+		assertEquals(0, runner.getFailedWorlds());
+		assertEquals(2000, runner.getTotalTicks());
+		assertTrue(runner.getTicksPerSecond() > 0.0);
+
+		for (WorldRunner.World world : runner.getWorlds()) {
+			assertTrue(world.isFinished());
+			assertEquals(100, world.getTicks());
+			assertEquals(100, world.getField().getTickCount());
+		}
+	}
+
+	/**
+	 * Tests that a world stops when its condition holds.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testCondition() throws InterruptedException {
+		WorldRunner.World world = runner.submit(new HeadlessPlayingField(1L), 1000, f -> f.getTickCount() >= 40);
+
+		assertTrue(runner.awaitCompletion(30, TimeUnit.SECONDS));
+		assertEquals(40, world.getTicks());
+	}
+
+	/**
+	 * Tests that a world that throws an exception is counted as failed.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testFailure() throws InterruptedException {
+		WorldRunner.World world = runner.submit(new HeadlessPlayingField(1L), 100, f -> {
+			throw new IllegalStateException();
+		});
+
+		assertTrue(runner.awaitCompletion(30, TimeUnit.SECONDS));
+		assertEquals(1, runner.getFailedWorlds());
+		assertNotNull(world.getFailure());
+		assertEquals(1, world.getTicks());
+	}
+
+	/**
+	 * Tests that running a world in the runner gives the same result as
+	 * stepping it on a single thread.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testDeterministic() throws InterruptedException {
+		HeadlessPlayingField single = new HeadlessPlayingField(7L);
+		single.step(200);
+
+		HeadlessPlayingField parallel = new HeadlessPlayingField(7L);
+		runner.submit(parallel, 200);
+		runner.submit(new HeadlessPlayingField(8L), 200);
+
+		assertTrue(runner.awaitCompletion(30, TimeUnit.SECONDS));
+		assertEquals(single.getPlayer().getBoundingArea().getCenterX(),
+				parallel.getPlayer().getBoundingArea().getCenterX(), 0.0);
+		assertEquals(single.getPlayer().isDead(), parallel.getPlayer().isDead());
+	}
+
+	/**
+	 * Tests that shutting down while worlds are in the middle of their
+	 * slices finishes every world, also the ones that are resubmitting
+	 * themselves at that moment.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testShutdownWhileRunning() throws InterruptedException {
+		for (int attempt = 0; attempt < 20; attempt++) {
+			WorldRunner busy = new WorldRunner(4, 1);
+			for (int i = 0; i < 8; i++) {
+				busy.submit(new HeadlessPlayingField(i), Long.MAX_VALUE);
+			}
+
+			Thread.sleep(5);
+			busy.shutdown();
+
+			assertTrue(busy.awaitCompletion(10, TimeUnit.SECONDS));
+			assertEquals(0, busy.getActiveWorlds());
+			assertEquals(8, busy.getFinishedWorlds());
+			for (WorldRunner.World world : busy.getWorlds()) {
+				assertTrue(world.isFinished());
+			}
+		}
+	}
+
+	/**
+	 * Tests that a world that can not be resubmitted, because the pool was
+	 * shut down during its slice, is still finished.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testResubmitRejected() throws InterruptedException {
+		RejectingPool pool = new RejectingPool();
+		WorldRunner rejecting = new WorldRunner(pool, 2);
+		try {
+			WorldRunner.World world = rejecting.submit(new HeadlessPlayingField(1L), 100, f -> {
+				//Like a shutdown by another thread, after the world has checked for it.
+				pool.rejecting = true;
+				return false;
+			});
+
+			assertTrue(rejecting.awaitCompletion(10, TimeUnit.SECONDS));
+			assertTrue(world.isFinished());
+			assertEquals(2, world.getTicks());
+			assertEquals(1, rejecting.getFinishedWorlds());
+		} finally {
+			rejecting.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that a world can not be submitted after the runner has been
+	 * shut down, and is not counted as active.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testSubmitAfterShutdown() throws InterruptedException {
+		runner.shutdown();
+		try {
+			runner.submit(new HeadlessPlayingField(1L), 100);
+		} catch (RejectedExecutionException ex) {
+			assertEquals(0, runner.getActiveWorlds());
+			assertFalse(runner.getWorlds().iterator().hasNext());
+			assertTrue(runner.awaitCompletion(0, TimeUnit.SECONDS));
+			return;
+		}
+
+		throw new AssertionError("The world was submitted!");
+	}
+
+	/**
+	 * Tests that a world that the pool rejects when it is submitted, because
+	 * the pool was shut down at that moment, is finished right away.
+	 * 
+	 * @throws InterruptedException
+	 * 		if interrupted while waiting.
+	 */
+	@Test
+	public void testSubmitRejected() throws InterruptedException {
+		RejectingPool pool = new RejectingPool();
+		pool.rejecting = true;
+		WorldRunner rejecting = new WorldRunner(pool, 2);
+		try {
+			rejecting.submit(new HeadlessPlayingField(1L), 100);
+			throw new AssertionError("The world was submitted!");
+		} catch (RejectedExecutionException ex) {
+			assertEquals(0, rejecting.getActiveWorlds());
+			assertEquals(1, rejecting.getFinishedWorlds());
+			assertTrue(rejecting.getWorlds().get(0).isFinished());
+			assertTrue(rejecting.awaitCompletion(0, TimeUnit.SECONDS));
+		} finally {
+			rejecting.shutdown();
+		}
+	}
+
+	/**
+	 * A pool that rejects new tasks once it is told to.
+	 */
+	private static final class RejectingPool extends ForkJoinPool {
+		private volatile boolean rejecting;
+
+		/**
+		 * Creates a new RejectingPool with a single thread.
+		 */
+		private RejectingPool() {
+			super(1);
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			if (rejecting) {
+				throw new RejectedExecutionException();
+			}
+			super.execute(task);
+		}
+	}
+
+	/**
+	 * Tests that a runner without worlds has no throughput.
+	 */
+	@Test
+	public void testNoWorlds() {
+		assertEquals(0.0, runner.getTicksPerSecond(), 0.0);
+		assertFalse(runner.getWorlds().iterator().hasNext());
+	}
+
+	/**
+	 * Tests that a runner with an empty slice cannot be created.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSlice() {
+		new WorldRunner(1, 0);
+	}
+}
@@ -1,5 +1,6 @@
 package com.github.fishio.gui;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -12,6 +13,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.github.fishio.PlayerFish;
+import com.github.fishio.RenderLayers;
 
 /**
  * Test for the Single Player Screen.
@@ -233,4 +235,16 @@ public class TestSinglePlayer extends GuiTest {
 		//The game should be running.
 		assertTrue(getSinglePlayerController().getPlayingField().isRunning());
 	}
+
+	/**
+	 * Tests that every layer of the single player screen has its own
+	 * canvas.
+	 */
+	@Test
+	public void testLayers() {
+		RenderLayers layers = getSinglePlayerController().getPlayingField().getRenderer().getLayers();
+		
+		assertTrue(layers.isLayered());
+		assertEquals(RenderLayers.Layer.values().length, layers.getCanvases().size());
+	}
 }
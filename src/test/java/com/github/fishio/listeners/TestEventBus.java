@@ -0,0 +1,175 @@
+package com.github.fishio.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.fishio.HeadlessPlayingField;
+import com.github.fishio.listeners.TickEvent.Phase;
+
+/**
+ * Tests the EventBus class.
+ */
+public class TestEventBus {
+
+	private EventBus bus;
+	private List<Object> received;
+
+	/**
+	 * Creates a new bus before each test.
+	 */
+	@Before
+	public void setUp() {
+		bus = new EventBus();
+		received = new ArrayList<>();
+	}
+
+	/**
+	 * Tests that listeners only receive events of their type.
+	 */
+	@Test
+	public void testTypes() {
+		TickEvent tick = new TickEvent(1, Phase.PRE_TICK, false);
+		SpawnEvent spawn = new SpawnEvent(1, null);
+
+		bus.subscribe(TickEvent.class, received::add);
+		bus.publish(tick);
+		bus.publish(spawn);
+
+		assertEquals(Arrays.asList(tick), received);
+	}
+
+	/**
+	 * Tests that listeners of a supertype receive all events of subtypes.
+	 */
+	@Test
+	public void testSupertype() {
+		TickEvent tick = new TickEvent(1, Phase.PRE_TICK, false);
+		SpawnEvent spawn = new SpawnEvent(1, null);
+
+		bus.subscribe(GameEvent.class, received::add);
+		bus.publish(tick);
+		bus.publish(spawn);
+
+		assertEquals(Arrays.asList(tick, spawn), received);
+	}
+
+	/**
+	 * Tests unsubscribing.
+	 */
+	@Test
+	public void testUnsubscribe() {
+		EventListener<TickEvent> listener = received::add;
+		bus.subscribe(TickEvent.class, listener);
+
+		assertTrue(bus.unsubscribe(TickEvent.class, listener));
+		assertFalse(bus.unsubscribe(TickEvent.class, listener));
+
+		bus.publish(new TickEvent(1, Phase.PRE_TICK, false));
+		assertTrue(received.isEmpty());
+	}
+
+	/**
+	 * Tests that posted events are only dispatched when flushed, in order.
+	 */
+	@Test
+	public void testBatched() {
+		SpawnEvent spawn1 = new SpawnEvent(1, null);
+		SpawnEvent spawn2 = new SpawnEvent(2, null);
+
+		bus.subscribe(SpawnEvent.class, received::add);
+		bus.post(spawn1);
+		bus.post(spawn2);
+
+		assertTrue(received.isEmpty());
+		assertTrue(bus.hasQueuedEvents());
+		assertEquals(2, bus.flush());
+		assertEquals(Arrays.asList(spawn1, spawn2), received);
+		assertFalse(bus.hasQueuedEvents());
+	}
+
+	/**
+	 * Tests that a failing listener does not stop the other listeners, and
+	 * that the failure is counted.
+	 */
+	@Test
+	public void testFailure() {
+		IllegalStateException ex = new IllegalStateException();
+		bus.subscribe(TickEvent.class, e -> {
+			throw ex;
+		});
+		bus.subscribe(TickEvent.class, received::add);
+
+		bus.publish(new TickEvent(1, Phase.PRE_TICK, false));
+
+		assertEquals(1, received.size());
+		assertEquals(1, bus.getFailures());
+		assertEquals(2, bus.getDispatched());
+		assertSame(ex, bus.getLastFailure());
+	}
+
+	/**
+	 * Tests that a listener can subscribe another listener while an event
+	 * is dispatched, without affecting that dispatch.
+	 */
+	@Test
+	public void testSubscribeDuringDispatch() {
+		bus.subscribe(TickEvent.class, e -> bus.subscribe(TickEvent.class, received::add));
+
+		bus.publish(new TickEvent(1, Phase.PRE_TICK, false));
+		assertTrue(received.isEmpty());
+
+		bus.publish(new TickEvent(2, Phase.PRE_TICK, false));
+		assertEquals(1, received.size());
+	}
+
+	/**
+	 * Tests that a playing field fires events, and only calls the game
+	 * listeners on game ticks.
+	 */
+	@Test
+	public void testPlayingField() {
+		HeadlessPlayingField pf = new HeadlessPlayingField(1L);
+		List<String> calls = new ArrayList<>();
+		TickListener game = new TickListener() {
+			@Override
+			public void preTick() {
+				calls.add("pre");
+			}
+
+			@Override
+			public void postTick() {
+				calls.add("post");
+			}
+		};
+		TickListener render = new TickListener() {
+			@Override
+			public void preTick() {
+				calls.add("render");
+			}
+
+			@Override
+			public void postTick() { }
+		};
+
+		pf.registerGameListener(game);
+		pf.registerRenderListener(render);
+		pf.getEvents().subscribe(SpawnEvent.class, received::add);
+		pf.step(1);
+
+		assertEquals(Arrays.asList("pre", "post"), calls);
+		assertFalse(received.isEmpty());
+
+		pf.unregisterGameListener(game);
+		pf.step(1);
+		assertEquals(2, calls.size());
+	}
+}